@@ -3,6 +3,7 @@ package com.rentmaster.analytics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
 import java.util.Map;
 
@@ -193,6 +194,30 @@ public class AnalyticsController {
         }
     }
     
+    /**
+     * Stream a saved custom report as CSV
+     */
+    @GetMapping("/custom-reports/{id}/export")
+    public ResponseEntity<StreamingResponseBody> exportCustomReport(@PathVariable Long id) {
+        try {
+            StreamingResponseBody body = analyticsService.exportCustomReport(id);
+            return ResponseEntity.ok()
+                    .header("Content-Type", "text/csv; charset=UTF-8")
+                    .header("Content-Disposition", "attachment; filename=custom-report-" + id + ".csv")
+                    .body(body);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Sources, dimensions and measures available to custom reports
+     */
+    @GetMapping("/custom-reports/catalog")
+    public ResponseEntity<Map<String, Object>> getCustomReportCatalog() {
+        return ResponseEntity.ok(analyticsService.getCustomReportCatalog());
+    }
+    
     /**
      * Get KPI metrics
      */
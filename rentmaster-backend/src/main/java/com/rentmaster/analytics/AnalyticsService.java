@@ -1,121 +1,82 @@
 package com.rentmaster.analytics;
 
-import com.rentmaster.billing.Invoice;
-import com.rentmaster.billing.InvoiceRepository;
-import com.rentmaster.billing.Payment;
-import com.rentmaster.billing.PaymentRepository;
-import com.rentmaster.contract.Contract;
-import com.rentmaster.contract.ContractRepository;
-import com.rentmaster.contract.ContractStatus;
-import com.rentmaster.financial.Expense;
-import com.rentmaster.financial.ExpenseRepository;
-import com.rentmaster.maintenance.MaintenanceRequest;
-import com.rentmaster.maintenance.MaintenanceRequestRepository;
-import com.rentmaster.property.Property;
-import com.rentmaster.property.PropertyRepository;
-import com.rentmaster.property.Room;
-import com.rentmaster.property.RoomRepository;
-import com.rentmaster.property.RoomStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rentmaster.datasource.ReadReplica;
+import com.rentmaster.multitenancy.OrganizationScope;
+import com.rentmaster.user.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
-@Transactional
+@Transactional(readOnly = true)
+@ReadReplica
 public class AnalyticsService {
     
     @Autowired
-    private InvoiceRepository invoiceRepository;
+    private PropertyCube propertyCube;
     
     @Autowired
-    private PaymentRepository paymentRepository;
+    private ForecastingEngine forecastingEngine;
     
     @Autowired
-    private ContractRepository contractRepository;
+    private CustomReportEngine customReportEngine;
     
     @Autowired
-    private ExpenseRepository expenseRepository;
+    private CustomReportRepository customReportRepository;
     
     @Autowired
-    private PropertyRepository propertyRepository;
+    private OrganizationScope organizationScope;
     
     @Autowired
-    private RoomRepository roomRepository;
+    private UserRepository userRepository;
     
-    @Autowired(required = false)
-    private MaintenanceRequestRepository maintenanceRequestRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
     
     public Map<String, Object> getDashboardAnalytics(int months, Long propertyId) {
         Map<String, Object> result = new HashMap<>();
-        LocalDate startDate = LocalDate.now().minusMonths(months);
-        LocalDate endDate = LocalDate.now();
-        
-        // Calculate revenue from invoices
-        List<Invoice> invoices = invoiceRepository.findAll().stream()
-            .filter(i -> {
-                if (propertyId != null) {
-                    return i.getContract() != null && 
-                           i.getContract().getRoom() != null &&
-                           i.getContract().getRoom().getProperty() != null &&
-                           i.getContract().getRoom().getProperty().getId() != null &&
-                           i.getContract().getRoom().getProperty().getId().equals(propertyId);
-                }
-                return true;
-            })
-            .filter(i -> i.getPeriodStart() != null && 
-                        i.getPeriodStart().isAfter(startDate.minusDays(1)) &&
-                        i.getPeriodStart().isBefore(endDate.plusDays(1)))
-            .collect(Collectors.toList());
-        
-        double totalRevenue = invoices.stream()
-            .mapToDouble(i -> i.getTotalAmount() != null ? i.getTotalAmount().doubleValue() : 0.0)
-            .sum();
-        
-        // Calculate expenses
-        List<Expense> expenses = expenseRepository.findAll().stream()
-            .filter(e -> {
-                if (propertyId != null) {
-                    return e.getPropertyId() != null && e.getPropertyId().equals(propertyId);
-                }
-                return true;
-            })
-            .filter(e -> e.getExpenseDate() != null &&
-                        e.getExpenseDate().isAfter(startDate.minusDays(1)) &&
-                        e.getExpenseDate().isBefore(endDate.plusDays(1)))
-            .collect(Collectors.toList());
-        
-        double totalExpenses = expenses.stream()
-            .mapToDouble(e -> e.getAmount() != null ? e.getAmount() : 0.0)
-            .sum();
-        
-        // Calculate occupancy
-        List<Room> allRooms = propertyId != null 
-            ? roomRepository.findByPropertyId(propertyId)
-            : roomRepository.findAll();
-        
-        long totalRooms = allRooms.size();
-        long occupiedRooms = allRooms.stream()
-            .filter(r -> r.getStatus() == RoomStatus.OCCUPIED)
-            .count();
-        
-        double occupancyRate = totalRooms > 0 ? (occupiedRooms * 100.0 / totalRooms) : 0.0;
-        
-        // Calculate net profit
+        YearMonth to = YearMonth.now();
+        YearMonth from = to.minusMonths(months - 1);
+
+        double totalRevenue = propertyCube.value(PropertyCube.Metric.REVENUE, propertyId, from, to);
+        double totalExpenses = propertyCube.value(PropertyCube.Metric.EXPENSES, propertyId, from, to);
         double netProfit = totalRevenue - totalExpenses;
-        
-        // Calculate growth (simplified - compare with previous period)
-        LocalDate prevStartDate = startDate.minusMonths(months);
-        double prevRevenue = calculateRevenueForPeriod(prevStartDate, startDate, propertyId);
+
+        // Current occupancy follows room status; its change compares contract occupancy over the window
+        int[] rooms = propertyCube.roomCounts(propertyId);
+        long totalRooms = rooms[0];
+        long occupiedRooms = rooms[1];
+        double occupancyRate = totalRooms > 0 ? (occupiedRooms * 100.0 / totalRooms) : 0.0;
+        double[] occupancy = propertyCube.series(PropertyCube.Metric.OCCUPANCY, propertyId, from, to);
+        double occupancyChange = occupancy.length > 1 ? occupancy[occupancy.length - 1] - occupancy[0] : 0.0;
+
+        // Growth compares with the preceding window of the same length, as far as the cube reaches back
+        YearMonth prevTo = from.minusMonths(1);
+        YearMonth prevFrom = from.minusMonths(months);
+        if (prevFrom.isBefore(propertyCube.firstMonth())) {
+            prevFrom = propertyCube.firstMonth();
+        }
+        double prevRevenue = 0.0;
+        double prevExpenses = 0.0;
+        if (!prevTo.isBefore(prevFrom)) {
+            prevRevenue = propertyCube.value(PropertyCube.Metric.REVENUE, propertyId, prevFrom, prevTo);
+            prevExpenses = propertyCube.value(PropertyCube.Metric.EXPENSES, propertyId, prevFrom, prevTo);
+        }
         double revenueGrowth = prevRevenue > 0 ? ((totalRevenue - prevRevenue) / prevRevenue) * 100 : 0;
-        
-        double prevExpenses = calculateExpensesForPeriod(prevStartDate, startDate, propertyId);
         double expenseGrowth = prevExpenses > 0 ? ((totalExpenses - prevExpenses) / prevExpenses) * 100 : 0;
         
         result.put("totalRevenue", totalRevenue);
@@ -129,45 +90,11 @@ public class AnalyticsService {
         result.put("profitGrowth", prevRevenue - prevExpenses > 0 
             ? Math.round(((netProfit - (prevRevenue - prevExpenses)) / (prevRevenue - prevExpenses)) * 100 * 100.0) / 100.0 
             : 0);
-        result.put("occupancyChange", 0.0); // Can be calculated from historical data
+        result.put("occupancyChange", Math.round(occupancyChange * 100.0) / 100.0);
         
         return result;
     }
     
-    private double calculateRevenueForPeriod(LocalDate start, LocalDate end, Long propertyId) {
-        return invoiceRepository.findAll().stream()
-            .filter(i -> {
-                if (propertyId != null) {
-                    return i.getContract() != null && 
-                           i.getContract().getRoom() != null &&
-                           i.getContract().getRoom().getProperty() != null &&
-                           i.getContract().getRoom().getProperty().getId() != null &&
-                           i.getContract().getRoom().getProperty().getId().equals(propertyId);
-                }
-                return true;
-            })
-            .filter(i -> i.getPeriodStart() != null && 
-                        i.getPeriodStart().isAfter(start.minusDays(1)) &&
-                        i.getPeriodStart().isBefore(end.plusDays(1)))
-            .mapToDouble(i -> i.getTotalAmount() != null ? i.getTotalAmount().doubleValue() : 0.0)
-            .sum();
-    }
-    
-    private double calculateExpensesForPeriod(LocalDate start, LocalDate end, Long propertyId) {
-        return expenseRepository.findAll().stream()
-            .filter(e -> {
-                if (propertyId != null) {
-                    return e.getPropertyId() != null && e.getPropertyId().equals(propertyId);
-                }
-                return true;
-            })
-            .filter(e -> e.getExpenseDate() != null &&
-                        e.getExpenseDate().isAfter(start.minusDays(1)) &&
-                        e.getExpenseDate().isBefore(end.plusDays(1)))
-            .mapToDouble(e -> e.getAmount() != null ? e.getAmount() : 0.0)
-            .sum();
-    }
-    
     public Map<String, Object> getRevenueAnalytics(int months, Long propertyId, String granularity) {
         Map<String, Object> result = new HashMap<>();
         // Implementation similar to getDashboardAnalytics but with time series data
@@ -198,74 +125,245 @@ public class AnalyticsService {
     
     public Map<String, Object> getComparativeAnalytics(String currentPeriod, String comparisonPeriod, Long propertyId) {
         Map<String, Object> result = new HashMap<>();
-        // Implementation for comparative analytics
+        YearMonth[] current = parsePeriod(currentPeriod);
+        YearMonth[] comparison = parsePeriod(comparisonPeriod);
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        for (PropertyCube.Metric metric : PropertyCube.Metric.values()) {
+            double currentValue = propertyCube.value(metric, propertyId, current[0], current[1]);
+            double comparisonValue = propertyCube.value(metric, propertyId, comparison[0], comparison[1]);
+            Map<String, Object> values = new HashMap<>();
+            values.put("current", round(currentValue));
+            values.put("comparison", round(comparisonValue));
+            values.put("change", round(currentValue - comparisonValue));
+            values.put("changePercent", comparisonValue != 0
+                ? round((currentValue - comparisonValue) / Math.abs(comparisonValue) * 100) : null);
+            metrics.put(metric.name().toLowerCase(), values);
+        }
+
+        result.put("currentPeriod", Map.of("label", currentPeriod, "from", current[0].toString(), "to", current[1].toString()));
+        result.put("comparisonPeriod", Map.of("label", comparisonPeriod, "from", comparison[0].toString(), "to", comparison[1].toString()));
+        result.put("metrics", metrics);
         return result;
     }
+
+    /**
+     * First and last month of a period given as "2024", "2024-Q3" or "2024-07", or as
+     * current_/previous_ month, quarter or year.
+     */
+    private YearMonth[] parsePeriod(String period) {
+        YearMonth now = YearMonth.now();
+        YearMonth quarterStart = YearMonth.of(now.getYear(), (now.getMonthValue() - 1) / 3 * 3 + 1);
+        String value = period == null ? "" : period.trim().toUpperCase();
+        switch (value) {
+            case "CURRENT_MONTH":
+                return new YearMonth[] {now, now};
+            case "PREVIOUS_MONTH":
+                return new YearMonth[] {now.minusMonths(1), now.minusMonths(1)};
+            case "CURRENT_QUARTER":
+                return new YearMonth[] {quarterStart, quarterStart.plusMonths(2)};
+            case "PREVIOUS_QUARTER":
+                return new YearMonth[] {quarterStart.minusMonths(3), quarterStart.minusMonths(1)};
+            case "CURRENT_YEAR":
+                return new YearMonth[] {YearMonth.of(now.getYear(), 1), YearMonth.of(now.getYear(), 12)};
+            case "PREVIOUS_YEAR":
+                return new YearMonth[] {YearMonth.of(now.getYear() - 1, 1), YearMonth.of(now.getYear() - 1, 12)};
+            default:
+                break;
+        }
+        try {
+            if (value.matches("\\d{4}")) {
+                int year = Integer.parseInt(value);
+                return new YearMonth[] {YearMonth.of(year, 1), YearMonth.of(year, 12)};
+            }
+            if (value.matches("\\d{4}-Q[1-4]")) {
+                YearMonth start = YearMonth.of(Integer.parseInt(value.substring(0, 4)), (value.charAt(6) - '1') * 3 + 1);
+                return new YearMonth[] {start, start.plusMonths(2)};
+            }
+            YearMonth month = YearMonth.parse(value);
+            return new YearMonth[] {month, month};
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Invalid period: " + period);
+        }
+    }
     
     public Map<String, Object> getForecasting(int forecastMonths, Long propertyId, String metrics) {
         Map<String, Object> result = new HashMap<>();
-        
-        // Get current data
-        Map<String, Object> currentData = getDashboardAnalytics(12, propertyId);
-        double currentRevenue = ((Number) currentData.get("totalRevenue")).doubleValue();
-        double currentOccupancy = ((Number) currentData.get("occupancyRate")).doubleValue();
-        double currentExpenses = ((Number) currentData.get("totalExpenses")).doubleValue();
-        
-        // Simple linear forecasting (can be enhanced with ML models)
-        List<Double> revenueForecast = new ArrayList<>();
-        List<Double> occupancyForecast = new ArrayList<>();
-        List<Double> expenseForecast = new ArrayList<>();
+        Set<String> requested = metrics == null || metrics.isBlank()
+            ? Set.of("revenue", "occupancy", "expenses")
+            : Arrays.stream(metrics.split(",")).map(m -> m.trim().toLowerCase()).collect(Collectors.toSet());
+
+        if (requested.contains("revenue")) {
+            putForecast(result, "revenue", "Revenue",
+                forecastingEngine.forecast(ForecastingEngine.Metric.REVENUE, propertyId, forecastMonths));
+        }
+        if (requested.contains("occupancy")) {
+            putForecast(result, "occupancy", "Occupancy",
+                forecastingEngine.forecast(ForecastingEngine.Metric.OCCUPANCY, propertyId, forecastMonths));
+        }
+        if (requested.contains("expenses")) {
+            putForecast(result, "expense", "Expenses",
+                forecastingEngine.forecast(ForecastingEngine.Metric.EXPENSES, propertyId, forecastMonths));
+        }
+        if (requested.contains("maintenance")) {
+            putForecast(result, "maintenance", "MaintenanceCosts",
+                forecastingEngine.forecast(ForecastingEngine.Metric.MAINTENANCE_COSTS, propertyId, forecastMonths));
+        }
+
+        // Forecasts start with the current (incomplete) month
         List<String> periods = new ArrayList<>();
-        
-        double revenueGrowthRate = 0.02; // 2% monthly growth
-        double occupancyGrowthRate = 0.01; // 1% monthly growth
-        double expenseGrowthRate = 0.015; // 1.5% monthly growth
-        
-        for (int i = 1; i <= forecastMonths; i++) {
-            LocalDate forecastDate = LocalDate.now().plusMonths(i);
-            periods.add(forecastDate.getYear() + "-" + String.format("%02d", forecastDate.getMonthValue()));
-            
-            revenueForecast.add(currentRevenue * Math.pow(1 + revenueGrowthRate, i));
-            occupancyForecast.add(Math.min(100, currentOccupancy * Math.pow(1 + occupancyGrowthRate, i)));
-            expenseForecast.add(currentExpenses * Math.pow(1 + expenseGrowthRate, i));
+        for (int i = 0; i < forecastMonths; i++) {
+            periods.add(YearMonth.now().plusMonths(i).toString());
         }
-        
-        result.put("currentRevenue", currentRevenue);
-        result.put("currentOccupancy", currentOccupancy);
-        result.put("currentExpenses", currentExpenses);
-        result.put("revenueForecast", revenueForecast);
-        result.put("occupancyForecast", occupancyForecast);
-        result.put("expenseForecast", expenseForecast);
         result.put("periods", periods);
-        result.put("revenueConfidence", 0.85);
-        result.put("occupancyConfidence", 0.80);
-        result.put("expenseConfidence", 0.75);
-        
         return result;
     }
+
+    // Keys follow the existing response shape: currentRevenue, revenueForecast, revenueConfidence, ...
+    private void putForecast(Map<String, Object> result, String key, String currentKey, ForecastingEngine.Forecast forecast) {
+        result.put("current" + currentKey, forecast.getLastActual());
+        result.put(key + "Forecast", toList(forecast.getValues()));
+        result.put(key + "Lower", toList(forecast.getLower()));
+        result.put(key + "Upper", toList(forecast.getUpper()));
+        result.put(key + "Confidence", ForecastingEngine.CONFIDENCE_LEVEL);
+        result.put(key + "Model", forecast.toMap().get("model"));
+    }
+
+    private List<Double> toList(double[] values) {
+        return Arrays.stream(values).boxed().collect(Collectors.toList());
+    }
     
     public Map<String, Object> getPropertyHeatmap(String metric, int months) {
         Map<String, Object> result = new HashMap<>();
-        // Implementation for property heatmap
+        PropertyCube.Metric cubeMetric = PropertyCube.Metric.parse(metric);
+        YearMonth to = YearMonth.now();
+        PropertyCube.Heatmap heatmap = propertyCube.heatmap(cubeMetric, to.minusMonths(months - 1), to);
+
+        double[][] values = heatmap.getValues();
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        List<Map<String, Object>> properties = new ArrayList<>(values.length);
+        for (int row = 0; row < values.length; row++) {
+            List<Double> cells = new ArrayList<>(values[row].length);
+            double total = 0.0;
+            for (double value : values[row]) {
+                cells.add(round(value));
+                total += value;
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            Map<String, Object> property = new HashMap<>();
+            property.put("propertyId", heatmap.getPropertyIds()[row]);
+            property.put("propertyName", heatmap.getNames()[row]);
+            property.put("values", cells);
+            property.put("total", round(cubeMetric == PropertyCube.Metric.OCCUPANCY && cells.size() > 0
+                ? total / cells.size() : total));
+            properties.add(property);
+        }
+
+        result.put("metric", cubeMetric.name().toLowerCase());
+        result.put("labels", heatmap.getMonths().stream().map(YearMonth::toString).toList());
+        result.put("properties", properties);
+        result.put("min", properties.isEmpty() ? 0.0 : round(min));
+        result.put("max", properties.isEmpty() ? 0.0 : round(max));
         return result;
     }
     
+    @Transactional
+    @SuppressWarnings("unchecked")
     public Map<String, Object> createCustomReport(Map<String, Object> reportConfig) {
-        Map<String, Object> result = new HashMap<>();
-        // Implementation for custom reports
-        return result;
+        Object name = reportConfig.get("name");
+        if (name == null || name.toString().isBlank()) {
+            throw new RuntimeException("Report name is required");
+        }
+        // The definition may be nested or given inline next to the name
+        Map<String, Object> definition = reportConfig.get("definition") instanceof Map<?, ?> nested
+            ? (Map<String, Object>) nested : reportConfig;
+        CustomReportQuery query = customReportEngine.compile(definition);
+
+        CustomReport report = new CustomReport();
+        report.setName(name.toString());
+        report.setDescription(reportConfig.get("description") != null ? reportConfig.get("description").toString() : null);
+        report.setDefinition(toJson(query.toDefinition()));
+        report.setDefinitionHash(query.getHash());
+        report.setCreatedBy(currentUserId());
+        return toReportMap(customReportRepository.save(report));
     }
     
     public List<Map<String, Object>> getCustomReports(int page, int size) {
-        return new ArrayList<>();
+        return customReportRepository.findAllNewestFirst(PageRequest.of(page, Math.min(Math.max(size, 1), 100)))
+            .map(this::toReportMap)
+            .getContent();
     }
     
+    // Not transactional: the request thread must not hold a connection while the report pool runs the query
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, Object> executeCustomReport(Long id) {
-        Map<String, Object> result = new HashMap<>();
-        // Implementation for executing custom reports
+        CustomReport report = customReportRepository.findScopedById(id)
+            .orElseThrow(() -> new RuntimeException("Custom report not found"));
+        Map<String, Object> result = customReportEngine.execute(
+            customReportEngine.compile(fromJson(report.getDefinition())), organizationScope.currentOrganizationId());
+        if (!Boolean.TRUE.equals(result.get("cached"))) {
+            customReportRepository.recordExecution(id, LocalDateTime.now());
+        }
+        result.put("reportId", id);
+        result.put("name", report.getName());
         return result;
     }
     
+    /**
+     * Streams a saved report as CSV. The definition and organization are resolved here,
+     * on the request thread, before the body is written asynchronously.
+     */
+    public StreamingResponseBody exportCustomReport(Long id) {
+        CustomReport report = customReportRepository.findScopedById(id)
+            .orElseThrow(() -> new RuntimeException("Custom report not found"));
+        CustomReportQuery query = customReportEngine.compileForExport(fromJson(report.getDefinition()));
+        Long organizationId = organizationScope.currentOrganizationId();
+        return out -> customReportEngine.exportCsv(query, organizationId, out);
+    }
+    
+    public Map<String, Object> getCustomReportCatalog() {
+        return CustomReportQuery.catalog();
+    }
+    
+    private Map<String, Object> toReportMap(CustomReport report) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", report.getId());
+        map.put("name", report.getName());
+        map.put("description", report.getDescription());
+        map.put("definition", fromJson(report.getDefinition()));
+        map.put("createdBy", report.getCreatedBy());
+        map.put("createdAt", report.getCreatedAt());
+        map.put("lastExecuted", report.getLastExecuted());
+        map.put("executionCount", report.getExecutionCount());
+        return map;
+    }
+    
+    private String toJson(Map<String, Object> value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Invalid report definition");
+        }
+    }
+    
+    private Map<String, Object> fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Stored report definition is not valid JSON");
+        }
+    }
+    
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return null;
+        }
+        return userRepository.findByUsername(authentication.getName()).map(user -> user.getId()).orElse(null);
+    }
+    
     public Map<String, Object> getKPIMetrics(Long propertyId, String period) {
         Map<String, Object> result = new HashMap<>();
         
@@ -293,41 +391,15 @@ public class AnalyticsService {
     
     public Map<String, Object> getTrendAnalysis(String metric, int months, Long propertyId) {
         Map<String, Object> result = new HashMap<>();
-        LocalDate startDate = LocalDate.now().minusMonths(months);
-        LocalDate endDate = LocalDate.now();
-        
-        List<Double> values = new ArrayList<>();
-        List<String> labels = new ArrayList<>();
-        
-        // Generate monthly data points
-        LocalDate current = startDate;
-        while (!current.isAfter(endDate)) {
-            LocalDate monthStart = current.withDayOfMonth(1);
-            LocalDate monthEnd = current.withDayOfMonth(current.lengthOfMonth());
-            
-            double value = 0.0;
-            if (metric.equals("revenue")) {
-                value = calculateRevenueForPeriod(monthStart, monthEnd, propertyId);
-            } else if (metric.equals("expenses")) {
-                value = calculateExpensesForPeriod(monthStart, monthEnd, propertyId);
-            } else if (metric.equals("profit")) {
-                value = calculateRevenueForPeriod(monthStart, monthEnd, propertyId) - 
-                        calculateExpensesForPeriod(monthStart, monthEnd, propertyId);
-            } else if (metric.equals("occupancy")) {
-                // Calculate occupancy for the month
-                List<Room> rooms = propertyId != null 
-                    ? roomRepository.findByPropertyId(propertyId)
-                    : roomRepository.findAll();
-                long occupied = rooms.stream()
-                    .filter(r -> r.getStatus() == RoomStatus.OCCUPIED)
-                    .count();
-                value = rooms.size() > 0 ? (occupied * 100.0 / rooms.size()) : 0;
-            }
-            
-            values.add(value);
-            labels.add(monthStart.getYear() + "-" + String.format("%02d", monthStart.getMonthValue()));
-            
-            current = current.plusMonths(1);
+        YearMonth to = YearMonth.now();
+        YearMonth from = to.minusMonths(months);
+        double[] series = propertyCube.series(PropertyCube.Metric.parse(metric), propertyId, from, to);
+
+        List<Double> values = new ArrayList<>(series.length);
+        List<String> labels = new ArrayList<>(series.length);
+        for (int i = 0; i < series.length; i++) {
+            values.add(series[i]);
+            labels.add(from.plusMonths(i).toString());
         }
         
         // Calculate statistics
@@ -349,6 +421,10 @@ public class AnalyticsService {
         
         return result;
     }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
     
     public byte[] exportAnalytics(Map<String, Object> exportConfig) {
         // Implementation for exporting analytics data
@@ -0,0 +1,102 @@
+package com.rentmaster.analytics;
+
+import com.rentmaster.billing.Invoice;
+import com.rentmaster.billing.Payment;
+import com.rentmaster.contract.Contract;
+import com.rentmaster.financial.Expense;
+import com.rentmaster.maintenance.MaintenanceRequest;
+import com.rentmaster.property.Property;
+import com.rentmaster.property.PropertyAnalytics;
+import com.rentmaster.property.Room;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tells {@link PropertyCube} which properties a transaction touched. Keys are collected
+ * per transaction at flush and handed over once after commit; invoices, payments and
+ * contracts are reported by their parent's id, which the cube resolves to a property,
+ * so no lazy association is loaded during the flush.
+ */
+public class CubeChangeListener {
+
+    @Autowired
+    private PropertyCube propertyCube;
+
+    private static final class Changes implements TransactionSynchronization {
+        private final PropertyCube cube;
+        private final Set<Long> propertyIds = new HashSet<>();
+        private final Set<Long> roomIds = new HashSet<>();
+        private final Set<Long> contractIds = new HashSet<>();
+        private final Set<Long> invoiceIds = new HashSet<>();
+        private boolean structural;
+
+        private Changes(PropertyCube cube) {
+            this.cube = cube;
+        }
+
+        @Override
+        public void afterCommit() {
+            cube.changed(propertyIds, roomIds, contractIds, invoiceIds, structural);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CubeChangeListener.class);
+        }
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Object entity) {
+        if (propertyCube == null) {
+            return;
+        }
+        Changes changes;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            changes = (Changes) TransactionSynchronizationManager.getResource(CubeChangeListener.class);
+            if (changes == null) {
+                changes = new Changes(propertyCube);
+                TransactionSynchronizationManager.bindResource(CubeChangeListener.class, changes);
+                TransactionSynchronizationManager.registerSynchronization(changes);
+            }
+        } else {
+            changes = new Changes(propertyCube);
+        }
+
+        if (entity instanceof Invoice invoice) {
+            addId(changes.contractIds, invoice.getContract() != null ? invoice.getContract().getId() : null);
+        } else if (entity instanceof Payment payment) {
+            addId(changes.invoiceIds, payment.getInvoice() != null ? payment.getInvoice().getId() : null);
+        } else if (entity instanceof Contract contract) {
+            addId(changes.roomIds, contract.getRoom() != null ? contract.getRoom().getId() : null);
+        } else if (entity instanceof Room room) {
+            addId(changes.propertyIds, room.getProperty() != null ? room.getProperty().getId() : null);
+        } else if (entity instanceof Expense expense) {
+            addId(changes.propertyIds, expense.getPropertyId());
+        } else if (entity instanceof MaintenanceRequest request) {
+            addId(changes.propertyIds, request.getPropertyId());
+        } else if (entity instanceof PropertyAnalytics analytics) {
+            addId(changes.propertyIds, analytics.getPropertyId());
+        } else if (entity instanceof Property) {
+            changes.structural = true;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changes.afterCommit();
+        }
+    }
+
+    private static void addId(Set<Long> ids, Long id) {
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.rentmaster.analytics;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.rentmaster.multitenancy.Organization;
+import com.rentmaster.multitenancy.OrganizationAssignmentListener;
+import com.rentmaster.multitenancy.OrganizationOwned;
+import com.rentmaster.multitenancy.OrganizationScope;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Filter;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "custom_reports")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@EntityListeners(OrganizationAssignmentListener.class)
+@Filter(name = OrganizationScope.FILTER_NAME)
+public class CustomReport implements OrganizationOwned {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "organization_id")
+    private Organization organization;
+    
+    @Column(name = "name", nullable = false)
+    private String name;
+    
+    @Column(name = "description", columnDefinition = "TEXT")
+    private String description;
+    
+    @Column(name = "definition", nullable = false, columnDefinition = "TEXT")
+    private String definition; // Normalized JSON, see CustomReportQuery
+    
+    @Column(name = "definition_hash", nullable = false, length = 64)
+    private String definitionHash;
+    
+    @Column(name = "created_by")
+    private Long createdBy;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "last_executed")
+    private LocalDateTime lastExecuted;
+    
+    @Column(name = "execution_count", nullable = false)
+    private Integer executionCount = 0;
+    
+    public CustomReport() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Organization getOrganization() { return organization; }
+    public void setOrganization(Organization organization) { this.organization = organization; }
+    
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    
+    public String getDefinition() { return definition; }
+    public void setDefinition(String definition) { this.definition = definition; }
+    
+    public String getDefinitionHash() { return definitionHash; }
+    public void setDefinitionHash(String definitionHash) { this.definitionHash = definitionHash; }
+    
+    public Long getCreatedBy() { return createdBy; }
+    public void setCreatedBy(Long createdBy) { this.createdBy = createdBy; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    public LocalDateTime getLastExecuted() { return lastExecuted; }
+    public void setLastExecuted(LocalDateTime lastExecuted) { this.lastExecuted = lastExecuted; }
+    
+    public Integer getExecutionCount() { return executionCount; }
+    public void setExecutionCount(Integer executionCount) { this.executionCount = executionCount; }
+}
@@ -0,0 +1,346 @@
+package com.rentmaster.analytics;
+
+import com.rentmaster.datasource.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs compiled {@link CustomReportQuery} reports.
+ *
+ * Reports execute on a small bounded pool in read-only transactions with a server-side
+ * {@code statement_timeout} and a row cap, so ad-hoc reporting cannot tie up the
+ * request threads or the connection pool. Results are cached per organization and
+ * normalized definition hash for {@code analytics.reports.cache-ttl-ms}; concurrent
+ * requests for the same uncached report share one execution. CSV exports stream rows
+ * through a cursor as they are read, with their own concurrency limit, timeout and
+ * row cap.
+ */
+@Component
+public class CustomReportEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomReportEngine.class);
+
+    /**
+     * One executed report.
+     */
+    public static final class Result {
+        private final List<String> columns;
+        private final List<List<Object>> rows;
+        private final boolean truncated;
+        private final LocalDateTime executedAt;
+        private final long executionMs;
+
+        private Result(List<String> columns, List<List<Object>> rows, boolean truncated, long executionMs) {
+            this.columns = columns;
+            this.rows = rows;
+            this.truncated = truncated;
+            this.executedAt = LocalDateTime.now();
+            this.executionMs = executionMs;
+        }
+
+        public Map<String, Object> toMap(boolean cached) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("columns", columns);
+            map.put("rows", rows);
+            map.put("rowCount", rows.size());
+            map.put("truncated", truncated);
+            map.put("executedAt", executedAt.toString());
+            map.put("executionMs", executionMs);
+            map.put("cached", cached);
+            return map;
+        }
+    }
+
+    private record Cached(Result result, long expiresAt) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${analytics.reports.pool-size:4}")
+    private int poolSize;
+
+    @Value("${analytics.reports.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${analytics.reports.timeout-ms:15000}")
+    private int timeoutMs;
+
+    @Value("${analytics.reports.max-rows:10000}")
+    private int maxRows;
+
+    @Value("${analytics.reports.max-range-months:36}")
+    private int maxRangeMonths;
+
+    @Value("${analytics.reports.cache-ttl-ms:300000}")
+    private long cacheTtlMs;
+
+    @Value("${analytics.reports.cache-max-entries:500}")
+    private int cacheMaxEntries;
+
+    @Value("${analytics.reports.export.max-concurrent:2}")
+    private int maxConcurrentExports;
+
+    @Value("${analytics.reports.export.timeout-ms:120000}")
+    private int exportTimeoutMs;
+
+    @Value("${analytics.reports.export.max-rows:500000}")
+    private int exportMaxRows;
+
+    @Value("${analytics.reports.export.fetch-size:1000}")
+    private int exportFetchSize;
+
+    private ThreadPoolExecutor executor;
+    private Semaphore exports;
+    private TransactionTemplate readOnlyTransaction;
+    private final Map<String, Cached> cache = new ConcurrentHashMap<>();
+    private final Map<String, Future<Result>> running = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void start() {
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "custom-report");
+                thread.setDaemon(true);
+                return thread;
+            });
+        exports = new Semaphore(maxConcurrentExports);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Validates a definition for interactive execution.
+     */
+    public CustomReportQuery compile(Map<String, Object> definition) {
+        return CustomReportQuery.parse(definition, maxRows, maxRangeMonths);
+    }
+
+    /**
+     * Validates a definition for a streamed export, which allows more rows.
+     */
+    public CustomReportQuery compileForExport(Map<String, Object> definition) {
+        return CustomReportQuery.parse(definition, exportMaxRows, maxRangeMonths);
+    }
+
+    /**
+     * Executes a report for {@code organizationId}, or serves it from the cache.
+     */
+    public Map<String, Object> execute(CustomReportQuery query, Long organizationId) {
+        String key = organizationId + ":" + query.getHash();
+        Cached cached = cache.get(key);
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            return cached.result().toMap(true);
+        }
+
+        Future<Result> future;
+        try {
+            future = running.computeIfAbsent(key, k -> executor.submit(() -> run(query, organizationId)));
+        } catch (RejectedExecutionException e) {
+            throw new RuntimeException("Too many reports are running, try again shortly");
+        }
+        try {
+            // The statement timeout ends the query server-side; the grace covers fetching the capped rows
+            Result result = future.get(timeoutMs + 5000L, TimeUnit.MILLISECONDS);
+            put(key, result);
+            return result.toMap(false);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new RuntimeException("Report timed out after " + timeoutMs / 1000 + " seconds");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Report execution was interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            logger.warn("Custom report on {} failed: {}", query.getSource(), cause.getMessage());
+            throw new RuntimeException("Report failed: " + rootMessage(cause));
+        } finally {
+            running.remove(key, future);
+        }
+    }
+
+    /**
+     * Writes the report as CSV while its rows are read.
+     */
+    public void exportCsv(CustomReportQuery query, Long organizationId, OutputStream out) {
+        if (!exports.tryAcquire()) {
+            throw new RuntimeException("Too many report exports are running, try again shortly");
+        }
+        long started = System.nanoTime();
+        int[] written = new int[1];
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            List<String> columns = query.columns();
+            writeCsvRow(writer, new ArrayList<>(columns));
+            int width = columns.size();
+            List<Object> row = new ArrayList<>(width);
+            query(query, organizationId, exportTimeoutMs, query.getLimit(), exportFetchSize, rs -> {
+                row.clear();
+                for (int i = 1; i <= width; i++) {
+                    row.add(value(rs, i));
+                }
+                writeCsvRow(writer, row);
+                written[0]++;
+            });
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            exports.release();
+            meterRegistry.counter("rentmaster.export.rows", "entity", "custom-report", "format", "csv").increment(written[0]);
+            Timer.builder("rentmaster.export.duration")
+                .tag("entity", "custom-report")
+                .tag("format", "csv")
+                .register(meterRegistry)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Result run(CustomReportQuery query, Long organizationId) {
+        long started = System.currentTimeMillis();
+        int width = query.columns().size();
+        List<List<Object>> rows = new ArrayList<>();
+        // One row past the limit tells a complete result from a truncated one
+        query(query, organizationId, timeoutMs, query.getLimit() + 1, 0, rs -> {
+            List<Object> row = new ArrayList<>(width);
+            for (int i = 1; i <= width; i++) {
+                row.add(value(rs, i));
+            }
+            rows.add(row);
+        });
+        boolean truncated = rows.size() > query.getLimit();
+        if (truncated) {
+            rows.remove(rows.size() - 1);
+        }
+        return new Result(query.columns(), rows, truncated, System.currentTimeMillis() - started);
+    }
+
+    private void query(CustomReportQuery query, Long organizationId, int statementTimeoutMs, int rowLimit,
+                       int fetchSize, RowCallbackHandler handler) {
+        String sql = query.sql(organizationId);
+        List<Object> parameters = query.parameters(organizationId);
+        // Runs on the report pool or a streaming thread, outside the @ReadReplica aspect
+        ReplicaRoutingDataSource.onReplica(() -> readOnlyTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.execute("SET LOCAL statement_timeout = " + statementTimeoutMs);
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql);
+                statement.setMaxRows(rowLimit);
+                if (fetchSize > 0) {
+                    statement.setFetchSize(fetchSize);
+                }
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+                return statement;
+            }, handler);
+        }));
+    }
+
+    private void put(String key, Result result) {
+        long now = System.currentTimeMillis();
+        if (cache.size() >= cacheMaxEntries) {
+            cache.values().removeIf(entry -> entry.expiresAt() <= now);
+        }
+        if (cache.size() >= cacheMaxEntries) {
+            // Still full of live entries: drop the one closest to expiry
+            cache.entrySet().stream()
+                .min((a, b) -> Long.compare(a.getValue().expiresAt(), b.getValue().expiresAt()))
+                .ifPresent(oldest -> cache.remove(oldest.getKey(), oldest.getValue()));
+        }
+        cache.put(key, new Cached(result, now + cacheTtlMs));
+    }
+
+    private static Object value(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value instanceof Date date) {
+            return date.toLocalDate().toString();
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        return value;
+    }
+
+    private static void writeCsvRow(Writer writer, List<Object> values) {
+        try {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = values.get(i);
+                if (value != null) {
+                    String text = value.toString();
+                    if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                        text = '"' + text.replace("\"", "\"\"") + '"';
+                    }
+                    writer.write(text);
+                }
+            }
+            writer.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String rootMessage(Throwable throwable) {
+        Throwable root = throwable;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        String message = root.getMessage();
+        // Statement timeouts surface as a cancelled query
+        if (message != null && message.contains("canceling statement due to statement timeout")) {
+            return "the query exceeded its time limit";
+        }
+        return message;
+    }
+}
@@ -0,0 +1,573 @@
+package com.rentmaster.analytics;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A user-defined report compiled to one parameterized aggregate query.
+ *
+ * A definition names a source, up to {@link #MAX_DIMENSIONS} dimensions to group by,
+ * aggregate measures, filters, a date range and an ordering:
+ * <pre>
+ * {"source": "invoices", "dimensions": ["property", "month"],
+ *  "measures": ["count", "sum:amount"], "filters": [{"field": "status", "op": "in", "value": ["PAID", "OVERDUE"]}],
+ *  "dateRange": {"from": "2026-01-01", "to": "2026-06-30"}, "orderBy": [{"field": "sum_amount", "direction": "desc"}],
+ *  "limit": 100}
+ * </pre>
+ * Only catalogued columns and expressions reach the SQL; every value is a bind
+ * parameter. Every query is bounded by its date range (at most
+ * {@code maxRangeMonths}, the last 12 months when omitted) and by the caller's
+ * organization, so no report scans a whole table.
+ *
+ * The normalized definition has a canonical JSON form (fixed key order, lower-case
+ * names, sorted filters, absolute dates) whose SHA-256 identifies equal reports for
+ * result caching.
+ */
+public final class CustomReportQuery {
+
+    public static final int MAX_DIMENSIONS = 4;
+    public static final int MAX_MEASURES = 8;
+    public static final int MAX_FILTERS = 16;
+    public static final int MAX_FILTER_VALUES = 100;
+    private static final int DEFAULT_RANGE_MONTHS = 12;
+
+    private static final ObjectMapper CANONICAL_MAPPER = new ObjectMapper();
+
+    private enum Type { TEXT, NUMBER, DATE }
+
+    private record Column(String expression, Type type) {
+    }
+
+    private static final class Source {
+        private final String from;
+        private final String organizationColumn;
+        private final String dateColumn;
+        private final Map<String, Column> dimensions = new LinkedHashMap<>();
+        private final Map<String, Column> fields = new LinkedHashMap<>();
+
+        private Source(String from, String organizationColumn, String dateColumn) {
+            this.from = from;
+            this.organizationColumn = organizationColumn;
+            this.dateColumn = dateColumn;
+            dimensions.put("day", new Column(dateColumn + "::date", Type.DATE));
+            dimensions.put("month", new Column("to_char(" + dateColumn + ", 'YYYY-MM')", Type.TEXT));
+            dimensions.put("quarter", new Column("to_char(" + dateColumn + ", 'YYYY-\"Q\"Q')", Type.TEXT));
+            dimensions.put("year", new Column("EXTRACT(YEAR FROM " + dateColumn + ")::int", Type.NUMBER));
+        }
+
+        private Source dimension(String name, String expression, Type type) {
+            dimensions.put(name, new Column(expression, type));
+            return this;
+        }
+
+        private Source field(String name, String expression) {
+            fields.put(name, new Column(expression, Type.NUMBER));
+            return this;
+        }
+    }
+
+    private static final Map<String, Source> SOURCES = new LinkedHashMap<>();
+
+    static {
+        String rooms = "JOIN rooms r ON r.id = c.room_id JOIN properties p ON p.id = r.property_id";
+        SOURCES.put("invoices", new Source(
+                "invoices i JOIN contracts c ON c.id = i.contract_id " + rooms, "i.organization_id", "i.issue_date")
+            .dimension("property", "p.name", Type.TEXT)
+            .dimension("property_id", "p.id", Type.NUMBER)
+            .dimension("room", "r.code", Type.TEXT)
+            .dimension("contract", "c.code", Type.TEXT)
+            .dimension("status", "i.status", Type.TEXT)
+            .dimension("due_date", "i.due_date", Type.DATE)
+            .field("amount", "i.total_amount"));
+        SOURCES.put("payments", new Source(
+                "payments pay JOIN invoices i ON i.id = pay.invoice_id JOIN contracts c ON c.id = i.contract_id " + rooms,
+                "pay.organization_id", "pay.paid_at")
+            .dimension("property", "p.name", Type.TEXT)
+            .dimension("property_id", "p.id", Type.NUMBER)
+            .dimension("room", "r.code", Type.TEXT)
+            .dimension("contract", "c.code", Type.TEXT)
+            .dimension("method", "pay.method", Type.TEXT)
+            .field("amount", "pay.amount"));
+        SOURCES.put("expenses", new Source(
+                "expenses e LEFT JOIN properties p ON p.id = e.property_id", "p.organization_id", "e.expense_date")
+            .dimension("property", "COALESCE(p.name, e.property_name)", Type.TEXT)
+            .dimension("property_id", "e.property_id", Type.NUMBER)
+            .dimension("category", "e.category", Type.TEXT)
+            .dimension("vendor", "e.vendor", Type.TEXT)
+            .dimension("currency", "e.currency", Type.TEXT)
+            .field("amount", "e.amount"));
+        SOURCES.put("maintenance", new Source(
+                "maintenance_requests m JOIN properties p ON p.id = m.property_id", "p.organization_id", "m.created_at")
+            .dimension("property", "p.name", Type.TEXT)
+            .dimension("property_id", "m.property_id", Type.NUMBER)
+            .dimension("status", "m.status", Type.TEXT)
+            .dimension("priority", "m.priority", Type.TEXT)
+            .dimension("category", "m.category", Type.TEXT)
+            .field("estimated_cost", "m.estimated_cost")
+            .field("actual_cost", "m.actual_cost")
+            .field("resolution_days", "EXTRACT(EPOCH FROM (m.completed_date - m.created_at)) / 86400"));
+        SOURCES.put("contracts", new Source("contracts c " + rooms, "c.organization_id", "c.start_date")
+            .dimension("property", "p.name", Type.TEXT)
+            .dimension("property_id", "p.id", Type.NUMBER)
+            .dimension("room", "r.code", Type.TEXT)
+            .dimension("status", "c.status", Type.TEXT)
+            .dimension("billing_cycle", "c.billing_cycle", Type.TEXT)
+            .field("rent", "c.rent_amount")
+            .field("deposit", "c.deposit_amount")
+            .field("duration_days", "(c.end_date - c.start_date)"));
+    }
+
+    private static final Set<String> AGGREGATES = Set.of("count", "sum", "avg", "min", "max");
+    private static final Map<String, String> OPERATORS = Map.of(
+        "eq", "=", "ne", "<>", "gt", ">", "gte", ">=", "lt", "<", "lte", "<=");
+
+    private record Measure(String aggregate, String field) {
+        private String alias() {
+            return field == null ? aggregate : aggregate + "_" + field;
+        }
+    }
+
+    private record Filter(String field, String op, List<String> values) {
+    }
+
+    private final String sourceName;
+    private final Source source;
+    private final List<String> dimensions;
+    private final List<Measure> measures;
+    private final List<Filter> filters;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final Integer lastMonths;
+    private final Map<String, String> orderBy;
+    private final int limit;
+    private final String canonicalJson;
+    private final String hash;
+
+    private CustomReportQuery(String sourceName, List<String> dimensions, List<Measure> measures, List<Filter> filters,
+                              LocalDate from, LocalDate to, Integer lastMonths, Map<String, String> orderBy, int limit) {
+        this.sourceName = sourceName;
+        this.source = SOURCES.get(sourceName);
+        this.dimensions = dimensions;
+        this.measures = measures;
+        this.filters = filters;
+        this.from = from;
+        this.to = to;
+        this.lastMonths = lastMonths;
+        this.orderBy = orderBy;
+        this.limit = limit;
+        try {
+            this.canonicalJson = CANONICAL_MAPPER.writeValueAsString(definition(true));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        this.hash = sha256(canonicalJson);
+    }
+
+    /**
+     * Validates and normalizes a definition; throws with a readable message when it is invalid.
+     */
+    public static CustomReportQuery parse(Map<String, Object> definition, int maxRows, int maxRangeMonths) {
+        String sourceName = lower(definition.get("source"));
+        if (!SOURCES.containsKey(sourceName)) {
+            throw new RuntimeException("Unknown report source: " + definition.get("source")
+                + " (expected one of " + SOURCES.keySet() + ")");
+        }
+        Source source = SOURCES.get(sourceName);
+
+        Set<String> dimensions = new LinkedHashSet<>();
+        for (Object value : list(definition.get("dimensions"))) {
+            String dimension = lower(value);
+            if (!source.dimensions.containsKey(dimension)) {
+                throw new RuntimeException("Unknown dimension for " + sourceName + ": " + value
+                    + " (expected one of " + source.dimensions.keySet() + ")");
+            }
+            dimensions.add(dimension);
+        }
+        if (dimensions.size() > MAX_DIMENSIONS) {
+            throw new RuntimeException("A report can group by at most " + MAX_DIMENSIONS + " dimensions");
+        }
+
+        Map<String, Measure> measures = new LinkedHashMap<>();
+        for (Object value : list(definition.get("measures"))) {
+            Measure measure = parseMeasure(source, sourceName, value);
+            measures.putIfAbsent(measure.alias(), measure);
+        }
+        if (measures.isEmpty()) {
+            measures.put("count", new Measure("count", null));
+        }
+        if (measures.size() > MAX_MEASURES) {
+            throw new RuntimeException("A report can have at most " + MAX_MEASURES + " measures");
+        }
+
+        List<Filter> filters = new ArrayList<>();
+        for (Object value : list(definition.get("filters"))) {
+            filters.add(parseFilter(source, sourceName, value));
+        }
+        if (filters.size() > MAX_FILTERS) {
+            throw new RuntimeException("A report can have at most " + MAX_FILTERS + " filters");
+        }
+        // Filters are ANDed, so their order does not change the report
+        filters.sort(Comparator.comparing(Filter::field).thenComparing(Filter::op)
+            .thenComparing(filter -> String.join("\u0000", filter.values())));
+
+        // Relative ranges ("lastMonths") stay relative in saved reports and end today
+        Integer lastMonths = DEFAULT_RANGE_MONTHS;
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusMonths(lastMonths).plusDays(1);
+        if (definition.get("dateRange") instanceof Map<?, ?> range) {
+            try {
+                if (range.get("from") != null || range.get("to") != null) {
+                    lastMonths = null;
+                    to = range.get("to") != null ? LocalDate.parse(range.get("to").toString()) : to;
+                    from = range.get("from") != null ? LocalDate.parse(range.get("from").toString())
+                        : to.minusMonths(DEFAULT_RANGE_MONTHS).plusDays(1);
+                } else if (range.get("lastMonths") != null) {
+                    lastMonths = Integer.parseInt(range.get("lastMonths").toString());
+                    if (lastMonths < 1) {
+                        throw new RuntimeException("Invalid report date range: " + range);
+                    }
+                    from = to.minusMonths(lastMonths).plusDays(1);
+                }
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new RuntimeException("Invalid report date range: " + range);
+            }
+        }
+        if (from.isAfter(to)) {
+            throw new RuntimeException("Report date range starts after it ends");
+        }
+        if (from.plusMonths(maxRangeMonths).isBefore(to.plusDays(1))) {
+            throw new RuntimeException("A report can cover at most " + maxRangeMonths + " months");
+        }
+
+        Map<String, String> orderBy = new LinkedHashMap<>();
+        for (Object value : list(definition.get("orderBy"))) {
+            String field;
+            String direction = "asc";
+            if (value instanceof Map<?, ?> order) {
+                field = lower(order.get("field"));
+                direction = order.get("direction") == null ? "asc" : lower(order.get("direction"));
+            } else {
+                field = lower(value);
+            }
+            if (!dimensions.contains(field) && !measures.containsKey(field)) {
+                throw new RuntimeException("Reports can only be ordered by their dimensions or measures: " + field);
+            }
+            if (!direction.equals("asc") && !direction.equals("desc")) {
+                throw new RuntimeException("Invalid order direction: " + direction);
+            }
+            orderBy.putIfAbsent(field, direction);
+        }
+
+        int limit = maxRows;
+        if (definition.get("limit") != null) {
+            try {
+                limit = Math.min(maxRows, Integer.parseInt(definition.get("limit").toString()));
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Invalid report limit: " + definition.get("limit"));
+            }
+            if (limit < 1) {
+                throw new RuntimeException("Report limit must be positive");
+            }
+        }
+
+        return new CustomReportQuery(sourceName, new ArrayList<>(dimensions), new ArrayList<>(measures.values()),
+            filters, from, to, lastMonths, orderBy, limit);
+    }
+
+    private static Measure parseMeasure(Source source, String sourceName, Object value) {
+        String aggregate;
+        String field;
+        if (value instanceof Map<?, ?> map) {
+            aggregate = lower(map.get("aggregate"));
+            field = map.get("field") == null ? null : lower(map.get("field"));
+        } else {
+            String[] parts = lower(value).split(":", 2);
+            aggregate = parts[0];
+            field = parts.length > 1 ? parts[1] : null;
+        }
+        if (!AGGREGATES.contains(aggregate)) {
+            throw new RuntimeException("Unknown aggregate: " + aggregate + " (expected one of " + AGGREGATES + ")");
+        }
+        if (field == null) {
+            if (!aggregate.equals("count")) {
+                throw new RuntimeException("Aggregate " + aggregate + " needs a field");
+            }
+        } else if (!source.fields.containsKey(field)) {
+            throw new RuntimeException("Unknown measure field for " + sourceName + ": " + field
+                + " (expected one of " + source.fields.keySet() + ")");
+        }
+        return new Measure(aggregate, field);
+    }
+
+    private static Filter parseFilter(Source source, String sourceName, Object value) {
+        if (!(value instanceof Map<?, ?> map)) {
+            throw new RuntimeException("Report filters must be objects with field, op and value");
+        }
+        String field = lower(map.get("field"));
+        if (!source.dimensions.containsKey(field) && !source.fields.containsKey(field)) {
+            throw new RuntimeException("Unknown filter field for " + sourceName + ": " + map.get("field"));
+        }
+        String op = map.get("op") == null ? "eq" : lower(map.get("op"));
+        if (!OPERATORS.containsKey(op) && !op.equals("in") && !op.equals("not_in") && !op.equals("contains")) {
+            throw new RuntimeException("Unknown filter operator: " + op);
+        }
+        Type type = column(source, field).type();
+        if (op.equals("contains") && type != Type.TEXT) {
+            throw new RuntimeException("contains only applies to text fields: " + field);
+        }
+        List<String> values = new ArrayList<>();
+        for (Object item : map.get("value") instanceof Collection<?> collection ? collection : List.of(nonNull(map.get("value")))) {
+            values.add(checkValue(type, field, nonNull(item).toString()));
+        }
+        boolean multiple = op.equals("in") || op.equals("not_in");
+        if (values.isEmpty() || values.size() > MAX_FILTER_VALUES || (!multiple && values.size() != 1)) {
+            throw new RuntimeException("Invalid number of values for filter on " + field);
+        }
+        if (multiple) {
+            values = new ArrayList<>(new TreeSet<>(values));
+        }
+        return new Filter(field, op, values);
+    }
+
+    private static String checkValue(Type type, String field, String value) {
+        try {
+            switch (type) {
+                case NUMBER -> new BigDecimal(value);
+                case DATE -> LocalDate.parse(value);
+                default -> {
+                }
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new RuntimeException("Invalid value for " + field + ": " + value);
+        }
+        return value;
+    }
+
+    private static Column column(Source source, String name) {
+        Column column = source.dimensions.get(name);
+        return column != null ? column : source.fields.get(name);
+    }
+
+    /**
+     * The SQL for {@code organizationId} (null for unscoped work outside a request).
+     */
+    public String sql(Long organizationId) {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        List<String> select = new ArrayList<>();
+        for (int i = 0; i < dimensions.size(); i++) {
+            select.add(source.dimensions.get(dimensions.get(i)).expression() + " AS d" + i);
+        }
+        for (int i = 0; i < measures.size(); i++) {
+            Measure measure = measures.get(i);
+            String argument = measure.field() == null ? "*" : source.fields.get(measure.field()).expression();
+            select.add(measure.aggregate().toUpperCase() + "(" + argument + ") AS m" + i);
+        }
+        sql.append(String.join(", ", select));
+        sql.append(" FROM ").append(source.from);
+        sql.append(" WHERE ").append(source.dateColumn).append(" >= ? AND ").append(source.dateColumn).append(" < ?");
+        if (organizationId != null) {
+            sql.append(" AND ").append(source.organizationColumn).append(" = ?");
+        }
+        for (Filter filter : filters) {
+            Column column = column(source, filter.field());
+            String cast = column.type() == Type.NUMBER ? "::numeric" : column.type() == Type.DATE ? "::date" : "";
+            sql.append(" AND ");
+            switch (filter.op()) {
+                case "in", "not_in" -> sql.append(column.expression())
+                    .append(filter.op().equals("in") ? " IN (" : " NOT IN (")
+                    .append(String.join(", ", Collections.nCopies(filter.values().size(), "?" + cast)))
+                    .append(")");
+                case "contains" -> sql.append(column.expression()).append(" ILIKE ?");
+                default -> sql.append(column.expression()).append(' ').append(OPERATORS.get(filter.op()))
+                    .append(" ?").append(cast);
+            }
+        }
+        if (!dimensions.isEmpty()) {
+            List<String> groups = new ArrayList<>();
+            for (int i = 1; i <= dimensions.size(); i++) {
+                groups.add(String.valueOf(i));
+            }
+            sql.append(" GROUP BY ").append(String.join(", ", groups));
+        }
+        List<String> order = new ArrayList<>();
+        orderBy.forEach((field, direction) -> order.add(alias(field) + " " + direction.toUpperCase() + " NULLS LAST"));
+        for (int i = 0; i < dimensions.size(); i++) {
+            if (!orderBy.containsKey(dimensions.get(i))) {
+                order.add("d" + i);
+            }
+        }
+        if (!order.isEmpty()) {
+            sql.append(" ORDER BY ").append(String.join(", ", order));
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Bind values matching {@link #sql(Long)}.
+     */
+    public List<Object> parameters(Long organizationId) {
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(Date.valueOf(from));
+        parameters.add(Date.valueOf(to.plusDays(1)));
+        if (organizationId != null) {
+            parameters.add(organizationId);
+        }
+        for (Filter filter : filters) {
+            if (filter.op().equals("contains")) {
+                String escaped = filter.values().get(0).replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+                parameters.add("%" + escaped + "%");
+            } else {
+                parameters.addAll(filter.values());
+            }
+        }
+        return parameters;
+    }
+
+    private String alias(String field) {
+        int dimension = dimensions.indexOf(field);
+        if (dimension >= 0) {
+            return "d" + dimension;
+        }
+        for (int i = 0; i < measures.size(); i++) {
+            if (measures.get(i).alias().equals(field)) {
+                return "m" + i;
+            }
+        }
+        throw new IllegalStateException(field);
+    }
+
+    public List<String> columns() {
+        List<String> columns = new ArrayList<>(dimensions);
+        measures.forEach(measure -> columns.add(measure.alias()));
+        return columns;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public String getSource() {
+        return sourceName;
+    }
+
+    public String getCanonicalJson() {
+        return canonicalJson;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    /**
+     * The normalized definition as saved; relative date ranges stay relative.
+     */
+    public Map<String, Object> toDefinition() {
+        return definition(false);
+    }
+
+    private Map<String, Object> definition(boolean resolved) {
+        Map<String, Object> definition = new LinkedHashMap<>();
+        definition.put("source", sourceName);
+        definition.put("dimensions", dimensions);
+        List<Map<String, Object>> measureList = new ArrayList<>();
+        for (Measure measure : measures) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("aggregate", measure.aggregate());
+            map.put("field", measure.field());
+            measureList.add(map);
+        }
+        definition.put("measures", measureList);
+        List<Map<String, Object>> filterList = new ArrayList<>();
+        for (Filter filter : filters) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("field", filter.field());
+            map.put("op", filter.op());
+            map.put("value", filter.op().equals("in") || filter.op().equals("not_in")
+                ? filter.values() : filter.values().get(0));
+            filterList.add(map);
+        }
+        definition.put("filters", filterList);
+        Map<String, Object> range = new LinkedHashMap<>();
+        if (lastMonths != null && !resolved) {
+            range.put("lastMonths", lastMonths);
+        } else {
+            range.put("from", from.toString());
+            range.put("to", to.toString());
+        }
+        definition.put("dateRange", range);
+        List<Map<String, Object>> orderList = new ArrayList<>();
+        orderBy.forEach((field, direction) -> {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("field", field);
+            map.put("direction", direction);
+            orderList.add(map);
+        });
+        definition.put("orderBy", orderList);
+        definition.put("limit", limit);
+        return definition;
+    }
+
+    /**
+     * Sources with their dimensions and measure fields, for building report editors.
+     */
+    public static Map<String, Object> catalog() {
+        Map<String, Object> catalog = new LinkedHashMap<>();
+        SOURCES.forEach((name, source) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("dimensions", new ArrayList<>(source.dimensions.keySet()));
+            entry.put("fields", new ArrayList<>(source.fields.keySet()));
+            entry.put("aggregates", List.of("count", "sum", "avg", "min", "max"));
+            catalog.put(name, entry);
+        });
+        return catalog;
+    }
+
+    private static List<?> list(Object value) {
+        if (value == null) {
+            return List.of();
+        }
+        if (value instanceof Collection<?> collection) {
+            return new ArrayList<>(collection);
+        }
+        return List.of(value);
+    }
+
+    private static Object nonNull(Object value) {
+        if (value == null) {
+            throw new RuntimeException("Report filter values cannot be null");
+        }
+        return value;
+    }
+
+    private static String lower(Object value) {
+        return value == null ? "" : value.toString().trim().toLowerCase();
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.rentmaster.analytics;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface CustomReportRepository extends JpaRepository<CustomReport, Long> {
+    
+    @Query("SELECT r FROM CustomReport r ORDER BY r.createdAt DESC")
+    Page<CustomReport> findAllNewestFirst(Pageable pageable);
+    
+    // A query rather than findById, so the organization filter applies
+    @Query("SELECT r FROM CustomReport r WHERE r.id = :id")
+    Optional<CustomReport> findScopedById(@Param("id") Long id);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE CustomReport r SET r.executionCount = r.executionCount + 1, r.lastExecuted = :now WHERE r.id = :id")
+    int recordExecution(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,486 @@
+package com.rentmaster.analytics;
+
+import com.rentmaster.multitenancy.OrganizationScope;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fits and serves monthly forecasts for revenue, expenses, maintenance costs and
+ * occupancy.
+ *
+ * Each metric is loaded as one aggregate query into a {@code double[]} per property
+ * over the last {@code analytics.forecast.history-months} complete months; the
+ * organization and portfolio series are sums of those arrays. Every series gets its
+ * own {@link HoltWinters} model, fitted in parallel on a dedicated ForkJoin pool.
+ * Fitted models are cached per metric until the month rolls over or the cache TTL
+ * passes, so serving a forecast is only the evaluation of a cached model.
+ *
+ * Occupancy is modelled as occupied rooms and converted to a percentage of the
+ * property's rooms when served, so portfolio occupancy is weighted by room count.
+ */
+@Component
+public class ForecastingEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(ForecastingEngine.class);
+
+    public enum Metric {
+        REVENUE,
+        EXPENSES,
+        MAINTENANCE_COSTS,
+        OCCUPANCY
+    }
+
+    public static final double CONFIDENCE_LEVEL = 0.95;
+    private static final double Z_95 = 1.96;
+    private static final int HISTORY_RETURNED = 12;
+    // Series per fork-join leaf task
+    private static final int FIT_BATCH = 32;
+
+    private static final String PROPERTIES_SQL =
+        "SELECT p.id, p.organization_id, (SELECT COUNT(*) FROM rooms r WHERE r.property_id = p.id) FROM properties p";
+
+    private static final Map<Metric, String> SERIES_SQL = Map.of(
+        Metric.REVENUE,
+        "SELECT r.property_id, date_trunc('month', i.period_start)::date, SUM(i.total_amount) " +
+        "FROM invoices i JOIN contracts c ON c.id = i.contract_id JOIN rooms r ON r.id = c.room_id " +
+        "WHERE i.period_start >= ? AND i.period_start < ? GROUP BY 1, 2",
+        Metric.EXPENSES,
+        "SELECT property_id, date_trunc('month', expense_date)::date, SUM(amount) FROM expenses " +
+        "WHERE property_id IS NOT NULL AND expense_date >= ? AND expense_date < ? GROUP BY 1, 2",
+        Metric.MAINTENANCE_COSTS,
+        "SELECT property_id, date_trunc('month', COALESCE(completed_date, created_at))::date, " +
+        "SUM(COALESCE(actual_cost, estimated_cost, 0)) FROM maintenance_requests " +
+        "WHERE property_id IS NOT NULL AND COALESCE(completed_date, created_at) >= ? " +
+        "AND COALESCE(completed_date, created_at) < ? GROUP BY 1, 2",
+        Metric.OCCUPANCY,
+        "SELECT r.property_id, m.month::date, COUNT(DISTINCT c.room_id) " +
+        "FROM generate_series(?::date, (?::date - interval '1 month'), interval '1 month') AS m(month) " +
+        "JOIN contracts c ON c.start_date < m.month + interval '1 month' AND (c.end_date IS NULL OR c.end_date >= m.month) " +
+        "AND c.status <> 'PENDING' JOIN rooms r ON r.id = c.room_id GROUP BY 1, 2");
+
+    /**
+     * One series with its model; capacity is the room count for occupancy.
+     */
+    private static final class Fitted {
+        private final double[] history;
+        private final double capacity;
+        private HoltWinters.Model model;
+
+        private Fitted(double[] history, double capacity) {
+            this.history = history;
+            this.capacity = capacity;
+        }
+    }
+
+    private static final class FittedMetric {
+        private final YearMonth lastMonth;
+        private final long fittedAt;
+        private final Map<Long, Fitted> byProperty;
+        private final Map<Long, Fitted> byOrganization;
+        private final Map<Long, Long> propertyOrganization;
+        private final Fitted portfolio;
+
+        private FittedMetric(YearMonth lastMonth, Map<Long, Fitted> byProperty, Map<Long, Fitted> byOrganization,
+                             Map<Long, Long> propertyOrganization, Fitted portfolio) {
+            this.lastMonth = lastMonth;
+            this.fittedAt = System.currentTimeMillis();
+            this.byProperty = byProperty;
+            this.byOrganization = byOrganization;
+            this.propertyOrganization = propertyOrganization;
+            this.portfolio = portfolio;
+        }
+    }
+
+    /**
+     * Fits a slice of the series array, splitting until slices are small enough.
+     */
+    private static final class FitTask extends RecursiveAction {
+        private final List<Fitted> series;
+        private final int from;
+        private final int to;
+
+        private FitTask(List<Fitted> series, int from, int to) {
+            this.series = series;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= FIT_BATCH) {
+                for (int i = from; i < to; i++) {
+                    Fitted fitted = series.get(i);
+                    fitted.model = HoltWinters.fit(trimLeadingZeros(fitted.history));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new FitTask(series, from, middle), new FitTask(series, middle, to));
+        }
+    }
+
+    /**
+     * A served forecast. Values are in the metric's unit (occupancy in percent).
+     */
+    public static final class Forecast {
+        private final Metric metric;
+        private final String scope;
+        private final List<YearMonth> periods;
+        private final double[] values;
+        private final double[] lower;
+        private final double[] upper;
+        private final List<YearMonth> historyPeriods;
+        private final double[] history;
+        private final HoltWinters.Model model;
+
+        private Forecast(Metric metric, String scope, List<YearMonth> periods, double[] values, double[] lower,
+                         double[] upper, List<YearMonth> historyPeriods, double[] history, HoltWinters.Model model) {
+            this.metric = metric;
+            this.scope = scope;
+            this.periods = periods;
+            this.values = values;
+            this.lower = lower;
+            this.upper = upper;
+            this.historyPeriods = historyPeriods;
+            this.history = history;
+            this.model = model;
+        }
+
+        public List<YearMonth> getPeriods() {
+            return periods;
+        }
+
+        public double[] getValues() {
+            return values;
+        }
+
+        public double[] getLower() {
+            return lower;
+        }
+
+        public double[] getUpper() {
+            return upper;
+        }
+
+        /**
+         * Value of the last complete month, or 0 without history.
+         */
+        public double getLastActual() {
+            return history.length > 0 ? history[history.length - 1] : 0.0;
+        }
+
+        /**
+         * Sum of the first {@code months} forecast values.
+         */
+        public double total(int months) {
+            double total = 0.0;
+            for (int i = 0; i < Math.min(months, values.length); i++) {
+                total += values[i];
+            }
+            return total;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("metric", metric.name());
+            map.put("scope", scope);
+            map.put("method", model.getMethod());
+            map.put("periods", periods.stream().map(YearMonth::toString).toList());
+            map.put("forecast", toList(values));
+            map.put("lower", toList(lower));
+            map.put("upper", toList(upper));
+            map.put("confidenceLevel", CONFIDENCE_LEVEL);
+            map.put("historyPeriods", historyPeriods.stream().map(YearMonth::toString).toList());
+            map.put("history", toList(history));
+            Map<String, Object> parameters = new HashMap<>();
+            parameters.put("alpha", model.getAlpha());
+            parameters.put("beta", model.getBeta());
+            parameters.put("gamma", model.getGamma());
+            parameters.put("sigma", round(model.getSigma()));
+            parameters.put("observations", model.getObservations());
+            map.put("model", parameters);
+            return map;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrganizationScope organizationScope;
+
+    @Value("${analytics.forecast.history-months:36}")
+    private int historyMonths;
+
+    @Value("${analytics.forecast.max-horizon-months:36}")
+    private int maxHorizon;
+
+    @Value("${analytics.forecast.cache-ttl-ms:3600000}")
+    private long cacheTtlMs;
+
+    // 0 uses one thread per core
+    @Value("${analytics.forecast.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+    private final Map<Metric, FittedMetric> cache = new ConcurrentHashMap<>();
+    private final Map<Metric, ReentrantLock> locks = new EnumMap<>(Metric.class);
+
+    @PostConstruct
+    public void start() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads, forkJoinPool -> {
+            var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("forecast-fit-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        for (Metric metric : Metric.values()) {
+            locks.put(metric, new ReentrantLock());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Forecast for one property, or for the current organization's properties (all
+     * properties outside a request) when {@code propertyId} is null.
+     */
+    public Forecast forecast(Metric metric, Long propertyId, int horizon) {
+        if (horizon < 1 || horizon > maxHorizon) {
+            throw new RuntimeException("Forecast horizon must be between 1 and " + maxHorizon + " months");
+        }
+        FittedMetric fittedMetric = fitted(metric);
+        Long organizationId = organizationScope.currentOrganizationId();
+
+        Fitted fitted;
+        String scope;
+        if (propertyId != null) {
+            fitted = fittedMetric.byProperty.get(propertyId);
+            if (fitted == null || (organizationId != null
+                    && !organizationId.equals(fittedMetric.propertyOrganization.get(propertyId)))) {
+                throw new RuntimeException("Property not found");
+            }
+            scope = "PROPERTY";
+        } else if (organizationId != null) {
+            fitted = fittedMetric.byOrganization.get(organizationId);
+            if (fitted == null) {
+                fitted = emptySeries(fittedMetric.portfolio.history.length);
+            }
+            scope = "ORGANIZATION";
+        } else {
+            fitted = fittedMetric.portfolio;
+            scope = "PORTFOLIO";
+        }
+        return evaluate(metric, scope, fittedMetric.lastMonth, fitted, horizon);
+    }
+
+    private Forecast evaluate(Metric metric, String scope, YearMonth lastMonth, Fitted fitted, int horizon) {
+        double[] values = fitted.model.forecast(horizon);
+        double[] widths = fitted.model.intervalHalfWidths(horizon, Z_95);
+        double[] lower = new double[horizon];
+        double[] upper = new double[horizon];
+        // Amounts and room counts cannot go negative, and occupancy cannot exceed the rooms
+        double ceiling = metric == Metric.OCCUPANCY ? fitted.capacity : Double.MAX_VALUE;
+        for (int i = 0; i < horizon; i++) {
+            lower[i] = clamp(values[i] - widths[i], ceiling);
+            upper[i] = clamp(values[i] + widths[i], ceiling);
+            values[i] = clamp(values[i], ceiling);
+        }
+
+        int historyLength = Math.min(HISTORY_RETURNED, fitted.history.length);
+        double[] history = new double[historyLength];
+        System.arraycopy(fitted.history, fitted.history.length - historyLength, history, 0, historyLength);
+        if (metric == Metric.OCCUPANCY) {
+            toPercent(values, fitted.capacity);
+            toPercent(lower, fitted.capacity);
+            toPercent(upper, fitted.capacity);
+            toPercent(history, fitted.capacity);
+        }
+        roundAll(values);
+        roundAll(lower);
+        roundAll(upper);
+        roundAll(history);
+
+        List<YearMonth> periods = new ArrayList<>(horizon);
+        for (int i = 1; i <= horizon; i++) {
+            periods.add(lastMonth.plusMonths(i));
+        }
+        List<YearMonth> historyPeriods = new ArrayList<>(historyLength);
+        for (int i = historyLength - 1; i >= 0; i--) {
+            historyPeriods.add(lastMonth.minusMonths(i));
+        }
+        return new Forecast(metric, scope, periods, values, lower, upper, historyPeriods, history, fitted.model);
+    }
+
+    private FittedMetric fitted(Metric metric) {
+        YearMonth lastMonth = YearMonth.now().minusMonths(1);
+        FittedMetric current = cache.get(metric);
+        if (isFresh(current, lastMonth)) {
+            return current;
+        }
+        // One refit per metric at a time; concurrent callers wait for its result
+        ReentrantLock refit = locks.get(metric);
+        refit.lock();
+        try {
+            current = cache.get(metric);
+            if (isFresh(current, lastMonth)) {
+                return current;
+            }
+            FittedMetric refitted = fit(metric, lastMonth);
+            cache.put(metric, refitted);
+            return refitted;
+        } finally {
+            refit.unlock();
+        }
+    }
+
+    private boolean isFresh(FittedMetric fitted, YearMonth lastMonth) {
+        return fitted != null && fitted.lastMonth.equals(lastMonth)
+            && System.currentTimeMillis() - fitted.fittedAt < cacheTtlMs;
+    }
+
+    private FittedMetric fit(Metric metric, YearMonth lastMonth) {
+        long started = System.currentTimeMillis();
+        int months = historyMonths;
+        LocalDate from = lastMonth.minusMonths(months - 1).atDay(1);
+        LocalDate to = lastMonth.plusMonths(1).atDay(1);
+
+        Map<Long, Integer> index = new HashMap<>();
+        List<Long> propertyIds = new ArrayList<>();
+        Map<Long, Long> propertyOrganization = new HashMap<>();
+        List<Double> roomCounts = new ArrayList<>();
+        jdbcTemplate.query(PROPERTIES_SQL, rs -> {
+            long propertyId = rs.getLong(1);
+            long organizationId = rs.getLong(2);
+            index.put(propertyId, propertyIds.size());
+            propertyIds.add(propertyId);
+            propertyOrganization.put(propertyId, rs.wasNull() ? null : organizationId);
+            roomCounts.add((double) rs.getLong(3));
+        });
+
+        double[][] series = new double[propertyIds.size()][months];
+        jdbcTemplate.query(SERIES_SQL.get(metric), rs -> {
+            Integer row = index.get(rs.getLong(1));
+            if (row == null) {
+                return;
+            }
+            int column = (int) ChronoUnit.MONTHS.between(from, rs.getDate(2).toLocalDate());
+            if (column >= 0 && column < months) {
+                series[row][column] += rs.getDouble(3);
+            }
+        }, Date.valueOf(from), Date.valueOf(to));
+
+        List<Fitted> all = new ArrayList<>();
+        Map<Long, Fitted> byProperty = new HashMap<>();
+        Map<Long, double[]> organizationSeries = new HashMap<>();
+        Map<Long, Double> organizationRooms = new HashMap<>();
+        double[] portfolioSeries = new double[months];
+        double portfolioRooms = 0.0;
+        for (int i = 0; i < propertyIds.size(); i++) {
+            Long propertyId = propertyIds.get(i);
+            double rooms = roomCounts.get(i);
+            Fitted fitted = new Fitted(series[i], rooms);
+            byProperty.put(propertyId, fitted);
+            all.add(fitted);
+
+            addInto(portfolioSeries, series[i]);
+            portfolioRooms += rooms;
+            Long organizationId = propertyOrganization.get(propertyId);
+            if (organizationId != null) {
+                addInto(organizationSeries.computeIfAbsent(organizationId, id -> new double[months]), series[i]);
+                organizationRooms.merge(organizationId, rooms, Double::sum);
+            }
+        }
+        Map<Long, Fitted> byOrganization = new HashMap<>();
+        organizationSeries.forEach((organizationId, values) -> {
+            Fitted fitted = new Fitted(values, organizationRooms.get(organizationId));
+            byOrganization.put(organizationId, fitted);
+            all.add(fitted);
+        });
+        Fitted portfolio = new Fitted(portfolioSeries, portfolioRooms);
+        all.add(portfolio);
+
+        pool.invoke(new FitTask(all, 0, all.size()));
+
+        logger.info("Fitted {} {} forecast models over {} months in {} ms", all.size(), metric, months,
+            System.currentTimeMillis() - started);
+        return new FittedMetric(lastMonth, byProperty, byOrganization, propertyOrganization, portfolio);
+    }
+
+    private Fitted emptySeries(int months) {
+        Fitted fitted = new Fitted(new double[months], 0.0);
+        fitted.model = HoltWinters.fit(fitted.history);
+        return fitted;
+    }
+
+    // Months before a property's first activity are not part of its history
+    private static double[] trimLeadingZeros(double[] series) {
+        int first = 0;
+        while (first < series.length && series[first] == 0.0) {
+            first++;
+        }
+        if (first == 0) {
+            return series;
+        }
+        return first == series.length ? new double[] {0.0} : Arrays.copyOfRange(series, first, series.length);
+    }
+
+    private static void addInto(double[] target, double[] values) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += values[i];
+        }
+    }
+
+    private static double clamp(double value, double ceiling) {
+        return Math.max(0.0, Math.min(ceiling, value));
+    }
+
+    private static void toPercent(double[] values, double capacity) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = capacity > 0 ? values[i] * 100.0 / capacity : 0.0;
+        }
+    }
+
+    private static void roundAll(double[] values) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = round(values[i]);
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private static List<Double> toList(double[] values) {
+        List<Double> list = new ArrayList<>(values.length);
+        for (double value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,223 @@
+package com.rentmaster.analytics;
+
+/**
+ * Additive Holt-Winters exponential smoothing over a monthly series held in a
+ * primitive array.
+ *
+ * Smoothing parameters are chosen by a grid search on one-step-ahead squared error.
+ * Every candidate is a single pass over the array with no allocation, so fitting a
+ * few years of history costs microseconds and thousands of series fit in well
+ * under a second per core. Series shorter than two seasons fall back to Holt's
+ * linear trend, and series shorter than two points to a flat forecast.
+ *
+ * Prediction intervals use the closed-form h-step variance of the additive model:
+ * {@code sigma^2 * (1 + sum_{j<h} (alpha * (1 + j * beta) + gamma * (1 - alpha) * [j % m == 0])^2)}.
+ */
+public final class HoltWinters {
+
+    public static final int MONTHS_PER_SEASON = 12;
+
+    private static final double[] ALPHAS = {0.05, 0.2, 0.4, 0.6, 0.8, 0.95};
+    private static final double[] BETAS = {0.0, 0.05, 0.15, 0.3};
+    private static final double[] GAMMAS = {0.05, 0.2, 0.4, 0.6};
+    private static final double[] NO_SEASONALITY = {0.0};
+
+    private HoltWinters() {
+    }
+
+    public static final class Model {
+        private final String method;
+        private final double level;
+        private final double trend;
+        // Seasonal offsets indexed by month relative to the first forecast month
+        private final double[] season;
+        private final double alpha;
+        private final double beta;
+        private final double gamma;
+        private final double sigma;
+        private final int observations;
+
+        private Model(String method, double level, double trend, double[] season, double alpha, double beta,
+                      double gamma, double sigma, int observations) {
+            this.method = method;
+            this.level = level;
+            this.trend = trend;
+            this.season = season;
+            this.alpha = alpha;
+            this.beta = beta;
+            this.gamma = gamma;
+            this.sigma = sigma;
+            this.observations = observations;
+        }
+
+        /**
+         * Point forecasts for the next {@code horizon} months.
+         */
+        public double[] forecast(int horizon) {
+            double[] values = new double[horizon];
+            for (int h = 1; h <= horizon; h++) {
+                values[h - 1] = level + h * trend + (season != null ? season[(h - 1) % season.length] : 0.0);
+            }
+            return values;
+        }
+
+        /**
+         * Half-width of the prediction interval for each of the next {@code horizon} months,
+         * at the normal quantile {@code z} (1.96 for 95%).
+         */
+        public double[] intervalHalfWidths(int horizon, double z) {
+            double[] widths = new double[horizon];
+            double varianceFactor = 1.0;
+            for (int h = 1; h <= horizon; h++) {
+                if (h > 1) {
+                    int j = h - 1;
+                    double c = alpha * (1 + j * beta);
+                    if (season != null && j % season.length == 0) {
+                        c += gamma * (1 - alpha);
+                    }
+                    varianceFactor += c * c;
+                }
+                widths[h - 1] = z * sigma * Math.sqrt(varianceFactor);
+            }
+            return widths;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public double getAlpha() {
+            return alpha;
+        }
+
+        public double getBeta() {
+            return beta;
+        }
+
+        public double getGamma() {
+            return gamma;
+        }
+
+        public double getSigma() {
+            return sigma;
+        }
+
+        public int getObservations() {
+            return observations;
+        }
+    }
+
+    public static Model fit(double[] series) {
+        return fit(series, MONTHS_PER_SEASON);
+    }
+
+    public static Model fit(double[] series, int period) {
+        int n = series.length;
+        if (n < 2 || isConstant(series)) {
+            double last = n > 0 ? series[n - 1] : 0.0;
+            return new Model("CONSTANT", last, 0.0, null, 0.0, 0.0, 0.0, 0.0, n);
+        }
+        boolean seasonal = n >= 2 * period;
+        double[] gammas = seasonal ? GAMMAS : NO_SEASONALITY;
+        int m = seasonal ? period : 1;
+
+        double bestSse = Double.MAX_VALUE;
+        double bestAlpha = ALPHAS[0];
+        double bestBeta = BETAS[0];
+        double bestGamma = gammas[0];
+        double[] seasonBuffer = new double[m];
+        for (double alpha : ALPHAS) {
+            for (double beta : BETAS) {
+                for (double gamma : gammas) {
+                    double sse = smooth(series, m, seasonal, alpha, beta, gamma, seasonBuffer, null);
+                    if (sse < bestSse) {
+                        bestSse = sse;
+                        bestAlpha = alpha;
+                        bestBeta = beta;
+                        bestGamma = gamma;
+                    }
+                }
+            }
+        }
+
+        double[] state = new double[2];
+        smooth(series, m, seasonal, bestAlpha, bestBeta, bestGamma, seasonBuffer, state);
+        int fitted = seasonal ? n - m : n - 1;
+        double sigma = Math.sqrt(bestSse / Math.max(1, fitted));
+
+        double[] season = null;
+        if (seasonal) {
+            // seasonBuffer[t % m] holds the offset last updated at time t; month n + k uses index (n + k) % m
+            season = new double[m];
+            for (int k = 0; k < m; k++) {
+                season[k] = seasonBuffer[(n + k) % m];
+            }
+        }
+        return new Model(seasonal ? "HOLT_WINTERS" : "HOLT_LINEAR", state[0], state[1], season,
+            bestAlpha, bestBeta, bestGamma, sigma, n);
+    }
+
+    /**
+     * Runs the smoothing recursions and returns the one-step-ahead SSE. The final
+     * level and trend are written to {@code finalState} when it is given; the
+     * seasonal offsets are left in {@code season}.
+     */
+    private static double smooth(double[] y, int m, boolean seasonal, double alpha, double beta, double gamma,
+                                 double[] season, double[] finalState) {
+        double level;
+        double trend;
+        int start;
+        if (seasonal) {
+            double firstMean = 0.0;
+            double secondMean = 0.0;
+            for (int i = 0; i < m; i++) {
+                firstMean += y[i];
+                secondMean += y[m + i];
+            }
+            firstMean /= m;
+            secondMean /= m;
+            trend = (secondMean - firstMean) / m;
+            for (int i = 0; i < m; i++) {
+                season[i] = y[i] - firstMean;
+            }
+            // State now describes the end of the first season
+            level = firstMean + trend * (m - 1) / 2.0;
+            start = m;
+        } else {
+            level = y[0];
+            trend = y[1] - y[0];
+            season[0] = 0.0;
+            start = 1;
+        }
+
+        double sse = 0.0;
+        for (int t = start; t < y.length; t++) {
+            int s = t % m;
+            double offset = seasonal ? season[s] : 0.0;
+            double predicted = level + trend + offset;
+            double error = y[t] - predicted;
+            sse += error * error;
+
+            double previousLevel = level;
+            level = alpha * (y[t] - offset) + (1 - alpha) * (level + trend);
+            trend = beta * (level - previousLevel) + (1 - beta) * trend;
+            if (seasonal) {
+                season[s] = gamma * (y[t] - level) + (1 - gamma) * offset;
+            }
+        }
+        if (finalState != null) {
+            finalState[0] = level;
+            finalState[1] = trend;
+        }
+        return sse;
+    }
+
+    private static boolean isConstant(double[] series) {
+        for (int i = 1; i < series.length; i++) {
+            if (series[i] != series[0]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,691 @@
+package com.rentmaster.analytics;
+
+import com.rentmaster.multitenancy.OrganizationScope;
+import com.rentmaster.property.PropertyAnalytics;
+import com.rentmaster.property.RoomChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory property x month x measure cube behind the analytics dashboards.
+ *
+ * Properties are numbered by ordinal (ascending id). Each base measure is one
+ * {@code double[]} laid out property-major ({@code ordinal * months + month}) over the
+ * last {@code analytics.cube.months} months up to the current one, so a property's
+ * history is contiguous and summing a slice over thousands of properties is a tight
+ * loop over primitive arrays. Room counts and the latest {@link PropertyAnalytics}
+ * values per property are kept alongside.
+ *
+ * The cube is loaded with one aggregate query per measure when the application is
+ * ready and rebuilt every {@code analytics.cube.rebuild-ms} and when the month rolls
+ * over. In between, {@link CubeChangeListener} reports committed changes to invoices,
+ * payments, expenses, maintenance requests, contracts and rooms, and the affected
+ * properties' rows are reloaded on a single background worker. Properties being
+ * added or removed trigger a full rebuild.
+ */
+@Component
+public class PropertyCube {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertyCube.class);
+
+    public enum Metric {
+        REVENUE,
+        COLLECTED,
+        EXPENSES,
+        PROFIT,
+        MAINTENANCE_COSTS,
+        MAINTENANCE_REQUESTS,
+        OCCUPANCY;
+
+        public static Metric parse(String name) {
+            String key = name == null ? "" : name.trim().toLowerCase().replace('-', '_');
+            return switch (key) {
+                case "revenue", "income" -> REVENUE;
+                case "collected", "payments" -> COLLECTED;
+                case "expenses", "expense" -> EXPENSES;
+                case "profit", "net_profit" -> PROFIT;
+                case "maintenance", "maintenance_costs" -> MAINTENANCE_COSTS;
+                case "maintenance_requests" -> MAINTENANCE_REQUESTS;
+                case "occupancy", "occupancy_rate" -> OCCUPANCY;
+                default -> throw new RuntimeException("Unknown metric: " + name);
+            };
+        }
+    }
+
+    // Base measures, one array each
+    private static final int REVENUE = 0;
+    private static final int COLLECTED = 1;
+    private static final int EXPENSES = 2;
+    private static final int MAINTENANCE_COSTS = 3;
+    private static final int MAINTENANCE_REQUESTS = 4;
+    private static final int OCCUPIED_ROOMS = 5;
+    private static final int MEASURES = 6;
+
+    private static final PropertyAnalytics.MetricType[] METRIC_TYPES = PropertyAnalytics.MetricType.values();
+
+    // Each query takes the window start and end, then the property ids when "%s" is filled in
+    private static final String PROPERTIES_SQL =
+        "SELECT p.id, p.organization_id, p.name, COUNT(r.id), COUNT(r.id) FILTER (WHERE r.status = 'OCCUPIED') " +
+        "FROM properties p LEFT JOIN rooms r ON r.property_id = p.id %s GROUP BY p.id ORDER BY p.id";
+
+    private static final String[] MEASURE_SQL = {
+        "SELECT r.property_id, date_trunc('month', i.period_start)::date, SUM(i.total_amount) " +
+        "FROM invoices i JOIN contracts c ON c.id = i.contract_id JOIN rooms r ON r.id = c.room_id " +
+        "WHERE i.period_start >= ? AND i.period_start < ? %s GROUP BY 1, 2",
+        "SELECT r.property_id, date_trunc('month', p.paid_at)::date, SUM(p.amount) " +
+        "FROM payments p JOIN invoices i ON i.id = p.invoice_id JOIN contracts c ON c.id = i.contract_id " +
+        "JOIN rooms r ON r.id = c.room_id WHERE p.paid_at >= ? AND p.paid_at < ? %s GROUP BY 1, 2",
+        "SELECT property_id, date_trunc('month', expense_date)::date, SUM(amount) FROM expenses " +
+        "WHERE property_id IS NOT NULL AND expense_date >= ? AND expense_date < ? %s GROUP BY 1, 2",
+        "SELECT property_id, date_trunc('month', COALESCE(completed_date, created_at))::date, " +
+        "SUM(COALESCE(actual_cost, estimated_cost, 0)) FROM maintenance_requests " +
+        "WHERE COALESCE(completed_date, created_at) >= ? AND COALESCE(completed_date, created_at) < ? %s GROUP BY 1, 2",
+        "SELECT property_id, date_trunc('month', created_at)::date, COUNT(*) FROM maintenance_requests " +
+        "WHERE created_at >= ? AND created_at < ? %s GROUP BY 1, 2",
+        "SELECT r.property_id, m.month::date, COUNT(DISTINCT c.room_id) " +
+        "FROM generate_series(?::date, (?::date - interval '1 month'), interval '1 month') AS m(month) " +
+        "JOIN contracts c ON c.start_date < m.month + interval '1 month' AND (c.end_date IS NULL OR c.end_date >= m.month) " +
+        "JOIN rooms r ON r.id = c.room_id WHERE c.status <> 'PENDING' %s GROUP BY 1, 2"
+    };
+
+    private static final String[] MEASURE_FILTER = {
+        "AND r.property_id = ANY(?)",
+        "AND r.property_id = ANY(?)",
+        "AND property_id = ANY(?)",
+        "AND property_id = ANY(?)",
+        "AND property_id = ANY(?)",
+        "AND r.property_id = ANY(?)"
+    };
+
+    private static final String LATEST_ANALYTICS_SQL =
+        "SELECT pa.property_id, pa.metric_type, pa.value, pa.metric_date FROM property_analytics pa " +
+        "JOIN (SELECT property_id, MAX(metric_date) AS metric_date FROM property_analytics %s GROUP BY property_id) latest " +
+        "ON latest.property_id = pa.property_id AND latest.metric_date = pa.metric_date " +
+        "WHERE pa.value IS NOT NULL ORDER BY pa.id";
+
+    private static final String ROOM_PROPERTIES_SQL =
+        "SELECT DISTINCT property_id FROM rooms WHERE id = ANY(?)";
+    private static final String CONTRACT_PROPERTIES_SQL =
+        "SELECT DISTINCT r.property_id FROM contracts c JOIN rooms r ON r.id = c.room_id WHERE c.id = ANY(?)";
+    private static final String INVOICE_PROPERTIES_SQL =
+        "SELECT DISTINCT r.property_id FROM invoices i JOIN contracts c ON c.id = i.contract_id " +
+        "JOIN rooms r ON r.id = c.room_id WHERE i.id = ANY(?)";
+
+    /**
+     * One loaded cube. The arrays are only written under the write lock.
+     */
+    private static final class Data {
+        private final YearMonth firstMonth;
+        private final int months;
+        private final long[] propertyIds;
+        private final Long[] organizationIds;
+        private final String[] names;
+        private final int[] rooms;
+        private final int[] occupiedRooms;
+        private final double[][] measures;
+        // ordinal * METRIC_TYPES.length + type, NaN when the latest snapshot has no value
+        private final double[] analytics;
+        private final LocalDate[] analyticsDate;
+        private final Map<Long, Integer> ordinals;
+        private final Map<Long, int[]> byOrganization;
+        private final int[] all;
+
+        private Data(YearMonth firstMonth, int months, long[] propertyIds, Long[] organizationIds, String[] names) {
+            int count = propertyIds.length;
+            this.firstMonth = firstMonth;
+            this.months = months;
+            this.propertyIds = propertyIds;
+            this.organizationIds = organizationIds;
+            this.names = names;
+            this.rooms = new int[count];
+            this.occupiedRooms = new int[count];
+            this.measures = new double[MEASURES][count * months];
+            this.analytics = new double[count * METRIC_TYPES.length];
+            Arrays.fill(analytics, Double.NaN);
+            this.analyticsDate = new LocalDate[count];
+            this.ordinals = new HashMap<>(count * 2);
+            this.all = new int[count];
+            Map<Long, List<Integer>> organizationOrdinals = new HashMap<>();
+            for (int ordinal = 0; ordinal < count; ordinal++) {
+                ordinals.put(propertyIds[ordinal], ordinal);
+                all[ordinal] = ordinal;
+                if (organizationIds[ordinal] != null) {
+                    organizationOrdinals.computeIfAbsent(organizationIds[ordinal], id -> new ArrayList<>()).add(ordinal);
+                }
+            }
+            this.byOrganization = new HashMap<>();
+            organizationOrdinals.forEach((organizationId, list) ->
+                byOrganization.put(organizationId, list.stream().mapToInt(Integer::intValue).toArray()));
+        }
+
+        private YearMonth lastMonth() {
+            return firstMonth.plusMonths(months - 1);
+        }
+    }
+
+    /**
+     * Monthly values of one metric for each property in scope, rows in ascending property id.
+     */
+    public static final class Heatmap {
+        private final List<YearMonth> months;
+        private final long[] propertyIds;
+        private final String[] names;
+        private final double[][] values;
+
+        private Heatmap(List<YearMonth> months, long[] propertyIds, String[] names, double[][] values) {
+            this.months = months;
+            this.propertyIds = propertyIds;
+            this.names = names;
+            this.values = values;
+        }
+
+        public List<YearMonth> getMonths() {
+            return months;
+        }
+
+        public long[] getPropertyIds() {
+            return propertyIds;
+        }
+
+        public String[] getNames() {
+            return names;
+        }
+
+        public double[][] getValues() {
+            return values;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrganizationScope organizationScope;
+
+    @Value("${analytics.cube.months:36}")
+    private int windowMonths;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Serializes rebuilds and refreshes so a refresh never writes into a cube being replaced
+    private final ReentrantLock writer = new ReentrantLock();
+    private volatile Data data;
+
+    private final Set<Long> pendingProperties = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingRooms = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingContracts = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingInvoices = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean pendingRebuild = new AtomicBoolean();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private ThreadPoolExecutor worker;
+
+    @PostConstruct
+    public void start() {
+        worker = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "analytics-cube");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        worker.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.cube.rebuild-ms:3600000}",
+               initialDelayString = "${analytics.cube.rebuild-ms:3600000}")
+    public void scheduledRebuild() {
+        requestRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomChanged(RoomChangedEvent event) {
+        if (event.getPropertyId() != null) {
+            changed(List.of(event.getPropertyId()), List.of(), List.of(), List.of(), false);
+        }
+    }
+
+    /**
+     * Queues committed changes; each key is resolved to its property when the worker
+     * runs. Called by {@link CubeChangeListener} after commit.
+     */
+    public void changed(Collection<Long> propertyIds, Collection<Long> roomIds, Collection<Long> contractIds,
+                        Collection<Long> invoiceIds, boolean structural) {
+        pendingProperties.addAll(propertyIds);
+        pendingRooms.addAll(roomIds);
+        pendingContracts.addAll(contractIds);
+        pendingInvoices.addAll(invoiceIds);
+        if (structural) {
+            pendingRebuild.set(true);
+        }
+        scheduleDrain();
+    }
+
+    public void requestRebuild() {
+        pendingRebuild.set(true);
+        scheduleDrain();
+    }
+
+    public YearMonth firstMonth() {
+        return current().firstMonth;
+    }
+
+    public YearMonth lastMonth() {
+        return current().lastMonth();
+    }
+
+    /**
+     * Monthly values of {@code metric} from {@code from} to {@code to} inclusive, summed
+     * over one property or over the current organization's properties when
+     * {@code propertyId} is null. Occupancy is the percentage of rooms under contract.
+     */
+    public double[] series(Metric metric, Long propertyId, YearMonth from, YearMonth to) {
+        Data cube = current();
+        lock.readLock().lock();
+        try {
+            int[] ordinals = scope(cube, propertyId);
+            int start = from.isAfter(cube.lastMonth()) ? cube.months : column(cube, from);
+            int end = column(cube, to) + 1;
+            double[] values = new double[Math.max(0, end - start)];
+            aggregate(cube, metric, ordinals, start, end, values);
+            return values;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Value of {@code metric} over a period: the sum of its months, or the average for occupancy.
+     */
+    public double value(Metric metric, Long propertyId, YearMonth from, YearMonth to) {
+        double[] monthly = series(metric, propertyId, from, to);
+        double total = 0.0;
+        for (double value : monthly) {
+            total += value;
+        }
+        return metric == Metric.OCCUPANCY && monthly.length > 0 ? total / monthly.length : total;
+    }
+
+    /**
+     * Monthly values of {@code metric} for every property of the current organization.
+     */
+    public Heatmap heatmap(Metric metric, YearMonth from, YearMonth to) {
+        Data cube = current();
+        lock.readLock().lock();
+        try {
+            int[] ordinals = scope(cube, null);
+            int start = from.isAfter(cube.lastMonth()) ? cube.months : column(cube, from);
+            int end = column(cube, to) + 1;
+            int width = Math.max(0, end - start);
+            long[] propertyIds = new long[ordinals.length];
+            String[] names = new String[ordinals.length];
+            double[][] values = new double[ordinals.length][width];
+            int[] single = new int[1];
+            for (int row = 0; row < ordinals.length; row++) {
+                single[0] = ordinals[row];
+                propertyIds[row] = cube.propertyIds[ordinals[row]];
+                names[row] = cube.names[ordinals[row]];
+                aggregate(cube, metric, single, start, end, values[row]);
+            }
+            List<YearMonth> months = new ArrayList<>(width);
+            for (int column = start; column < end; column++) {
+                months.add(cube.firstMonth.plusMonths(column));
+            }
+            return new Heatmap(months, propertyIds, names, values);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rooms in scope and how many are currently marked occupied, as {@code {rooms, occupied}}.
+     */
+    public int[] roomCounts(Long propertyId) {
+        Data cube = current();
+        lock.readLock().lock();
+        try {
+            int[] counts = new int[2];
+            for (int ordinal : scope(cube, propertyId)) {
+                counts[0] += cube.rooms[ordinal];
+                counts[1] += cube.occupiedRooms[ordinal];
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Values of a property's most recent {@link PropertyAnalytics} date, or null when it
+     * has none or is outside the current organization.
+     */
+    public Map<PropertyAnalytics.MetricType, Double> latestAnalytics(Long propertyId) {
+        Data cube = current();
+        lock.readLock().lock();
+        try {
+            Integer ordinal = cube.ordinals.get(propertyId);
+            Long organizationId = organizationScope.currentOrganizationId();
+            if (ordinal == null || cube.analyticsDate[ordinal] == null
+                    || (organizationId != null && !organizationId.equals(cube.organizationIds[ordinal]))) {
+                return null;
+            }
+            Map<PropertyAnalytics.MetricType, Double> values = new EnumMap<>(PropertyAnalytics.MetricType.class);
+            int offset = ordinal * METRIC_TYPES.length;
+            for (int type = 0; type < METRIC_TYPES.length; type++) {
+                double value = cube.analytics[offset + type];
+                if (!Double.isNaN(value)) {
+                    values.put(METRIC_TYPES[type], value);
+                }
+            }
+            return values;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void aggregate(Data cube, Metric metric, int[] ordinals, int start, int end, double[] target) {
+        switch (metric) {
+            case REVENUE -> addRows(cube, cube.measures[REVENUE], 1.0, ordinals, start, end, target);
+            case COLLECTED -> addRows(cube, cube.measures[COLLECTED], 1.0, ordinals, start, end, target);
+            case EXPENSES -> addRows(cube, cube.measures[EXPENSES], 1.0, ordinals, start, end, target);
+            case PROFIT -> {
+                addRows(cube, cube.measures[REVENUE], 1.0, ordinals, start, end, target);
+                addRows(cube, cube.measures[EXPENSES], -1.0, ordinals, start, end, target);
+            }
+            case MAINTENANCE_COSTS -> addRows(cube, cube.measures[MAINTENANCE_COSTS], 1.0, ordinals, start, end, target);
+            case MAINTENANCE_REQUESTS -> addRows(cube, cube.measures[MAINTENANCE_REQUESTS], 1.0, ordinals, start, end, target);
+            case OCCUPANCY -> {
+                addRows(cube, cube.measures[OCCUPIED_ROOMS], 1.0, ordinals, start, end, target);
+                // Weighted by room count, so a portfolio's occupancy is occupied rooms over all rooms
+                long rooms = 0;
+                for (int ordinal : ordinals) {
+                    rooms += cube.rooms[ordinal];
+                }
+                for (int i = 0; i < target.length; i++) {
+                    target[i] = rooms > 0 ? Math.min(100.0, target[i] * 100.0 / rooms) : 0.0;
+                }
+            }
+        }
+    }
+
+    private static void addRows(Data cube, double[] measure, double sign, int[] ordinals, int start, int end,
+                                double[] target) {
+        int width = end - start;
+        for (int ordinal : ordinals) {
+            int offset = ordinal * cube.months + start;
+            for (int i = 0; i < width; i++) {
+                target[i] += sign * measure[offset + i];
+            }
+        }
+    }
+
+    private int[] scope(Data cube, Long propertyId) {
+        Long organizationId = organizationScope.currentOrganizationId();
+        if (propertyId != null) {
+            Integer ordinal = cube.ordinals.get(propertyId);
+            if (ordinal == null || (organizationId != null && !organizationId.equals(cube.organizationIds[ordinal]))) {
+                throw new RuntimeException("Property not found");
+            }
+            return new int[] {ordinal};
+        }
+        if (organizationId == null) {
+            return cube.all;
+        }
+        return cube.byOrganization.getOrDefault(organizationId, new int[0]);
+    }
+
+    // Months after the last loaded one (the current month before a rollover rebuild) clamp to it
+    private int column(Data cube, YearMonth month) {
+        long column = ChronoUnit.MONTHS.between(cube.firstMonth, month);
+        if (column < 0) {
+            throw new RuntimeException("Analytics are available from " + cube.firstMonth + " onwards");
+        }
+        return (int) Math.min(column, cube.months - 1);
+    }
+
+    private Data current() {
+        Data cube = data;
+        if (cube == null) {
+            return rebuild();
+        }
+        if (YearMonth.now().isAfter(cube.lastMonth())) {
+            requestRebuild();
+        }
+        return cube;
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            worker.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        // Cleared first so changes arriving while this runs schedule another pass
+        drainScheduled.set(false);
+        try {
+            if (pendingRebuild.getAndSet(false)) {
+                pendingProperties.clear();
+                pendingRooms.clear();
+                pendingContracts.clear();
+                pendingInvoices.clear();
+                rebuild();
+                return;
+            }
+            Set<Long> propertyIds = new HashSet<>(take(pendingProperties));
+            propertyIds.addAll(resolve(ROOM_PROPERTIES_SQL, take(pendingRooms)));
+            propertyIds.addAll(resolve(CONTRACT_PROPERTIES_SQL, take(pendingContracts)));
+            propertyIds.addAll(resolve(INVOICE_PROPERTIES_SQL, take(pendingInvoices)));
+            if (!propertyIds.isEmpty()) {
+                refresh(new ArrayList<>(propertyIds));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Analytics cube update failed, rebuilding on the next schedule: {}", e.getMessage());
+        }
+    }
+
+    private static List<Long> take(Set<Long> pending) {
+        List<Long> taken = new ArrayList<>(pending);
+        pending.removeAll(taken);
+        return taken;
+    }
+
+    private List<Long> resolve(String sql, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            return statement;
+        }, (rs, rowNum) -> rs.getLong(1));
+    }
+
+    private Data rebuild() {
+        writer.lock();
+        try {
+            long started = System.currentTimeMillis();
+            YearMonth lastMonth = YearMonth.now();
+            YearMonth firstMonth = lastMonth.minusMonths(windowMonths - 1);
+
+            List<Long> ids = new ArrayList<>();
+            List<Long> organizations = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            List<int[]> roomCounts = new ArrayList<>();
+            query(String.format(PROPERTIES_SQL, ""), null, null, null, rs -> {
+                ids.add(rs.getLong(1));
+                long organizationId = rs.getLong(2);
+                organizations.add(rs.wasNull() ? null : organizationId);
+                names.add(rs.getString(3));
+                roomCounts.add(new int[] {rs.getInt(4), rs.getInt(5)});
+            });
+            Data cube = new Data(firstMonth, windowMonths, ids.stream().mapToLong(Long::longValue).toArray(),
+                organizations.toArray(new Long[0]), names.toArray(new String[0]));
+            for (int ordinal = 0; ordinal < ids.size(); ordinal++) {
+                cube.rooms[ordinal] = roomCounts.get(ordinal)[0];
+                cube.occupiedRooms[ordinal] = roomCounts.get(ordinal)[1];
+            }
+            for (int measure = 0; measure < MEASURES; measure++) {
+                loadMeasure(cube, measure, null, cube.measures[measure], cube.ordinals);
+            }
+            loadAnalytics(cube, null, cube.analytics, cube.analyticsDate, cube.ordinals);
+
+            lock.writeLock().lock();
+            try {
+                data = cube;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Built analytics cube of {} properties x {} months in {} ms", ids.size(), windowMonths,
+                System.currentTimeMillis() - started);
+            return cube;
+        } finally {
+            writer.unlock();
+        }
+    }
+
+    /**
+     * Reloads the rows of the given properties into the current cube, or rebuilds it
+     * when one of them is not in it yet.
+     */
+    private void refresh(List<Long> propertyIds) {
+        writer.lock();
+        try {
+            Data cube = data;
+            if (cube == null || !cube.ordinals.keySet().containsAll(propertyIds)) {
+                rebuild();
+                return;
+            }
+            // Loaded into a compact copy first, so readers are only blocked for the array copies
+            Map<Long, Integer> rows = new HashMap<>();
+            for (Long propertyId : propertyIds) {
+                rows.put(propertyId, rows.size());
+            }
+            int count = rows.size();
+            int[][] roomCounts = new int[count][];
+            query(String.format(PROPERTIES_SQL, "WHERE p.id = ANY(?)"), null, null, propertyIds, rs -> {
+                Integer row = rows.get(rs.getLong(1));
+                if (row != null) {
+                    roomCounts[row] = new int[] {rs.getInt(4), rs.getInt(5)};
+                }
+            });
+            double[][] measures = new double[MEASURES][count * cube.months];
+            for (int measure = 0; measure < MEASURES; measure++) {
+                loadMeasure(cube, measure, propertyIds, measures[measure], rows);
+            }
+            double[] analytics = new double[count * METRIC_TYPES.length];
+            Arrays.fill(analytics, Double.NaN);
+            LocalDate[] analyticsDate = new LocalDate[count];
+            loadAnalytics(cube, propertyIds, analytics, analyticsDate, rows);
+
+            lock.writeLock().lock();
+            try {
+                for (Map.Entry<Long, Integer> entry : rows.entrySet()) {
+                    int ordinal = cube.ordinals.get(entry.getKey());
+                    int row = entry.getValue();
+                    cube.rooms[ordinal] = roomCounts[row] != null ? roomCounts[row][0] : 0;
+                    cube.occupiedRooms[ordinal] = roomCounts[row] != null ? roomCounts[row][1] : 0;
+                    for (int measure = 0; measure < MEASURES; measure++) {
+                        System.arraycopy(measures[measure], row * cube.months,
+                            cube.measures[measure], ordinal * cube.months, cube.months);
+                    }
+                    System.arraycopy(analytics, row * METRIC_TYPES.length,
+                        cube.analytics, ordinal * METRIC_TYPES.length, METRIC_TYPES.length);
+                    cube.analyticsDate[ordinal] = analyticsDate[row];
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.debug("Refreshed analytics cube rows for properties {}", propertyIds);
+        } finally {
+            writer.unlock();
+        }
+    }
+
+    private void loadMeasure(Data cube, int measure, List<Long> propertyIds, double[] target, Map<Long, Integer> rows) {
+        String sql = String.format(MEASURE_SQL[measure], propertyIds != null ? MEASURE_FILTER[measure] : "");
+        query(sql, cube.firstMonth.atDay(1), cube.lastMonth().plusMonths(1).atDay(1), propertyIds, rs -> {
+            Integer row = rows.get(rs.getLong(1));
+            if (row == null) {
+                return;
+            }
+            long column = ChronoUnit.MONTHS.between(cube.firstMonth, rs.getDate(2).toLocalDate().withDayOfMonth(1));
+            if (column >= 0 && column < cube.months) {
+                target[row * cube.months + (int) column] += rs.getDouble(3);
+            }
+        });
+    }
+
+    private void loadAnalytics(Data cube, List<Long> propertyIds, double[] target, LocalDate[] dates,
+                               Map<Long, Integer> rows) {
+        String sql = String.format(LATEST_ANALYTICS_SQL, propertyIds != null ? "WHERE property_id = ANY(?)" : "");
+        query(sql, null, null, propertyIds, rs -> {
+            Integer row = rows.get(rs.getLong(1));
+            String type = rs.getString(2);
+            if (row == null || type == null) {
+                return;
+            }
+            dates[row] = rs.getDate(4).toLocalDate();
+            try {
+                target[row * METRIC_TYPES.length + PropertyAnalytics.MetricType.valueOf(type).ordinal()] = rs.getDouble(3);
+            } catch (IllegalArgumentException e) {
+                // Metric types no longer in the enum are ignored
+            }
+        });
+    }
+
+    private void query(String sql, LocalDate from, LocalDate to, List<Long> propertyIds, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            int parameter = 1;
+            if (from != null) {
+                statement.setDate(parameter++, Date.valueOf(from));
+                statement.setDate(parameter++, Date.valueOf(to));
+            }
+            if (propertyIds != null) {
+                Array array = connection.createArrayOf("bigint", propertyIds.toArray());
+                statement.setArray(parameter, array);
+            }
+            return statement;
+        }, handler);
+    }
+}
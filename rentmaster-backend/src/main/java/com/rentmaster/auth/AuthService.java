@@ -3,6 +3,7 @@ package com.rentmaster.auth;
 import com.rentmaster.auth.dto.*;
 import com.rentmaster.user.User;
 import com.rentmaster.user.UserRepository;
+import com.rentmaster.user.UserUniqueness;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -36,6 +37,9 @@ public class AuthService {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private UserUniqueness userUniqueness;
+
     @Transactional
     public LoginResponse login(LoginRequest request, HttpServletRequest httpRequest) {
         String ipAddress = getClientIpAddress(httpRequest);
@@ -71,13 +75,13 @@ public class AuthService {
         }
         
         String roleName = user.getRole().name();
-        String token = jwtUtil.generateToken(user.getUsername(), roleName);
+        String token = jwtUtil.generateToken(user.getId(), user.getUsername(), roleName);
         return new LoginResponse(token, user.getUsername(), roleName, user.getFullName() != null ? user.getFullName() : user.getUsername());
     }
 
     @Transactional
     public void forgotPassword(ForgotPasswordRequest request) {
-        User user = userRepository.findByEmail(request.getEmail())
+        User user = userRepository.findByEmailIgnoringCase(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("No account found with this email address"));
 
         // Delete any existing reset tokens for this user
@@ -142,28 +146,29 @@ public class AuthService {
 
         // Check if username is already taken by another user
         if (!user.getUsername().equals(request.getUsername()) && 
-            userRepository.existsByUsername(request.getUsername())) {
+            userRepository.existsByUsernameIgnoringCaseForOtherUser(request.getUsername(), user.getId())) {
             throw new RuntimeException("Username is already taken");
         }
 
+        String email = UserUniqueness.normalizeEmail(request.getEmail());
         // Check if email is already taken by another user
-        if (!request.getEmail().equals(user.getEmail()) && 
-            userRepository.existsByEmail(request.getEmail())) {
+        if (email != null && !email.equals(user.getEmail()) &&
+            userRepository.existsByEmailIgnoringCaseForOtherUser(email, user.getId())) {
             throw new RuntimeException("Email is already taken");
         }
 
         user.setFullName(request.getFullName());
-        user.setEmail(request.getEmail());
+        user.setEmail(email);
         user.setUsername(request.getUsername());
         
-        return userRepository.save(user);
+        return userUniqueness.saveUnique(user);
     }
 
     public RefreshTokenResponse refreshToken(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        String newToken = jwtUtil.generateToken(user.getUsername(), user.getRole().name());
+        String newToken = jwtUtil.generateToken(user.getId(), user.getUsername(), user.getRole().name());
         return new RefreshTokenResponse(newToken);
     }
 
@@ -0,0 +1,44 @@
+package com.rentmaster.auth;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Principal of a JWT-authenticated request. The id comes from the token's {@code uid}
+ * claim, so per-user state can be keyed by id without looking the username up;
+ * {@link #getName()} keeps {@code authentication.getName()} returning the username.
+ */
+public class AuthenticatedUser implements AuthenticatedPrincipal {
+
+    private final Long id;
+    private final String username;
+
+    public AuthenticatedUser(Long id, String username) {
+        this.id = id;
+        this.username = username;
+    }
+
+    /**
+     * The user id of an authentication made by {@link JwtAuthenticationFilter}, or null.
+     */
+    public static Long idOf(Authentication authentication) {
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        return null;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
@@ -2,6 +2,7 @@ package com.rentmaster.auth;
 
 import com.rentmaster.multitenancy.OrganizationContext;
 import com.rentmaster.multitenancy.OrganizationRepository;
+import com.rentmaster.multitenancy.UserOrganizationRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,6 +21,8 @@ import java.util.Collections;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String STREAM_PATH = "/api/notifications/stream";
+
     @Autowired
     private JwtUtil jwtUtil;
 
@@ -29,6 +32,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private OrganizationRepository organizationRepository;
 
+    @Autowired
+    private UserOrganizationRepository userOrganizationRepository;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
@@ -46,39 +52,54 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String username = null;
         String jwt = null;
         String role = null;
+        Long userId = null;
         Long organizationId = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             jwt = authorizationHeader.substring(7);
+        } else if (STREAM_PATH.equals(path)) {
+            // EventSource cannot send headers, so the notification stream accepts the token as a parameter
+            jwt = request.getParameter("access_token");
+        }
+
+        if (jwt != null) {
             try {
                 username = jwtUtil.extractUsername(jwt);
                 role = jwtUtil.extractRole(jwt);
+                userId = jwtUtil.extractUserId(jwt);
                 organizationId = jwtUtil.extractOrganizationId(jwt);
             } catch (Exception e) {
                 // Invalid token, continue without authentication
             }
         }
 
-        // Set organization context from header or JWT
-        if (organizationHeader != null && !organizationHeader.isEmpty()) {
+        // Set organization context from header or JWT; the header may only select an organization the user belongs to
+        if (organizationHeader != null && !organizationHeader.isEmpty() && userId != null) {
+            Long orgId;
             try {
-                Long orgId = Long.parseLong(organizationHeader);
-                organizationRepository.findById(orgId).ifPresent(org -> {
-                    organizationContext.setOrganization(org);
-                });
+                orgId = Long.parseLong(organizationHeader);
             } catch (NumberFormatException e) {
-                // Invalid organization ID, ignore
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid X-Organization-Id");
+                return;
+            }
+            if (!userOrganizationRepository.isMember(userId, orgId)) {
+                response.sendError(HttpServletResponse.SC_FORBIDDEN, "Not a member of organization " + orgId);
+                return;
             }
+            organizationRepository.findById(orgId).ifPresent(org -> {
+                organizationContext.setOrganization(org);
+            });
         } else if (organizationId != null) {
             organizationRepository.findById(organizationId).ifPresent(org -> {
                 organizationContext.setOrganization(org);
             });
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        // Tokens without a user id predate it and must be renewed by logging in again
+        if (username != null && userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             if (jwtUtil.validateToken(jwt, username)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        username, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role)));
+                        new AuthenticatedUser(userId, username), null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role)));
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
@@ -25,14 +25,13 @@ public class JwtUtil {
         return Keys.hmacShaKeyFor(secret.getBytes());
     }
 
-    public String generateToken(String username, String role) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("role", role);
-        return createToken(claims, username);
+    public String generateToken(Long userId, String username, String role) {
+        return generateToken(userId, username, role, null);
     }
 
-    public String generateToken(String username, String role, Long organizationId) {
+    public String generateToken(Long userId, String username, String role, Long organizationId) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put("uid", userId);
         claims.put("role", role);
         if (organizationId != null) {
             claims.put("organizationId", organizationId);
@@ -51,6 +50,16 @@ public class JwtUtil {
         }
     }
 
+    /**
+     * The user id claim; null for tokens issued before it was added, which are not accepted.
+     */
+    public Long extractUserId(String token) {
+        return extractClaim(token, claims -> {
+            Object userId = claims.get("uid");
+            return userId != null ? Long.parseLong(userId.toString()) : null;
+        });
+    }
+
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .claims(claims)
@@ -9,7 +9,8 @@ import java.time.Instant;
 public class LoginAttempt {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "login_attempts_seq")
+    @SequenceGenerator(name = "login_attempts_seq", sequenceName = "login_attempts_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "username", nullable = false)
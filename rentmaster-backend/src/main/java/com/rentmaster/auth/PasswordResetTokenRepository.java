@@ -21,5 +21,5 @@ public interface PasswordResetTokenRepository extends JpaRepository<PasswordRese
     
     @Modifying
     @Query("DELETE FROM PasswordResetToken p WHERE p.expiresAt < :now")
-    void deleteExpiredTokens(@Param("now") Instant now);
+    int deleteExpiredTokens(@Param("now") Instant now);
 }
\ No newline at end of file
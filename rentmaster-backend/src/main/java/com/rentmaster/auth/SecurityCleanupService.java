@@ -1,7 +1,9 @@
 package com.rentmaster.auth;
 
+import com.rentmaster.scheduling.JobResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -10,25 +12,27 @@ import java.time.Instant;
 @Service
 public class SecurityCleanupService {
 
+    private static final Logger logger = LoggerFactory.getLogger(SecurityCleanupService.class);
+
     @Autowired
     private PasswordResetTokenRepository passwordResetTokenRepository;
 
     @Autowired
     private LoginAttemptRepository loginAttemptRepository;
 
-    // Run every hour
-    @Scheduled(fixedRate = 3600000)
+    // Run hourly by the "security-cleanup" cluster job
     @Transactional
-    public void cleanupExpiredTokens() {
+    public JobResult cleanupExpiredTokens() {
         Instant now = Instant.now();
         
         // Clean up expired password reset tokens
-        passwordResetTokenRepository.deleteExpiredTokens(now);
+        int deleted = passwordResetTokenRepository.deleteExpiredTokens(now);
         
         // Clean up old login attempts (older than 30 days)
         Instant thirtyDaysAgo = now.minusSeconds(30 * 24 * 60 * 60);
         // Note: You might want to add a method to delete old login attempts
         
-        System.out.println("Cleaned up expired security tokens at: " + now);
+        logger.info("Cleaned up {} expired password reset token(s)", deleted);
+        return JobResult.of(deleted, 0);
     }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.rentmaster.automation;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A domain event that automation rules can react to. Published through the
+ * ApplicationEventPublisher; the rule engine evaluates it after the publishing
+ * transaction commits.
+ *
+ * Facts are the flat values rule conditions test (amount, status, propertyId, ...);
+ * dates are passed as ISO strings so they compare in order.
+ */
+public class AutomationEvent {
+
+    private final AutomationRule.TriggerType triggerType;
+    private final Long organizationId;
+    private final Map<String, Object> facts;
+
+    public AutomationEvent(AutomationRule.TriggerType triggerType, Long organizationId, Map<String, Object> facts) {
+        this.triggerType = triggerType;
+        this.organizationId = organizationId;
+        this.facts = Collections.unmodifiableMap(facts);
+    }
+
+    public AutomationRule.TriggerType getTriggerType() {
+        return triggerType;
+    }
+
+    public Long getOrganizationId() {
+        return organizationId;
+    }
+
+    public Map<String, Object> getFacts() {
+        return facts;
+    }
+}
@@ -1,18 +1,32 @@
 package com.rentmaster.automation;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.rentmaster.multitenancy.Organization;
+import com.rentmaster.multitenancy.OrganizationAssignmentListener;
+import com.rentmaster.multitenancy.OrganizationOwned;
+import com.rentmaster.multitenancy.OrganizationScope;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Filter;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "automation_rules")
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
-public class AutomationRule {
+@EntityListeners(OrganizationAssignmentListener.class)
+@Filter(name = OrganizationScope.FILTER_NAME)
+public class AutomationRule implements OrganizationOwned {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    // Null for rules that apply to every organization
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "organization_id")
+    private Organization organization;
+    
     @Column(name = "name", nullable = false)
     private String name;
     
@@ -79,6 +93,9 @@ public class AutomationRule {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     
+    public Organization getOrganization() { return organization; }
+    public void setOrganization(Organization organization) { this.organization = organization; }
+    
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
     
@@ -0,0 +1,391 @@
+package com.rentmaster.automation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rentmaster.multitenancy.UserOrganizationRepository;
+import com.rentmaster.notification.NotificationPriority;
+import com.rentmaster.notification.NotificationService;
+import com.rentmaster.notification.NotificationType;
+import com.rentmaster.user.User;
+import com.rentmaster.user.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Evaluates automation rules against {@link AutomationEvent}s.
+ *
+ * Each active rule's conditions and actions are compiled once and kept until the rule
+ * changes. Rules are indexed by trigger type and organization, and within that by one
+ * of their equality guards (e.g. {@code "priority": "URGENT"}), so an event only tests
+ * the rules of its trigger and organization that it can possibly satisfy; the cost
+ * does not grow with the rules that other triggers, organizations or guard values
+ * hold. The index is an immutable snapshot swapped on change, so evaluation takes
+ * no locks.
+ *
+ * All actions fired by one event run in a single new transaction after the event's
+ * own transaction commits, and the matched rules' counters are bumped in one UPDATE.
+ */
+@Component
+public class AutomationRuleEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutomationRuleEngine.class);
+
+    private static final class CompiledRule {
+        private final Long id;
+        private final String name;
+        private final Long organizationId;
+        private final AutomationRule.TriggerType triggerType;
+        private final Long createdBy;
+        private final LocalDateTime version;
+        private final RuleCondition condition;
+        private final List<RuleAction> actions;
+
+        private CompiledRule(AutomationRule rule, Long organizationId, RuleCondition condition, List<RuleAction> actions) {
+            this.id = rule.getId();
+            this.name = rule.getName();
+            this.organizationId = organizationId;
+            this.triggerType = rule.getTriggerType();
+            this.createdBy = rule.getCreatedBy();
+            this.version = versionOf(rule);
+            this.condition = condition;
+            this.actions = actions;
+        }
+    }
+
+    // Rules of one trigger type and organization
+    private static final class RuleBucket {
+        // guard fact -> normalized value -> rules requiring that value
+        private final Map<String, Map<Object, List<CompiledRule>>> guarded = new HashMap<>();
+        private final List<CompiledRule> unguarded = new ArrayList<>();
+
+        private void add(CompiledRule rule) {
+            Map<String, Object> guards = rule.condition.equalityGuards();
+            if (guards.isEmpty()) {
+                unguarded.add(rule);
+                return;
+            }
+            Map.Entry<String, Object> guard = guards.entrySet().iterator().next();
+            guarded.computeIfAbsent(guard.getKey(), fact -> new HashMap<>())
+                .computeIfAbsent(guard.getValue(), value -> new ArrayList<>())
+                .add(rule);
+        }
+
+        private void collectCandidates(Map<String, Object> facts, List<CompiledRule> candidates) {
+            candidates.addAll(unguarded);
+            for (Map.Entry<String, Map<Object, List<CompiledRule>>> byFact : guarded.entrySet()) {
+                Object value = facts.get(byFact.getKey());
+                if (value != null) {
+                    List<CompiledRule> rules = byFact.getValue().get(RuleCondition.normalize(value));
+                    if (rules != null) {
+                        candidates.addAll(rules);
+                    }
+                }
+            }
+        }
+    }
+
+    @Autowired
+    private AutomationRuleRepository ruleRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserOrganizationRepository userOrganizationRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate actionTransaction;
+
+    // Guards reloads and index rebuilds
+    private final ReentrantLock indexLock = new ReentrantLock();
+    private final Map<Long, CompiledRule> compiled = new ConcurrentHashMap<>();
+    // trigger type -> organization id (null = every organization) -> bucket
+    private volatile Map<AutomationRule.TriggerType, Map<Long, RuleBucket>> index = new EnumMap<>(AutomationRule.TriggerType.class);
+
+    @PostConstruct
+    public void init() {
+        actionTransaction = new TransactionTemplate(transactionManager);
+        actionTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    /**
+     * Re-reads active rules so edits made on other nodes are picked up; rules whose
+     * updatedAt has not changed keep their compiled form.
+     */
+    @Scheduled(initialDelayString = "${automation.rules.reload-ms:60000}", fixedDelayString = "${automation.rules.reload-ms:60000}")
+    public void reload() {
+        indexLock.lock();
+        try {
+            reloadActive();
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    private void reloadActive() {
+        Map<Long, CompiledRule> active = new HashMap<>();
+        for (Object[] row : ruleRepository.findActiveWithOrganizationId()) {
+            AutomationRule rule = (AutomationRule) row[0];
+            CompiledRule existing = compiled.get(rule.getId());
+            if (existing != null && Objects.equals(existing.version, versionOf(rule))) {
+                active.put(rule.getId(), existing);
+                continue;
+            }
+            try {
+                active.put(rule.getId(), compile(rule, (Long) row[1]));
+            } catch (RuntimeException e) {
+                logger.warn("Skipping automation rule {} ({}): {}", rule.getId(), rule.getName(), e.getMessage());
+            }
+        }
+        compiled.keySet().retainAll(active.keySet());
+        compiled.putAll(active);
+        rebuildIndex();
+        logger.debug("Automation rule engine loaded {} active rule(s)", active.size());
+    }
+
+    /**
+     * Compiles conditions and actions without registering the rule; throws when either is invalid
+     * or a NOTIFY action names a user outside the rule's organization.
+     */
+    public void validate(AutomationRule rule, Long organizationId) {
+        CompiledRule compiledRule = compile(rule, organizationId);
+        for (RuleAction action : compiledRule.actions) {
+            for (Long userId : action.getUserIds()) {
+                boolean allowed = organizationId != null
+                    ? userOrganizationRepository.isMember(userId, organizationId)
+                    : userRepository.existsById(userId);
+                if (!allowed) {
+                    throw new RuntimeException("Invalid NOTIFY recipient: user " + userId + " is not in the rule's organization");
+                }
+            }
+        }
+    }
+
+    /**
+     * Refreshes one rule in the index once the current transaction (if any) commits.
+     */
+    public void onRuleChanged(AutomationRule rule, Long organizationId) {
+        CompiledRule updated = Boolean.TRUE.equals(rule.getActive()) ? compile(rule, organizationId) : null;
+        Long ruleId = rule.getId();
+        afterCommit(() -> {
+            indexLock.lock();
+            try {
+                if (updated != null) {
+                    compiled.put(ruleId, updated);
+                } else {
+                    compiled.remove(ruleId);
+                }
+                rebuildIndex();
+            } finally {
+                indexLock.unlock();
+            }
+        });
+    }
+
+    public void onRuleDeleted(Long ruleId) {
+        afterCommit(() -> {
+            indexLock.lock();
+            try {
+                if (compiled.remove(ruleId) != null) {
+                    rebuildIndex();
+                }
+            } finally {
+                indexLock.unlock();
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAutomationEvent(AutomationEvent event) {
+        List<CompiledRule> matched = match(event);
+        if (matched.isEmpty()) {
+            return;
+        }
+        try {
+            execute(event, matched);
+        } catch (RuntimeException e) {
+            logger.warn("Automation rules for {} event failed: {}", event.getTriggerType(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Runs one rule's actions now against the given facts, skipping its conditions.
+     */
+    public Map<String, Object> executeNow(AutomationRule rule, Long organizationId, Map<String, Object> facts) {
+        CompiledRule compiledRule = compile(rule, organizationId);
+        AutomationEvent event = new AutomationEvent(AutomationRule.TriggerType.MANUAL, organizationId, facts);
+        int notifications = execute(event, List.of(compiledRule));
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("ruleId", rule.getId());
+        result.put("actions", compiledRule.actions.size());
+        result.put("notifications", notifications);
+        return result;
+    }
+
+    private List<CompiledRule> match(AutomationEvent event) {
+        Map<Long, RuleBucket> byOrganization = index.get(event.getTriggerType());
+        if (byOrganization == null) {
+            return List.of();
+        }
+        List<CompiledRule> candidates = new ArrayList<>();
+        RuleBucket global = byOrganization.get(null);
+        if (global != null) {
+            global.collectCandidates(event.getFacts(), candidates);
+        }
+        if (event.getOrganizationId() != null) {
+            RuleBucket own = byOrganization.get(event.getOrganizationId());
+            if (own != null) {
+                own.collectCandidates(event.getFacts(), candidates);
+            }
+        }
+        List<CompiledRule> matched = new ArrayList<>();
+        for (CompiledRule rule : candidates) {
+            if (rule.condition.test(event.getFacts())) {
+                matched.add(rule);
+            }
+        }
+        return matched;
+    }
+
+    private int execute(AutomationEvent event, List<CompiledRule> rules) {
+        Map<String, Object> facts = event.getFacts();
+        NotificationType notificationType = notificationTypeFor(event.getTriggerType());
+        String entityType = facts.get("entityType") != null ? facts.get("entityType").toString() : null;
+        Long entityId = facts.get("entityId") instanceof Number number ? number.longValue() : null;
+
+        Integer sent = actionTransaction.execute(status -> {
+            // Identical notifications from several rules reach the user once
+            Map<String, Object[]> notifications = new LinkedHashMap<>();
+            Set<Long> userIds = new HashSet<>();
+            for (CompiledRule rule : rules) {
+                for (RuleAction action : rule.actions) {
+                    if (action.getType() == RuleAction.Type.LOG) {
+                        logger.info("Automation rule {} ({}): {}", rule.id, rule.name, action.renderMessage(facts));
+                        continue;
+                    }
+                    String title = action.renderTitle(facts);
+                    String message = action.renderMessage(facts);
+                    for (Long userId : action.recipients(facts, rule.createdBy)) {
+                        notifications.putIfAbsent(userId + "\u0000" + title + "\u0000" + message,
+                            new Object[] { userId, title, message, action.getPriority() });
+                        userIds.add(userId);
+                    }
+                }
+            }
+
+            Map<Long, User> users = userIds.isEmpty() ? Map.of() : userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+            int count = 0;
+            for (Object[] notification : notifications.values()) {
+                User user = users.get((Long) notification[0]);
+                if (user == null) {
+                    continue;
+                }
+                notificationService.createNotification(user, notificationType, (String) notification[1],
+                    (String) notification[2], (NotificationPriority) notification[3],
+                    entityType, entityId);
+                count++;
+            }
+
+            ruleRepository.recordExecutions(rules.stream().map(rule -> rule.id).collect(Collectors.toCollection(LinkedHashSet::new)),
+                LocalDateTime.now());
+            return count;
+        });
+        return sent != null ? sent : 0;
+    }
+
+    private CompiledRule compile(AutomationRule rule, Long organizationId) {
+        try {
+            RuleCondition condition = RuleCondition.compile(isBlank(rule.getTriggerConditions())
+                ? null : objectMapper.readTree(rule.getTriggerConditions()));
+            List<RuleAction> actions = RuleAction.compileAll(isBlank(rule.getActions())
+                ? null : objectMapper.readTree(rule.getActions()));
+            return new CompiledRule(rule, organizationId, condition, actions);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Invalid rule JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private void rebuildIndex() {
+        Map<AutomationRule.TriggerType, Map<Long, RuleBucket>> rebuilt = new EnumMap<>(AutomationRule.TriggerType.class);
+        for (CompiledRule rule : compiled.values()) {
+            rebuilt.computeIfAbsent(rule.triggerType, type -> new HashMap<>())
+                .computeIfAbsent(rule.organizationId, organizationId -> new RuleBucket())
+                .add(rule);
+        }
+        index = rebuilt;
+    }
+
+    private static NotificationType notificationTypeFor(AutomationRule.TriggerType triggerType) {
+        return switch (triggerType) {
+            case INVOICE_OVERDUE -> NotificationType.INVOICE_DUE;
+            case PAYMENT_RECEIVED -> NotificationType.PAYMENT_RECEIVED;
+            case CONTRACT_EXPIRING -> NotificationType.CONTRACT_EXPIRING;
+            case MAINTENANCE_REQUEST -> NotificationType.MAINTENANCE_REQUEST;
+            default -> NotificationType.SYSTEM;
+        };
+    }
+
+    private static LocalDateTime versionOf(AutomationRule rule) {
+        return rule.getUpdatedAt() != null ? rule.getUpdatedAt() : rule.getCreatedAt();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
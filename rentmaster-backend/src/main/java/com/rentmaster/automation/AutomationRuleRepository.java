@@ -0,0 +1,41 @@
+package com.rentmaster.automation;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AutomationRuleRepository extends JpaRepository<AutomationRule, Long> {
+    
+    @Query("SELECT r FROM AutomationRule r WHERE (:active IS NULL OR r.active = :active) " +
+           "AND (:triggerType IS NULL OR r.triggerType = :triggerType) ORDER BY r.createdAt DESC")
+    Page<AutomationRule> findWithFilters(@Param("active") Boolean active,
+                                         @Param("triggerType") AutomationRule.TriggerType triggerType,
+                                         Pageable pageable);
+    
+    // Active rules with their organization id, for the rule engine
+    @Query("SELECT r, o.id FROM AutomationRule r LEFT JOIN r.organization o WHERE r.active = true")
+    List<Object[]> findActiveWithOrganizationId();
+    
+    @Query("SELECT o.id FROM AutomationRule r LEFT JOIN r.organization o WHERE r.id = :id")
+    Long findOrganizationIdById(@Param("id") Long id);
+    
+    // One statement for all rules that fired on an event, so concurrent events never lose a count
+    @Modifying
+    @Query("UPDATE AutomationRule r SET r.executionCount = r.executionCount + 1, r.lastExecuted = :now WHERE r.id IN :ids")
+    int recordExecutions(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    @Query("SELECT COUNT(r) FROM AutomationRule r WHERE r.active = true")
+    long countActive();
+    
+    @Query("SELECT COUNT(r) FROM AutomationRule r WHERE r.lastExecuted >= :since")
+    long countExecutedSince(@Param("since") LocalDateTime since);
+}
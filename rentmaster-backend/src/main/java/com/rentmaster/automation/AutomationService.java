@@ -5,7 +5,15 @@ import com.rentmaster.contract.ContractRepository;
 
 import com.rentmaster.billing.InvoiceService;
 import com.rentmaster.billing.dto.InvoiceGenerateDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rentmaster.multitenancy.OrganizationScope;
+import com.rentmaster.scheduling.JobResult;
+import com.rentmaster.user.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,6 +37,21 @@ public class AutomationService {
     @Autowired
     private InvoiceService invoiceService;
 
+    @Autowired
+    private AutomationRuleRepository automationRuleRepository;
+
+    @Autowired
+    private AutomationRuleEngine automationRuleEngine;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrganizationScope organizationScope;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     // Recurring Invoices
     public List<RecurringInvoice> getAllRecurringInvoices() {
         return recurringInvoiceRepository.findAll();
@@ -138,12 +161,12 @@ public class AutomationService {
         stats.setTotalRenewalReminders(renewalReminderRepository.countTotal());
         stats.setActiveRenewalReminders(renewalReminderRepository.countActive());
 
-        // TODO: Add scheduled reports and automation rules counts when implemented
+        // TODO: Add scheduled reports counts when implemented
         stats.setTotalScheduledReports(0L);
         stats.setActiveScheduledReports(0L);
-        stats.setTotalAutomationRules(0L);
-        stats.setActiveAutomationRules(0L);
-        stats.setExecutionsToday(0L);
+        stats.setTotalAutomationRules(automationRuleRepository.count());
+        stats.setActiveAutomationRules(automationRuleRepository.countActive());
+        stats.setExecutionsToday(automationRuleRepository.countExecutedSince(LocalDate.now().atStartOfDay()));
         stats.setSuccessRate(100.0);
 
         return stats;
@@ -151,7 +174,14 @@ public class AutomationService {
 
     // Scheduled Processing Methods
     public void processRecurringInvoices() {
-        List<RecurringInvoice> dueInvoices = recurringInvoiceRepository.findDueForGeneration(LocalDate.now());
+        processRecurringInvoices(0, 1);
+    }
+
+    // Run by the "recurring-invoices" cluster job, one shard of contracts at a time
+    public JobResult processRecurringInvoices(int shard, int shardCount) {
+        List<RecurringInvoice> dueInvoices =
+                recurringInvoiceRepository.findDueForGenerationInShard(LocalDate.now(), shard, shardCount);
+        int failed = 0;
 
         for (RecurringInvoice recurringInvoice : dueInvoices) {
             try {
@@ -161,14 +191,23 @@ public class AutomationService {
                 recurringInvoiceRepository.save(recurringInvoice);
             } catch (Exception e) {
                 // Log error but continue processing other invoices
+                failed++;
                 System.err.println(
                         "Failed to generate recurring invoice " + recurringInvoice.getId() + ": " + e.getMessage());
             }
         }
+        return JobResult.of(dueInvoices.size() - failed, failed);
     }
 
     public void processContractRenewalReminders() {
-        List<ContractRenewalReminder> dueReminders = renewalReminderRepository.findDueForReminder(LocalDate.now());
+        processContractRenewalReminders(0, 1);
+    }
+
+    // Run by the "renewal-reminders" cluster job, one shard of contracts at a time
+    public JobResult processContractRenewalReminders(int shard, int shardCount) {
+        List<ContractRenewalReminder> dueReminders =
+                renewalReminderRepository.findDueForReminderInShard(LocalDate.now(), shard, shardCount);
+        int failed = 0;
 
         for (ContractRenewalReminder reminder : dueReminders) {
             try {
@@ -178,9 +217,11 @@ public class AutomationService {
                 renewalReminderRepository.save(reminder);
             } catch (Exception e) {
                 // Log error but continue processing other reminders
+                failed++;
                 System.err.println("Failed to send renewal reminder " + reminder.getId() + ": " + e.getMessage());
             }
         }
+        return JobResult.of(dueReminders.size() - failed, failed);
     }
 
     // Private helper methods
@@ -412,27 +453,129 @@ public class AutomationService {
         return new HashMap<>();
     }
 
+    // Automation Rules
     public List<Map<String, Object>> getAutomationRules(int page, int size, Boolean active, String triggerType) {
-        return new ArrayList<>();
+        AutomationRule.TriggerType type = triggerType != null ? parseTriggerType(triggerType) : null;
+        List<Map<String, Object>> rules = new ArrayList<>();
+        automationRuleRepository.findWithFilters(active, type, PageRequest.of(page, size))
+                .forEach(rule -> rules.add(toRuleMap(rule)));
+        return rules;
     }
 
     public Map<String, Object> createAutomationRule(Map<String, Object> ruleData) {
-        return new HashMap<>();
+        AutomationRule rule = new AutomationRule();
+        applyRuleData(rule, ruleData);
+        if (rule.getName() == null || rule.getTriggerType() == null) {
+            throw new RuntimeException("Rule name and trigger type are required");
+        }
+        // The author is the fallback recipient of NOTIFY actions, so it is never taken from the request
+        rule.setCreatedBy(currentUserId());
+        automationRuleEngine.validate(rule, organizationScope.currentOrganizationId());
+        AutomationRule saved = automationRuleRepository.saveAndFlush(rule);
+        automationRuleEngine.onRuleChanged(saved, automationRuleRepository.findOrganizationIdById(saved.getId()));
+        return toRuleMap(saved);
     }
 
     public Map<String, Object> updateAutomationRule(Long id, Map<String, Object> ruleData) {
-        return new HashMap<>();
+        AutomationRule rule = automationRuleRepository.findById(id).filter(organizationScope::isVisible)
+                .orElseThrow(() -> new RuntimeException("Automation rule not found with id: " + id));
+        applyRuleData(rule, ruleData);
+        automationRuleEngine.validate(rule, rule.getOrganization() != null ? rule.getOrganization().getId() : null);
+        AutomationRule saved = automationRuleRepository.saveAndFlush(rule);
+        automationRuleEngine.onRuleChanged(saved, automationRuleRepository.findOrganizationIdById(id));
+        return toRuleMap(saved);
     }
 
     public void deleteAutomationRule(Long id) {
+        AutomationRule rule = automationRuleRepository.findById(id).filter(organizationScope::isVisible)
+                .orElseThrow(() -> new RuntimeException("Automation rule not found with id: " + id));
+        automationRuleRepository.delete(rule);
+        automationRuleEngine.onRuleDeleted(id);
     }
 
+    // Runs the rule's actions immediately; conditions are skipped since there is no triggering event
     public Map<String, Object> executeAutomationRule(Long id) {
-        return new HashMap<>();
+        AutomationRule rule = automationRuleRepository.findById(id).filter(organizationScope::isVisible)
+                .orElseThrow(() -> new RuntimeException("Automation rule not found with id: " + id));
+        Map<String, Object> facts = new HashMap<>();
+        facts.put("ruleId", rule.getId());
+        facts.put("ruleName", rule.getName());
+        return automationRuleEngine.executeNow(rule, automationRuleRepository.findOrganizationIdById(id), facts);
     }
 
     public Map<String, Object> toggleAutomationRule(Long id) {
-        return new HashMap<>();
+        AutomationRule rule = automationRuleRepository.findById(id).filter(organizationScope::isVisible)
+                .orElseThrow(() -> new RuntimeException("Automation rule not found with id: " + id));
+        rule.setActive(!Boolean.TRUE.equals(rule.getActive()));
+        AutomationRule saved = automationRuleRepository.saveAndFlush(rule);
+        automationRuleEngine.onRuleChanged(saved, automationRuleRepository.findOrganizationIdById(id));
+        return toRuleMap(saved);
+    }
+
+    private void applyRuleData(AutomationRule rule, Map<String, Object> ruleData) {
+        if (ruleData.containsKey("name")) {
+            rule.setName((String) ruleData.get("name"));
+        }
+        if (ruleData.containsKey("description")) {
+            rule.setDescription((String) ruleData.get("description"));
+        }
+        if (ruleData.get("triggerType") != null) {
+            rule.setTriggerType(parseTriggerType(ruleData.get("triggerType").toString()));
+        }
+        if (ruleData.containsKey("triggerConditions")) {
+            rule.setTriggerConditions(toJson(ruleData.get("triggerConditions")));
+        }
+        if (ruleData.containsKey("actions")) {
+            rule.setActions(toJson(ruleData.get("actions")));
+        }
+        if (ruleData.get("active") != null) {
+            rule.setActive(Boolean.valueOf(ruleData.get("active").toString()));
+        }
+    }
+
+    // Conditions and actions may be sent as JSON or as an already-serialized string
+    private String toJson(Object value) {
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Invalid rule JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private AutomationRule.TriggerType parseTriggerType(String triggerType) {
+        try {
+            return AutomationRule.TriggerType.valueOf(triggerType.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown trigger type: " + triggerType);
+        }
+    }
+
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return null;
+        }
+        return userRepository.findByUsername(authentication.getName()).map(user -> user.getId()).orElse(null);
+    }
+
+    private Map<String, Object> toRuleMap(AutomationRule rule) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", rule.getId());
+        map.put("name", rule.getName());
+        map.put("description", rule.getDescription());
+        map.put("triggerType", rule.getTriggerType());
+        map.put("triggerConditions", rule.getTriggerConditions());
+        map.put("actions", rule.getActions());
+        map.put("active", rule.getActive());
+        map.put("lastExecuted", rule.getLastExecuted());
+        map.put("executionCount", rule.getExecutionCount());
+        map.put("createdAt", rule.getCreatedAt());
+        map.put("updatedAt", rule.getUpdatedAt());
+        map.put("createdBy", rule.getCreatedBy());
+        return map;
     }
 
     public List<Map<String, Object>> getAutomationExecutions(int page, int size, Long ruleId, String status) {
@@ -460,10 +603,24 @@ public class AutomationService {
     }
 
     public List<Map<String, Object>> getTriggerTypes() {
-        return new ArrayList<>();
+        List<Map<String, Object>> types = new ArrayList<>();
+        for (AutomationRule.TriggerType type : AutomationRule.TriggerType.values()) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("value", type.name());
+            entry.put("label", type.name().replace('_', ' '));
+            types.add(entry);
+        }
+        return types;
     }
 
     public List<Map<String, Object>> getActionTypes() {
-        return new ArrayList<>();
+        List<Map<String, Object>> types = new ArrayList<>();
+        for (RuleAction.Type type : RuleAction.Type.values()) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("value", type.name());
+            entry.put("label", type.name().replace('_', ' '));
+            types.add(entry);
+        }
+        return types;
     }
 }
\ No newline at end of file
@@ -18,6 +18,12 @@ public interface ContractRenewalReminderRepository extends JpaRepository<Contrac
     @Query("SELECT crr FROM ContractRenewalReminder crr WHERE crr.active = true AND crr.sent = false AND crr.reminderDate <= :date")
     List<ContractRenewalReminder> findDueForReminder(@Param("date") LocalDate date);
     
+    // Due reminders whose contract falls in the given job shard
+    @Query("SELECT crr FROM ContractRenewalReminder crr WHERE crr.active = true AND crr.sent = false " +
+           "AND crr.reminderDate <= :date AND MOD(crr.contract.id, :shardCount) = :shard")
+    List<ContractRenewalReminder> findDueForReminderInShard(@Param("date") LocalDate date, @Param("shard") int shard,
+                                                            @Param("shardCount") int shardCount);
+    
     @Query("SELECT COUNT(crr) FROM ContractRenewalReminder crr WHERE crr.active = true")
     long countActive();
     
@@ -18,6 +18,12 @@ public interface RecurringInvoiceRepository extends JpaRepository<RecurringInvoi
     @Query("SELECT ri FROM RecurringInvoice ri WHERE ri.active = true AND ri.nextGenerationDate <= :date")
     List<RecurringInvoice> findDueForGeneration(@Param("date") LocalDate date);
     
+    // Due recurring invoices whose contract falls in the given job shard
+    @Query("SELECT ri FROM RecurringInvoice ri WHERE ri.active = true AND ri.nextGenerationDate <= :date " +
+           "AND MOD(ri.contractId, :shardCount) = :shard")
+    List<RecurringInvoice> findDueForGenerationInShard(@Param("date") LocalDate date, @Param("shard") int shard,
+                                                       @Param("shardCount") int shardCount);
+    
     @Query("SELECT COUNT(ri) FROM RecurringInvoice ri WHERE ri.active = true")
     long countActive();
     
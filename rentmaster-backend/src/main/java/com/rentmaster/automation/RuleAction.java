@@ -0,0 +1,139 @@
+package com.rentmaster.automation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.rentmaster.notification.NotificationPriority;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One entry of a rule's actions, compiled once. Supported types:
+ * <pre>
+ * {"type": "NOTIFY", "userIds": [1, 2], "title": "Invoice {{invoiceId}} overdue",
+ *  "message": "{{daysOverdue}} days past due", "priority": "HIGH"}
+ * {"type": "NOTIFY", "userIdFact": "assignedTo", "title": "..."}
+ * {"type": "LOG", "message": "..."}
+ * </pre>
+ * NOTIFY goes to userId/userIds, or the user id held in the named fact, or else the
+ * rule's creator. {{fact}} placeholders in title and message are filled from the event.
+ */
+public class RuleAction {
+
+    public enum Type {
+        NOTIFY,
+        LOG
+    }
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{\\s*([A-Za-z0-9_]+)\\s*}}");
+
+    private final Type type;
+    private final List<Long> userIds;
+    private final String userIdFact;
+    private final String title;
+    private final String message;
+    private final NotificationPriority priority;
+
+    private RuleAction(Type type, List<Long> userIds, String userIdFact, String title, String message,
+                       NotificationPriority priority) {
+        this.type = type;
+        this.userIds = userIds;
+        this.userIdFact = userIdFact;
+        this.title = title;
+        this.message = message;
+        this.priority = priority;
+    }
+
+    public static List<RuleAction> compileAll(JsonNode node) {
+        List<RuleAction> actions = new ArrayList<>();
+        if (node == null || node.isNull()) {
+            return actions;
+        }
+        if (!node.isArray()) {
+            throw new RuntimeException("Invalid actions: expected an array");
+        }
+        node.forEach(item -> actions.add(compile(item)));
+        return actions;
+    }
+
+    private static RuleAction compile(JsonNode node) {
+        Type type;
+        try {
+            type = Type.valueOf(node.path("type").asText().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid actions: unknown action type '" + node.path("type").asText() + "'");
+        }
+        List<Long> userIds = new ArrayList<>();
+        if (node.hasNonNull("userId")) {
+            userIds.add(node.get("userId").asLong());
+        }
+        node.path("userIds").forEach(id -> userIds.add(id.asLong()));
+        String userIdFact = node.hasNonNull("userIdFact") ? node.get("userIdFact").asText() : null;
+        String title = node.path("title").asText(null);
+        String message = node.path("message").asText(null);
+        if (title == null && message == null) {
+            throw new RuntimeException("Invalid actions: " + type + " needs a title or a message");
+        }
+        NotificationPriority priority;
+        try {
+            priority = NotificationPriority.valueOf(node.path("priority").asText("MEDIUM").toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid actions: unknown priority '" + node.path("priority").asText() + "'");
+        }
+        return new RuleAction(type, userIds, userIdFact, title, message, priority);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public List<Long> getUserIds() {
+        return userIds;
+    }
+
+    /**
+     * Recipients for this event: explicit ids, else the id in the configured fact, else the fallback.
+     */
+    public List<Long> recipients(Map<String, Object> facts, Long fallbackUserId) {
+        if (!userIds.isEmpty()) {
+            return userIds;
+        }
+        if (userIdFact != null) {
+            Object value = facts.get(userIdFact);
+            if (value == null) {
+                return List.of();
+            }
+            try {
+                return List.of(Long.valueOf(value.toString()));
+            } catch (NumberFormatException e) {
+                return List.of();
+            }
+        }
+        return fallbackUserId != null ? List.of(fallbackUserId) : List.of();
+    }
+
+    public String renderTitle(Map<String, Object> facts) {
+        return render(title != null ? title : message, facts);
+    }
+
+    public String renderMessage(Map<String, Object> facts) {
+        return render(message != null ? message : title, facts);
+    }
+
+    public NotificationPriority getPriority() {
+        return priority;
+    }
+
+    private static String render(String template, Map<String, Object> facts) {
+        Matcher matcher = PLACEHOLDER.matcher(template);
+        StringBuilder rendered = new StringBuilder();
+        while (matcher.find()) {
+            Object value = facts.get(matcher.group(1));
+            matcher.appendReplacement(rendered, Matcher.quoteReplacement(value != null ? value.toString() : ""));
+        }
+        matcher.appendTail(rendered);
+        return rendered.toString();
+    }
+}
@@ -0,0 +1,299 @@
+package com.rentmaster.automation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A rule's trigger conditions compiled into a predicate tree over event facts.
+ *
+ * The JSON is an object whose keys are either combinators or fact names, all of which
+ * must hold:
+ * <pre>
+ * {"priority": "URGENT", "amount": {"gte": 1000, "lt": 5000}, "category": {"in": ["HVAC", "PLUMBING"]},
+ *  "any": [{"daysOverdue": {"gt": 30}}, {"not": {"method": "CASH"}}]}
+ * </pre>
+ * A plain value means equality. Operators are eq, ne, gt, gte, lt, lte, in, notIn,
+ * contains (case-insensitive substring) and exists. Numbers compare numerically
+ * whatever their type; other values compare as strings. An empty or missing
+ * condition always matches.
+ */
+public abstract class RuleCondition {
+
+    private static final RuleCondition ALWAYS = new RuleCondition() {
+        @Override
+        public boolean test(Map<String, Object> facts) {
+            return true;
+        }
+    };
+
+    public abstract boolean test(Map<String, Object> facts);
+
+    /**
+     * Fact values this condition requires to be equal to a constant, when it is a plain
+     * conjunction. The engine indexes rules by one of them, so an event only reaches
+     * rules whose equality guard it satisfies.
+     */
+    public Map<String, Object> equalityGuards() {
+        return Map.of();
+    }
+
+    public static RuleCondition compile(JsonNode node) {
+        if (node == null || node.isNull() || (node.isObject() && node.size() == 0)) {
+            return ALWAYS;
+        }
+        if (!node.isObject()) {
+            throw new RuntimeException("Invalid trigger conditions: expected an object");
+        }
+        List<RuleCondition> terms = new ArrayList<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String key = field.getKey();
+            JsonNode value = field.getValue();
+            switch (key) {
+                case "all" -> terms.add(new All(compileList(key, value)));
+                case "any" -> terms.add(new Any(compileList(key, value)));
+                case "not" -> terms.add(new Not(compile(value)));
+                default -> terms.addAll(compileField(key, value));
+            }
+        }
+        return terms.size() == 1 ? terms.get(0) : new All(terms);
+    }
+
+    private static List<RuleCondition> compileList(String key, JsonNode value) {
+        if (!value.isArray()) {
+            throw new RuntimeException("Invalid trigger conditions: '" + key + "' expects an array");
+        }
+        List<RuleCondition> conditions = new ArrayList<>();
+        value.forEach(item -> conditions.add(compile(item)));
+        return conditions;
+    }
+
+    private static List<RuleCondition> compileField(String fact, JsonNode value) {
+        if (!value.isObject()) {
+            return List.of(new Compare(fact, "eq", literal(value)));
+        }
+        List<RuleCondition> terms = new ArrayList<>();
+        Iterator<Map.Entry<String, JsonNode>> operators = value.fields();
+        while (operators.hasNext()) {
+            Map.Entry<String, JsonNode> operator = operators.next();
+            String op = operator.getKey();
+            JsonNode operand = operator.getValue();
+            switch (op) {
+                case "eq", "ne", "gt", "gte", "lt", "lte", "contains" -> terms.add(new Compare(fact, op, literal(operand)));
+                case "in", "notIn" -> {
+                    if (!operand.isArray()) {
+                        throw new RuntimeException("Invalid trigger conditions: '" + op + "' on " + fact + " expects an array");
+                    }
+                    Set<Object> values = new HashSet<>();
+                    operand.forEach(item -> values.add(normalize(literal(item))));
+                    terms.add(new Member(fact, values, op.equals("notIn")));
+                }
+                case "exists" -> terms.add(new Exists(fact, operand.asBoolean(true)));
+                default -> throw new RuntimeException("Invalid trigger conditions: unknown operator '" + op + "' on " + fact);
+            }
+        }
+        return terms;
+    }
+
+    private static Object literal(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        if (node.isNumber()) {
+            return node.decimalValue();
+        }
+        if (node.isBoolean()) {
+            return node.booleanValue();
+        }
+        if (node.isValueNode()) {
+            return node.asText();
+        }
+        throw new RuntimeException("Invalid trigger conditions: expected a value but got " + node);
+    }
+
+    /**
+     * Canonical form used for equality and set membership: numbers as plain decimal
+     * strings (so 5, 5.0 and "5" agree), everything else as its string form.
+     */
+    static Object normalize(Object value) {
+        if (value == null) {
+            return null;
+        }
+        BigDecimal number = toNumber(value);
+        if (number != null) {
+            return number.stripTrailingZeros().toPlainString();
+        }
+        return value.toString();
+    }
+
+    private static BigDecimal toNumber(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        if (value instanceof Number number) {
+            return new BigDecimal(number.toString());
+        }
+        if (value instanceof String text && !text.isEmpty()
+                && (Character.isDigit(text.charAt(text.length() - 1)))) {
+            try {
+                return new BigDecimal(text);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static final class All extends RuleCondition {
+        private final RuleCondition[] terms;
+
+        All(List<RuleCondition> terms) {
+            this.terms = terms.toArray(new RuleCondition[0]);
+        }
+
+        @Override
+        public boolean test(Map<String, Object> facts) {
+            for (RuleCondition term : terms) {
+                if (!term.test(facts)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Map<String, Object> equalityGuards() {
+            Map<String, Object> guards = new TreeMap<>();
+            for (RuleCondition term : terms) {
+                guards.putAll(term.equalityGuards());
+            }
+            return guards;
+        }
+    }
+
+    private static final class Any extends RuleCondition {
+        private final RuleCondition[] terms;
+
+        Any(List<RuleCondition> terms) {
+            this.terms = terms.toArray(new RuleCondition[0]);
+        }
+
+        @Override
+        public boolean test(Map<String, Object> facts) {
+            for (RuleCondition term : terms) {
+                if (term.test(facts)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Not extends RuleCondition {
+        private final RuleCondition term;
+
+        Not(RuleCondition term) {
+            this.term = term;
+        }
+
+        @Override
+        public boolean test(Map<String, Object> facts) {
+            return !term.test(facts);
+        }
+    }
+
+    private static final class Compare extends RuleCondition {
+        private final String fact;
+        private final String op;
+        private final Object expected;
+        private final Object normalizedExpected;
+        private final BigDecimal expectedNumber;
+
+        Compare(String fact, String op, Object expected) {
+            this.fact = fact;
+            this.op = op;
+            this.expected = expected;
+            this.normalizedExpected = normalize(expected);
+            this.expectedNumber = expected == null ? null : toNumber(expected);
+        }
+
+        @Override
+        public boolean test(Map<String, Object> facts) {
+            Object actual = facts.get(fact);
+            switch (op) {
+                case "eq":
+                    return actual == null ? expected == null : normalize(actual).equals(normalizedExpected);
+                case "ne":
+                    return actual == null ? expected != null : !normalize(actual).equals(normalizedExpected);
+                case "contains":
+                    return actual != null && expected != null
+                        && actual.toString().toLowerCase().contains(expected.toString().toLowerCase());
+                default:
+                    if (actual == null || expected == null) {
+                        return false;
+                    }
+                    int cmp;
+                    BigDecimal actualNumber = toNumber(actual);
+                    if (actualNumber != null && expectedNumber != null) {
+                        cmp = actualNumber.compareTo(expectedNumber);
+                    } else {
+                        cmp = actual.toString().compareTo(expected.toString());
+                    }
+                    return switch (op) {
+                        case "gt" -> cmp > 0;
+                        case "gte" -> cmp >= 0;
+                        case "lt" -> cmp < 0;
+                        default -> cmp <= 0;
+                    };
+            }
+        }
+
+        @Override
+        public Map<String, Object> equalityGuards() {
+            return op.equals("eq") && expected != null ? Map.of(fact, normalizedExpected) : Map.of();
+        }
+    }
+
+    private static final class Member extends RuleCondition {
+        private final String fact;
+        private final Set<Object> values;
+        private final boolean negated;
+
+        Member(String fact, Set<Object> values, boolean negated) {
+            this.fact = fact;
+            this.values = values;
+            this.negated = negated;
+        }
+
+        @Override
+        public boolean test(Map<String, Object> facts) {
+            Object actual = facts.get(fact);
+            boolean member = actual != null && values.contains(normalize(actual));
+            return member != negated;
+        }
+    }
+
+    private static final class Exists extends RuleCondition {
+        private final String fact;
+        private final boolean expected;
+
+        Exists(String fact, boolean expected) {
+            this.fact = fact;
+            this.expected = expected;
+        }
+
+        @Override
+        public boolean test(Map<String, Object> facts) {
+            return (facts.get(fact) != null) == expected;
+        }
+    }
+}
@@ -7,10 +7,9 @@ import com.rentmaster.contract.ContractRepository;
 import com.rentmaster.contract.ContractStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.rentmaster.scheduling.JobResult;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
@@ -28,25 +27,23 @@ public class AutomatedInvoiceScheduler {
     private InvoiceService invoiceService;
 
     /**
-     * Daily job that checks active contracts and generates invoices
-     * according to their billing cycle when a new period starts.
-     *
-     * The cron below runs every day at 02:00 server time.
+     * Exposed for manual triggering (via REST); covers all active contracts.
      */
-    @Scheduled(cron = "0 0 2 * * *")
-    @Transactional
-    public void generateInvoicesForToday() {
-        LocalDate today = LocalDate.now();
-        log.info("Running automated invoice generation for date {}", today);
-        generateInvoicesForDate(today);
+    public void generateInvoicesForDate(LocalDate date) {
+        generateInvoicesForDate(date, 0, 1);
     }
 
     /**
-     * Exposed for manual triggering (via REST) and for the scheduled job.
+     * Checks active contracts in one shard and generates invoices according to their
+     * billing cycle when a new period starts. Run daily (02:00 by default) by the
+     * "nightly-billing" cluster job, once per shard; each invoice is generated in its
+     * own transaction, so an existing invoice for the period only skips that contract.
      */
-    @Transactional
-    public void generateInvoicesForDate(LocalDate date) {
-        List<Contract> activeContracts = contractRepository.findByStatus(ContractStatus.ACTIVE);
+    public JobResult generateInvoicesForDate(LocalDate date, int shard, int shardCount) {
+        log.info("Running automated invoice generation for date {} (shard {}/{})", date, shard + 1, shardCount);
+        List<Contract> activeContracts = contractRepository.findByStatusInShard(ContractStatus.ACTIVE, shard, shardCount);
+        int generated = 0;
+        int failed = 0;
 
         for (Contract contract : activeContracts) {
             try {
@@ -94,6 +91,7 @@ public class AutomatedInvoiceScheduler {
 
                 try {
                     invoiceService.generateInvoice(dto);
+                    generated++;
                     log.info("Generated invoice for contract {} for period {} - {}", contract.getCode(), periodStart, periodEnd);
                 } catch (RuntimeException ex) {
                     // Most common case: invoice already exists for this period – log and continue
@@ -101,10 +99,12 @@ public class AutomatedInvoiceScheduler {
                             contract.getCode(), periodStart, periodEnd, ex.getMessage());
                 }
             } catch (Exception e) {
+                failed++;
                 log.error("Error while processing automated invoice for contract {}: {}",
                         contract.getCode(), e.getMessage(), e);
             }
         }
+        return JobResult.of(generated, failed);
     }
 }
 
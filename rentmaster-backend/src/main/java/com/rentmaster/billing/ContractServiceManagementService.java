@@ -4,6 +4,7 @@ import com.rentmaster.billing.dto.ContractServiceCreateDTO;
 import com.rentmaster.billing.dto.ContractServiceDTO;
 import com.rentmaster.contract.Contract;
 import com.rentmaster.contract.ContractRepository;
+import com.rentmaster.multitenancy.OrganizationScope;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,6 +16,9 @@ import java.util.stream.Collectors;
 @Transactional
 public class ContractServiceManagementService {
 
+    @Autowired
+    private OrganizationScope organizationScope;
+
     @Autowired
     private ContractServiceRepository contractServiceRepository;
 
@@ -44,10 +48,10 @@ public class ContractServiceManagementService {
     }
 
     public ContractServiceDTO create(ContractServiceCreateDTO dto) {
-        Contract contract = contractRepository.findById(dto.getContractId())
+        Contract contract = contractRepository.findById(dto.getContractId()).filter(organizationScope::isVisible)
                 .orElseThrow(() -> new RuntimeException("Contract not found"));
 
-        com.rentmaster.billing.Service service = serviceRepository.findById(dto.getServiceId())
+        com.rentmaster.billing.Service service = serviceRepository.findById(dto.getServiceId()).filter(organizationScope::isVisible)
                 .orElseThrow(() -> new RuntimeException("Service not found"));
 
         // Check if service is already added to this contract
@@ -1,8 +1,13 @@
 package com.rentmaster.billing;
 
+import com.rentmaster.analytics.CubeChangeListener;
 import com.rentmaster.contract.Contract;
 import com.rentmaster.multitenancy.Organization;
+import com.rentmaster.multitenancy.OrganizationAssignmentListener;
+import com.rentmaster.multitenancy.OrganizationOwned;
+import com.rentmaster.multitenancy.OrganizationScope;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Filter;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -12,10 +17,13 @@ import java.util.List;
 
 @Entity
 @Table(name = "invoices")
-public class Invoice {
+@EntityListeners({OrganizationAssignmentListener.class, CubeChangeListener.class})
+@Filter(name = OrganizationScope.FILTER_NAME)
+public class Invoice implements OrganizationOwned {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "invoices_seq")
+    @SequenceGenerator(name = "invoices_seq", sequenceName = "invoices_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -146,6 +154,10 @@ public class Invoice {
         return organization;
     }
 
+    public void setOrganization(Organization organization) {
+        this.organization = organization;
+    }
+
     public BigDecimal getPaidAmount() {
         return payments.stream()
                 .map(p -> p.getAmount() != null ? p.getAmount() : BigDecimal.ZERO)
@@ -1,12 +1,16 @@
 package com.rentmaster.billing;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
@@ -23,5 +27,25 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
     );
 
     Invoice findTopByContractIdOrderByPeriodEndDesc(Long contractId);
+
+    // Row lock so a payment and the overdue sweep see each other's status change
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Invoice i WHERE i.id = :id")
+    Optional<Invoice> findByIdForUpdate(@Param("id") Long id);
+
+    // Unpaid invoices past their due date in one job shard, split by contract id
+    @Query("SELECT i FROM Invoice i WHERE i.status = :status AND i.dueDate < :today " +
+           "AND MOD(i.contract.id, :shardCount) = :shard")
+    List<Invoice> findPastDueInShard(@Param("status") InvoiceStatus status,
+                                     @Param("today") LocalDate today,
+                                     @Param("shard") int shard,
+                                     @Param("shardCount") int shardCount);
+
+    // Only moves an invoice still in the expected status; 0 means another transaction got there first
+    @Modifying
+    @Query("UPDATE Invoice i SET i.status = :to WHERE i.id = :id AND i.status = :from")
+    int transitionStatus(@Param("id") Long id,
+                         @Param("from") InvoiceStatus from,
+                         @Param("to") InvoiceStatus to);
 }
 
@@ -1,22 +1,34 @@
 package com.rentmaster.billing;
 
+import com.rentmaster.automation.AutomationEvent;
+import com.rentmaster.automation.AutomationRule;
 import com.rentmaster.billing.dto.*;
 import com.rentmaster.contract.Contract;
 import com.rentmaster.contract.ContractRepository;
 import com.rentmaster.contract.ContractStatus;
+import com.rentmaster.multitenancy.OrganizationScope;
+import com.rentmaster.scheduling.JobResult;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class InvoiceService {
 
+    @Autowired
+    private OrganizationScope organizationScope;
+
     @Autowired
     private InvoiceRepository invoiceRepository;
 
@@ -32,6 +44,12 @@ public class InvoiceService {
     @Autowired
     private PaymentRepository paymentRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     public List<InvoiceDTO> findAll() {
         return invoiceRepository.findAll().stream()
                 .map(this::toDTO)
@@ -39,7 +57,7 @@ public class InvoiceService {
     }
 
     public InvoiceDTO findById(Long id) {
-        Invoice invoice = invoiceRepository.findById(id)
+        Invoice invoice = invoiceRepository.findById(id).filter(organizationScope::isVisible)
                 .orElseThrow(() -> new RuntimeException("Invoice not found"));
         return toDTO(invoice);
     }
@@ -57,7 +75,7 @@ public class InvoiceService {
     }
 
     public InvoiceDTO generateInvoice(InvoiceGenerateDTO dto) {
-        Contract contract = contractRepository.findById(dto.getContractId())
+        Contract contract = contractRepository.findById(dto.getContractId()).filter(organizationScope::isVisible)
                 .orElseThrow(() -> new RuntimeException("Contract not found"));
 
         if (contract.getStatus() != ContractStatus.ACTIVE) {
@@ -73,6 +91,7 @@ public class InvoiceService {
 
         Invoice invoice = new Invoice();
         invoice.setContract(contract);
+        invoice.setOrganization(contract.getOrganization());
         invoice.setPeriodStart(dto.getPeriodStart());
         invoice.setPeriodEnd(dto.getPeriodEnd());
         invoice.setIssueDate(dto.getIssueDate() != null ? dto.getIssueDate() : LocalDate.now());
@@ -187,13 +206,16 @@ public class InvoiceService {
         invoice.setStatus(InvoiceStatus.PENDING);
 
         Invoice saved = invoiceRepository.save(invoice);
+        meterRegistry.counter("rentmaster.invoices.generated").increment();
         return toDTO(saved);
     }
 
     public void updateInvoiceStatus(Long invoiceId) {
-        Invoice invoice = invoiceRepository.findById(invoiceId)
+        Invoice invoice = invoiceRepository.findByIdForUpdate(invoiceId).filter(organizationScope::isVisible)
                 .orElseThrow(() -> new RuntimeException("Invoice not found"));
 
+        InvoiceStatus previousStatus = invoice.getStatus();
+        LocalDate today = LocalDate.now();
         BigDecimal totalPaid = paymentRepository.getTotalPaidForInvoice(invoiceId);
         if (totalPaid == null)
             totalPaid = BigDecimal.ZERO;
@@ -203,7 +225,7 @@ public class InvoiceService {
         } else if (totalPaid.compareTo(BigDecimal.ZERO) > 0) {
             invoice.setStatus(InvoiceStatus.PARTIALLY_PAID);
         } else {
-            if (LocalDate.now().isAfter(invoice.getDueDate())) {
+            if (today.isAfter(invoice.getDueDate())) {
                 invoice.setStatus(InvoiceStatus.OVERDUE);
             } else {
                 invoice.setStatus(InvoiceStatus.PENDING);
@@ -211,6 +233,43 @@ public class InvoiceService {
         }
 
         invoiceRepository.save(invoice);
+
+        if (invoice.getStatus() == InvoiceStatus.OVERDUE && previousStatus != InvoiceStatus.OVERDUE) {
+            publishOverdue(invoice, today);
+        }
+    }
+
+    /**
+     * Moves pending invoices whose due date has passed to OVERDUE. Each invoice is published
+     * once: the conditional update skips invoices a payment or an earlier run already moved.
+     */
+    public JobResult markOverdueInvoices(LocalDate today, int shard, int shardCount) {
+        List<Invoice> pastDue = invoiceRepository.findPastDueInShard(InvoiceStatus.PENDING, today, shard, shardCount);
+        int transitioned = 0;
+
+        for (Invoice invoice : pastDue) {
+            if (invoiceRepository.transitionStatus(invoice.getId(), InvoiceStatus.PENDING, InvoiceStatus.OVERDUE) == 1) {
+                invoice.setStatus(InvoiceStatus.OVERDUE);
+                publishOverdue(invoice, today);
+                transitioned++;
+            }
+        }
+        meterRegistry.counter("rentmaster.invoices.overdue").increment(transitioned);
+        return JobResult.of(transitioned, 0);
+    }
+
+    // Lets INVOICE_OVERDUE automation rules react once the transition commits
+    private void publishOverdue(Invoice invoice, LocalDate today) {
+        Map<String, Object> facts = new HashMap<>();
+        facts.put("entityType", "INVOICE");
+        facts.put("entityId", invoice.getId());
+        facts.put("invoiceId", invoice.getId());
+        facts.put("contractId", invoice.getContract().getId());
+        facts.put("totalAmount", invoice.getTotalAmount());
+        facts.put("dueDate", invoice.getDueDate().toString());
+        facts.put("daysOverdue", ChronoUnit.DAYS.between(invoice.getDueDate(), today));
+        eventPublisher.publishEvent(new AutomationEvent(AutomationRule.TriggerType.INVOICE_OVERDUE,
+                invoice.getOrganization() != null ? invoice.getOrganization().getId() : null, facts));
     }
 
     private InvoiceDTO toDTO(Invoice invoice) {
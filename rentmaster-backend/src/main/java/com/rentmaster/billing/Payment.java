@@ -1,21 +1,34 @@
 package com.rentmaster.billing;
 
+import com.rentmaster.analytics.CubeChangeListener;
+import com.rentmaster.multitenancy.Organization;
+import com.rentmaster.multitenancy.OrganizationAssignmentListener;
+import com.rentmaster.multitenancy.OrganizationOwned;
+import com.rentmaster.multitenancy.OrganizationScope;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Filter;
 import java.math.BigDecimal;
 import java.time.Instant;
 
 @Entity
 @Table(name = "payments")
-public class Payment {
+@EntityListeners({OrganizationAssignmentListener.class, CubeChangeListener.class})
+@Filter(name = OrganizationScope.FILTER_NAME)
+public class Payment implements OrganizationOwned {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_seq")
+    @SequenceGenerator(name = "payments_seq", sequenceName = "payments_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "invoice_id", nullable = false)
     private Invoice invoice;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "organization_id")
+    private Organization organization;
+
     @Column(nullable = false, precision = 12, scale = 2)
     private BigDecimal amount;
 
@@ -44,6 +57,14 @@ public class Payment {
         this.invoice = invoice;
     }
 
+    public Organization getOrganization() {
+        return organization;
+    }
+
+    public void setOrganization(Organization organization) {
+        this.organization = organization;
+    }
+
     public BigDecimal getAmount() {
         return amount;
     }
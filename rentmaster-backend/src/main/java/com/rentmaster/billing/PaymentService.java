@@ -3,18 +3,27 @@ package com.rentmaster.billing;
 import com.rentmaster.billing.dto.PaymentCreateDTO;
 import com.rentmaster.billing.dto.PaymentDTO;
 import com.rentmaster.billing.dto.PaymentUpdateDTO;
+import com.rentmaster.automation.AutomationEvent;
+import com.rentmaster.automation.AutomationRule;
+import com.rentmaster.multitenancy.OrganizationScope;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class PaymentService {
 
+    @Autowired
+    private OrganizationScope organizationScope;
+
     @Autowired
     private PaymentRepository paymentRepository;
 
@@ -24,6 +33,9 @@ public class PaymentService {
     @Autowired
     private InvoiceService invoiceService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public List<PaymentDTO> findAll() {
         return paymentRepository.findAll().stream()
                 .map(this::toDTO)
@@ -31,7 +43,7 @@ public class PaymentService {
     }
 
     public PaymentDTO findById(Long id) {
-        Payment payment = paymentRepository.findById(id)
+        Payment payment = paymentRepository.findById(id).filter(organizationScope::isVisible)
                 .orElseThrow(() -> new RuntimeException("Payment not found"));
         return toDTO(payment);
     }
@@ -43,7 +55,7 @@ public class PaymentService {
     }
 
     public PaymentDTO create(PaymentCreateDTO dto) {
-        Invoice invoice = invoiceRepository.findById(dto.getInvoiceId())
+        Invoice invoice = invoiceRepository.findById(dto.getInvoiceId()).filter(organizationScope::isVisible)
                 .orElseThrow(() -> new RuntimeException("Invoice not found"));
 
         BigDecimal totalPaid = paymentRepository.getTotalPaidForInvoice(dto.getInvoiceId());
@@ -56,6 +68,7 @@ public class PaymentService {
 
         Payment payment = new Payment();
         payment.setInvoice(invoice);
+        payment.setOrganization(invoice.getOrganization());
         payment.setAmount(dto.getAmount());
         payment.setMethod(dto.getMethod());
         payment.setNote(dto.getNote());
@@ -65,11 +78,24 @@ public class PaymentService {
         // Update invoice status
         invoiceService.updateInvoiceStatus(dto.getInvoiceId());
 
+        Map<String, Object> facts = new HashMap<>();
+        facts.put("entityType", "PAYMENT");
+        facts.put("entityId", saved.getId());
+        facts.put("paymentId", saved.getId());
+        facts.put("invoiceId", invoice.getId());
+        facts.put("contractId", invoice.getContract().getId());
+        facts.put("amount", saved.getAmount());
+        facts.put("method", saved.getMethod());
+        facts.put("invoiceTotal", invoice.getTotalAmount());
+        facts.put("invoiceStatus", invoice.getStatus() != null ? invoice.getStatus().name() : null);
+        eventPublisher.publishEvent(new AutomationEvent(AutomationRule.TriggerType.PAYMENT_RECEIVED,
+                invoice.getOrganization() != null ? invoice.getOrganization().getId() : null, facts));
+
         return toDTO(saved);
     }
 
     public void delete(Long id) {
-        Payment payment = paymentRepository.findById(id)
+        Payment payment = paymentRepository.findById(id).filter(organizationScope::isVisible)
                 .orElseThrow(() -> new RuntimeException("Payment not found"));
         Long invoiceId = payment.getInvoice().getId();
         paymentRepository.deleteById(id);
@@ -77,7 +103,7 @@ public class PaymentService {
     }
 
     public PaymentDTO update(Long id, PaymentUpdateDTO dto) {
-        Payment payment = paymentRepository.findById(id)
+        Payment payment = paymentRepository.findById(id).filter(organizationScope::isVisible)
                 .orElseThrow(() -> new RuntimeException("Payment not found"));
 
         Invoice invoice = payment.getInvoice();
@@ -1,12 +1,18 @@
 package com.rentmaster.billing;
 
 import com.rentmaster.multitenancy.Organization;
+import com.rentmaster.multitenancy.OrganizationAssignmentListener;
+import com.rentmaster.multitenancy.OrganizationOwned;
+import com.rentmaster.multitenancy.OrganizationScope;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Filter;
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "services")
-public class Service {
+@EntityListeners(OrganizationAssignmentListener.class)
+@Filter(name = OrganizationScope.FILTER_NAME)
+public class Service implements OrganizationOwned {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -2,6 +2,7 @@ package com.rentmaster.billing;
 
 import com.rentmaster.billing.dto.ServiceCreateDTO;
 import com.rentmaster.billing.dto.ServiceDTO;
+import com.rentmaster.multitenancy.OrganizationScope;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,6 +14,9 @@ import java.util.stream.Collectors;
 @Transactional
 public class ServiceService {
 
+    @Autowired
+    private OrganizationScope organizationScope;
+
     @Autowired
     private ServiceRepository serviceRepository;
 
@@ -32,7 +36,7 @@ public class ServiceService {
     }
 
     public ServiceDTO findById(Long id) {
-        com.rentmaster.billing.Service service = serviceRepository.findById(id)
+        com.rentmaster.billing.Service service = serviceRepository.findById(id).filter(organizationScope::isVisible)
                 .orElseThrow(() -> new RuntimeException("Service not found"));
         return toDTO(service);
     }
@@ -51,7 +55,7 @@ public class ServiceService {
     }
 
     public ServiceDTO update(Long id, ServiceCreateDTO dto) {
-        com.rentmaster.billing.Service service = serviceRepository.findById(id)
+        com.rentmaster.billing.Service service = serviceRepository.findById(id).filter(organizationScope::isVisible)
                 .orElseThrow(() -> new RuntimeException("Service not found"));
 
         // Check if service is being used in active contracts
@@ -83,7 +87,7 @@ public class ServiceService {
     }
 
     public void delete(Long id) {
-        com.rentmaster.billing.Service service = serviceRepository.findById(id)
+        com.rentmaster.billing.Service service = serviceRepository.findById(id).filter(organizationScope::isVisible)
                 .orElseThrow(() -> new RuntimeException("Service not found"));
 
         // Check if service is being used
@@ -105,7 +109,7 @@ public class ServiceService {
     }
 
     public ServiceDTO toggleActive(Long id) {
-        com.rentmaster.billing.Service service = serviceRepository.findById(id)
+        com.rentmaster.billing.Service service = serviceRepository.findById(id).filter(organizationScope::isVisible)
                 .orElseThrow(() -> new RuntimeException("Service not found"));
 
         if (!service.isActive()) {
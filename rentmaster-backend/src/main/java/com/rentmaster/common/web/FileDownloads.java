@@ -0,0 +1,107 @@
+package com.rentmaster.common.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Builds file download responses that never buffer the file in heap.
+ *
+ * The file is stat'ed once for its size and modification time, which also yield the
+ * ETag, so repeat fetches revalidate to a 304. Range requests are answered with 206
+ * partial content by Spring's resource region support. A plain full GET on Tomcat is
+ * handed to the connector's sendfile, which copies straight from the page cache to
+ * the socket; elsewhere the body is streamed through a fixed-size buffer.
+ */
+public final class FileDownloads {
+
+    // Tomcat only uses sendfile above its sendfileSize threshold (48 KB by default)
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private FileDownloads() {
+    }
+
+    /**
+     * @param contentType the content type recorded at upload; derived from the file name when blank
+     * @param attachment  true for {@code Content-Disposition: attachment}, false for inline
+     */
+    public static ResponseEntity<Resource> stream(HttpServletRequest request, HttpServletResponse response, Path file,
+                                                  String contentType, String fileName, boolean attachment,
+                                                  CacheControl cacheControl) throws IOException {
+        return stream(request, response, file, contentType, fileName, attachment, cacheControl, null);
+    }
+
+    /**
+     * @param eTag a content-derived entity tag (unquoted), or null to derive one from size and mtime
+     */
+    public static ResponseEntity<Resource> stream(HttpServletRequest request, HttpServletResponse response, Path file,
+                                                  String contentType, String fileName, boolean attachment,
+                                                  CacheControl cacheControl, String eTag) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!attributes.isRegularFile()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        eTag = "\"" + (eTag != null ? eTag : Long.toHexString(size) + "-" + Long.toHexString(lastModified)) + "\"";
+
+        String name = fileName != null ? fileName : file.getFileName().toString();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(resolveContentType(contentType, name));
+        ContentDisposition.Builder disposition = attachment ? ContentDisposition.attachment() : ContentDisposition.inline();
+        headers.setContentDisposition((StandardCharsets.US_ASCII.newEncoder().canEncode(name)
+                ? disposition.filename(name)
+                : disposition.filename(name, StandardCharsets.UTF_8)).build());
+        headers.setETag(eTag);
+        headers.setLastModified(lastModified);
+        headers.setCacheControl(cacheControl);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (new ServletWebRequest(request, response).checkNotModified(eTag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+
+        boolean fullGet = HttpMethod.GET.matches(request.getMethod()) && request.getHeader(HttpHeaders.RANGE) == null;
+        if (fullGet && size >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            headers.setContentLength(size);
+            return ResponseEntity.ok().headers(headers).build();
+        }
+
+        return ResponseEntity.ok().headers(headers).body(new FileSystemResource(file));
+    }
+
+    public static MediaType resolveContentType(String contentType, String fileName) {
+        if (contentType != null && !contentType.isBlank()) {
+            try {
+                return MediaType.parseMediaType(contentType);
+            } catch (InvalidMediaTypeException e) {
+                // Fall through to the file name mapping
+            }
+        }
+        return MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+}
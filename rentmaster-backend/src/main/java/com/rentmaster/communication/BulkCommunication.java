@@ -66,6 +66,12 @@ public class BulkCommunication {
     @Column(name = "sent_at")
     private LocalDateTime sentAt;
     
+    @Column(name = "expansion_cursor")
+    private Long expansionCursor;
+    
+    @Column(name = "expansion_completed", nullable = false)
+    private Boolean expansionCompleted = false;
+    
     public enum RecipientType {
         ALL_TENANTS,
         ACTIVE_TENANTS,
@@ -223,4 +229,20 @@ public class BulkCommunication {
     public void setSentAt(LocalDateTime sentAt) {
         this.sentAt = sentAt;
     }
+    
+    public Long getExpansionCursor() {
+        return expansionCursor;
+    }
+    
+    public void setExpansionCursor(Long expansionCursor) {
+        this.expansionCursor = expansionCursor;
+    }
+    
+    public Boolean getExpansionCompleted() {
+        return expansionCompleted;
+    }
+    
+    public void setExpansionCompleted(Boolean expansionCompleted) {
+        this.expansionCompleted = expansionCompleted;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,146 @@
+package com.rentmaster.communication;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Drives the communication queue. Every tick it starts due scheduled bulk
+ * communications, expands a bounded number of recipient pages, and drains each
+ * channel's PENDING deliveries on its own worker up to that channel's rate limit.
+ *
+ * The thread count is fixed at one per channel regardless of audience size; all
+ * queue state lives in Postgres, so several nodes can run this side by side
+ * (the configured rates then apply per node).
+ */
+@Component
+public class BulkCommunicationDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkCommunicationDispatcher.class);
+
+    private static final int MAX_BATCH_SIZE = 500;
+
+    @Autowired
+    private BulkCommunicationRepository bulkCommunicationRepository;
+
+    @Autowired
+    private BulkCommunicationFanoutService fanoutService;
+
+    @Autowired
+    private CommunicationDeliveryService deliveryService;
+
+    @Value("${communication.fanout.tick-ms:1000}")
+    private long tickMillis;
+
+    @Value("${communication.fanout.pages-per-tick:10}")
+    private int pagesPerTick;
+
+    @Value("${communication.fanout.rate-per-second.email:200}")
+    private int emailPerSecond;
+
+    @Value("${communication.fanout.rate-per-second.sms:20}")
+    private int smsPerSecond;
+
+    @Value("${communication.fanout.rate-per-second.push:500}")
+    private int pushPerSecond;
+
+    @Value("${communication.fanout.rate-per-second.whatsapp:20}")
+    private int whatsAppPerSecond;
+
+    private final ExecutorService channelWorkers = Executors.newFixedThreadPool(
+        NotificationChannel.ChannelType.values().length, runnable -> {
+            Thread thread = new Thread(runnable, "communication-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    private final Map<NotificationChannel.ChannelType, Future<?>> inFlight =
+        new EnumMap<>(NotificationChannel.ChannelType.class);
+
+    @Scheduled(fixedDelayString = "${communication.fanout.tick-ms:1000}")
+    public void tick() {
+        startScheduledBulkCommunications();
+        expandPendingBulkCommunications();
+        dispatchChannels();
+    }
+
+    private void startScheduledBulkCommunications() {
+        for (BulkCommunication bulk : bulkCommunicationRepository.findScheduledForExecution()) {
+            bulk.setStatus(BulkCommunication.BulkStatus.SENDING);
+            bulk.setSentAt(LocalDateTime.now());
+            bulkCommunicationRepository.save(bulk);
+            log.info("Starting scheduled bulk communication: {}", bulk.getName());
+        }
+    }
+
+    private void expandPendingBulkCommunications() {
+        for (BulkCommunication bulk : bulkCommunicationRepository.findPendingExpansion()) {
+            try {
+                for (int page = 0; page < pagesPerTick; page++) {
+                    if (!fanoutService.expandNextPage(bulk.getId())) {
+                        break;
+                    }
+                }
+            } catch (RuntimeException e) {
+                // The cursor only advances on commit, so the failed page is retried next tick
+                log.error("Error expanding bulk communication {}: {}", bulk.getId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void dispatchChannels() {
+        for (NotificationChannel.ChannelType channel : NotificationChannel.ChannelType.values()) {
+            Future<?> previous = inFlight.get(channel);
+            if (previous != null && !previous.isDone()) {
+                continue;
+            }
+            int budget = (int) Math.max(1, ratePerSecond(channel) * tickMillis / 1000);
+            inFlight.put(channel, channelWorkers.submit(() -> drain(channel, budget)));
+        }
+    }
+
+    private void drain(NotificationChannel.ChannelType channel, int budget) {
+        int remaining = budget;
+        try {
+            while (remaining > 0) {
+                int claimed = deliveryService.dispatchBatch(channel, Math.min(remaining, MAX_BATCH_SIZE));
+                if (claimed == 0) {
+                    break;
+                }
+                remaining -= claimed;
+            }
+        } catch (RuntimeException e) {
+            log.error("Error dispatching {} deliveries: {}", channel, e.getMessage(), e);
+        }
+    }
+
+    private long ratePerSecond(NotificationChannel.ChannelType channel) {
+        switch (channel) {
+            case EMAIL:
+                return emailPerSecond;
+            case SMS:
+                return smsPerSecond;
+            case PUSH:
+                return pushPerSecond;
+            case WHATSAPP:
+            default:
+                return whatsAppPerSecond;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channelWorkers.shutdown();
+    }
+}
@@ -0,0 +1,230 @@
+package com.rentmaster.communication;
+
+import com.rentmaster.tenant.Tenant;
+import com.rentmaster.tenant.TenantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Expands a {@link BulkCommunication} into per-recipient, per-channel deliveries.
+ *
+ * Recipients are walked in keyset-ordered pages. For each page the tenant names and
+ * notification preferences are loaded with one query each, and the resulting
+ * deliveries are inserted as PENDING {@link CommunicationLog} rows in a single JDBC
+ * batch. The bulk's cursor advances in the same transaction, so a restart resumes
+ * the fan-out where it stopped and never queues a recipient twice.
+ */
+@Service
+public class BulkCommunicationFanoutService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkCommunicationFanoutService.class);
+
+    private static final int EXPIRING_CONTRACT_WINDOW_DAYS = 30;
+
+    private static final String INSERT_DELIVERY_SQL =
+            "INSERT INTO communication_logs (recipient_type, recipient_id, recipient_name, channel, template_id, " +
+            "subject, message, status, not_before, related_entity_type, related_entity_id, bulk_id, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, 'PENDING', ?, 'BULK_COMMUNICATION', ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    @Autowired
+    private BulkCommunicationRepository bulkCommunicationRepository;
+
+    @Autowired
+    private NotificationPreferenceRepository preferenceRepository;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${communication.fanout.page-size:1000}")
+    private int pageSize;
+
+    /**
+     * Queues deliveries for the next page of recipients.
+     *
+     * @return true while more recipients remain to be expanded
+     */
+    @Transactional
+    public boolean expandNextPage(Long bulkId) {
+        BulkCommunication bulk = bulkCommunicationRepository.findById(bulkId)
+            .orElseThrow(() -> new RuntimeException("Bulk communication not found"));
+
+        if (bulk.getStatus() != BulkCommunication.BulkStatus.SENDING || Boolean.TRUE.equals(bulk.getExpansionCompleted())) {
+            return false;
+        }
+
+        long cursor = bulk.getExpansionCursor() != null ? bulk.getExpansionCursor() : 0L;
+        List<Long> recipientIds = nextRecipientIds(bulk, cursor);
+        boolean completed = recipientIds.size() < pageSize;
+
+        if (!recipientIds.isEmpty()) {
+            List<Object[]> deliveries = buildDeliveries(bulk, recipientIds, LocalDateTime.now());
+            if (!deliveries.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_DELIVERY_SQL, deliveries);
+            }
+            cursor = recipientIds.get(recipientIds.size() - 1);
+        }
+
+        bulkCommunicationRepository.recordExpansionProgress(bulkId, cursor, completed, recipientIds.size());
+
+        if (completed) {
+            // Nothing may have been queued for the last page (all opted out), so settle here too
+            bulkCommunicationRepository.completeDrained(List.of(bulkId));
+            log.info("Finished fan-out for bulk communication {}", bulk.getName());
+        }
+
+        return !completed;
+    }
+
+    private List<Long> nextRecipientIds(BulkCommunication bulk, long cursor) {
+        PageRequest page = PageRequest.of(0, pageSize);
+
+        switch (bulk.getRecipientType()) {
+            case ALL_TENANTS:
+                return tenantRepository.findIdsAfter(cursor, page);
+            case ACTIVE_TENANTS:
+                return tenantRepository.findActiveTenantIdsAfter(cursor, page);
+            case OVERDUE_TENANTS:
+                return tenantRepository.findOverdueTenantIdsAfter(cursor, page);
+            case EXPIRING_CONTRACTS:
+                LocalDate today = LocalDate.now();
+                return tenantRepository.findTenantIdsWithContractsEndingAfter(
+                    cursor, today, today.plusDays(EXPIRING_CONTRACT_WINDOW_DAYS), page);
+            case CUSTOM:
+            default:
+                List<Long> ids = bulk.getRecipientIds() != null ? bulk.getRecipientIds() : Collections.emptyList();
+                return ids.stream()
+                    .filter(Objects::nonNull)
+                    .filter(id -> id > cursor)
+                    .distinct()
+                    .sorted()
+                    .limit(pageSize)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private List<Object[]> buildDeliveries(BulkCommunication bulk, List<Long> recipientIds, LocalDateTime now) {
+        Map<Long, String> names = new HashMap<>();
+        for (Tenant tenant : tenantRepository.findAllById(recipientIds)) {
+            names.put(tenant.getId(), tenant.getFullName());
+        }
+
+        // Portal users share their tenant's id, so preferences are keyed by recipient id
+        Map<Long, NotificationPreference> preferences = new HashMap<>();
+        for (NotificationPreference preference : preferenceRepository.findWithChannelsByUserIdIn(
+                recipientIds, notificationTypeFor(bulk.getRecipientType()))) {
+            preferences.put(preference.getUserId(), preference);
+        }
+
+        List<NotificationChannel.ChannelType> requested = bulk.getChannels() != null && !bulk.getChannels().isEmpty()
+            ? bulk.getChannels()
+            : List.of(NotificationChannel.ChannelType.EMAIL);
+
+        Timestamp createdAt = Timestamp.valueOf(now);
+        List<Object[]> rows = new ArrayList<>();
+
+        for (Long recipientId : recipientIds) {
+            NotificationPreference preference = preferences.get(recipientId);
+            if (preference != null && (!Boolean.TRUE.equals(preference.getEnabled())
+                    || preference.getFrequency() == NotificationPreference.Frequency.NEVER)) {
+                continue;
+            }
+
+            LocalDateTime notBefore = preference != null ? resolveQuietHoursEnd(preference.getQuietHours(), now) : null;
+            String recipientName = names.getOrDefault(recipientId, "Recipient " + recipientId);
+
+            for (NotificationChannel.ChannelType channel : resolveChannels(requested, preference)) {
+                rows.add(new Object[] {
+                    CommunicationLog.RecipientType.TENANT.name(),
+                    recipientId,
+                    recipientName,
+                    channel.name(),
+                    bulk.getTemplateId(),
+                    bulk.getSubject(),
+                    bulk.getMessage(),
+                    notBefore != null ? Timestamp.valueOf(notBefore) : null,
+                    bulk.getId(),
+                    bulk.getId(),
+                    createdAt
+                });
+            }
+        }
+
+        return rows;
+    }
+
+    private List<NotificationChannel.ChannelType> resolveChannels(List<NotificationChannel.ChannelType> requested,
+                                                                 NotificationPreference preference) {
+        if (preference == null || preference.getChannels() == null || preference.getChannels().isEmpty()) {
+            return requested;
+        }
+
+        Set<String> allowed = preference.getChannels().stream()
+            .map(Enum::name)
+            .collect(Collectors.toSet());
+
+        return requested.stream()
+            .filter(channel -> allowed.contains(channel.name()))
+            .collect(Collectors.toList());
+    }
+
+    private NotificationPreference.NotificationType notificationTypeFor(BulkCommunication.RecipientType recipientType) {
+        switch (recipientType) {
+            case OVERDUE_TENANTS:
+                return NotificationPreference.NotificationType.INVOICE_DUE;
+            case EXPIRING_CONTRACTS:
+                return NotificationPreference.NotificationType.CONTRACT_EXPIRING;
+            default:
+                return NotificationPreference.NotificationType.SYSTEM;
+        }
+    }
+
+    /**
+     * Returns when the recipient's quiet hours end if {@code now} falls inside them,
+     * or null when the delivery may go out immediately. Windows may wrap midnight.
+     */
+    static LocalDateTime resolveQuietHoursEnd(NotificationPreference.QuietHours quietHours, LocalDateTime now) {
+        if (quietHours == null || !Boolean.TRUE.equals(quietHours.getEnabled())
+                || quietHours.getStartTime() == null || quietHours.getEndTime() == null) {
+            return null;
+        }
+
+        LocalTime start;
+        LocalTime end;
+        try {
+            start = LocalTime.parse(quietHours.getStartTime().trim());
+            end = LocalTime.parse(quietHours.getEndTime().trim());
+        } catch (DateTimeParseException e) {
+            log.warn("Ignoring malformed quiet hours {}-{}", quietHours.getStartTime(), quietHours.getEndTime());
+            return null;
+        }
+
+        LocalTime time = now.toLocalTime();
+        boolean inside = start.isBefore(end)
+            ? !time.isBefore(start) && time.isBefore(end)
+            : !time.isBefore(start) || time.isBefore(end);
+
+        if (!inside) {
+            return null;
+        }
+
+        LocalDateTime endToday = now.toLocalDate().atTime(end);
+        return endToday.isAfter(now) ? endToday : endToday.plusDays(1);
+    }
+}
@@ -1,8 +1,11 @@
 package com.rentmaster.communication;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -20,4 +23,28 @@ public interface BulkCommunicationRepository extends JpaRepository<BulkCommunica
     
     @Query("SELECT COUNT(bc) FROM BulkCommunication bc WHERE bc.status = 'FAILED'")
     long countFailed();
+    
+    @Query("SELECT bc FROM BulkCommunication bc WHERE bc.status = 'SENDING' AND bc.expansionCompleted = false ORDER BY bc.id")
+    List<BulkCommunication> findPendingExpansion();
+    
+    @Modifying
+    @Query("UPDATE BulkCommunication bc SET bc.expansionCursor = :cursor, bc.expansionCompleted = :completed, " +
+           "bc.totalRecipients = bc.totalRecipients + :recipients WHERE bc.id = :id")
+    int recordExpansionProgress(@Param("id") Long id, @Param("cursor") Long cursor,
+                                @Param("completed") boolean completed, @Param("recipients") int recipients);
+    
+    @Modifying
+    @Query("UPDATE BulkCommunication bc SET bc.sentCount = bc.sentCount + :sent, " +
+           "bc.failedCount = bc.failedCount + :failed WHERE bc.id = :id")
+    int incrementDispatchCounters(@Param("id") Long id, @Param("sent") int sent, @Param("failed") int failed);
+    
+    @Modifying
+    @Query("UPDATE BulkCommunication bc SET bc.deliveredCount = bc.deliveredCount + 1 WHERE bc.id = :id")
+    int incrementDeliveredCount(@Param("id") Long id);
+    
+    @Modifying
+    @Query("UPDATE BulkCommunication bc SET bc.status = 'COMPLETED' WHERE bc.id IN :ids AND bc.status = 'SENDING' " +
+           "AND bc.expansionCompleted = true AND NOT EXISTS (SELECT cl.id FROM CommunicationLog cl " +
+           "WHERE cl.bulkId = bc.id AND cl.status = 'PENDING')")
+    int completeDrained(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -21,6 +21,9 @@ public class CommunicationController {
     @Autowired
     private CommunicationService communicationService;
     
+    @Autowired
+    private CommunicationDeliveryService deliveryService;
+    
     // Email Templates Endpoints
     @GetMapping("/email-templates")
     public ResponseEntity<List<EmailTemplate>> getEmailTemplates() {
@@ -170,6 +173,12 @@ public class CommunicationController {
         return ResponseEntity.ok(logs);
     }
     
+    @PostMapping("/logs/{id}/delivered")
+    public ResponseEntity<Void> markDelivered(@PathVariable Long id) {
+        deliveryService.markDelivered(id);
+        return ResponseEntity.ok().build();
+    }
+    
     @PostMapping("/logs/{id}/retry")
     public ResponseEntity<Void> retryCommunication(@PathVariable Long id) {
         communicationService.retryCommunication(id);
@@ -0,0 +1,134 @@
+package com.rentmaster.communication;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends queued (PENDING) communication logs. Each call claims one batch for a single
+ * channel with {@code FOR UPDATE SKIP LOCKED}, transmits it, and records the outcome
+ * with one status UPDATE plus one counter UPDATE per bulk communication touched.
+ */
+@Service
+public class CommunicationDeliveryService {
+
+    private static final Logger log = LoggerFactory.getLogger(CommunicationDeliveryService.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    @Autowired
+    private CommunicationLogRepository communicationLogRepository;
+
+    @Autowired
+    private BulkCommunicationRepository bulkCommunicationRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * @return the number of deliveries claimed; 0 when the channel queue is empty
+     */
+    @Transactional
+    public int dispatchBatch(NotificationChannel.ChannelType channel, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<CommunicationLog> batch = communicationLogRepository.claimDispatchable(channel.name(), now, limit);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> sentIds = new ArrayList<>();
+        Timer lag = Timer.builder("rentmaster.communication.delivery.lag")
+            .description("Time from a delivery becoming due to it being sent")
+            .tag("channel", channel.name())
+            .register(meterRegistry);
+        // bulk id -> {sent, failed}
+        Map<Long, int[]> bulkCounters = new HashMap<>();
+
+        for (CommunicationLog delivery : batch) {
+            boolean sent;
+            try {
+                transmit(delivery);
+                sentIds.add(delivery.getId());
+                lag.record(Duration.between(dueAt(delivery, now), now));
+                sent = true;
+            } catch (RuntimeException e) {
+                delivery.setStatus(CommunicationLog.CommunicationStatus.FAILED);
+                delivery.setErrorMessage(truncate(e.getMessage()));
+                sent = false;
+            }
+
+            if (delivery.getBulkId() != null) {
+                int[] counters = bulkCounters.computeIfAbsent(delivery.getBulkId(), id -> new int[2]);
+                counters[sent ? 0 : 1]++;
+            }
+        }
+
+        if (!sentIds.isEmpty()) {
+            communicationLogRepository.markDispatched(sentIds, CommunicationLog.CommunicationStatus.SENT, now);
+        }
+
+        bulkCounters.forEach((bulkId, counters) ->
+            bulkCommunicationRepository.incrementDispatchCounters(bulkId, counters[0], counters[1]));
+
+        if (!bulkCounters.isEmpty()) {
+            bulkCommunicationRepository.completeDrained(bulkCounters.keySet());
+        }
+
+        log.debug("Dispatched {} {} deliveries ({} failed)", batch.size(), channel, batch.size() - sentIds.size());
+        return batch.size();
+    }
+
+    // Deliveries held back by a quiet-hours window are due when the window ends, not when queued
+    private static LocalDateTime dueAt(CommunicationLog delivery, LocalDateTime now) {
+        LocalDateTime due = delivery.getCreatedAt();
+        if (delivery.getNotBefore() != null && (due == null || delivery.getNotBefore().isAfter(due))) {
+            due = delivery.getNotBefore();
+        }
+        return due != null ? due : now;
+    }
+
+    /**
+     * Records a provider delivery receipt for a sent communication.
+     */
+    @Transactional
+    public void markDelivered(Long logId) {
+        CommunicationLog delivery = communicationLogRepository.findById(logId)
+            .orElseThrow(() -> new RuntimeException("Communication log not found"));
+
+        if (delivery.getStatus() != CommunicationLog.CommunicationStatus.SENT) {
+            return;
+        }
+
+        delivery.setStatus(CommunicationLog.CommunicationStatus.DELIVERED);
+        delivery.setDeliveredAt(LocalDateTime.now());
+        communicationLogRepository.save(delivery);
+
+        if (delivery.getBulkId() != null) {
+            bulkCommunicationRepository.incrementDeliveredCount(delivery.getBulkId());
+        }
+    }
+
+    private void transmit(CommunicationLog delivery) {
+        // Provider integrations (SMTP, SMS gateway, push) plug in here; until then a
+        // claimed delivery is recorded as sent.
+        log.trace("Sending {} to recipient ID: {}", delivery.getChannel(), delivery.getRecipientId());
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return "Delivery failed";
+        }
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
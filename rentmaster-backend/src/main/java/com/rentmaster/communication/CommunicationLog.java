@@ -10,7 +10,8 @@ import java.time.LocalDateTime;
 public class CommunicationLog {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "communication_logs_seq")
+    @SequenceGenerator(name = "communication_logs_seq", sequenceName = "communication_logs_id_seq", allocationSize = 50)
     private Long id;
     
     @Enumerated(EnumType.STRING)
@@ -61,6 +62,12 @@ public class CommunicationLog {
     @Column(name = "related_entity_id")
     private Long relatedEntityId;
     
+    @Column(name = "bulk_id")
+    private Long bulkId;
+    
+    @Column(name = "not_before")
+    private LocalDateTime notBefore;
+    
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
@@ -230,4 +237,20 @@ public class CommunicationLog {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+    
+    public Long getBulkId() {
+        return bulkId;
+    }
+    
+    public void setBulkId(Long bulkId) {
+        this.bulkId = bulkId;
+    }
+    
+    public LocalDateTime getNotBefore() {
+        return notBefore;
+    }
+    
+    public void setNotBefore(LocalDateTime notBefore) {
+        this.notBefore = notBefore;
+    }
 }
\ No newline at end of file
@@ -3,10 +3,12 @@ package com.rentmaster.communication;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -50,4 +52,22 @@ public interface CommunicationLogRepository extends JpaRepository<CommunicationL
 
     @Query("SELECT COUNT(cl) FROM CommunicationLog cl")
     long countTotal();
+
+    /**
+     * Claims a batch of due deliveries for one channel. Rows locked by another
+     * node or worker are skipped, so concurrent dispatchers never double-send.
+     * Must run inside a transaction; the lock is held until it commits.
+     */
+    @Query(value = "SELECT * FROM communication_logs WHERE status = 'PENDING' AND channel = :channel " +
+            "AND (not_before IS NULL OR not_before <= :now) ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<CommunicationLog> claimDispatchable(@Param("channel") String channel,
+            @Param("now") LocalDateTime now,
+            @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE CommunicationLog cl SET cl.status = :status, cl.sentAt = :sentAt WHERE cl.id IN :ids")
+    int markDispatched(@Param("ids") Collection<Long> ids,
+            @Param("status") CommunicationLog.CommunicationStatus status,
+            @Param("sentAt") LocalDateTime sentAt);
 }
\ No newline at end of file
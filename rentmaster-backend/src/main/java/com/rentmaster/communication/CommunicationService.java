@@ -261,7 +261,7 @@ public class CommunicationService {
             log.setErrorMessage(null);
             communicationLogRepository.save(log);
             
-            // Here you would trigger the actual retry logic
+            // Picked up again by the dispatcher on its next tick
             this.log.info("Retrying communication for log ID: {}", id);
         }
     }
@@ -276,7 +276,7 @@ public class CommunicationService {
     }
     
     public BulkCommunication createBulkCommunication(BulkCommunication bulkCommunication) {
-        bulkCommunication.setTotalRecipients(bulkCommunication.getRecipientIds().size());
+        bulkCommunication.setTotalRecipients(countRecipientIds(bulkCommunication));
         return bulkCommunicationRepository.save(bulkCommunication);
     }
     
@@ -292,7 +292,7 @@ public class CommunicationService {
         existing.setSubject(updatedBulk.getSubject());
         existing.setMessage(updatedBulk.getMessage());
         existing.setScheduledAt(updatedBulk.getScheduledAt());
-        existing.setTotalRecipients(updatedBulk.getRecipientIds().size());
+        existing.setTotalRecipients(countRecipientIds(updatedBulk));
         
         return bulkCommunicationRepository.save(existing);
     }
@@ -305,14 +305,34 @@ public class CommunicationService {
         BulkCommunication bulk = bulkCommunicationRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Bulk communication not found"));
         
+        if (bulk.getStatus() == BulkCommunication.BulkStatus.SENDING || bulk.getStatus() == BulkCommunication.BulkStatus.COMPLETED) {
+            throw new RuntimeException("Bulk communication has already been sent");
+        }
+        
+        // Recipients are resolved page by page at fan-out time, so the count starts from zero
+        bulk.setTotalRecipients(0);
+        bulk.setExpansionCursor(null);
+        bulk.setExpansionCompleted(false);
+        
+        if (bulk.getScheduledAt() != null && bulk.getScheduledAt().isAfter(LocalDateTime.now())) {
+            bulk.setStatus(BulkCommunication.BulkStatus.SCHEDULED);
+            bulkCommunicationRepository.save(bulk);
+            log.info("Bulk communication {} scheduled for {}", bulk.getName(), bulk.getScheduledAt());
+            return;
+        }
+        
         bulk.setStatus(BulkCommunication.BulkStatus.SENDING);
         bulk.setSentAt(LocalDateTime.now());
         bulkCommunicationRepository.save(bulk);
         
-        // Here you would implement the actual bulk sending logic
+        // BulkCommunicationDispatcher expands and sends it in the background
         log.info("Starting bulk communication send for: {}", bulk.getName());
     }
     
+    private int countRecipientIds(BulkCommunication bulk) {
+        return bulk.getRecipientIds() != null ? bulk.getRecipientIds().size() : 0;
+    }
+    
     // Notification Preference Methods
     public List<NotificationPreference> getNotificationPreferences(Long userId) {
         if (userId != null) {
@@ -364,64 +384,36 @@ public class CommunicationService {
     }
     
     // Individual Communication Methods
+    // Messages are queued as PENDING logs; BulkCommunicationDispatcher sends them per channel.
     public void sendEmail(Long recipientId, Long templateId, String subject, String body, Map<String, Object> variables) {
-        CommunicationLog log = new CommunicationLog();
-        log.setRecipientType(CommunicationLog.RecipientType.TENANT); // Default, should be determined by context
-        log.setRecipientId(recipientId);
-        log.setRecipientName("Recipient " + recipientId); // Should be fetched from user/tenant service
-        log.setChannel(NotificationChannel.ChannelType.EMAIL);
-        log.setTemplateId(templateId);
-        log.setSubject(subject);
-        log.setMessage(body);
-        log.setStatus(CommunicationLog.CommunicationStatus.SENT);
-        log.setSentAt(LocalDateTime.now());
-        
-        communicationLogRepository.save(log);
-        this.log.info("Email sent to recipient ID: {}", recipientId);
+        enqueue(recipientId, NotificationChannel.ChannelType.EMAIL, templateId, subject, body);
     }
     
     public void sendSMS(Long recipientId, Long templateId, String message, Map<String, Object> variables) {
-        CommunicationLog log = new CommunicationLog();
-        log.setRecipientType(CommunicationLog.RecipientType.TENANT);
-        log.setRecipientId(recipientId);
-        log.setRecipientName("Recipient " + recipientId);
-        log.setChannel(NotificationChannel.ChannelType.SMS);
-        log.setTemplateId(templateId);
-        log.setMessage(message);
-        log.setStatus(CommunicationLog.CommunicationStatus.SENT);
-        log.setSentAt(LocalDateTime.now());
-        
-        communicationLogRepository.save(log);
-        this.log.info("SMS sent to recipient ID: {}", recipientId);
+        enqueue(recipientId, NotificationChannel.ChannelType.SMS, templateId, null, message);
     }
     
     public void sendWhatsApp(Long recipientId, String message, List<String> attachments) {
-        CommunicationLog log = new CommunicationLog();
-        log.setRecipientType(CommunicationLog.RecipientType.TENANT);
-        log.setRecipientId(recipientId);
-        log.setRecipientName("Recipient " + recipientId);
-        log.setChannel(NotificationChannel.ChannelType.WHATSAPP);
-        log.setMessage(message);
-        log.setStatus(CommunicationLog.CommunicationStatus.SENT);
-        log.setSentAt(LocalDateTime.now());
-        
-        communicationLogRepository.save(log);
-        this.log.info("WhatsApp message sent to recipient ID: {}", recipientId);
+        enqueue(recipientId, NotificationChannel.ChannelType.WHATSAPP, null, null, message);
     }
     
     public void sendPushNotification(Long recipientId, String title, String message, Map<String, Object> data) {
+        enqueue(recipientId, NotificationChannel.ChannelType.PUSH, null, title, message);
+    }
+    
+    private void enqueue(Long recipientId, NotificationChannel.ChannelType channel, Long templateId, String subject, String message) {
         CommunicationLog log = new CommunicationLog();
-        log.setRecipientType(CommunicationLog.RecipientType.TENANT);
+        log.setRecipientType(CommunicationLog.RecipientType.TENANT); // Default, should be determined by context
         log.setRecipientId(recipientId);
-        log.setRecipientName("Recipient " + recipientId);
-        log.setChannel(NotificationChannel.ChannelType.PUSH);
-        log.setSubject(title);
+        log.setRecipientName("Recipient " + recipientId); // Should be fetched from user/tenant service
+        log.setChannel(channel);
+        log.setTemplateId(templateId);
+        log.setSubject(subject);
         log.setMessage(message);
-        log.setStatus(CommunicationLog.CommunicationStatus.SENT);
-        log.setSentAt(LocalDateTime.now());
+        log.setStatus(CommunicationLog.CommunicationStatus.PENDING);
         
         communicationLogRepository.save(log);
-        this.log.info("Push notification sent to recipient ID: {}", recipientId);
+        this.log.info("{} queued for recipient ID: {}", channel, recipientId);
     }
     
     // Utility Methods
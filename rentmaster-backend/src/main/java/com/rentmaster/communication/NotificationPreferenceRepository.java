@@ -4,6 +4,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,4 +27,9 @@ public interface NotificationPreferenceRepository extends JpaRepository<Notifica
     
     @Query("SELECT np FROM NotificationPreference np WHERE :channel MEMBER OF np.channels AND np.enabled = true")
     List<NotificationPreference> findByChannelAndEnabled(@Param("channel") NotificationPreference.ChannelType channel);
+    
+    @Query("SELECT DISTINCT np FROM NotificationPreference np LEFT JOIN FETCH np.channels " +
+           "WHERE np.userId IN :userIds AND np.notificationType = :notificationType")
+    List<NotificationPreference> findWithChannelsByUserIdIn(@Param("userIds") Collection<Long> userIds,
+                                                            @Param("notificationType") NotificationPreference.NotificationType notificationType);
 }
\ No newline at end of file
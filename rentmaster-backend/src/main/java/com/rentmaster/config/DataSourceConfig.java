@@ -0,0 +1,69 @@
+package com.rentmaster.config;
+
+import com.rentmaster.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * The read-write pool, configured by {@code spring.datasource}. Migrations always
+     * run against it.
+     */
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * The read-only pool, sized separately under {@code datasource.replica.hikari} so
+     * reporting load cannot take connections from billing writes.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties, Environment environment) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setJdbcUrl(environment.getRequiredProperty("datasource.replica.url"));
+        dataSource.setUsername(environment.getProperty("datasource.replica.username", properties.determineUsername()));
+        dataSource.setPassword(environment.getProperty("datasource.replica.password", properties.determinePassword()));
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") HikariDataSource primary,
+            @Qualifier("replicaDataSource") ObjectProvider<HikariDataSource> replica) {
+        return new ReplicaRoutingDataSource(primary, replica.getIfAvailable());
+    }
+
+    /**
+     * The data source JPA and JDBC use. Connections are fetched on first use, after the
+     * transaction's read-only flag is known, so the routing can pick the pool.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
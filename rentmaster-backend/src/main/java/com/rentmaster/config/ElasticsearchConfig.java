@@ -0,0 +1,112 @@
+package com.rentmaster.config;
+
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.transport.ElasticsearchTransport;
+import co.elastic.clients.transport.Endpoint;
+import co.elastic.clients.transport.TransportOptions;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestClientBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.elasticsearch.RestClientBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+@Configuration
+public class ElasticsearchConfig {
+
+    @Value("${search.elasticsearch.max-connections:30}")
+    private int maxConnections;
+
+    @Value("${search.elasticsearch.max-connections-per-route:10}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${search.elasticsearch.max-concurrent-requests:${search.elasticsearch.max-connections:30}}")
+    private int maxConcurrentRequests;
+
+    /**
+     * The low-level client caps open connections, so raising request concurrency
+     * (e.g. with virtual threads) only helps search if the pool grows with it.
+     */
+    @Bean
+    public RestClientBuilderCustomizer elasticsearchConnectionPoolCustomizer() {
+        return new RestClientBuilderCustomizer() {
+            @Override
+            public void customize(RestClientBuilder builder) {
+            }
+
+            // Applied inside Boot's own client callback, so credentials and SSL settings are kept
+            @Override
+            public void customize(HttpAsyncClientBuilder httpClient) {
+                httpClient.setMaxConnTotal(maxConnections);
+                httpClient.setMaxConnPerRoute(maxConnectionsPerRoute);
+            }
+        };
+    }
+
+    /**
+     * Replaces Boot's transport with one that caps concurrent blocking calls. The
+     * low-level client waits for each response in {@code Object.wait}, which pins a
+     * virtual thread to its carrier; once every carrier the scheduler can add is pinned
+     * that way, the client's I/O thread can no longer hand back the results and search
+     * stalls. Callers beyond the cap park on the semaphore without pinning.
+     */
+    @Bean
+    public ElasticsearchTransport elasticsearchTransport(RestClient restClient, JsonpMapper jsonpMapper) {
+        return new BoundedTransport(new RestClientTransport(restClient, jsonpMapper), maxConcurrentRequests);
+    }
+
+    private static final class BoundedTransport implements ElasticsearchTransport {
+
+        private final ElasticsearchTransport delegate;
+        private final Semaphore permits;
+
+        private BoundedTransport(ElasticsearchTransport delegate, int maxConcurrentRequests) {
+            this.delegate = delegate;
+            this.permits = new Semaphore(maxConcurrentRequests);
+        }
+
+        @Override
+        public <RequestT, ResponseT, ErrorT> ResponseT performRequest(RequestT request,
+                Endpoint<RequestT, ResponseT, ErrorT> endpoint, TransportOptions options) throws IOException {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for an Elasticsearch request slot");
+            }
+            try {
+                return delegate.performRequest(request, endpoint, options);
+            } finally {
+                permits.release();
+            }
+        }
+
+        @Override
+        public <RequestT, ResponseT, ErrorT> CompletableFuture<ResponseT> performRequestAsync(RequestT request,
+                Endpoint<RequestT, ResponseT, ErrorT> endpoint, TransportOptions options) {
+            return delegate.performRequestAsync(request, endpoint, options);
+        }
+
+        @Override
+        public JsonpMapper jsonpMapper() {
+            return delegate.jsonpMapper();
+        }
+
+        @Override
+        public TransportOptions options() {
+            return delegate.options();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.rentmaster.config;
+
+import com.rentmaster.observability.EntityLoadCountingIntegrator;
+import com.rentmaster.observability.QueryBudgetInterceptor;
+import com.rentmaster.observability.QueryCountingStatementInspector;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class ObservabilityConfig {
+
+    /**
+     * Counts the statements and entity loads of each request for its query budget and metrics.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer queryCountingCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountingStatementInspector());
+            properties.put("hibernate.integrator_provider",
+                (IntegratorProvider) () -> List.of(new EntityLoadCountingIntegrator()));
+        };
+    }
+
+    @Bean
+    public WebMvcConfigurer queryBudgetConfigurer(QueryBudgetInterceptor queryBudgetInterceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(queryBudgetInterceptor);
+            }
+        };
+    }
+}
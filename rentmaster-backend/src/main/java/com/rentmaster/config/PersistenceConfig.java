@@ -0,0 +1,30 @@
+package com.rentmaster.config;
+
+import com.rentmaster.multitenancy.OrganizationScope;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+@Configuration
+public class PersistenceConfig {
+
+    /**
+     * Enables the organization filter on every EntityManager the JPA factory hands
+     * out, covering transactional and shared (non-transactional) repository calls alike.
+     */
+    @Bean
+    public static BeanPostProcessor organizationFilterInitializer(ObjectProvider<OrganizationScope> organizationScope) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean factoryBean) {
+                    factoryBean.setEntityManagerInitializer(entityManager ->
+                            organizationScope.getObject().enableFilter(entityManager));
+                }
+                return bean;
+            }
+        };
+    }
+}
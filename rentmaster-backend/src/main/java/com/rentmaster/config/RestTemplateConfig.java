@@ -3,9 +3,12 @@ package com.rentmaster.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 @Configuration
 public class RestTemplateConfig {
 
@@ -16,12 +19,19 @@ public class RestTemplateConfig {
         return restTemplate;
     }
 
+    /**
+     * java.net.http client rather than HttpURLConnection: it pools connections per host
+     * and suits virtual threads. Redirects are not followed.
+     */
     @Bean
     public ClientHttpRequestFactory clientHttpRequestFactory() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(5000);
-        factory.setReadTimeout(30000);
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(5000))
+                // No h2c upgrade attempts against plain-HTTP gateways
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+        factory.setReadTimeout(Duration.ofMillis(30000));
         return factory;
     }
 }
-
@@ -1,9 +1,14 @@
 package com.rentmaster.contract;
 
+import com.rentmaster.analytics.CubeChangeListener;
 import com.rentmaster.multitenancy.Organization;
+import com.rentmaster.multitenancy.OrganizationAssignmentListener;
+import com.rentmaster.multitenancy.OrganizationOwned;
+import com.rentmaster.multitenancy.OrganizationScope;
 import com.rentmaster.property.Room;
 import com.rentmaster.tenant.Tenant;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Filter;
 
 import java.time.Instant;
 import java.time.LocalDate;
@@ -13,7 +18,9 @@ import java.util.Set;
 
 @Entity
 @Table(name = "contracts")
-public class Contract {
+@EntityListeners({OrganizationAssignmentListener.class, CubeChangeListener.class})
+@Filter(name = OrganizationScope.FILTER_NAME)
+public class Contract implements OrganizationOwned {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
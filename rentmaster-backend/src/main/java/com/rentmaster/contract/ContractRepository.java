@@ -14,6 +14,11 @@ public interface ContractRepository extends JpaRepository<Contract, Long> {
     Optional<Contract> findByCode(String code);
     
     List<Contract> findByStatus(ContractStatus status);
+
+    // Contracts with the given status that fall in a job shard (id mod shardCount)
+    @Query("SELECT c FROM Contract c WHERE c.status = :status AND MOD(c.id, :shardCount) = :shard")
+    List<Contract> findByStatusInShard(@Param("status") ContractStatus status, @Param("shard") int shard,
+                                       @Param("shardCount") int shardCount);
     
     @Query("SELECT c FROM Contract c WHERE c.room.id = :roomId AND c.status = 'ACTIVE' " +
            "AND ((c.startDate <= :endDate AND (c.endDate IS NULL OR c.endDate >= :startDate)))")
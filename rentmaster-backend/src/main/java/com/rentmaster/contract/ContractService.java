@@ -7,6 +7,7 @@ import com.rentmaster.property.RoomRepository;
 import com.rentmaster.property.RoomStatus;
 import com.rentmaster.tenant.Tenant;
 import com.rentmaster.tenant.TenantRepository;
+import com.rentmaster.multitenancy.OrganizationScope;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,6 +20,9 @@ import java.util.stream.Collectors;
 @Transactional
 public class ContractService {
 
+    @Autowired
+    private OrganizationScope organizationScope;
+
     @Autowired
     private ContractRepository contractRepository;
 
@@ -35,7 +39,7 @@ public class ContractService {
     }
 
     public ContractDTO findById(Long id) {
-        Contract contract = contractRepository.findById(id)
+        Contract contract = contractRepository.findById(id).filter(organizationScope::isVisible)
                 .orElseThrow(() -> new RuntimeException("Contract not found"));
         return toDTO(contract);
     }
@@ -54,7 +58,7 @@ public class ContractService {
         Room room = roomRepository.findById(dto.getRoomId())
                 .orElseThrow(() -> new RuntimeException("Room not found"));
 
-        Tenant primaryTenant = tenantRepository.findById(dto.getPrimaryTenantId())
+        Tenant primaryTenant = tenantRepository.findById(dto.getPrimaryTenantId()).filter(organizationScope::isVisible)
                 .orElseThrow(() -> new RuntimeException("Primary tenant not found"));
 
         // Check for overlapping active contracts
@@ -70,6 +74,7 @@ public class ContractService {
         Contract contract = new Contract();
         contract.setCode(dto.getCode());
         contract.setRoom(room);
+        contract.setOrganization(room.getProperty().getOrganization());
         contract.setPrimaryTenant(primaryTenant);
         contract.setStartDate(dto.getStartDate());
         contract.setEndDate(dto.getEndDate());
@@ -80,7 +85,7 @@ public class ContractService {
 
         if (dto.getTenantIds() != null && !dto.getTenantIds().isEmpty()) {
             for (Long tenantId : dto.getTenantIds()) {
-                Tenant tenant = tenantRepository.findById(tenantId)
+                Tenant tenant = tenantRepository.findById(tenantId).filter(organizationScope::isVisible)
                         .orElseThrow(() -> new RuntimeException("Tenant not found: " + tenantId));
                 contract.getTenants().add(tenant);
             }
@@ -99,7 +104,7 @@ public class ContractService {
     }
 
     public ContractDTO update(Long id, ContractCreateDTO dto) {
-        Contract contract = contractRepository.findById(id)
+        Contract contract = contractRepository.findById(id).filter(organizationScope::isVisible)
                 .orElseThrow(() -> new RuntimeException("Contract not found"));
 
         if (!contract.getCode().equals(dto.getCode()) &&
@@ -110,7 +115,7 @@ public class ContractService {
         Room room = roomRepository.findById(dto.getRoomId())
                 .orElseThrow(() -> new RuntimeException("Room not found"));
 
-        Tenant primaryTenant = tenantRepository.findById(dto.getPrimaryTenantId())
+        Tenant primaryTenant = tenantRepository.findById(dto.getPrimaryTenantId()).filter(organizationScope::isVisible)
                 .orElseThrow(() -> new RuntimeException("Primary tenant not found"));
 
         ContractStatus newStatus = ContractStatus.valueOf(dto.getStatus());
@@ -137,7 +142,7 @@ public class ContractService {
         contract.getTenants().clear();
         if (dto.getTenantIds() != null && !dto.getTenantIds().isEmpty()) {
             for (Long tenantId : dto.getTenantIds()) {
-                Tenant tenant = tenantRepository.findById(tenantId)
+                Tenant tenant = tenantRepository.findById(tenantId).filter(organizationScope::isVisible)
                         .orElseThrow(() -> new RuntimeException("Tenant not found: " + tenantId));
                 contract.getTenants().add(tenant);
             }
@@ -158,7 +163,7 @@ public class ContractService {
     }
 
     public void delete(Long id) {
-        Contract contract = contractRepository.findById(id)
+        Contract contract = contractRepository.findById(id).filter(organizationScope::isVisible)
                 .orElseThrow(() -> new RuntimeException("Contract not found"));
         Room room = contract.getRoom();
         contractRepository.deleteById(id);
@@ -0,0 +1,23 @@
+package com.rentmaster.datasource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/system/datasources")
+public class DataSourceController {
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    // Connections handed out per route, replica lag and the state of both pools
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(routingDataSource.getStats());
+    }
+}
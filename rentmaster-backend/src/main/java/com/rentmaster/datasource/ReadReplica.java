@@ -0,0 +1,18 @@
+package com.rentmaster.datasource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Routes the database reads of a method, or of every method of a class, to the read
+ * replica when one is configured and caught up. Only annotated work is routed; use it
+ * for reports and exports that tolerate replication lag, not for reads that must see a
+ * write just made. Inside a read-write transaction the annotation has no effect, so
+ * writes never see replica data.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadReplica {
+}
@@ -0,0 +1,28 @@
+package com.rentmaster.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Marks the calling thread as preferring the replica for the duration of a
+ * {@link ReadReplica} method. Runs outside any transaction advice on the same method.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReadReplicaAspect {
+
+    @Around("@annotation(com.rentmaster.datasource.ReadReplica) || @within(com.rentmaster.datasource.ReadReplica)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean previous = ReplicaRoutingDataSource.enterReplicaHint();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRoutingDataSource.exitReplicaHint(previous);
+        }
+    }
+}
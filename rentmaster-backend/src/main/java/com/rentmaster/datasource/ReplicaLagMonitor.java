@@ -0,0 +1,54 @@
+package com.rentmaster.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Measures how far the read replica trails the primary and takes it out of rotation
+ * while the lag exceeds {@code datasource.replica.max-lag-seconds} or it cannot be
+ * reached. A replica that has replayed everything it received counts as caught up even
+ * when the primary has been idle since its last transaction.
+ */
+@Component
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String LAG_SQL =
+        "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+        "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+        "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Value("${datasource.replica.max-lag-seconds:30}")
+    private double maxLagSeconds;
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-ms:5000}")
+    public void check() {
+        if (!routingDataSource.hasReplica()) {
+            return;
+        }
+        try (Connection connection = routingDataSource.getReplica().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(5);
+            try (ResultSet rs = statement.executeQuery(LAG_SQL)) {
+                rs.next();
+                routingDataSource.replicaChecked(rs.getDouble(1), maxLagSeconds);
+            }
+        } catch (SQLException e) {
+            logger.debug("Replica lag check failed", e);
+            routingDataSource.replicaFailed("Lag check failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.rentmaster.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands out connections from the primary pool or, for work that opted in, from the
+ * replica pool. A connection goes to the replica only on a thread running a
+ * {@link ReadReplica} method, outside any transaction or inside a read-only one, and
+ * only while the replica is configured and within its allowed lag. A read-only
+ * transaction alone stays on the primary, since many of them read what the caller has
+ * just written. Everything else, including every read-write transaction, uses the primary.
+ *
+ * The decision is made when the connection is first used, which requires this source
+ * to sit behind a {@code LazyConnectionDataSourceProxy}: by then the transaction's
+ * read-only flag has been published. When the replica is lagging, unreachable, or its
+ * pool cannot supply a connection in time, the work falls back to the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> replicaHint = new ThreadLocal<>();
+
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+
+    private final LongAdder primaryRoutes = new LongAdder();
+    private final LongAdder replicaRoutes = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    // Unavailable until the first lag check has passed
+    private volatile boolean replicaAvailable;
+    private volatile Double replicaLagSeconds;
+    private volatile String replicaProblem;
+    private volatile LocalDateTime replicaCheckedAt;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, HikariDataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+    }
+
+    /**
+     * Runs {@code work} on the replica route, for {@link ReadReplica} reads that run on
+     * pool threads the annotation does not reach.
+     */
+    public static void onReplica(Runnable work) {
+        boolean previous = enterReplicaHint();
+        try {
+            work.run();
+        } finally {
+            exitReplicaHint(previous);
+        }
+    }
+
+    static boolean enterReplicaHint() {
+        boolean previous = Boolean.TRUE.equals(replicaHint.get());
+        replicaHint.set(Boolean.TRUE);
+        return previous;
+    }
+
+    static void exitReplicaHint(boolean previous) {
+        if (previous) {
+            replicaHint.set(Boolean.TRUE);
+        } else {
+            replicaHint.remove();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!wantsReplica()) {
+            primaryRoutes.increment();
+            return primary.getConnection();
+        }
+        if (replica == null) {
+            primaryRoutes.increment();
+            return primary.getConnection();
+        }
+        if (replicaAvailable) {
+            try {
+                Connection connection = replica.getConnection();
+                replicaRoutes.increment();
+                return connection;
+            } catch (SQLException e) {
+                logger.warn("Replica connection unavailable, using the primary: {}", e.getMessage());
+            }
+        }
+        fallbacks.increment();
+        primaryRoutes.increment();
+        return primary.getConnection();
+    }
+
+    // Explicit credentials bypass routing, so they always reach the primary
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        primaryRoutes.increment();
+        return primary.getConnection(username, password);
+    }
+
+    private static boolean wantsReplica() {
+        if (!Boolean.TRUE.equals(replicaHint.get())) {
+            return false;
+        }
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+            || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    public boolean hasReplica() {
+        return replica != null;
+    }
+
+    HikariDataSource getReplica() {
+        return replica;
+    }
+
+    void replicaChecked(double lagSeconds, double maxLagSeconds) {
+        replicaLagSeconds = lagSeconds;
+        replicaCheckedAt = LocalDateTime.now();
+        if (lagSeconds > maxLagSeconds) {
+            markReplica(false, String.format("Replication lag %.1fs exceeds %.0fs", lagSeconds, maxLagSeconds));
+        } else {
+            markReplica(true, null);
+        }
+    }
+
+    void replicaFailed(String problem) {
+        replicaLagSeconds = null;
+        replicaCheckedAt = LocalDateTime.now();
+        markReplica(false, problem);
+    }
+
+    private void markReplica(boolean available, String problem) {
+        if (available != replicaAvailable) {
+            if (available) {
+                logger.info("Read replica is available, routing read-only work to it");
+            } else {
+                logger.warn("Read replica is unavailable, routing read-only work to the primary: {}", problem);
+            }
+        }
+        replicaProblem = problem;
+        replicaAvailable = available;
+    }
+
+    /**
+     * Routing counters, replica state and the pool statistics of each route.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+
+        Map<String, Object> routes = new HashMap<>();
+        routes.put("primary", primaryRoutes.sum());
+        routes.put("replica", replicaRoutes.sum());
+        routes.put("fallbacks", fallbacks.sum());
+        stats.put("routes", routes);
+
+        Map<String, Object> replicaState = new HashMap<>();
+        replicaState.put("configured", replica != null);
+        replicaState.put("available", replica != null && replicaAvailable);
+        replicaState.put("lagSeconds", replicaLagSeconds);
+        replicaState.put("problem", replicaProblem);
+        replicaState.put("checkedAt", replicaCheckedAt != null ? replicaCheckedAt.toString() : null);
+        stats.put("replica", replicaState);
+
+        List<Map<String, Object>> pools = new ArrayList<>();
+        pools.add(poolStats("primary", primary));
+        if (replica != null) {
+            pools.add(poolStats("replica", replica));
+        }
+        stats.put("pools", pools);
+        return stats;
+    }
+
+    private static Map<String, Object> poolStats(String route, HikariDataSource dataSource) {
+        Map<String, Object> pool = new HashMap<>();
+        pool.put("route", route);
+        pool.put("poolName", dataSource.getPoolName());
+        pool.put("maximumPoolSize", dataSource.getMaximumPoolSize());
+        HikariPoolMXBean bean = dataSource.getHikariPoolMXBean();
+        if (bean != null) {
+            pool.put("active", bean.getActiveConnections());
+            pool.put("idle", bean.getIdleConnections());
+            pool.put("total", bean.getTotalConnections());
+            pool.put("awaiting", bean.getThreadsAwaitingConnection());
+        }
+        return pool;
+    }
+}
@@ -1,7 +1,9 @@
 package com.rentmaster.document;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -20,12 +22,19 @@ public class Document {
     @Column(name = "original_file_name", nullable = false)
     private String originalFileName;
     
+    // Storage locations stay server-side; content is only reachable through the download endpoints
+    @JsonIgnore
     @Column(name = "file_path", nullable = false)
     private String filePath;
     
     @Column(name = "file_size", nullable = false)
     private Long fileSize;
     
+    // SHA-256 of the content in the blob store; null for files stored before it existed
+    @JsonIgnore
+    @Column(name = "blob_hash", length = 64)
+    private String blobHash;
+    
     @Column(name = "mime_type", nullable = false)
     private String mimeType;
     
@@ -62,6 +71,7 @@ public class Document {
     private String description;
     
     @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "document_tags", joinColumns = @JoinColumn(name = "document_id"))
     @Column(name = "tag")
     private List<String> tags;
@@ -185,6 +195,14 @@ public class Document {
         this.fileSize = fileSize;
     }
     
+    public String getBlobHash() {
+        return blobHash;
+    }
+    
+    public void setBlobHash(String blobHash) {
+        this.blobHash = blobHash;
+    }
+    
     public String getMimeType() {
         return mimeType;
     }
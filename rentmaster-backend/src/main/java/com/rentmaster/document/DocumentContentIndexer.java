@@ -0,0 +1,203 @@
+package com.rentmaster.document;
+
+import com.rentmaster.storage.BlobStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.poi.extractor.ExtractorFactory;
+import org.apache.poi.extractor.POITextExtractor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Extracts the text of uploaded document files into the search index.
+ *
+ * Office formats (DOCX, XLSX, PPTX and the legacy Excel format) go through POI's
+ * extractor factory, and text formats are read directly; the result is truncated and
+ * stored next to the document, whose weighted search vector is then rebuilt.
+ * Extraction runs after the upload commits on a small bounded pool, and
+ * {@link #sweepPending()} picks up whatever the pool could not take, along with
+ * documents uploaded before extraction existed.
+ */
+@Component
+public class DocumentContentIndexer {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentContentIndexer.class);
+
+    private static final int SWEEP_BATCH_SIZE = 100;
+
+    private static final Set<String> OFFICE_TYPES = Set.of(
+        "application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+        "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+        "application/vnd.openxmlformats-officedocument.presentationml.presentation",
+        "application/vnd.ms-excel");
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${document.search.extraction-workers:1}")
+    private int workers;
+
+    @Value("${document.search.extraction-queue-capacity:500}")
+    private int queueCapacity;
+
+    // Longer files are indexed on their beginning only
+    @Value("${document.search.max-content-chars:100000}")
+    private int maxContentChars;
+
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "document-text-extraction");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            });
+    }
+
+    /**
+     * Queues extraction for a document once the current transaction (if any) commits.
+     */
+    public void schedule(Long documentId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(documentId);
+                }
+            });
+        } else {
+            submit(documentId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${document.search.extraction-sweep-ms:60000}")
+    public void sweepPending() {
+        int capacity = Math.min(SWEEP_BATCH_SIZE, executor.getQueue().remainingCapacity());
+        if (capacity == 0) {
+            return;
+        }
+        List<Long> documentIds = documentRepository.findIdsPendingContent(capacity);
+        documentIds.forEach(this::submit);
+    }
+
+    private void submit(Long documentId) {
+        if (!queued.add(documentId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    index(documentId);
+                } finally {
+                    queued.remove(documentId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Queue is full; content_indexed_at stays NULL and the sweep retries
+            queued.remove(documentId);
+            log.debug("Extraction queue full, deferring document {}", documentId);
+        }
+    }
+
+    private void index(Long documentId) {
+        Document document = documentRepository.findById(documentId).orElse(null);
+        if (document == null) {
+            return;
+        }
+
+        String text = "";
+        try {
+            text = extract(document);
+        } catch (IOException | RuntimeException e) {
+            // Stored as empty so a file that cannot be read is not retried forever
+            log.warn("Failed to extract text from document {}: {}", documentId, e.getMessage());
+        }
+
+        String content = sanitize(text);
+        transactionTemplate.executeWithoutResult(status -> {
+            documentRepository.storeContentText(documentId, content);
+            documentRepository.refreshSearchVector(documentId);
+        });
+        log.debug("Indexed {} characters of document {}", content.length(), documentId);
+    }
+
+    private String extract(Document document) throws IOException {
+        String mimeType = document.getMimeType() != null ? document.getMimeType().toLowerCase() : "";
+        boolean office = OFFICE_TYPES.contains(mimeType);
+        boolean text = mimeType.startsWith("text/") || mimeType.equals("application/json") || mimeType.equals("application/xml");
+        if (!office && !text) {
+            return "";
+        }
+
+        try (InputStream in = new BufferedInputStream(open(document))) {
+            if (text) {
+                return readText(in);
+            }
+            try (POITextExtractor extractor = ExtractorFactory.createExtractor(in)) {
+                return extractor.getText();
+            }
+        }
+    }
+
+    private InputStream open(Document document) throws IOException {
+        if (document.getBlobHash() != null) {
+            return blobStore.open(document.getBlobHash());
+        }
+        // Files uploaded before the blob store
+        return Files.newInputStream(Paths.get(document.getFilePath()));
+    }
+
+    private String readText(InputStream in) throws IOException {
+        Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        char[] buffer = new char[maxContentChars];
+        int length = 0;
+        int read;
+        while (length < buffer.length && (read = reader.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+        }
+        return new String(buffer, 0, length);
+    }
+
+    private String sanitize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String truncated = text.length() > maxContentChars ? text.substring(0, maxContentChars) : text;
+        // Postgres text cannot hold NUL characters
+        return truncated.replace('\u0000', ' ');
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
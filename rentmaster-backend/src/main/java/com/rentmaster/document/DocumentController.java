@@ -1,18 +1,26 @@
 package com.rentmaster.document;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rentmaster.common.web.FileDownloads;
+import com.rentmaster.storage.BlobStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.core.io.Resource;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -28,6 +36,9 @@ public class DocumentController {
     @Autowired
     private ObjectMapper objectMapper;
     
+    @Autowired
+    private BlobStore blobStore;
+    
     // Document Management Endpoints
     @GetMapping
     public ResponseEntity<Page<Document>> getDocuments(
@@ -133,17 +144,18 @@ public class DocumentController {
     }
     
     @GetMapping("/{id}/download")
-    public ResponseEntity<byte[]> downloadDocument(@PathVariable Long id) {
+    public ResponseEntity<Resource> downloadDocument(@PathVariable Long id, HttpServletRequest request,
+                                                     HttpServletResponse response) {
         try {
-            Document document = documentService.getDocumentById(id)
-                .orElseThrow(() -> new RuntimeException("Document not found"));
-            
-            byte[] fileContent = documentService.downloadDocument(id);
-            
-            return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + document.getOriginalFileName() + "\"")
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .body(fileContent);
+            Document document = documentService.getDocumentForDownload(id);
+            
+            CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+            if (document.getBlobHash() != null) {
+                return blobStore.serve(request, response, document.getBlobHash(), document.getMimeType(),
+                    document.getOriginalFileName(), true, cacheControl);
+            }
+            return FileDownloads.stream(request, response, Paths.get(document.getFilePath()),
+                document.getMimeType(), document.getOriginalFileName(), true, cacheControl);
                 
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
@@ -346,14 +358,19 @@ public class DocumentController {
     }
     
     @GetMapping("/{documentId}/versions/{version}/download")
-    public ResponseEntity<byte[]> downloadDocumentVersion(@PathVariable Long documentId, @PathVariable Integer version) {
+    public ResponseEntity<Resource> downloadDocumentVersion(@PathVariable Long documentId, @PathVariable Integer version,
+                                                            HttpServletRequest request, HttpServletResponse response) {
         try {
-            byte[] fileContent = documentService.downloadDocumentVersion(documentId, version);
-            
-            return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"document_v" + version + "\"")
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .body(fileContent);
+            DocumentVersion docVersion = documentService.getDocumentVersionForDownload(documentId, version);
+            
+            // Versions of a document are immutable once uploaded
+            CacheControl cacheControl = CacheControl.maxAge(Duration.ofDays(7)).cachePrivate();
+            if (docVersion.getBlobHash() != null) {
+                return blobStore.serve(request, response, docVersion.getBlobHash(), docVersion.getMimeType(),
+                    docVersion.getFileName(), true, cacheControl);
+            }
+            return FileDownloads.stream(request, response, Paths.get(docVersion.getFilePath()),
+                docVersion.getMimeType(), docVersion.getFileName(), true, cacheControl);
                 
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
@@ -479,6 +496,26 @@ public class DocumentController {
         }
     }
     
+    @PutMapping("/folders/{id}/move")
+    public ResponseEntity<DocumentFolder> moveFolder(@PathVariable Long id, @RequestBody Map<String, Object> request) {
+        try {
+            Long parentFolderId = request.get("parentFolderId") != null ? Long.valueOf(request.get("parentFolderId").toString()) : null;
+            DocumentFolder folder = documentService.moveFolder(id, parentFolderId);
+            return ResponseEntity.ok(folder);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/folders/{id}/stats")
+    public ResponseEntity<Map<String, Object>> getFolderStats(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(documentService.getFolderStats(id));
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
     @DeleteMapping("/folders/{id}")
     public ResponseEntity<Void> deleteFolder(@PathVariable Long id) {
         try {
@@ -507,8 +544,10 @@ public class DocumentController {
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<Document>> searchDocuments(@RequestParam String query) {
-        List<Document> documents = documentService.searchDocuments(query);
+    public ResponseEntity<List<Document>> searchDocuments(@RequestParam String query,
+                                                         @RequestParam(defaultValue = "0") int page,
+                                                         @RequestParam(defaultValue = "50") int size) {
+        List<Document> documents = documentService.searchDocuments(query, page, size);
         return ResponseEntity.ok(documents);
     }
     
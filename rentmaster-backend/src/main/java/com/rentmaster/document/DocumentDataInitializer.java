@@ -44,6 +44,7 @@ public class DocumentDataInitializer implements CommandLineRunner {
         
         if (documentRepository.count() == 0) {
             initializeDocuments();
+            folderRepository.recountDocuments();
         }
         
         if (signatureRepository.count() == 0) {
@@ -73,6 +74,9 @@ public class DocumentDataInitializer implements CommandLineRunner {
             createFolder("Templates", "/Templates/", "Document templates for reuse", true)
         );
         
+        folderRepository.saveAll(folders);
+        // Root folders: the id path is just their own id
+        folders.forEach(folder -> folder.setTreePath("/" + folder.getId() + "/"));
         folderRepository.saveAll(folders);
         log.info("Initialized {} document folders", folders.size());
     }
@@ -22,6 +22,10 @@ public class DocumentFolder {
     @Column(name = "path", nullable = false)
     private String path;
     
+    // Ancestor ids including this folder, e.g. "/1/5/12/"; set once the id is assigned
+    @Column(name = "tree_path", length = 1000)
+    private String treePath;
+    
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
     
@@ -135,6 +139,14 @@ public class DocumentFolder {
         this.path = path;
     }
     
+    public String getTreePath() {
+        return treePath;
+    }
+    
+    public void setTreePath(String treePath) {
+        this.treePath = treePath;
+    }
+    
     public String getDescription() {
         return description;
     }
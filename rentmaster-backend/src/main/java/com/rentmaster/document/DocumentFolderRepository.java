@@ -1,10 +1,15 @@
 package com.rentmaster.document;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface DocumentFolderRepository extends JpaRepository<DocumentFolder, Long> {
@@ -28,4 +33,50 @@ public interface DocumentFolderRepository extends JpaRepository<DocumentFolder,
     boolean existsByNameAndParentFolderId(String name, Long parentFolderId);
     
     boolean existsByNameAndParentFolderIdIsNull(String name);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT df FROM DocumentFolder df WHERE df.id = :id")
+    Optional<DocumentFolder> findByIdForUpdate(@Param("id") Long id);
+    
+    // Serializes structural changes (exclusive) against folder creation (shared) for the transaction
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:key)", nativeQuery = true)
+    Integer lockTreeExclusive(@Param("key") long key);
+    
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock_shared(:key)", nativeQuery = true)
+    Integer lockTreeShared(@Param("key") long key);
+    
+    @Modifying
+    @Query("UPDATE DocumentFolder df SET df.documentCount = df.documentCount + :delta WHERE df.id = :id")
+    int adjustDocumentCount(@Param("id") Long id, @Param("delta") int delta);
+    
+    @Modifying
+    @Query("UPDATE DocumentFolder df SET df.subfolderCount = df.subfolderCount + :delta WHERE df.id = :id")
+    int adjustSubfolderCount(@Param("id") Long id, @Param("delta") int delta);
+    
+    // Subtree lookups are a range over tree_path: [prefix, upper) where upper ends in '0' instead of '/'
+    @Query("SELECT COUNT(df) FROM DocumentFolder df WHERE df.treePath >= :prefix AND df.treePath < :upper")
+    long countInSubtree(@Param("prefix") String prefix, @Param("upper") String upper);
+    
+    @Query("SELECT COUNT(d), COALESCE(SUM(d.fileSize), 0) FROM Document d, DocumentFolder df " +
+           "WHERE d.folderId = df.id AND df.treePath >= :prefix AND df.treePath < :upper")
+    List<Object[]> sumDocumentsInSubtree(@Param("prefix") String prefix, @Param("upper") String upper);
+    
+    // Re-roots a folder and all its descendants in one statement, rewriting both the id and display paths
+    @Modifying
+    @Query(value = "UPDATE document_folders SET " +
+                   "tree_path = :newTreePath || substr(tree_path, length(:prefix) + 1), " +
+                   "path = :newPath || substr(path, length(:oldPath) + 1) " +
+                   "WHERE tree_path >= :prefix AND tree_path < :upper",
+           nativeQuery = true)
+    int rebaseSubtree(@Param("prefix") String prefix, @Param("upper") String upper,
+                      @Param("newTreePath") String newTreePath,
+                      @Param("oldPath") String oldPath, @Param("newPath") String newPath);
+    
+    // Used after bulk seeding, which bypasses the incremental counters
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE document_folders f SET document_count = " +
+                   "(SELECT COUNT(*) FROM documents d WHERE d.folder_id = f.id)",
+           nativeQuery = true)
+    int recountDocuments();
 }
\ No newline at end of file
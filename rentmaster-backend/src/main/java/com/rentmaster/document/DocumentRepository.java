@@ -3,6 +3,7 @@ package com.rentmaster.document;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -39,19 +40,72 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
            "(:category IS NULL OR d.category = :category) AND " +
            "(:tenantId IS NULL OR d.tenantId = :tenantId) AND " +
            "(:propertyId IS NULL OR d.propertyId = :propertyId) AND " +
-           "(:folderId IS NULL OR d.folderId = :folderId) AND " +
-           "(:search IS NULL OR LOWER(d.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(d.description) LIKE LOWER(CONCAT('%', :search, '%')))")
+           "(:folderId IS NULL OR d.folderId = :folderId)")
     Page<Document> findWithFilters(
         @Param("documentType") Document.DocumentType documentType,
         @Param("category") Document.DocumentCategory category,
         @Param("tenantId") Long tenantId,
         @Param("propertyId") Long propertyId,
         @Param("folderId") Long folderId,
+        Pageable pageable
+    );
+    
+    // Ranked search: full-text match on the weighted search_vector, or a fuzzy (trigram) match on the name.
+    // Both are GIN-indexed; results are ordered by relevance, so the pageable must be unsorted.
+    @Query(value = "SELECT d.* FROM documents d, websearch_to_tsquery('simple', :search) q " +
+                   "WHERE (d.search_vector @@ q OR lower(d.name) %> lower(:search)) " +
+                   "AND (CAST(:documentType AS VARCHAR) IS NULL OR d.document_type = CAST(:documentType AS VARCHAR)) " +
+                   "AND (CAST(:category AS VARCHAR) IS NULL OR d.category = CAST(:category AS VARCHAR)) " +
+                   "AND (CAST(:tenantId AS BIGINT) IS NULL OR d.tenant_id = CAST(:tenantId AS BIGINT)) " +
+                   "AND (CAST(:propertyId AS BIGINT) IS NULL OR d.property_id = CAST(:propertyId AS BIGINT)) " +
+                   "AND (CAST(:folderId AS BIGINT) IS NULL OR d.folder_id = CAST(:folderId AS BIGINT)) " +
+                   "ORDER BY ts_rank_cd(d.search_vector, q, 32) + word_similarity(lower(:search), lower(d.name)) DESC, " +
+                   "d.id DESC",
+           countQuery = "SELECT COUNT(*) FROM documents d, websearch_to_tsquery('simple', :search) q " +
+                   "WHERE (d.search_vector @@ q OR lower(d.name) %> lower(:search)) " +
+                   "AND (CAST(:documentType AS VARCHAR) IS NULL OR d.document_type = CAST(:documentType AS VARCHAR)) " +
+                   "AND (CAST(:category AS VARCHAR) IS NULL OR d.category = CAST(:category AS VARCHAR)) " +
+                   "AND (CAST(:tenantId AS BIGINT) IS NULL OR d.tenant_id = CAST(:tenantId AS BIGINT)) " +
+                   "AND (CAST(:propertyId AS BIGINT) IS NULL OR d.property_id = CAST(:propertyId AS BIGINT)) " +
+                   "AND (CAST(:folderId AS BIGINT) IS NULL OR d.folder_id = CAST(:folderId AS BIGINT))",
+           nativeQuery = true)
+    Page<Document> searchWithFilters(
         @Param("search") String search,
+        @Param("documentType") String documentType,
+        @Param("category") String category,
+        @Param("tenantId") Long tenantId,
+        @Param("propertyId") Long propertyId,
+        @Param("folderId") Long folderId,
         Pageable pageable
     );
     
+    // Rebuilds the weighted vector from the row, its tags and the extracted content
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE documents d SET search_vector = " +
+                   "setweight(to_tsvector('simple', coalesce(d.name, '')), 'A') || " +
+                   "setweight(to_tsvector('simple', coalesce((SELECT string_agg(t.tag, ' ') FROM document_tags t " +
+                   "WHERE t.document_id = d.id), '')), 'B') || " +
+                   "setweight(to_tsvector('simple', coalesce(d.description, '') || ' ' || " +
+                   "coalesce(d.original_file_name, '')), 'C') || " +
+                   "setweight(to_tsvector('simple', coalesce(d.content_text, '')), 'D') " +
+                   "WHERE d.id = :id",
+           nativeQuery = true)
+    int refreshSearchVector(@Param("id") Long id);
+    
+    @Modifying
+    @Query(value = "UPDATE documents SET content_text = :text, content_indexed_at = NOW() WHERE id = :id",
+           nativeQuery = true)
+    int storeContentText(@Param("id") Long id, @Param("text") String text);
+    
+    // The file behind the document changed; its content has to be extracted again
+    @Modifying
+    @Query(value = "UPDATE documents SET content_indexed_at = NULL WHERE id = :id", nativeQuery = true)
+    int markContentStale(@Param("id") Long id);
+    
+    @Query(value = "SELECT id FROM documents WHERE content_indexed_at IS NULL ORDER BY id LIMIT :limit",
+           nativeQuery = true)
+    List<Long> findIdsPendingContent(@Param("limit") int limit);
+    
     @Query("SELECT d FROM Document d JOIN d.tags t WHERE t = :tag")
     List<Document> findByTag(@Param("tag") String tag);
     
@@ -75,10 +129,4 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
     
     @Query("SELECT COUNT(d) FROM Document d WHERE d.signatureStatus = 'PENDING'")
     long countPendingSignatures();
-    
-    @Query("SELECT d FROM Document d WHERE " +
-           "LOWER(d.name) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(d.description) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "EXISTS (SELECT t FROM Document doc JOIN doc.tags t WHERE doc.id = d.id AND LOWER(t) LIKE LOWER(CONCAT('%', :query, '%')))")
-    List<Document> searchDocuments(@Param("query") String query);
 }
\ No newline at end of file
@@ -1,10 +1,13 @@
 package com.rentmaster.document;
 
+import com.rentmaster.storage.BlobStore;
+import com.rentmaster.storage.StoredBlob;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,9 +15,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.regex.Matcher;
@@ -26,9 +27,6 @@ public class DocumentService {
     
     private static final Logger log = LoggerFactory.getLogger(DocumentService.class);
     
-    @Value("${app.document.upload-dir:./uploads/documents}")
-    private String uploadDir;
-    
     @Autowired
     private DocumentRepository documentRepository;
     
@@ -47,10 +45,25 @@ public class DocumentService {
     @Autowired
     private DocumentFolderRepository folderRepository;
     
+    @Autowired
+    private BlobStore blobStore;
+    
+    @Autowired
+    private FolderTreeService folderTreeService;
+    
+    @Autowired
+    private DocumentContentIndexer contentIndexer;
+    
     // Document Management Methods
     public Page<Document> getDocuments(Document.DocumentType documentType, Document.DocumentCategory category,
                                      Long tenantId, Long propertyId, Long folderId, String search, Pageable pageable) {
-        return documentRepository.findWithFilters(documentType, category, tenantId, propertyId, folderId, search, pageable);
+        if (search == null || search.isBlank()) {
+            return documentRepository.findWithFilters(documentType, category, tenantId, propertyId, folderId, pageable);
+        }
+        // Search results come back in relevance order, so the requested sort is dropped
+        return withTags(documentRepository.searchWithFilters(search.trim(),
+            documentType != null ? documentType.name() : null, category != null ? category.name() : null,
+            tenantId, propertyId, folderId, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize())));
     }
     
     public Optional<Document> getDocumentById(Long id) {
@@ -64,26 +77,16 @@ public class DocumentService {
                                  LocalDateTime expiryDate, Long folderId, Long uploadedBy, String uploadedByName) {
         
         try {
-            // Create upload directory if it doesn't exist
-            Path uploadPath = Paths.get(uploadDir);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-            
-            // Generate unique filename
+            // Store content once by hash; the document and its initial version each hold a reference
             String originalFilename = file.getOriginalFilename();
-            String fileExtension = originalFilename != null && originalFilename.contains(".") 
-                ? originalFilename.substring(originalFilename.lastIndexOf(".")) : "";
-            String uniqueFilename = System.currentTimeMillis() + "_" + UUID.randomUUID().toString() + fileExtension;
-            
-            // Save file to disk
-            Path filePath = uploadPath.resolve(uniqueFilename);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+            StoredBlob blob = blobStore.store(file);
+            blobStore.retain(blob.getHash());
             
             // Create document entity
-            Document document = new Document(name, originalFilename, filePath.toString(), 
-                                           file.getSize(), file.getContentType(), documentType, category, 
+            Document document = new Document(name, originalFilename, StoredBlob.keyFor(blob.getHash()), 
+                                           blob.getSize(), blob.getContentType(), documentType, category, 
                                            uploadedBy, uploadedByName);
+            document.setBlobHash(blob.getHash());
             
             document.setRelatedEntityType(relatedEntityType);
             document.setRelatedEntityId(relatedEntityId);
@@ -105,14 +108,18 @@ public class DocumentService {
             
             // Create initial version
             DocumentVersion version = new DocumentVersion(savedDocument.getId(), 1, originalFilename, 
-                                                        filePath.toString(), file.getSize(), uploadedBy, uploadedByName);
+                                                        savedDocument.getFilePath(), blob.getSize(), uploadedBy, uploadedByName);
+            version.setBlobHash(blob.getHash());
+            version.setMimeType(savedDocument.getMimeType());
             version.setChangeDescription("Initial upload");
             versionRepository.save(version);
             
             // Update folder document count
-            if (folderId != null) {
-                updateFolderDocumentCount(folderId);
-            }
+            folderTreeService.documentAdded(folderId);
+            
+            // Name, tags and description are searchable at once; the file's text follows after commit
+            documentRepository.refreshSearchVector(savedDocument.getId());
+            contentIndexer.schedule(savedDocument.getId());
             
             log.info("Document uploaded successfully: {} (ID: {})", name, savedDocument.getId());
             return savedDocument;
@@ -149,16 +156,11 @@ public class DocumentService {
         }
         
         Document updatedDocument = documentRepository.save(document);
+        // Name, description and tags feed the search vector
+        documentRepository.refreshSearchVector(id);
         
         // Update folder counts if folder changed
-        if (!Objects.equals(oldFolderId, folderId)) {
-            if (oldFolderId != null) {
-                updateFolderDocumentCount(oldFolderId);
-            }
-            if (folderId != null) {
-                updateFolderDocumentCount(folderId);
-            }
-        }
+        folderTreeService.documentMoved(oldFolderId, folderId);
         
         return updatedDocument;
     }
@@ -168,19 +170,13 @@ public class DocumentService {
             .orElseThrow(() -> new RuntimeException("Document not found"));
         
         try {
-            // Delete physical file
-            Path filePath = Paths.get(document.getFilePath());
-            if (Files.exists(filePath)) {
-                Files.delete(filePath);
-            }
+            // Drop the document's references; blob content is swept once nothing refers to it
+            releaseFile(document.getBlobHash(), document.getFilePath());
             
             // Delete all versions
             List<DocumentVersion> versions = versionRepository.findByDocumentIdOrderByVersionDesc(id);
             for (DocumentVersion version : versions) {
-                Path versionPath = Paths.get(version.getFilePath());
-                if (Files.exists(versionPath)) {
-                    Files.delete(versionPath);
-                }
+                releaseFile(version.getBlobHash(), version.getFilePath());
             }
             versionRepository.deleteAll(versions);
             
@@ -192,9 +188,7 @@ public class DocumentService {
             documentRepository.delete(document);
             
             // Update folder document count
-            if (document.getFolderId() != null) {
-                updateFolderDocumentCount(document.getFolderId());
-            }
+            folderTreeService.documentRemoved(document.getFolderId());
             
             log.info("Document deleted successfully: {}", document.getName());
             
@@ -204,17 +198,10 @@ public class DocumentService {
         }
     }
     
-    public byte[] downloadDocument(Long id) {
-        Document document = documentRepository.findById(id)
+    @Transactional(readOnly = true)
+    public Document getDocumentForDownload(Long id) {
+        return documentRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Document not found"));
-        
-        try {
-            Path filePath = Paths.get(document.getFilePath());
-            return Files.readAllBytes(filePath);
-        } catch (IOException e) {
-            log.error("Failed to download document: {}", e.getMessage());
-            throw new RuntimeException("Failed to download document: " + e.getMessage());
-        }
     }
     
     public String getPreviewUrl(Long id) {
@@ -444,30 +431,29 @@ public class DocumentService {
             Integer maxVersion = versionRepository.findMaxVersionByDocumentId(documentId);
             int nextVersion = (maxVersion != null ? maxVersion : 0) + 1;
             
-            // Generate unique filename
+            // Re-uploading unchanged content adds a reference rather than a copy
             String originalFilename = file.getOriginalFilename();
-            String fileExtension = originalFilename != null && originalFilename.contains(".") 
-                ? originalFilename.substring(originalFilename.lastIndexOf(".")) : "";
-            String uniqueFilename = System.currentTimeMillis() + "_v" + nextVersion + "_" + UUID.randomUUID().toString() + fileExtension;
-            
-            // Save file to disk
-            Path uploadPath = Paths.get(uploadDir);
-            Path filePath = uploadPath.resolve(uniqueFilename);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+            StoredBlob blob = blobStore.store(file);
+            String blobPath = StoredBlob.keyFor(blob.getHash());
             
             // Create version entity
             DocumentVersion version = new DocumentVersion(documentId, nextVersion, originalFilename, 
-                                                        filePath.toString(), file.getSize(), uploadedBy, uploadedByName);
+                                                        blobPath, blob.getSize(), uploadedBy, uploadedByName);
+            version.setBlobHash(blob.getHash());
+            version.setMimeType(blob.getContentType());
             version.setChangeDescription(changeDescription);
             
             DocumentVersion savedVersion = versionRepository.save(version);
             
             // Update document with new version info
+            switchBlob(document, blob.getHash());
             document.setVersion(nextVersion);
-            document.setFilePath(filePath.toString());
-            document.setFileSize(file.getSize());
+            document.setFilePath(blobPath);
+            document.setFileSize(blob.getSize());
+            document.setMimeType(version.getMimeType());
             document.setOriginalFileName(originalFilename);
             documentRepository.save(document);
+            reindexContent(documentId);
             
             log.info("New version {} uploaded for document {}", nextVersion, documentId);
             return savedVersion;
@@ -478,17 +464,10 @@ public class DocumentService {
         }
     }
     
-    public byte[] downloadDocumentVersion(Long documentId, Integer version) {
-        DocumentVersion docVersion = versionRepository.findByDocumentIdAndVersion(documentId, version)
+    @Transactional(readOnly = true)
+    public DocumentVersion getDocumentVersionForDownload(Long documentId, Integer version) {
+        return versionRepository.findByDocumentIdAndVersion(documentId, version)
             .orElseThrow(() -> new RuntimeException("Document version not found"));
-        
-        try {
-            Path filePath = Paths.get(docVersion.getFilePath());
-            return Files.readAllBytes(filePath);
-        } catch (IOException e) {
-            log.error("Failed to download document version: {}", e.getMessage());
-            throw new RuntimeException("Failed to download document version: " + e.getMessage());
-        }
     }
     
     public Document restoreDocumentVersion(Long documentId, Integer version) {
@@ -499,12 +478,17 @@ public class DocumentService {
             .orElseThrow(() -> new RuntimeException("Document version not found"));
         
         // Update document to point to the restored version
+        switchBlob(document, docVersion.getBlobHash());
         document.setVersion(version);
         document.setFilePath(docVersion.getFilePath());
         document.setFileSize(docVersion.getFileSize());
         document.setOriginalFileName(docVersion.getFileName());
+        if (docVersion.getMimeType() != null) {
+            document.setMimeType(docVersion.getMimeType());
+        }
         
         Document restoredDocument = documentRepository.save(document);
+        reindexContent(documentId);
         
         log.info("Document {} restored to version {}", documentId, version);
         return restoredDocument;
@@ -596,66 +580,23 @@ public class DocumentService {
     }
     
     public DocumentFolder createFolder(String name, Long parentFolderId, String description, Long createdBy) {
-        // Check if folder with same name exists in parent
-        boolean exists = parentFolderId != null 
-            ? folderRepository.existsByNameAndParentFolderId(name, parentFolderId)
-            : folderRepository.existsByNameAndParentFolderIdIsNull(name);
-            
-        if (exists) {
-            throw new RuntimeException("Folder with this name already exists in the parent directory");
-        }
-        
-        // Build path
-        String path = "/";
-        if (parentFolderId != null) {
-            DocumentFolder parentFolder = folderRepository.findById(parentFolderId)
-                .orElseThrow(() -> new RuntimeException("Parent folder not found"));
-            path = parentFolder.getPath() + name + "/";
-        } else {
-            path = "/" + name + "/";
-        }
-        
-        DocumentFolder folder = new DocumentFolder(name, path, createdBy);
-        folder.setParentFolderId(parentFolderId);
-        folder.setDescription(description);
-        
-        DocumentFolder savedFolder = folderRepository.save(folder);
-        
-        // Update parent folder subfolder count
-        if (parentFolderId != null) {
-            updateFolderSubfolderCount(parentFolderId);
-        }
-        
-        return savedFolder;
+        return folderTreeService.createFolder(name, parentFolderId, description, createdBy);
     }
     
     public DocumentFolder updateFolder(Long id, String name, String description) {
-        DocumentFolder folder = folderRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Folder not found"));
-        
-        folder.setName(name);
-        folder.setDescription(description);
-        
-        return folderRepository.save(folder);
+        return folderTreeService.updateFolder(id, name, description);
+    }
+    
+    public DocumentFolder moveFolder(Long id, Long parentFolderId) {
+        return folderTreeService.moveFolder(id, parentFolderId);
     }
     
     public void deleteFolder(Long id) {
-        DocumentFolder folder = folderRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Folder not found"));
-        
-        // Check if folder has documents or subfolders
-        if (folder.getDocumentCount() > 0 || folder.getSubfolderCount() > 0) {
-            throw new RuntimeException("Cannot delete folder that contains documents or subfolders");
-        }
-        
-        Long parentId = folder.getParentFolderId();
-        
-        folderRepository.delete(folder);
-        
-        // Update parent folder subfolder count
-        if (parentId != null) {
-            updateFolderSubfolderCount(parentId);
-        }
+        folderTreeService.deleteFolder(id);
+    }
+    
+    public Map<String, Object> getFolderStats(Long id) {
+        return folderTreeService.getSubtreeStats(id);
     }
     
     public Document moveDocument(Long documentId, Long folderId) {
@@ -668,34 +609,11 @@ public class DocumentService {
         Document movedDocument = documentRepository.save(document);
         
         // Update folder counts
-        if (oldFolderId != null) {
-            updateFolderDocumentCount(oldFolderId);
-        }
-        if (folderId != null) {
-            updateFolderDocumentCount(folderId);
-        }
+        folderTreeService.documentMoved(oldFolderId, folderId);
         
         return movedDocument;
     }
     
-    private void updateFolderDocumentCount(Long folderId) {
-        DocumentFolder folder = folderRepository.findById(folderId).orElse(null);
-        if (folder != null) {
-            long count = documentRepository.findByFolderId(folderId, Pageable.unpaged()).getTotalElements();
-            folder.setDocumentCount((int) count);
-            folderRepository.save(folder);
-        }
-    }
-    
-    private void updateFolderSubfolderCount(Long folderId) {
-        DocumentFolder folder = folderRepository.findById(folderId).orElse(null);
-        if (folder != null) {
-            long count = folderRepository.countSubfolders(folderId);
-            folder.setSubfolderCount((int) count);
-            folderRepository.save(folder);
-        }
-    }
-    
     // Statistics Methods
     public Map<String, Object> getDocumentStats() {
         Map<String, Object> stats = new HashMap<>();
@@ -729,8 +647,10 @@ public class DocumentService {
     }
     
     // Search Methods
-    public List<Document> searchDocuments(String query) {
-        return documentRepository.searchDocuments(query);
+    @Transactional(readOnly = true)
+    public List<Document> searchDocuments(String query, int page, int size) {
+        return withTags(documentRepository.searchWithFilters(query.trim(), null, null, null, null, null,
+            PageRequest.of(page, size))).getContent();
     }
     
     // Tag Methods
@@ -748,7 +668,9 @@ public class DocumentService {
         
         if (!document.getTags().contains(tag)) {
             document.getTags().add(tag);
-            return documentRepository.save(document);
+            Document savedDocument = documentRepository.save(document);
+            documentRepository.refreshSearchVector(documentId);
+            return savedDocument;
         }
         
         return document;
@@ -760,7 +682,9 @@ public class DocumentService {
         
         if (document.getTags() != null) {
             document.getTags().remove(tag);
-            return documentRepository.save(document);
+            Document savedDocument = documentRepository.save(document);
+            documentRepository.refreshSearchVector(documentId);
+            return savedDocument;
         }
         
         return document;
@@ -793,4 +717,32 @@ public class DocumentService {
         
         return processed;
     }
-}
\ No newline at end of file
+    
+    // Moves the document's reference to another blob; legacy files have no hash and no count
+    private void switchBlob(Document document, String blobHash) {
+        blobStore.retain(blobHash);
+        blobStore.release(document.getBlobHash());
+        document.setBlobHash(blobHash);
+    }
+    
+    // Results are serialized with their tags after the transaction ends; the batch size loads them in one query
+    private Page<Document> withTags(Page<Document> documents) {
+        documents.forEach(document -> Hibernate.initialize(document.getTags()));
+        return documents;
+    }
+    
+    private void reindexContent(Long documentId) {
+        documentRepository.markContentStale(documentId);
+        documentRepository.refreshSearchVector(documentId);
+        contentIndexer.schedule(documentId);
+    }
+    
+    private void releaseFile(String blobHash, String filePath) throws IOException {
+        if (blobHash != null) {
+            blobStore.release(blobHash);
+        } else if (filePath != null) {
+            // Files uploaded before the blob store were written per document
+            Files.deleteIfExists(Paths.get(filePath));
+        }
+    }
+}
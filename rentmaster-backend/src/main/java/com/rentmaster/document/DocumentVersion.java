@@ -1,5 +1,6 @@
 package com.rentmaster.document;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
@@ -22,12 +23,22 @@ public class DocumentVersion {
     @Column(name = "file_name", nullable = false)
     private String fileName;
     
+    // Storage locations stay server-side; content is only reachable through the download endpoints
+    @JsonIgnore
     @Column(name = "file_path", nullable = false)
     private String filePath;
     
     @Column(name = "file_size", nullable = false)
     private Long fileSize;
     
+    // SHA-256 of the content in the blob store; null for files stored before it existed
+    @JsonIgnore
+    @Column(name = "blob_hash", length = 64)
+    private String blobHash;
+    
+    @Column(name = "mime_type")
+    private String mimeType;
+    
     @Column(name = "change_description", columnDefinition = "TEXT")
     private String changeDescription;
     
@@ -106,6 +117,22 @@ public class DocumentVersion {
         this.fileSize = fileSize;
     }
     
+    public String getBlobHash() {
+        return blobHash;
+    }
+    
+    public void setBlobHash(String blobHash) {
+        this.blobHash = blobHash;
+    }
+    
+    public String getMimeType() {
+        return mimeType;
+    }
+    
+    public void setMimeType(String mimeType) {
+        this.mimeType = mimeType;
+    }
+    
     public String getChangeDescription() {
         return changeDescription;
     }
@@ -0,0 +1,201 @@
+package com.rentmaster.document;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Maintains the document folder tree.
+ *
+ * Each folder stores its ancestry as a materialized id path ({@code /1/5/12/}) next to
+ * the display path built from names. A subtree is then a single index range scan on
+ * the id path, and moving or renaming a folder rewrites both paths for the whole
+ * subtree in one UPDATE. Document and subfolder counters are adjusted with atomic
+ * increments rather than re-counted.
+ *
+ * Moves and renames hold an exclusive transaction-scoped advisory lock, folder
+ * creation a shared one, so a folder is never created under a parent whose paths are
+ * being rewritten at the same time.
+ */
+@Service
+@Transactional
+public class FolderTreeService {
+
+    private static final Logger log = LoggerFactory.getLogger(FolderTreeService.class);
+
+    // Arbitrary advisory lock key reserved for the folder tree
+    private static final long TREE_LOCK_KEY = 0x466f6c6465727301L;
+
+    @Autowired
+    private DocumentFolderRepository folderRepository;
+
+    public DocumentFolder createFolder(String name, Long parentFolderId, String description, Long createdBy) {
+        folderRepository.lockTreeShared(TREE_LOCK_KEY);
+
+        DocumentFolder parentFolder = null;
+        if (parentFolderId != null) {
+            // Locking the parent also serializes the name check between concurrent creates
+            parentFolder = folderRepository.findByIdForUpdate(parentFolderId)
+                .orElseThrow(() -> new RuntimeException("Parent folder not found"));
+        }
+        checkNameAvailable(name, parentFolderId);
+
+        String path = (parentFolder != null ? parentFolder.getPath() : "/") + name + "/";
+        DocumentFolder folder = new DocumentFolder(name, path, createdBy);
+        folder.setParentFolderId(parentFolderId);
+        folder.setDescription(description);
+        DocumentFolder savedFolder = folderRepository.save(folder);
+
+        // The id path includes the folder's own id, so it can only be set after the insert
+        savedFolder.setTreePath((parentFolder != null ? parentFolder.getTreePath() : "/") + savedFolder.getId() + "/");
+
+        if (parentFolderId != null) {
+            folderRepository.adjustSubfolderCount(parentFolderId, 1);
+        }
+        return savedFolder;
+    }
+
+    public DocumentFolder updateFolder(Long id, String name, String description) {
+        if (name != null) {
+            // A rename rewrites the display path of every descendant
+            folderRepository.lockTreeExclusive(TREE_LOCK_KEY);
+        }
+        DocumentFolder folder = folderRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Folder not found"));
+
+        if (name != null && !name.equals(folder.getName())) {
+            checkNameAvailable(name, folder.getParentFolderId());
+
+            String parentPath = folder.getPath().substring(0, folder.getPath().length() - folder.getName().length() - 1);
+            rebase(folder, folder.getTreePath(), parentPath + name + "/");
+            folder.setName(name);
+        }
+        folder.setDescription(description);
+
+        return folderRepository.save(folder);
+    }
+
+    public DocumentFolder moveFolder(Long id, Long newParentFolderId) {
+        folderRepository.lockTreeExclusive(TREE_LOCK_KEY);
+
+        DocumentFolder folder = folderRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Folder not found"));
+        Long oldParentFolderId = folder.getParentFolderId();
+        if (Objects.equals(oldParentFolderId, newParentFolderId)) {
+            return folder;
+        }
+
+        String treePathPrefix = "/";
+        String pathPrefix = "/";
+        if (newParentFolderId != null) {
+            DocumentFolder newParent = folderRepository.findById(newParentFolderId)
+                .orElseThrow(() -> new RuntimeException("Parent folder not found"));
+            if (newParent.getTreePath().startsWith(folder.getTreePath())) {
+                throw new RuntimeException("Cannot move a folder into itself or one of its subfolders");
+            }
+            treePathPrefix = newParent.getTreePath();
+            pathPrefix = newParent.getPath();
+        }
+        checkNameAvailable(folder.getName(), newParentFolderId);
+
+        rebase(folder, treePathPrefix + folder.getId() + "/", pathPrefix + folder.getName() + "/");
+        folder.setParentFolderId(newParentFolderId);
+
+        if (oldParentFolderId != null) {
+            folderRepository.adjustSubfolderCount(oldParentFolderId, -1);
+        }
+        if (newParentFolderId != null) {
+            folderRepository.adjustSubfolderCount(newParentFolderId, 1);
+        }
+
+        log.info("Moved folder {} from parent {} to {}", id, oldParentFolderId, newParentFolderId);
+        return folderRepository.save(folder);
+    }
+
+    public void deleteFolder(Long id) {
+        // Locked so a concurrent upload either lands first and blocks the delete, or finds the folder gone
+        DocumentFolder folder = folderRepository.findByIdForUpdate(id)
+            .orElseThrow(() -> new RuntimeException("Folder not found"));
+
+        // Check if folder has documents or subfolders
+        if (folder.getDocumentCount() > 0 || folder.getSubfolderCount() > 0) {
+            throw new RuntimeException("Cannot delete folder that contains documents or subfolders");
+        }
+
+        folderRepository.delete(folder);
+        if (folder.getParentFolderId() != null) {
+            folderRepository.adjustSubfolderCount(folder.getParentFolderId(), -1);
+        }
+    }
+
+    /**
+     * Counts one more document in the folder; fails if the folder does not exist.
+     */
+    public void documentAdded(Long folderId) {
+        if (folderId != null && folderRepository.adjustDocumentCount(folderId, 1) == 0) {
+            throw new RuntimeException("Folder not found");
+        }
+    }
+
+    public void documentRemoved(Long folderId) {
+        if (folderId != null) {
+            folderRepository.adjustDocumentCount(folderId, -1);
+        }
+    }
+
+    public void documentMoved(Long fromFolderId, Long toFolderId) {
+        if (!Objects.equals(fromFolderId, toFolderId)) {
+            documentAdded(toFolderId);
+            documentRemoved(fromFolderId);
+        }
+    }
+
+    /**
+     * Totals for a folder and everything below it.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getSubtreeStats(Long id) {
+        DocumentFolder folder = folderRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Folder not found"));
+        String prefix = folder.getTreePath();
+        String upper = upperBound(prefix);
+
+        Object[] documents = folderRepository.sumDocumentsInSubtree(prefix, upper).get(0);
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("folderId", folder.getId());
+        stats.put("path", folder.getPath());
+        stats.put("subfolderCount", folderRepository.countInSubtree(prefix, upper) - 1);
+        stats.put("documentCount", documents[0]);
+        stats.put("totalSize", documents[1]);
+        return stats;
+    }
+
+    private void rebase(DocumentFolder folder, String newTreePath, String newPath) {
+        String oldTreePath = folder.getTreePath();
+        folderRepository.rebaseSubtree(oldTreePath, upperBound(oldTreePath), newTreePath, folder.getPath(), newPath);
+        // Keep the managed instance in line with the row the UPDATE just rewrote
+        folder.setTreePath(newTreePath);
+        folder.setPath(newPath);
+    }
+
+    private void checkNameAvailable(String name, Long parentFolderId) {
+        boolean exists = parentFolderId != null
+            ? folderRepository.existsByNameAndParentFolderId(name, parentFolderId)
+            : folderRepository.existsByNameAndParentFolderIdIsNull(name);
+        if (exists) {
+            throw new RuntimeException("Folder with this name already exists in the parent directory");
+        }
+    }
+
+    // Smallest string above every path in the subtree: the trailing '/' becomes '0', the next character
+    static String upperBound(String treePath) {
+        return treePath.substring(0, treePath.length() - 1) + (char) ('/' + 1);
+    }
+}
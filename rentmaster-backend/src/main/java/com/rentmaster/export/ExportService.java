@@ -6,16 +6,20 @@ import com.rentmaster.billing.Payment;
 import com.rentmaster.billing.PaymentRepository;
 import com.rentmaster.contract.Contract;
 import com.rentmaster.contract.ContractRepository;
+import com.rentmaster.datasource.ReadReplica;
 import com.rentmaster.property.Property;
 import com.rentmaster.property.PropertyRepository;
 import com.rentmaster.tenant.Tenant;
 import com.rentmaster.tenant.TenantRepository;
 import com.rentmaster.user.User;
 import com.rentmaster.user.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -24,8 +28,11 @@ import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Service
+@Transactional(readOnly = true)
+@ReadReplica
 public class ExportService {
 
     @Autowired
@@ -46,7 +53,11 @@ public class ExportService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     public byte[] exportToExcel(ExportRequest request) throws IOException {
+        long started = System.nanoTime();
         try (Workbook workbook = new XSSFWorkbook()) {
             Sheet sheet = workbook.createSheet(request.getEntity());
             
@@ -75,11 +86,14 @@ public class ExportService {
 
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             workbook.write(outputStream);
+            // Row 0 is the header, so the last row index is the number of data rows
+            recordExport(request.getEntity(), "xlsx", Math.max(sheet.getLastRowNum(), 0), started);
             return outputStream.toByteArray();
         }
     }
 
     public byte[] exportToCsv(ExportRequest request) {
+        long started = System.nanoTime();
         StringBuilder csv = new StringBuilder();
         
         switch (request.getEntity().toUpperCase()) {
@@ -105,9 +119,23 @@ public class ExportService {
                 throw new IllegalArgumentException("Unsupported entity: " + request.getEntity());
         }
 
+        long lines = csv.chars().filter(c -> c == '\n').count();
+        recordExport(request.getEntity(), "csv", Math.max(lines - 1, 0), started);
         return csv.toString().getBytes();
     }
 
+    // Export rows per second is the rate of rentmaster.export.rows
+    private void recordExport(String entity, String format, long rows, long startedNanos) {
+        String tag = entity.toLowerCase();
+        meterRegistry.counter("rentmaster.export.rows", "entity", tag, "format", format).increment(rows);
+        Timer.builder("rentmaster.export.duration")
+            .description("Time to build an export file")
+            .tag("entity", tag)
+            .tag("format", format)
+            .register(meterRegistry)
+            .record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+    }
+
     public byte[] exportToPdf(ExportRequest request) {
         // TODO: Implement PDF export using iText or similar library
         // For now, return a simple message
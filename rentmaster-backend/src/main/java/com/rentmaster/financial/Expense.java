@@ -1,12 +1,14 @@
 package com.rentmaster.financial;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.rentmaster.analytics.CubeChangeListener;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "expenses")
+@EntityListeners(CubeChangeListener.class)
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Expense {
     
@@ -1,9 +1,12 @@
 package com.rentmaster.financial;
 
+import com.rentmaster.analytics.ForecastingEngine;
 import com.rentmaster.billing.Invoice;
 import com.rentmaster.billing.InvoiceRepository;
 import com.rentmaster.billing.Payment;
 import com.rentmaster.billing.PaymentRepository;
+import com.rentmaster.datasource.ReadReplica;
+import com.rentmaster.multitenancy.OrganizationScope;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,6 +22,9 @@ import java.util.stream.Collectors;
 @Transactional
 public class FinancialService {
 
+    @Autowired
+    private OrganizationScope organizationScope;
+
     @Autowired
     private ExpenseRepository expenseRepository;
 
@@ -37,6 +43,9 @@ public class FinancialService {
     @Autowired
     private CurrencyRepository currencyRepository;
 
+    @Autowired
+    private ForecastingEngine forecastingEngine;
+
     public List<Map<String, Object>> getExpenses(int page, int size, String category, Long propertyId, String startDate,
             String endDate) {
         List<Expense> expenses;
@@ -133,6 +142,8 @@ public class FinancialService {
         expenseRepository.deleteById(id);
     }
 
+    @Transactional(readOnly = true)
+    @ReadReplica
     public Map<String, Object> getProfitLossReport(String startDate, String endDate, Long propertyId) {
         LocalDate start = LocalDate.parse(startDate);
         LocalDate end = LocalDate.parse(endDate);
@@ -234,6 +245,8 @@ public class FinancialService {
         return report;
     }
 
+    @Transactional(readOnly = true)
+    @ReadReplica
     public Map<String, Object> getCashFlowReport(String startDate, String endDate, Long propertyId) {
         LocalDate start = LocalDate.parse(startDate);
         LocalDate end = LocalDate.parse(endDate);
@@ -338,6 +351,8 @@ public class FinancialService {
         return report;
     }
 
+    @Transactional(readOnly = true)
+    @ReadReplica
     public Map<String, Object> getTaxReport(String year, Long propertyId) {
         int yearInt = Integer.parseInt(year);
         LocalDate yearStart = LocalDate.of(yearInt, 1, 1);
@@ -456,38 +471,24 @@ public class FinancialService {
         return map;
     }
 
+    @Transactional(readOnly = true)
+    @ReadReplica
     public List<Map<String, Object>> getFinancialForecasts(int months, Long propertyId) {
-        // Generate forecast based on historical data
+        ForecastingEngine.Forecast revenue = forecastingEngine.forecast(ForecastingEngine.Metric.REVENUE, propertyId, months);
+        ForecastingEngine.Forecast expenses = forecastingEngine.forecast(ForecastingEngine.Metric.EXPENSES, propertyId, months);
+
         List<Map<String, Object>> forecasts = new ArrayList<>();
-        LocalDate startDate = LocalDate.now();
-        
         for (int i = 0; i < months; i++) {
-            LocalDate monthDate = startDate.plusMonths(i);
-            
-            // Get historical averages for projection
-            LocalDate historicalStart = monthDate.minusYears(1);
-            LocalDate historicalEnd = monthDate.minusMonths(1);
-            
-            List<Invoice> historicalInvoices = invoiceRepository.findAll().stream()
-                .filter(inv -> {
-                    LocalDate periodStart = inv.getPeriodStart();
-                    LocalDate periodEnd = inv.getPeriodEnd();
-                    return !periodStart.isAfter(historicalEnd) && !periodEnd.isBefore(historicalStart);
-                })
-                .collect(Collectors.toList());
-            
-            double avgRevenue = historicalInvoices.isEmpty() ? 0 : 
-                historicalInvoices.stream().mapToDouble(inv -> inv.getTotalAmount().doubleValue()).average().orElse(0);
-            
-            List<Expense> historicalExpenses = expenseRepository.findByDateRange(historicalStart, historicalEnd);
-            double avgExpenses = historicalExpenses.isEmpty() ? 0 :
-                historicalExpenses.stream().mapToDouble(Expense::getAmount).average().orElse(0);
-            
             Map<String, Object> forecast = new HashMap<>();
-            forecast.put("month", monthDate.format(DateTimeFormatter.ofPattern("MMM yyyy")));
-            forecast.put("revenue", avgRevenue);
-            forecast.put("expenses", avgExpenses);
-            forecast.put("profit", avgRevenue - avgExpenses);
+            forecast.put("month", revenue.getPeriods().get(i).format(DateTimeFormatter.ofPattern("MMM yyyy")));
+            forecast.put("revenue", revenue.getValues()[i]);
+            forecast.put("revenueLower", revenue.getLower()[i]);
+            forecast.put("revenueUpper", revenue.getUpper()[i]);
+            forecast.put("expenses", expenses.getValues()[i]);
+            forecast.put("expensesLower", expenses.getLower()[i]);
+            forecast.put("expensesUpper", expenses.getUpper()[i]);
+            forecast.put("profit", revenue.getValues()[i] - expenses.getValues()[i]);
+            forecast.put("confidenceLevel", ForecastingEngine.CONFIDENCE_LEVEL);
             forecasts.add(forecast);
         }
         
@@ -551,7 +552,7 @@ public class FinancialService {
         plan.setInvoiceId(((Number) planData.get("invoiceId")).longValue());
         
         // Get invoice to populate details
-        Invoice invoice = invoiceRepository.findById(plan.getInvoiceId())
+        Invoice invoice = invoiceRepository.findById(plan.getInvoiceId()).filter(organizationScope::isVisible)
             .orElseThrow(() -> new RuntimeException("Invoice not found"));
         
         plan.setInvoiceNumber("INV-" + invoice.getId());
@@ -706,6 +707,8 @@ public class FinancialService {
         return map;
     }
 
+    @Transactional(readOnly = true)
+    @ReadReplica
     public Map<String, Object> getFinancialStats(String period, Long propertyId) {
         return new HashMap<>();
     }
@@ -1,9 +1,11 @@
 package com.rentmaster.localization;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -56,6 +58,24 @@ public class LocalizationController {
         return ResponseEntity.ok(translations);
     }
 
+    // Bundles revalidate on every use; an unchanged bundle costs a 304 on If-None-Match
+    @GetMapping("/bundles/{languageCode}")
+    public ResponseEntity<Map<String, Object>> getTranslationBundle(
+            @PathVariable String languageCode,
+            @RequestParam(required = false) String category) {
+        TranslationBundle bundle = localizationService.getTranslationBundle(languageCode);
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("languageCode", languageCode);
+        body.put("version", bundle.getVersion());
+        body.put("translations", category != null ? Map.of(category, bundle.getCategory(category)) : bundle.getCategories());
+
+        return ResponseEntity.ok()
+                .eTag(category != null ? bundle.getCategoryETag(category) : bundle.getETag())
+                .cacheControl(CacheControl.noCache())
+                .body(body);
+    }
+
     @GetMapping("/translations/export")
     public ResponseEntity<Map<String, Object>> exportTranslations(
             @RequestParam String languageCode,
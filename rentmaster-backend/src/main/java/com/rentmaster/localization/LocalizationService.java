@@ -20,6 +20,9 @@ public class LocalizationService {
     
     @Autowired
     private TranslationRepository translationRepository;
+
+    @Autowired
+    private TranslationBundleCache translationBundleCache;
     
     @Autowired
     private LocaleConfigRepository localeConfigRepository;
@@ -98,6 +101,10 @@ public class LocalizationService {
     }
 
     // Translation Management
+    public TranslationBundle getTranslationBundle(String languageCode) {
+        return translationBundleCache.get(languageCode);
+    }
+
     public List<Translation> getTranslations(String languageCode, String category, String key) {
         if (languageCode != null && category != null && key != null) {
             return translationRepository.findByLanguageCodeAndCategoryAndKey(languageCode, category, key);
@@ -114,23 +121,17 @@ public class LocalizationService {
         Map<String, Object> result = new HashMap<>();
         
         try {
-            List<Translation> translations = translationRepository.findByLanguageCode(languageCode);
-            
             if ("JSON".equals(format)) {
-                Map<String, Map<String, String>> exportData = new HashMap<>();
-                
-                for (Translation translation : translations) {
-                    exportData.computeIfAbsent(translation.getCategory(), k -> new HashMap<>())
-                        .put(translation.getKey(), translation.getValue());
-                }
+                TranslationBundle bundle = translationBundleCache.get(languageCode);
                 
                 result.put("success", true);
-                result.put("data", exportData);
+                result.put("data", bundle.getCategories());
                 result.put("format", "JSON");
                 result.put("languageCode", languageCode);
-                result.put("count", translations.size());
+                result.put("count", bundle.size());
                 
             } else if ("CSV".equals(format)) {
+                List<Translation> translations = translationRepository.findByLanguageCode(languageCode);
                 StringBuilder csv = new StringBuilder();
                 csv.append("Category,Key,Value,Description\n");
                 
@@ -173,6 +174,13 @@ public class LocalizationService {
             if ("JSON".equals(format) && data instanceof Map) {
                 Map<String, Map<String, String>> translationData = (Map<String, Map<String, String>>) data;
                 
+                // One query for the language's existing rows instead of one lookup per key
+                Map<String, Translation> existingByKey = new HashMap<>();
+                for (Translation translation : translationRepository.findByLanguageCode(languageCode)) {
+                    existingByKey.put(translation.getCategory() + '\u0000' + translation.getKey(), translation);
+                }
+                List<Translation> changed = new ArrayList<>();
+                
                 for (Map.Entry<String, Map<String, String>> categoryEntry : translationData.entrySet()) {
                     String category = categoryEntry.getKey();
                     
@@ -181,15 +189,12 @@ public class LocalizationService {
                         String value = translationEntry.getValue();
                         
                         try {
-                            Optional<Translation> existing = translationRepository
-                                .findByLanguageCodeAndCategoryAndKey(languageCode, category, key)
-                                .stream().findFirst();
+                            Translation existing = existingByKey.get(category + '\u0000' + key);
                             
-                            if (existing.isPresent()) {
-                                Translation translation = existing.get();
-                                translation.setValue(value);
-                                translation.setUpdatedAt(LocalDateTime.now());
-                                translationRepository.save(translation);
+                            if (existing != null) {
+                                existing.setValue(value);
+                                existing.setUpdatedAt(LocalDateTime.now());
+                                changed.add(existing);
                                 updated++;
                             } else {
                                 Translation translation = new Translation();
@@ -199,7 +204,8 @@ public class LocalizationService {
                                 translation.setValue(value);
                                 translation.setCreatedAt(LocalDateTime.now());
                                 translation.setUpdatedAt(LocalDateTime.now());
-                                translationRepository.save(translation);
+                                changed.add(translation);
+                                existingByKey.put(category + '\u0000' + key, translation);
                                 imported++;
                             }
                         } catch (Exception e) {
@@ -207,6 +213,9 @@ public class LocalizationService {
                         }
                     }
                 }
+                
+                translationRepository.saveAll(changed);
+                translationBundleCache.refresh(languageCode);
             }
             
             result.put("success", true);
@@ -224,12 +233,24 @@ public class LocalizationService {
     }
 
     public Translation createTranslation(Translation translation) {
+        Translation saved = saveNewTranslation(translation);
+        translationBundleCache.refresh(saved.getLanguageCode());
+        return saved;
+    }
+
+    public Translation updateTranslation(Long id, Translation translation) {
+        Translation saved = saveTranslationChanges(id, translation);
+        translationBundleCache.refresh(saved.getLanguageCode());
+        return saved;
+    }
+
+    private Translation saveNewTranslation(Translation translation) {
         translation.setCreatedAt(LocalDateTime.now());
         translation.setUpdatedAt(LocalDateTime.now());
         return translationRepository.save(translation);
     }
 
-    public Translation updateTranslation(Long id, Translation translation) {
+    private Translation saveTranslationChanges(Long id, Translation translation) {
         Translation existing = translationRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Translation not found"));
         
@@ -245,7 +266,9 @@ public class LocalizationService {
         Map<String, Object> result = new HashMap<>();
         
         try {
+            Optional<Translation> existing = translationRepository.findById(id);
             translationRepository.deleteById(id);
+            existing.ifPresent(translation -> translationBundleCache.refresh(translation.getLanguageCode()));
             result.put("success", true);
             result.put("message", "Translation deleted successfully");
         } catch (Exception e) {
@@ -262,21 +285,23 @@ public class LocalizationService {
         try {
             int updated = 0;
             int errors = 0;
+            Set<String> touchedLanguages = new HashSet<>();
             
             for (Translation translation : translations) {
                 try {
-                    if (translation.getId() != null) {
-                        updateTranslation(translation.getId(), translation);
-                        updated++;
-                    } else {
-                        createTranslation(translation);
-                        updated++;
-                    }
+                    Translation saved = translation.getId() != null
+                        ? saveTranslationChanges(translation.getId(), translation)
+                        : saveNewTranslation(translation);
+                    touchedLanguages.add(saved.getLanguageCode());
+                    updated++;
                 } catch (Exception e) {
                     errors++;
                 }
             }
             
+            // Swap each affected bundle once for the whole batch
+            touchedLanguages.forEach(translationBundleCache::refresh);
+            
             result.put("success", true);
             result.put("updated", updated);
             result.put("errors", errors);
@@ -683,11 +708,9 @@ public class LocalizationService {
             : translationRepository.findByLanguageCode("en");
         
         // Check which translations are missing in target language
+        TranslationBundle bundle = translationBundleCache.get(languageCode);
         for (Translation englishTranslation : englishTranslations) {
-            List<Translation> existing = translationRepository.findByLanguageCodeAndCategoryAndKey(
-                languageCode, englishTranslation.getCategory(), englishTranslation.getKey());
-            
-            if (existing.isEmpty()) {
+            if (bundle.translate(englishTranslation.getCategory(), englishTranslation.getKey()) == null) {
                 Map<String, Object> missingTranslation = new HashMap<>();
                 missingTranslation.put("category", englishTranslation.getCategory());
                 missingTranslation.put("key", englishTranslation.getKey());
@@ -710,21 +733,15 @@ public class LocalizationService {
             Map<String, Object> content = (Map<String, Object>) contentRequest.get("content");
             
             Map<String, Object> localizedContent = new HashMap<>();
+            Map<String, String> translations = translationBundleCache.get(languageCode).getCategory(contentType);
             
             for (Map.Entry<String, Object> entry : content.entrySet()) {
                 String key = entry.getKey();
                 Object value = entry.getValue();
                 
                 if (value instanceof String) {
-                    // Try to find translation
-                    List<Translation> translations = translationRepository
-                        .findByLanguageCodeAndCategoryAndKey(languageCode, contentType, key);
-                    
-                    if (!translations.isEmpty()) {
-                        localizedContent.put(key, translations.get(0).getValue());
-                    } else {
-                        localizedContent.put(key, value); // Fallback to original
-                    }
+                    // Fallback to original when there is no translation
+                    localizedContent.put(key, translations.getOrDefault(key, (String) value));
                 } else {
                     localizedContent.put(key, value);
                 }
@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 public class Translation {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "translations_seq")
+    @SequenceGenerator(name = "translations_seq", sequenceName = "translations_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "language_code", nullable = false, length = 10)
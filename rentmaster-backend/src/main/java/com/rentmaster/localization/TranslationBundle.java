@@ -0,0 +1,96 @@
+package com.rentmaster.localization;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Immutable snapshot of one language's translations, grouped by category.
+ *
+ * ETags are derived from the content rather than the version, so every node serving
+ * the same translations hands out the same tag.
+ */
+public class TranslationBundle {
+
+    private final String languageCode;
+    private final long version;
+    private final Map<String, Map<String, String>> categories;
+    private final Map<String, String> categoryETags;
+    private final String eTag;
+    private final long loadedAt;
+
+    TranslationBundle(String languageCode, long version, List<Object[]> rows) {
+        // Sorted while building so the content hashes are stable
+        SortedMap<String, SortedMap<String, String>> sorted = new TreeMap<>();
+        for (Object[] row : rows) {
+            sorted.computeIfAbsent((String) row[0], category -> new TreeMap<>())
+                    .put((String) row[1], row[2] != null ? (String) row[2] : "");
+        }
+
+        Map<String, Map<String, String>> categories = new HashMap<>();
+        Map<String, String> categoryETags = new HashMap<>();
+        MessageDigest bundleDigest = sha256();
+        sorted.forEach((category, translations) -> {
+            MessageDigest categoryDigest = sha256();
+            translations.forEach((key, value) -> {
+                update(categoryDigest, key);
+                update(categoryDigest, value);
+            });
+            byte[] categoryHash = categoryDigest.digest();
+            update(bundleDigest, category);
+            bundleDigest.update(categoryHash);
+
+            categories.put(category, Map.copyOf(translations));
+            categoryETags.put(category, toETag(categoryHash));
+        });
+
+        this.languageCode = languageCode;
+        this.version = version;
+        this.categories = Map.copyOf(categories);
+        this.categoryETags = Map.copyOf(categoryETags);
+        this.eTag = toETag(bundleDigest.digest());
+        this.loadedAt = System.currentTimeMillis();
+    }
+
+    public String getLanguageCode() { return languageCode; }
+    public long getVersion() { return version; }
+    public String getETag() { return eTag; }
+    long getLoadedAt() { return loadedAt; }
+
+    public Map<String, Map<String, String>> getCategories() { return categories; }
+
+    public Map<String, String> getCategory(String category) {
+        return category != null ? categories.getOrDefault(category, Map.of()) : Map.of();
+    }
+
+    public String getCategoryETag(String category) {
+        String categoryETag = category != null ? categoryETags.get(category) : null;
+        return categoryETag != null ? categoryETag : toETag(sha256().digest());
+    }
+
+    public String translate(String category, String key) {
+        return key != null ? getCategory(category).get(key) : null;
+    }
+
+    public int size() {
+        return categories.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static String toETag(byte[] hash) {
+        return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.rentmaster.localization;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory {@link TranslationBundle} per language.
+ *
+ * A language is loaded with one query on first use. Translation writes call
+ * {@link #refresh}, which rebuilds the whole bundle off to the side and swaps it in
+ * with a single map put once the write has committed, so readers see either the old
+ * or the new bundle and never a half-applied import. Each load is stamped with a
+ * global version; when refreshes race, the one that started last wins. Writes made on
+ * other nodes are picked up when a bundle older than
+ * {@code localization.bundle-cache.ttl-seconds} is next read.
+ */
+@Component
+public class TranslationBundleCache {
+
+    private static final Logger log = LoggerFactory.getLogger(TranslationBundleCache.class);
+
+    @Autowired
+    private TranslationRepository translationRepository;
+
+    @Value("${localization.bundle-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private final AtomicLong versions = new AtomicLong();
+    private final Map<String, TranslationBundle> bundles = new ConcurrentHashMap<>();
+
+    public TranslationBundle get(String languageCode) {
+        if (languageCode == null) {
+            throw new RuntimeException("Language code is required");
+        }
+        TranslationBundle bundle = bundles.get(languageCode);
+        if (bundle == null || bundle.getLoadedAt() + ttlSeconds * 1000 <= System.currentTimeMillis()) {
+            bundle = swap(load(languageCode));
+        }
+        return bundle;
+    }
+
+    public void refresh(String languageCode) {
+        if (languageCode == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload(languageCode);
+                }
+            });
+        } else {
+            reload(languageCode);
+        }
+    }
+
+    private void reload(String languageCode) {
+        TranslationBundle bundle = swap(load(languageCode));
+        log.debug("Swapped in translation bundle {} v{} ({} entries)", languageCode, bundle.getVersion(), bundle.size());
+    }
+
+    private TranslationBundle load(String languageCode) {
+        long version = versions.incrementAndGet();
+        return new TranslationBundle(languageCode, version, translationRepository.findBundleRows(languageCode));
+    }
+
+    private TranslationBundle swap(TranslationBundle loaded) {
+        return bundles.merge(loaded.getLanguageCode(), loaded,
+                (existing, candidate) -> candidate.getVersion() > existing.getVersion() ? candidate : existing);
+    }
+}
@@ -15,6 +15,10 @@ public interface TranslationRepository extends JpaRepository<Translation, Long>
     List<Translation> findByLanguageCodeAndCategory(String languageCode, String category);
     
     List<Translation> findByLanguageCodeAndCategoryAndKey(String languageCode, String category, String key);
+
+    // Rows of {category, key, value} for building a language's translation bundle
+    @Query("SELECT t.category, t.key, t.value FROM Translation t WHERE t.languageCode = :languageCode")
+    List<Object[]> findBundleRows(@Param("languageCode") String languageCode);
     
     List<Translation> findByCategory(String category);
     
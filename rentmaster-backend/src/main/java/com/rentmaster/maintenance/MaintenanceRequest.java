@@ -1,11 +1,13 @@
 package com.rentmaster.maintenance;
 
+import com.rentmaster.analytics.CubeChangeListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
 @Table(name = "maintenance_requests")
+@EntityListeners(CubeChangeListener.class)
 public class MaintenanceRequest {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
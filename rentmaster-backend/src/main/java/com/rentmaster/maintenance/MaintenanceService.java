@@ -1,15 +1,21 @@
 package com.rentmaster.maintenance;
 
+import com.rentmaster.automation.AutomationEvent;
+import com.rentmaster.automation.AutomationRule;
+import com.rentmaster.property.PropertyRepository;
 import com.rentmaster.property.Vendor;
 import com.rentmaster.property.VendorRepository;
 import com.rentmaster.property.MaintenanceSchedule;
 import com.rentmaster.property.MaintenanceScheduleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,6 +36,12 @@ public class MaintenanceService {
     @Autowired(required = false)
     private com.rentmaster.property.MaintenanceScheduleRepository maintenanceScheduleRepository;
 
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // Maintenance Requests
     public List<MaintenanceRequest> getAllMaintenanceRequests() {
         return maintenanceRequestRepository.findAll();
@@ -55,7 +67,24 @@ public class MaintenanceService {
         if (request.getStatus() == null) {
             request.setStatus("SUBMITTED");
         }
-        return maintenanceRequestRepository.save(request);
+        MaintenanceRequest saved = maintenanceRequestRepository.save(request);
+
+        Map<String, Object> facts = new HashMap<>();
+        facts.put("entityType", "MAINTENANCE_REQUEST");
+        facts.put("entityId", saved.getId());
+        facts.put("requestId", saved.getId());
+        facts.put("propertyId", saved.getPropertyId());
+        facts.put("roomId", saved.getRoomId());
+        facts.put("tenantId", saved.getTenantId());
+        facts.put("title", saved.getTitle());
+        facts.put("category", saved.getCategory());
+        facts.put("priority", saved.getPriority());
+        facts.put("status", saved.getStatus());
+        Long organizationId = saved.getPropertyId() != null
+                ? propertyRepository.findOrganizationIdById(saved.getPropertyId()) : null;
+        eventPublisher.publishEvent(new AutomationEvent(AutomationRule.TriggerType.MAINTENANCE_REQUEST, organizationId, facts));
+
+        return saved;
     }
 
     public MaintenanceRequest updateMaintenanceRequest(Long id, MaintenanceRequest request) {
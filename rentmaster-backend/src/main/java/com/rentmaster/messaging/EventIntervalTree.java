@@ -0,0 +1,220 @@
+package com.rentmaster.messaging;
+
+import java.time.LocalDateTime;
+import java.util.function.Predicate;
+
+/**
+ * Balanced (AVL) interval tree of event time slots, ordered by start time then id.
+ *
+ * Every node also carries the latest end time in its subtree, so overlap queries skip
+ * whole subtrees that end before the window and stop once starts pass its end: a query
+ * costs O(log n + k) for k matches. Not thread-safe; {@link PropertyEventCalendar}
+ * guards access.
+ */
+class EventIntervalTree {
+
+    /**
+     * The indexed part of an event. Immutable; a changed event is removed and re-added.
+     */
+    static final class Slot {
+        final Long id;
+        final Long propertyId;
+        final LocalDateTime start;
+        final LocalDateTime end;
+        final String status;
+
+        Slot(Long id, Long propertyId, LocalDateTime start, LocalDateTime end, String status) {
+            this.id = id;
+            this.propertyId = propertyId;
+            this.start = start;
+            // An end before the start is treated as a point in time
+            this.end = end == null || (start != null && end.isBefore(start)) ? start : end;
+            this.status = status;
+        }
+
+        int compareTo(LocalDateTime otherStart, Long otherId) {
+            int byStart = start.compareTo(otherStart);
+            return byStart != 0 ? byStart : id.compareTo(otherId);
+        }
+    }
+
+    /**
+     * Receives matches in start order; returning false stops the walk.
+     */
+    interface Visitor {
+        boolean visit(Slot slot);
+    }
+
+    private static final class Node {
+        Slot slot;
+        Node left;
+        Node right;
+        int height = 1;
+        LocalDateTime maxEnd;
+
+        Node(Slot slot) {
+            this.slot = slot;
+            this.maxEnd = slot.end;
+        }
+    }
+
+    private Node root;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    void insert(Slot slot) {
+        root = insert(root, slot);
+    }
+
+    void remove(Slot slot) {
+        root = remove(root, slot);
+    }
+
+    /**
+     * Visits slots overlapping the closed window [from, to] in start order.
+     */
+    void overlapping(LocalDateTime from, LocalDateTime to, Visitor visitor) {
+        overlapping(root, from, to, visitor);
+    }
+
+    /**
+     * Visits slots starting strictly after {@code after} that match the filter, in start
+     * order, until the visitor returns false.
+     */
+    void startingAfter(LocalDateTime after, Predicate<Slot> filter, Visitor visitor) {
+        startingAfter(root, after, filter, visitor);
+    }
+
+    private boolean overlapping(Node node, LocalDateTime from, LocalDateTime to, Visitor visitor) {
+        if (node == null || node.maxEnd.isBefore(from)) {
+            return true;
+        }
+        if (!overlapping(node.left, from, to, visitor)) {
+            return false;
+        }
+        if (node.slot.start.isAfter(to)) {
+            // Everything to the right starts even later
+            return true;
+        }
+        if (!node.slot.end.isBefore(from) && !visitor.visit(node.slot)) {
+            return false;
+        }
+        return overlapping(node.right, from, to, visitor);
+    }
+
+    private boolean startingAfter(Node node, LocalDateTime after, Predicate<Slot> filter, Visitor visitor) {
+        if (node == null) {
+            return true;
+        }
+        if (!node.slot.start.isAfter(after)) {
+            return startingAfter(node.right, after, filter, visitor);
+        }
+        if (!startingAfter(node.left, after, filter, visitor)) {
+            return false;
+        }
+        if (filter.test(node.slot) && !visitor.visit(node.slot)) {
+            return false;
+        }
+        return startingAfter(node.right, after, filter, visitor);
+    }
+
+    private Node insert(Node node, Slot slot) {
+        if (node == null) {
+            size++;
+            return new Node(slot);
+        }
+        int cmp = slot.compareTo(node.slot.start, node.slot.id);
+        if (cmp < 0) {
+            node.left = insert(node.left, slot);
+        } else if (cmp > 0) {
+            node.right = insert(node.right, slot);
+        } else {
+            node.slot = slot;
+        }
+        return rebalance(node);
+    }
+
+    private Node remove(Node node, Slot slot) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = slot.compareTo(node.slot.start, node.slot.id);
+        if (cmp < 0) {
+            node.left = remove(node.left, slot);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, slot);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.slot = successor.slot;
+            // The successor is removed from the right subtree; that removal counts once more
+            size++;
+            node.right = remove(node.right, successor.slot);
+        }
+        return rebalance(node);
+    }
+
+    private static Node rebalance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        LocalDateTime maxEnd = node.slot.end;
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+}
@@ -1,15 +1,24 @@
 package com.rentmaster.messaging;
 
+import com.rentmaster.notification.UnreadCountCache;
+import com.rentmaster.notification.UserStreamEvent;
+import com.rentmaster.property.PropertyRepository;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 public class MessagingService {
 
+    private static final Set<String> UPCOMING_EVENT_STATUSES = Set.of("SCHEDULED", "ONGOING");
+
     @Autowired
     private MessageRepository messageRepository;
     
@@ -18,10 +27,25 @@ public class MessagingService {
     
     @Autowired
     private PropertyEventRepository propertyEventRepository;
+
+    @Autowired
+    private PropertyEventCalendar eventCalendar;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
     
     @Autowired
     private TenantFeedbackRepository tenantFeedbackRepository;
 
+    @Autowired
+    private UnreadCountCache unreadCountCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // Message Management
     public List<Message> getMessages(Long userId, String type, Boolean unreadOnly) {
         if (unreadOnly != null && unreadOnly) {
@@ -49,7 +73,9 @@ public class MessagingService {
             message.setThreadId(System.currentTimeMillis());
         }
         
-        return messageRepository.save(message);
+        Message saved = messageRepository.save(message);
+        eventPublisher.publishEvent(new UserStreamEvent(saved.getRecipientId(), UserStreamEvent.Type.MESSAGE, toStreamPayload(saved)));
+        return saved;
     }
 
     public Message replyToMessage(Long parentMessageId, Message reply) {
@@ -76,7 +102,9 @@ public class MessagingService {
         message.setReadAt(LocalDateTime.now());
         message.setUpdatedAt(LocalDateTime.now());
         
-        return messageRepository.save(message);
+        Message saved = messageRepository.save(message);
+        eventPublisher.publishEvent(UserStreamEvent.unreadChanged(userId));
+        return saved;
     }
 
     public Message archiveMessage(Long messageId, Long userId) {
@@ -107,6 +135,7 @@ public class MessagingService {
         message.setUpdatedAt(LocalDateTime.now());
         
         messageRepository.save(message);
+        eventPublisher.publishEvent(UserStreamEvent.unreadChanged(message.getRecipientId()));
     }
 
     public List<Message> searchMessages(String searchTerm, Long userId) {
@@ -117,7 +146,20 @@ public class MessagingService {
     }
 
     public long getUnreadMessageCount(Long userId) {
-        return messageRepository.countByRecipientIdAndIsReadFalseAndIsDeletedFalse(userId);
+        return unreadCountCache.getMessageCount(userId);
+    }
+
+    private Map<String, Object> toStreamPayload(Message message) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("id", message.getId());
+        payload.put("senderId", message.getSenderId());
+        payload.put("senderName", message.getSenderName());
+        payload.put("subject", message.getSubject());
+        payload.put("messageType", message.getMessageType());
+        payload.put("priority", message.getPriority());
+        payload.put("threadId", message.getThreadId());
+        payload.put("createdAt", message.getCreatedAt());
+        return payload;
     }
 
     // Announcement Management
@@ -229,37 +271,54 @@ public class MessagingService {
             return propertyEventRepository.findByTypeOrderByStartDateTimeAsc(type);
         } else if (status != null) {
             return propertyEventRepository.findByStatusOrderByStartDateTimeAsc(status);
+        } else if (eventCalendar.isReady()) {
+            return loadEvents(eventCalendar.findUpcoming(null, LocalDateTime.now(), UPCOMING_EVENT_STATUSES, Integer.MAX_VALUE));
         } else {
             return propertyEventRepository.findUpcomingEvents(LocalDateTime.now());
         }
     }
 
+    // Every event that takes place during the month, including ones that started before it
     public List<PropertyEvent> getEventsForMonth(int year, int month) {
-        return propertyEventRepository.findEventsForMonth(year, month);
+        if (!eventCalendar.isReady()) {
+            return propertyEventRepository.findEventsForMonth(year, month);
+        }
+        YearMonth yearMonth = YearMonth.of(year, month);
+        return loadEvents(eventCalendar.findOverlapping(null,
+            yearMonth.atDay(1).atStartOfDay(), yearMonth.plusMonths(1).atDay(1).atStartOfDay()));
     }
 
     public PropertyEvent createEvent(PropertyEvent event) {
         event.setCreatedAt(LocalDateTime.now());
         event.setUpdatedAt(LocalDateTime.now());
         
-        // Check for conflicts
-        List<PropertyEvent> conflicts = propertyEventRepository.findConflictingEvents(
-            event.getPropertyId(), 0L, event.getStartDateTime(), event.getEndDateTime());
-        
-        if (!conflicts.isEmpty()) {
-            throw new RuntimeException("Event conflicts with existing events: " + 
-                conflicts.stream().map(PropertyEvent::getTitle).collect(Collectors.joining(", ")));
-        }
-        
-        return propertyEventRepository.save(event);
+        // Conflict check and save share a transaction, so the property stays locked until the event is committed
+        return transactionTemplate.execute(status -> {
+            List<PropertyEvent> conflicts = findConflictingEvents(
+                event.getPropertyId(), 0L, event.getStartDateTime(), event.getEndDateTime());
+            
+            if (!conflicts.isEmpty()) {
+                throw new RuntimeException("Event conflicts with existing events: " + 
+                    conflicts.stream().map(PropertyEvent::getTitle).collect(Collectors.joining(", ")));
+            }
+            
+            PropertyEvent saved = propertyEventRepository.save(event);
+            eventCalendar.onSaved(saved);
+            return saved;
+        });
     }
 
     public PropertyEvent updateEvent(Long id, PropertyEvent event) {
+        PropertyEvent updated = transactionTemplate.execute(status -> saveEventUpdate(id, event));
+        return loadEvents(List.of(updated.getId())).get(0);
+    }
+
+    private PropertyEvent saveEventUpdate(Long id, PropertyEvent event) {
         PropertyEvent existing = propertyEventRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Event not found"));
         
         // Check for conflicts (excluding current event)
-        List<PropertyEvent> conflicts = propertyEventRepository.findConflictingEvents(
+        List<PropertyEvent> conflicts = findConflictingEvents(
             event.getPropertyId(), id, event.getStartDateTime(), event.getEndDateTime());
         
         if (!conflicts.isEmpty()) {
@@ -288,7 +347,9 @@ public class MessagingService {
         existing.setTags(event.getTags());
         existing.setUpdatedAt(LocalDateTime.now());
         
-        return propertyEventRepository.save(existing);
+        PropertyEvent saved = propertyEventRepository.save(existing);
+        eventCalendar.onSaved(saved);
+        return saved;
     }
 
     public PropertyEvent rsvpToEvent(Long eventId, Long userId, boolean attending) {
@@ -340,6 +401,55 @@ public class MessagingService {
         return propertyEventRepository.searchEvents(searchTerm);
     }
 
+    /**
+     * Must run in the transaction that saves the event. The calendar is per node and can
+     * miss events saved on other nodes or still hold removed ones, so it only serves as a
+     * pre-filter: hits it reports are confirmed against the database and reject the event
+     * at once; otherwise the database check runs with the property row locked until commit.
+     */
+    private List<PropertyEvent> findConflictingEvents(Long propertyId, Long eventId, LocalDateTime start, LocalDateTime end) {
+        if (eventCalendar.isReady()) {
+            List<Long> ids = eventCalendar.findConflicting(propertyId, eventId, start, end);
+            if (!ids.isEmpty()) {
+                List<PropertyEvent> confirmed = propertyEventRepository.findAllById(ids).stream()
+                    .filter(e -> Objects.equals(e.getPropertyId(), propertyId)
+                        && !e.getStartDateTime().isAfter(end) && !e.getEndDateTime().isBefore(start))
+                    .collect(Collectors.toList());
+                if (!confirmed.isEmpty()) {
+                    return confirmed;
+                }
+            }
+        }
+        if (propertyId != null) {
+            propertyRepository.lockById(propertyId);
+        }
+        return propertyEventRepository.findConflictingEvents(propertyId, eventId, start, end);
+    }
+
+    // Events by id in the given order, with collections loaded so they serialize after the session closes
+    private List<PropertyEvent> loadEvents(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return transactionTemplate.execute(status -> {
+            Map<Long, PropertyEvent> byId = propertyEventRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(PropertyEvent::getId, e -> e));
+            List<PropertyEvent> events = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                PropertyEvent event = byId.get(id);
+                if (event != null) {
+                    Hibernate.initialize(event.getAttendeeIds());
+                    Hibernate.initialize(event.getInvitedIds());
+                    Hibernate.initialize(event.getDeclinedIds());
+                    Hibernate.initialize(event.getAttachments());
+                    Hibernate.initialize(event.getTags());
+                    events.add(event);
+                }
+            }
+            return events;
+        });
+    }
+
     // Tenant Feedback Management
     public List<TenantFeedback> getFeedback(Long tenantId, Long propertyId, String status, String type) {
         if (tenantId != null) {
@@ -520,12 +630,9 @@ public class MessagingService {
                 .collect(Collectors.toList());
             
             // Upcoming events
-            List<PropertyEvent> allEvents = propertyEventRepository.findAll();
-            List<PropertyEvent> upcomingEvents = allEvents.stream()
-                .filter(e -> e.getStartDateTime() != null && e.getStartDateTime().isAfter(LocalDateTime.now()))
-                .sorted(Comparator.comparing(PropertyEvent::getStartDateTime))
-                .limit(5)
-                .collect(Collectors.toList());
+            List<PropertyEvent> upcomingEvents = eventCalendar.isReady()
+                ? loadEvents(eventCalendar.findUpcoming(null, LocalDateTime.now(), UPCOMING_EVENT_STATUSES, 5))
+                : propertyEventRepository.findUpcomingEvents(LocalDateTime.now()).stream().limit(5).collect(Collectors.toList());
             
             // Recent feedback
             List<TenantFeedback> allFeedback = tenantFeedbackRepository.findAll();
@@ -1,6 +1,7 @@
 package com.rentmaster.messaging;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -58,16 +59,19 @@ public class PropertyEvent {
     private Integer currentAttendees = 0;
     
     @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "event_attendees", joinColumns = @JoinColumn(name = "event_id"))
     @Column(name = "attendee_id")
     private List<Long> attendeeIds;
     
     @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "event_invited", joinColumns = @JoinColumn(name = "event_id"))
     @Column(name = "invited_id")
     private List<Long> invitedIds;
     
     @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "event_declined", joinColumns = @JoinColumn(name = "event_id"))
     @Column(name = "declined_id")
     private List<Long> declinedIds;
@@ -87,11 +91,13 @@ public class PropertyEvent {
     private LocalDateTime rsvpDeadline;
     
     @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "event_attachments", joinColumns = @JoinColumn(name = "event_id"))
     @Column(name = "attachment_url")
     private List<String> attachments;
     
     @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "event_tags", joinColumns = @JoinColumn(name = "event_id"))
     @Column(name = "tag")
     private List<String> tags;
@@ -0,0 +1,240 @@
+package com.rentmaster.messaging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory calendar of property events: one interval tree per property plus one across
+ * all properties, holding only id, property, time slot and status.
+ *
+ * Conflict checks, month views and upcoming-event lookups read the trees and then load
+ * just the matching events by id. The trees are built on startup, updated after each
+ * committed event write on this node, and rebuilt periodically so writes from other
+ * nodes are picked up. Until the first build completes {@link #isReady()} is false and
+ * callers query the database instead.
+ */
+@Component
+public class PropertyEventCalendar {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertyEventCalendar.class);
+
+    @Autowired
+    private PropertyEventRepository propertyEventRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Long, EventIntervalTree> byProperty = new HashMap<>();
+    private EventIntervalTree all = new EventIntervalTree();
+    private Map<Long, EventIntervalTree.Slot> slots = new HashMap<>();
+    private volatile boolean ready;
+
+    // Writes applied while a rebuild is loading, replayed onto the new trees (null = removed)
+    private Map<Long, EventIntervalTree.Slot> changedDuringRebuild;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${messaging.events.calendar-rebuild-ms:300000}",
+               fixedDelayString = "${messaging.events.calendar-rebuild-ms:300000}")
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Long, EventIntervalTree> newByProperty = new HashMap<>();
+        EventIntervalTree newAll = new EventIntervalTree();
+        Map<Long, EventIntervalTree.Slot> newSlots = new HashMap<>();
+        try {
+            for (Object[] row : propertyEventRepository.findCalendarSlots()) {
+                EventIntervalTree.Slot slot = new EventIntervalTree.Slot((Long) row[0], (Long) row[1],
+                        (LocalDateTime) row[2], (LocalDateTime) row[3], (String) row[4]);
+                add(slot, newByProperty, newAll, newSlots);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to rebuild the event calendar: {}", e.getMessage());
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<Long, EventIntervalTree.Slot> change : changedDuringRebuild.entrySet()) {
+                removeSlot(change.getKey(), newByProperty, newAll, newSlots);
+                if (change.getValue() != null) {
+                    add(change.getValue(), newByProperty, newAll, newSlots);
+                }
+            }
+            changedDuringRebuild = null;
+            byProperty = newByProperty;
+            all = newAll;
+            slots = newSlots;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.debug("Event calendar rebuilt: {} events across {} properties", newSlots.size(), newByProperty.size());
+    }
+
+    /**
+     * Indexes a saved event once the current transaction (if any) commits.
+     */
+    public void onSaved(PropertyEvent event) {
+        EventIntervalTree.Slot slot = new EventIntervalTree.Slot(event.getId(), event.getPropertyId(),
+                event.getStartDateTime(), event.getEndDateTime(), event.getStatus());
+        afterCommit(() -> apply(slot.id, slot));
+    }
+
+    /**
+     * Ids of events of the property whose slot overlaps [start, end], ends included.
+     */
+    public List<Long> findConflicting(Long propertyId, Long excludeEventId, LocalDateTime start, LocalDateTime end) {
+        List<Long> ids = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            EventIntervalTree tree = byProperty.get(propertyId);
+            if (tree != null) {
+                tree.overlapping(start, end, slot -> {
+                    if (!slot.id.equals(excludeEventId)) {
+                        ids.add(slot.id);
+                    }
+                    return true;
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ids;
+    }
+
+    /**
+     * Ids of events overlapping [from, to), in start order; all properties when propertyId is null.
+     */
+    public List<Long> findOverlapping(Long propertyId, LocalDateTime from, LocalDateTime to) {
+        List<Long> ids = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            EventIntervalTree tree = propertyId == null ? all : byProperty.get(propertyId);
+            if (tree != null) {
+                tree.overlapping(from, to, slot -> {
+                    // Half-open: an event starting exactly at the end belongs to the next window
+                    if (slot.start.isBefore(to)) {
+                        ids.add(slot.id);
+                    }
+                    return true;
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ids;
+    }
+
+    /**
+     * Ids of up to {@code limit} events starting after {@code after} with one of the given
+     * statuses, in start order; all properties when propertyId is null.
+     */
+    public List<Long> findUpcoming(Long propertyId, LocalDateTime after, Set<String> statuses, int limit) {
+        List<Long> ids = new ArrayList<>();
+        if (limit <= 0) {
+            return ids;
+        }
+        lock.readLock().lock();
+        try {
+            EventIntervalTree tree = propertyId == null ? all : byProperty.get(propertyId);
+            if (tree != null) {
+                tree.startingAfter(after, slot -> statuses.contains(slot.status), slot -> {
+                    ids.add(slot.id);
+                    return ids.size() < limit;
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ids;
+    }
+
+    private void apply(Long eventId, EventIntervalTree.Slot slot) {
+        lock.writeLock().lock();
+        try {
+            removeSlot(eventId, byProperty, all, slots);
+            if (slot != null) {
+                add(slot, byProperty, all, slots);
+            }
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(eventId, slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void add(EventIntervalTree.Slot slot, Map<Long, EventIntervalTree> byProperty,
+                            EventIntervalTree all, Map<Long, EventIntervalTree.Slot> slots) {
+        if (slot.id == null || slot.start == null) {
+            return;
+        }
+        byProperty.computeIfAbsent(slot.propertyId, id -> new EventIntervalTree()).insert(slot);
+        all.insert(slot);
+        slots.put(slot.id, slot);
+    }
+
+    private static void removeSlot(Long eventId, Map<Long, EventIntervalTree> byProperty,
+                                   EventIntervalTree all, Map<Long, EventIntervalTree.Slot> slots) {
+        EventIntervalTree.Slot previous = slots.remove(eventId);
+        if (previous == null) {
+            return;
+        }
+        all.remove(previous);
+        EventIntervalTree tree = byProperty.get(previous.propertyId);
+        if (tree != null) {
+            tree.remove(previous);
+            if (tree.size() == 0) {
+                byProperty.remove(previous.propertyId);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
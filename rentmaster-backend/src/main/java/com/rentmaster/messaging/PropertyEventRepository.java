@@ -113,6 +113,10 @@ public interface PropertyEventRepository extends JpaRepository<PropertyEvent, Lo
            "ORDER BY e.startDateTime ASC")
     List<PropertyEvent> findEventsForMonth(@Param("year") int year, @Param("month") int month);
     
+    // Time slots of every event, for the in-memory calendar: id, propertyId, start, end, status
+    @Query("SELECT e.id, e.propertyId, e.startDateTime, e.endDateTime, e.status FROM PropertyEvent e")
+    List<Object[]> findCalendarSlots();
+    
     // Find conflicting events (same property, overlapping time)
     @Query("SELECT e FROM PropertyEvent e WHERE " +
            "e.propertyId = :propertyId AND e.id != :eventId AND " +
@@ -9,7 +9,8 @@ import java.util.Map;
 public class MobileAnalytics {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mobile_analytics_seq")
+    @SequenceGenerator(name = "mobile_analytics_seq", sequenceName = "mobile_analytics_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "user_id")
@@ -1,9 +1,13 @@
 package com.rentmaster.mobile;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -16,6 +20,9 @@ public class MobileController {
     @Autowired
     private MobileService mobileService;
 
+    @Autowired
+    private QrSheetRenderer qrSheetRenderer;
+
     // Mobile Dashboard
     @GetMapping("/dashboard")
     public ResponseEntity<Map<String, Object>> getMobileDashboard(
@@ -94,6 +101,24 @@ public class MobileController {
         return ResponseEntity.ok(actions);
     }
 
+    /**
+     * Printable QR labels for every room or asset of a property, as a ZIP of A4 PNG sheets.
+     */
+    @GetMapping("/qr/property/{propertyId}/sheets")
+    public ResponseEntity<StreamingResponseBody> downloadQRSheets(
+            @PathVariable Long propertyId,
+            @RequestParam(defaultValue = "rooms") String target) {
+        List<QrSheetRenderer.Label> labels = mobileService.getQRLabels(propertyId, target);
+        String name = "property-" + propertyId + "-" + target.toLowerCase();
+
+        StreamingResponseBody body = out -> qrSheetRenderer.writeSheets(labels, name, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(name + ".zip").build().toString())
+                .header("X-Sheet-Count", String.valueOf(QrSheetRenderer.sheetCount(labels.size())))
+                .body(body);
+    }
+
     @PostMapping("/qr/property/{propertyId}/checkin")
     public ResponseEntity<Map<String, Object>> propertyCheckIn(
             @PathVariable Long propertyId,
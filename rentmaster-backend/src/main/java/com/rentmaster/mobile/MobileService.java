@@ -1,16 +1,13 @@
 package com.rentmaster.mobile;
 
+import com.rentmaster.maintenance.AssetRepository;
+import com.rentmaster.property.RoomRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import com.google.zxing.BarcodeFormat;
 import com.google.zxing.WriterException;
-import com.google.zxing.client.j2se.MatrixToImageWriter;
-import com.google.zxing.common.BitMatrix;
-import com.google.zxing.qrcode.QRCodeWriter;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -29,6 +26,15 @@ public class MobileService {
     
     @Autowired
     private MobileAnalyticsRepository mobileAnalyticsRepository;
+    
+    @Autowired
+    private QrCodeCache qrCodeCache;
+    
+    @Autowired
+    private RoomRepository roomRepository;
+    
+    @Autowired
+    private AssetRepository assetRepository;
 
     // Mobile Dashboard
     public Map<String, Object> getMobileDashboard(Long userId, String userType) {
@@ -249,7 +255,6 @@ public class MobileService {
             result.put("success", true);
             result.put("qrCode", qrCodeBase64);
             result.put("qrContent", qrContent);
-            result.put("expiresAt", LocalDateTime.now().plusHours(24).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
             
         } catch (Exception e) {
             result.put("success", false);
@@ -280,6 +285,12 @@ public class MobileService {
                 case "DOCUMENT_ACCESS":
                     result = processDocumentAccess(qrData);
                     break;
+                case "ROOM":
+                case "ASSET":
+                    result.put("success", true);
+                    result.put("action", actionType);
+                    result.put(actionType.equals("ROOM") ? "roomId" : "assetId", qrData.get("id"));
+                    break;
                 default:
                     result.put("success", false);
                     result.put("error", "Unknown QR code action: " + actionType);
@@ -293,6 +304,27 @@ public class MobileService {
         return result;
     }
 
+    /**
+     * Labels for every room or asset of a property, in code order, for the printable sheets.
+     */
+    public List<QrSheetRenderer.Label> getQRLabels(Long propertyId, String target) {
+        if ("rooms".equalsIgnoreCase(target)) {
+            return roomRepository.findByPropertyId(propertyId).stream()
+                    .sorted(Comparator.comparing(room -> room.getCode()))
+                    .map(room -> new QrSheetRenderer.Label(createQRContent("ROOM", room.getId()), room.getCode(),
+                            room.getFloor() != null ? "Floor " + room.getFloor() : room.getType()))
+                    .collect(Collectors.toList());
+        }
+        if ("assets".equalsIgnoreCase(target)) {
+            return assetRepository.findByPropertyId(propertyId).stream()
+                    .sorted(Comparator.comparing(asset -> asset.getAssetCode()))
+                    .map(asset -> new QrSheetRenderer.Label(createQRContent("ASSET", asset.getId()),
+                            asset.getAssetCode(), asset.getName()))
+                    .collect(Collectors.toList());
+        }
+        throw new RuntimeException("Unknown QR label target: " + target);
+    }
+
     public List<Map<String, Object>> getQRCodeActions() {
         List<Map<String, Object>> actions = new ArrayList<>();
         
@@ -714,28 +746,30 @@ public class MobileService {
         return contact;
     }
 
+    // The same action and id always give the same payload, so rendered codes can be cached and reprinted
+    private static String createQRContent(Object action, Object id) {
+        return "RENTMASTER:" + action + ":" + id;
+    }
+
     private String createQRContent(Map<String, Object> qrData) {
-        return "RENTMASTER:" + qrData.get("action") + ":" + qrData.get("id") + ":" + System.currentTimeMillis();
+        return createQRContent(qrData.get("action"), qrData.get("id"));
     }
 
     private String generateQRCodeImage(String content) throws WriterException, IOException {
-        QRCodeWriter qrCodeWriter = new QRCodeWriter();
-        BitMatrix bitMatrix = qrCodeWriter.encode(content, BarcodeFormat.QR_CODE, 200, 200);
-        
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        MatrixToImageWriter.writeToStream(bitMatrix, "PNG", outputStream);
-        
-        return Base64.getEncoder().encodeToString(outputStream.toByteArray());
+        return Base64.getEncoder().encodeToString(qrCodeCache.png(content, 200));
     }
 
     private Map<String, Object> parseQRContent(String qrContent) {
         String[] parts = qrContent.split(":");
         Map<String, Object> qrData = new HashMap<>();
         
-        if (parts.length >= 4 && "RENTMASTER".equals(parts[0])) {
+        if (parts.length >= 3 && "RENTMASTER".equals(parts[0])) {
             qrData.put("action", parts[1]);
             qrData.put("id", parts[2]);
-            qrData.put("timestamp", parts[3]);
+            // Codes printed before payloads became deterministic carry a timestamp
+            if (parts.length >= 4) {
+                qrData.put("timestamp", parts[3]);
+            }
         }
         
         return qrData;
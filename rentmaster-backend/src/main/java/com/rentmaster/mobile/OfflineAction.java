@@ -9,7 +9,8 @@ import java.util.Map;
 public class OfflineAction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "offline_actions_seq")
+    @SequenceGenerator(name = "offline_actions_seq", sequenceName = "offline_actions_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "user_id", nullable = false)
@@ -0,0 +1,165 @@
+package com.rentmaster.mobile;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Rendered QR code PNGs keyed by the hash of their payload and size.
+ *
+ * QR payloads are deterministic, so a code only has to be rendered once. Recently
+ * used images stay in memory up to a byte budget; the least recently used ones are
+ * spilled to a local directory rather than dropped and come back from there on the
+ * next hit. Spilled files not read for the configured number of days are pruned.
+ */
+@Component
+public class QrCodeCache {
+
+    private static final Logger log = LoggerFactory.getLogger(QrCodeCache.class);
+
+    private static final Map<EncodeHintType, Object> HINTS = Map.of(EncodeHintType.CHARACTER_SET, "UTF-8");
+
+    @Value("${mobile.qr.cache.memory-bytes:16777216}")
+    private long memoryBudget;
+
+    @Value("${mobile.qr.cache.directory:./cache/qr/}")
+    private String directory;
+
+    @Value("${mobile.qr.cache.disk-retention-days:30}")
+    private long diskRetentionDays;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(256, 0.75f, true);
+    private long memoryBytes;
+
+    /**
+     * Returns the PNG for a payload, rendering it on a miss.
+     */
+    public byte[] png(String content, int size) throws WriterException, IOException {
+        String key = keyFor(content, size);
+
+        byte[] image;
+        synchronized (memory) {
+            image = memory.get(key);
+        }
+        if (image != null) {
+            return image;
+        }
+
+        Path spilled = spillPath(key);
+        if (Files.exists(spilled)) {
+            try {
+                image = Files.readAllBytes(spilled);
+                Files.setLastModifiedTime(spilled, FileTime.from(Instant.now()));
+            } catch (IOException | RuntimeException e) {
+                // Pruned or half-written; render it again
+                image = null;
+            }
+        }
+        if (image == null) {
+            image = render(content, size);
+        }
+
+        put(key, image);
+        return image;
+    }
+
+    private void put(String key, byte[] image) {
+        Map<String, byte[]> evicted = new LinkedHashMap<>();
+        synchronized (memory) {
+            byte[] previous = memory.put(key, image);
+            memoryBytes += image.length - (previous != null ? previous.length : 0);
+
+            Iterator<Map.Entry<String, byte[]>> eldest = memory.entrySet().iterator();
+            while (memoryBytes > memoryBudget && eldest.hasNext()) {
+                Map.Entry<String, byte[]> entry = eldest.next();
+                if (entry.getKey().equals(key)) {
+                    continue;
+                }
+                memoryBytes -= entry.getValue().length;
+                evicted.put(entry.getKey(), entry.getValue());
+                eldest.remove();
+            }
+        }
+        // Disk writes happen outside the lock
+        evicted.forEach(this::spill);
+    }
+
+    private void spill(String key, byte[] image) {
+        Path target = spillPath(key);
+        if (Files.exists(target)) {
+            return;
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), key, ".tmp");
+            Files.write(temp, image);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.debug("Could not spill QR code {}: {}", key, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${mobile.qr.cache.prune-interval-ms:3600000}")
+    public void pruneSpilled() {
+        Path root = Paths.get(directory);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        FileTime cutoff = FileTime.from(Instant.now().minus(diskRetentionDays, ChronoUnit.DAYS));
+        int removed = 0;
+        try (Stream<Path> files = Files.list(root)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (Files.getLastModifiedTime(file).compareTo(cutoff) < 0 && Files.deleteIfExists(file)) {
+                    removed++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to prune QR code cache: {}", e.getMessage());
+        }
+        if (removed > 0) {
+            log.info("Pruned {} spilled QR codes", removed);
+        }
+    }
+
+    private Path spillPath(String key) {
+        return Paths.get(directory, key + ".png");
+    }
+
+    private static byte[] render(String content, int size) throws WriterException, IOException {
+        BitMatrix bitMatrix = new QRCodeWriter().encode(content, BarcodeFormat.QR_CODE, size, size, HINTS);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        MatrixToImageWriter.writeToStream(bitMatrix, "PNG", outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private static String keyFor(String content, int size) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((size + ":" + content).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.rentmaster.mobile;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Lays out QR labels on printable A4 sheets (150 dpi, 4 x 6 labels) and streams them
+ * as a ZIP of PNG pages.
+ *
+ * Sheets are rendered on a shared fixed-size pool, at most a few pages ahead of the
+ * one being written, and written strictly in order, so a large print run keeps only
+ * a handful of pages in memory. When the pool is saturated the request thread renders
+ * its own pages instead of queueing without bound.
+ */
+@Component
+public class QrSheetRenderer {
+
+    private static final int SHEET_WIDTH = 1240;
+    private static final int SHEET_HEIGHT = 1754;
+    private static final int SHEET_MARGIN = 60;
+    private static final int COLUMNS = 4;
+    private static final int ROWS = 6;
+    private static final int LABELS_PER_SHEET = COLUMNS * ROWS;
+    private static final int QR_SIZE = 200;
+
+    public static class Label {
+        private final String content;
+        private final String title;
+        private final String subtitle;
+
+        public Label(String content, String title, String subtitle) {
+            this.content = content;
+            this.title = title;
+            this.subtitle = subtitle;
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getSubtitle() {
+            return subtitle;
+        }
+    }
+
+    @Autowired
+    private QrCodeCache qrCodeCache;
+
+    @Value("${mobile.qr.sheet-workers:2}")
+    private int workers;
+
+    // Pages rendered ahead of the one being streamed, per request
+    @Value("${mobile.qr.sheet-read-ahead:4}")
+    private int readAhead;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(workers * 4), runnable -> {
+                Thread thread = new Thread(runnable, "qr-sheets");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public static int sheetCount(int labelCount) {
+        return (labelCount + LABELS_PER_SHEET - 1) / LABELS_PER_SHEET;
+    }
+
+    /**
+     * Writes one PNG per sheet into a ZIP on the given stream.
+     */
+    public void writeSheets(List<Label> labels, String namePrefix, OutputStream out) throws IOException {
+        int sheets = sheetCount(labels.size());
+        Deque<Future<byte[]>> pending = new ArrayDeque<>();
+        int next = 0;
+
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            // PNG is already compressed
+            zip.setLevel(0);
+            for (int sheet = 0; sheet < sheets; sheet++) {
+                while (next < sheets && pending.size() <= readAhead) {
+                    int from = next * LABELS_PER_SHEET;
+                    List<Label> page = labels.subList(from, Math.min(from + LABELS_PER_SHEET, labels.size()));
+                    pending.add(executor.submit(() -> renderSheet(page)));
+                    next++;
+                }
+
+                byte[] png = await(pending.poll());
+                zip.putNextEntry(new ZipEntry(String.format("%s-%03d.png", namePrefix, sheet + 1)));
+                zip.write(png);
+                zip.closeEntry();
+            }
+        } finally {
+            // Client went away; don't keep rendering for it
+            pending.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private byte[] renderSheet(List<Label> page) throws Exception {
+        BufferedImage sheet = new BufferedImage(SHEET_WIDTH, SHEET_HEIGHT, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = sheet.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, SHEET_WIDTH, SHEET_HEIGHT);
+            graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+            int cellWidth = (SHEET_WIDTH - 2 * SHEET_MARGIN) / COLUMNS;
+            int cellHeight = (SHEET_HEIGHT - 2 * SHEET_MARGIN) / ROWS;
+            Font titleFont = new Font(Font.SANS_SERIF, Font.BOLD, 18);
+            Font subtitleFont = new Font(Font.SANS_SERIF, Font.PLAIN, 14);
+
+            for (int i = 0; i < page.size(); i++) {
+                Label label = page.get(i);
+                int x = SHEET_MARGIN + (i % COLUMNS) * cellWidth;
+                int y = SHEET_MARGIN + (i / COLUMNS) * cellHeight;
+
+                BufferedImage qr = ImageIO.read(new ByteArrayInputStream(qrCodeCache.png(label.getContent(), QR_SIZE)));
+                graphics.drawImage(qr, x + (cellWidth - QR_SIZE) / 2, y + 12, null);
+
+                graphics.setColor(Color.BLACK);
+                drawCentered(graphics, titleFont, label.getTitle(), x, cellWidth, y + QR_SIZE + 34);
+                drawCentered(graphics, subtitleFont, label.getSubtitle(), x, cellWidth, y + QR_SIZE + 54);
+
+                // Cut guide
+                graphics.setColor(Color.LIGHT_GRAY);
+                graphics.drawRect(x, y, cellWidth - 1, cellHeight - 1);
+            }
+        } finally {
+            graphics.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(sheet, "png", out);
+        return out.toByteArray();
+    }
+
+    private static void drawCentered(Graphics2D graphics, Font font, String text, int x, int width, int baseline) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        graphics.setFont(font);
+        FontMetrics metrics = graphics.getFontMetrics();
+        String fitted = text;
+        while (fitted.length() > 1 && metrics.stringWidth(fitted) > width - 16) {
+            fitted = fitted.substring(0, fitted.length() - 2) + "…";
+        }
+        graphics.drawString(fitted, x + (width - metrics.stringWidth(fitted)) / 2, baseline);
+    }
+
+    private static byte[] await(Future<byte[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering QR sheets", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to render QR sheet: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,26 @@
+package com.rentmaster.multitenancy;
+
+import jakarta.persistence.PrePersist;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Stamps new {@link OrganizationOwned} rows with the request's organization when
+ * the caller did not set one, so freshly created rows stay visible under the
+ * organization filter.
+ */
+public class OrganizationAssignmentListener {
+
+    @Autowired
+    private OrganizationScope organizationScope;
+
+    @PrePersist
+    public void assignOrganization(Object entity) {
+        if (organizationScope == null || !(entity instanceof OrganizationOwned owned) || owned.getOrganization() != null) {
+            return;
+        }
+        Organization organization = organizationScope.currentOrganization();
+        if (organization != null) {
+            owned.setOrganization(organization);
+        }
+    }
+}
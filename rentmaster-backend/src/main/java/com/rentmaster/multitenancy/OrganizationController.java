@@ -4,9 +4,11 @@ import com.rentmaster.multitenancy.dto.OrganizationCreateDTO;
 import com.rentmaster.multitenancy.dto.OrganizationDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/organizations")
@@ -16,6 +18,9 @@ public class OrganizationController {
     @Autowired
     private OrganizationService organizationService;
 
+    @Autowired
+    private OrganizationPermissionEvaluator permissionEvaluator;
+
     @GetMapping
     public ResponseEntity<List<OrganizationDTO>> getAll() {
         return ResponseEntity.ok(organizationService.findAll());
@@ -51,6 +56,9 @@ public class OrganizationController {
     public ResponseEntity<OrganizationDTO> toggleStatus(@PathVariable Long id) {
         return ResponseEntity.ok(organizationService.toggleStatus(id));
     }
-}
-
 
+    @GetMapping("/{id}/permissions/me")
+    public ResponseEntity<Set<String>> getMyPermissions(@PathVariable Long id, Authentication authentication) {
+        return ResponseEntity.ok(permissionEvaluator.getPermissionCodes(authentication, id));
+    }
+}
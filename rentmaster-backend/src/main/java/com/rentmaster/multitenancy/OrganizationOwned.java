@@ -0,0 +1,13 @@
+package com.rentmaster.multitenancy;
+
+/**
+ * Entity whose rows belong to a single organization. Such entities carry the
+ * {@link OrganizationScope#FILTER_NAME} filter, so queries issued while a request
+ * has an organization context only see that organization's rows.
+ */
+public interface OrganizationOwned {
+
+    Organization getOrganization();
+
+    void setOrganization(Organization organization);
+}
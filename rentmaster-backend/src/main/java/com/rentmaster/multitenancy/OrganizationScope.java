@@ -0,0 +1,63 @@
+package com.rentmaster.multitenancy;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Bridges the request-scoped {@link OrganizationContext} to Hibernate.
+ *
+ * Every EntityManager opened while a request carries an organization gets the
+ * organization filter enabled, so HQL, Criteria and derived queries on
+ * {@link OrganizationOwned} entities are restricted to that organization. Work
+ * outside a request (schedulers, startup runners) stays unscoped. Filters do not
+ * apply to primary-key loads such as {@code findById}.
+ */
+@Component
+public class OrganizationScope {
+
+    public static final String FILTER_NAME = "organizationFilter";
+    public static final String PARAMETER = "organizationId";
+
+    @Autowired
+    private ObjectProvider<OrganizationContext> organizationContext;
+
+    public Organization currentOrganization() {
+        if (RequestContextHolder.getRequestAttributes() == null) {
+            return null;
+        }
+        return organizationContext.getObject().getOrganization();
+    }
+
+    public Long currentOrganizationId() {
+        if (RequestContextHolder.getRequestAttributes() == null) {
+            return null;
+        }
+        return organizationContext.getObject().getOrganizationId();
+    }
+
+    /**
+     * Whether a row loaded by primary key belongs to the request's organization.
+     * Callers apply it to {@code findById} results, which the filter does not cover.
+     */
+    public boolean isVisible(OrganizationOwned entity) {
+        Long organizationId = currentOrganizationId();
+        if (organizationId == null) {
+            return true;
+        }
+        Organization organization = entity.getOrganization();
+        return organization != null && organizationId.equals(organization.getId());
+    }
+
+    public void enableFilter(EntityManager entityManager) {
+        Long organizationId = currentOrganizationId();
+        if (organizationId != null) {
+            entityManager.unwrap(Session.class)
+                    .enableFilter(FILTER_NAME)
+                    .setParameter(PARAMETER, organizationId);
+        }
+    }
+}
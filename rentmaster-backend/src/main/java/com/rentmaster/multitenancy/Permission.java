@@ -6,6 +6,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "permissions")
+@EntityListeners(PermissionCacheListener.class)
 public class Permission {
     
     @Id
@@ -0,0 +1,42 @@
+package com.rentmaster.multitenancy;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Invalidates {@link PermissionResolver} caches when roles, permissions, role grants
+ * or user role assignments change. The invalidation runs at flush and again after
+ * commit, so a concurrent load that still read the old rows cannot be cached past
+ * the transaction that changed them.
+ */
+public class PermissionCacheListener {
+
+    @Autowired
+    private PermissionResolver permissionResolver;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void invalidate(Object entity) {
+        if (permissionResolver == null) {
+            return;
+        }
+        Runnable invalidation = entity instanceof UserRole userRole
+                ? () -> permissionResolver.invalidateUser(userRole.getUserId())
+                : permissionResolver::invalidateCatalog;
+
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+}
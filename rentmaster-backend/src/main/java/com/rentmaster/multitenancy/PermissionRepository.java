@@ -0,0 +1,17 @@
+package com.rentmaster.multitenancy;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PermissionRepository extends JpaRepository<Permission, Long> {
+    Optional<Permission> findByCode(String code);
+
+    // Rows of {id, code, parentPermissionId} for flattening the permission hierarchy
+    @Query("SELECT p.id, p.code, pp.id FROM Permission p LEFT JOIN p.parentPermission pp WHERE p.isActive = true")
+    List<Object[]> findActiveHierarchy();
+}
@@ -0,0 +1,294 @@
+package com.rentmaster.multitenancy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Resolves the effective permissions of a user within an organization.
+ *
+ * The role and permission catalog is loaded with three queries into an immutable
+ * snapshot in which every active permission owns one bit and every role is flattened
+ * to allow/deny bitsets: a grant on a permission covers its descendants, and a role
+ * inherits everything its parent roles grant or deny. A user's (user, organization)
+ * pair is then one query for its role assignments and an OR over those bitsets, with
+ * DENY winning over ALLOW. Both levels are cached, so {@link #hasPermission} is a map
+ * lookup and a bit test once warm.
+ *
+ * Edits to roles, permissions or role grants bump the catalog generation, and edits
+ * to a user's role assignments bump that user's generation (see
+ * {@link PermissionCacheListener}); a load that raced with either is discarded.
+ * CONDITIONAL grants and property-scoped assignments need a target to evaluate and
+ * are not part of the organization-wide set.
+ */
+@Component
+public class PermissionResolver {
+
+    private static final class Catalog {
+        private final long generation;
+        private final Map<String, Integer> bitsByCode;
+        private final Map<Long, BitSet> allowedByRole;
+        private final Map<Long, BitSet> deniedByRole;
+        private final LocalDateTime expiresAt;
+
+        private Catalog(long generation, Map<String, Integer> bitsByCode, Map<Long, BitSet> allowedByRole,
+                        Map<Long, BitSet> deniedByRole, LocalDateTime expiresAt) {
+            this.generation = generation;
+            this.bitsByCode = bitsByCode;
+            this.allowedByRole = allowedByRole;
+            this.deniedByRole = deniedByRole;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Entry {
+        private final long catalogGeneration;
+        private final long userGeneration;
+        private final BitSet permissions;
+        private final LocalDateTime expiresAt;
+
+        private Entry(long catalogGeneration, long userGeneration, BitSet permissions, LocalDateTime expiresAt) {
+            this.catalogGeneration = catalogGeneration;
+            this.userGeneration = userGeneration;
+            this.permissions = permissions;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private RolePermissionRepository rolePermissionRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Value("${security.permission-cache.max-entries:50000}")
+    private int maxEntries;
+
+    @Value("${security.permission-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final AtomicLong catalogGeneration = new AtomicLong();
+    private final Map<Long, AtomicLong> userGenerations = new ConcurrentHashMap<>();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile Catalog catalog;
+    private final ReentrantLock catalogLock = new ReentrantLock();
+
+    public boolean hasPermission(Long userId, Long organizationId, String permissionCode) {
+        if (userId == null || permissionCode == null) {
+            return false;
+        }
+        Catalog current = catalog();
+        Integer bit = current.bitsByCode.get(permissionCode);
+        return bit != null && effectivePermissions(current, userId, organizationId).get(bit);
+    }
+
+    public Set<String> getPermissionCodes(Long userId, Long organizationId) {
+        Catalog current = catalog();
+        BitSet permissions = effectivePermissions(current, userId, organizationId);
+        Set<String> codes = new TreeSet<>();
+        current.bitsByCode.forEach((code, bit) -> {
+            if (permissions.get(bit)) {
+                codes.add(code);
+            }
+        });
+        return codes;
+    }
+
+    public void invalidateCatalog() {
+        catalogGeneration.incrementAndGet();
+        entries.clear();
+    }
+
+    public void invalidateUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        userGeneration(userId).incrementAndGet();
+        entries.keySet().removeIf(key -> key.startsWith(userId + ":"));
+    }
+
+    private BitSet effectivePermissions(Catalog current, Long userId, Long organizationId) {
+        String key = userId + ":" + organizationId;
+        long userGeneration = userGeneration(userId).get();
+        LocalDateTime now = LocalDateTime.now();
+
+        Entry cached = entries.get(key);
+        if (cached != null && cached.catalogGeneration == current.generation
+                && cached.userGeneration == userGeneration && cached.expiresAt.isAfter(now)) {
+            return cached.permissions;
+        }
+
+        List<Object[]> assignments = organizationId != null
+                ? userRoleRepository.findAssignments(userId, organizationId)
+                : userRoleRepository.findGlobalAssignments(userId);
+
+        BitSet allowed = new BitSet();
+        BitSet denied = new BitSet();
+        LocalDateTime expiresAt = earliest(current.expiresAt, now.plusSeconds(ttlSeconds));
+
+        for (Object[] row : assignments) {
+            Long roleId = (Long) row[0];
+            LocalDateTime validFrom = (LocalDateTime) row[1];
+            LocalDateTime validUntil = (LocalDateTime) row[2];
+            expiresAt = earliestBoundary(expiresAt, validFrom, validUntil, now);
+            if (!isCurrent(validFrom, validUntil, now)) {
+                continue;
+            }
+            BitSet roleAllowed = current.allowedByRole.get(roleId);
+            if (roleAllowed != null) {
+                allowed.or(roleAllowed);
+                denied.or(current.deniedByRole.get(roleId));
+            }
+        }
+        allowed.andNot(denied);
+
+        if (entries.size() >= maxEntries) {
+            // Sets past their TTL or a grant boundary go first
+            entries.values().removeIf(entry -> !entry.expiresAt.isAfter(now));
+            if (entries.size() >= maxEntries) {
+                // Rebuilding a set is one assignment query plus bit operations on the shared snapshot
+                entries.clear();
+            }
+        }
+        Entry loaded = new Entry(current.generation, userGeneration, allowed, expiresAt);
+        entries.compute(key, (k, existing) ->
+                catalogGeneration.get() == current.generation && userGeneration(userId).get() == userGeneration
+                        ? loaded : existing);
+        return allowed;
+    }
+
+    private Catalog catalog() {
+        Catalog current = catalog;
+        if (isFresh(current)) {
+            return current;
+        }
+        // A lock rather than synchronized, since the load runs queries
+        catalogLock.lock();
+        try {
+            current = catalog;
+            if (!isFresh(current)) {
+                current = loadCatalog();
+                catalog = current;
+            }
+            return current;
+        } finally {
+            catalogLock.unlock();
+        }
+    }
+
+    private boolean isFresh(Catalog current) {
+        return current != null && current.generation == catalogGeneration.get()
+                && current.expiresAt.isAfter(LocalDateTime.now());
+    }
+
+    private Catalog loadCatalog() {
+        long generation = catalogGeneration.get();
+        LocalDateTime now = LocalDateTime.now();
+
+        // Permission bits and hierarchy
+        Map<Long, Integer> bitsById = new HashMap<>();
+        Map<String, Integer> bitsByCode = new HashMap<>();
+        Map<Long, Long> parentPermissions = new HashMap<>();
+        for (Object[] row : permissionRepository.findActiveHierarchy()) {
+            int bit = bitsById.size();
+            bitsById.put((Long) row[0], bit);
+            bitsByCode.put((String) row[1], bit);
+            if (row[2] != null) {
+                parentPermissions.put((Long) row[0], (Long) row[2]);
+            }
+        }
+
+        // A permission covers itself and every active descendant
+        Map<Long, BitSet> coverage = new HashMap<>();
+        for (Map.Entry<Long, Integer> permission : bitsById.entrySet()) {
+            Long ancestorId = permission.getKey();
+            Set<Long> visited = new HashSet<>();
+            while (ancestorId != null && visited.add(ancestorId)) {
+                if (bitsById.containsKey(ancestorId)) {
+                    coverage.computeIfAbsent(ancestorId, id -> new BitSet()).set(permission.getValue());
+                }
+                ancestorId = parentPermissions.get(ancestorId);
+            }
+        }
+
+        // Direct grants per role
+        Map<Long, BitSet> ownAllowed = new HashMap<>();
+        Map<Long, BitSet> ownDenied = new HashMap<>();
+        LocalDateTime expiresAt = now.plusSeconds(ttlSeconds);
+        for (Object[] row : rolePermissionRepository.findActiveGrants()) {
+            LocalDateTime validFrom = (LocalDateTime) row[3];
+            LocalDateTime validUntil = (LocalDateTime) row[4];
+            expiresAt = earliestBoundary(expiresAt, validFrom, validUntil, now);
+            BitSet covered = coverage.get((Long) row[1]);
+            if (covered == null || !isCurrent(validFrom, validUntil, now)) {
+                continue;
+            }
+            RolePermission.GrantType grantType = (RolePermission.GrantType) row[2];
+            if (grantType == RolePermission.GrantType.ALLOW) {
+                ownAllowed.computeIfAbsent((Long) row[0], id -> new BitSet()).or(covered);
+            } else if (grantType == RolePermission.GrantType.DENY) {
+                ownDenied.computeIfAbsent((Long) row[0], id -> new BitSet()).or(covered);
+            }
+        }
+
+        // A role inherits the grants and denials of its parent chain
+        Map<Long, Long> parentRoles = new HashMap<>();
+        for (Object[] row : roleRepository.findActiveHierarchy()) {
+            parentRoles.put((Long) row[0], (Long) row[1]);
+        }
+        Map<Long, BitSet> allowedByRole = new HashMap<>();
+        Map<Long, BitSet> deniedByRole = new HashMap<>();
+        for (Long roleId : parentRoles.keySet()) {
+            BitSet allowed = new BitSet();
+            BitSet denied = new BitSet();
+            Set<Long> visited = new HashSet<>();
+            Long ancestorId = roleId;
+            while (ancestorId != null && parentRoles.containsKey(ancestorId) && visited.add(ancestorId)) {
+                allowed.or(ownAllowed.getOrDefault(ancestorId, new BitSet()));
+                denied.or(ownDenied.getOrDefault(ancestorId, new BitSet()));
+                ancestorId = parentRoles.get(ancestorId);
+            }
+            allowedByRole.put(roleId, allowed);
+            deniedByRole.put(roleId, denied);
+        }
+
+        return new Catalog(generation, Map.copyOf(bitsByCode), Map.copyOf(allowedByRole),
+                Map.copyOf(deniedByRole), expiresAt);
+    }
+
+    private AtomicLong userGeneration(Long userId) {
+        return userGenerations.computeIfAbsent(userId, id -> new AtomicLong());
+    }
+
+    private static boolean isCurrent(LocalDateTime validFrom, LocalDateTime validUntil, LocalDateTime now) {
+        return (validFrom == null || !validFrom.isAfter(now)) && (validUntil == null || validUntil.isAfter(now));
+    }
+
+    // Cached sets must be rebuilt when a time-bounded grant starts or ends
+    private static LocalDateTime earliestBoundary(LocalDateTime expiresAt, LocalDateTime validFrom,
+                                                  LocalDateTime validUntil, LocalDateTime now) {
+        if (validFrom != null && validFrom.isAfter(now)) {
+            expiresAt = earliest(expiresAt, validFrom);
+        }
+        if (validUntil != null && validUntil.isAfter(now)) {
+            expiresAt = earliest(expiresAt, validUntil);
+        }
+        return expiresAt;
+    }
+
+    private static LocalDateTime earliest(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
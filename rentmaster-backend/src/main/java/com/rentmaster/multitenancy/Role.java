@@ -6,6 +6,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "roles")
+@EntityListeners(PermissionCacheListener.class)
 public class Role {
     
     @Id
@@ -5,6 +5,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "role_permissions")
+@EntityListeners(PermissionCacheListener.class)
 public class RolePermission {
     
     @Id
@@ -0,0 +1,17 @@
+package com.rentmaster.multitenancy;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RolePermissionRepository extends JpaRepository<RolePermission, Long> {
+    List<RolePermission> findByRole(Role role);
+
+    // Rows of {roleId, permissionId, grantType, validFrom, validUntil}
+    @Query("SELECT rp.role.id, rp.permission.id, rp.grantType, rp.validFrom, rp.validUntil FROM RolePermission rp " +
+           "WHERE rp.isActive = true AND (rp.scopeType IS NULL OR rp.scopeType IN ('GLOBAL', 'ORGANIZATION'))")
+    List<Object[]> findActiveGrants();
+}
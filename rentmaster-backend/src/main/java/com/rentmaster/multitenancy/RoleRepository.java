@@ -0,0 +1,17 @@
+package com.rentmaster.multitenancy;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RoleRepository extends JpaRepository<Role, Long> {
+    Optional<Role> findByCode(String code);
+
+    // Rows of {id, parentRoleId} for flattening the role hierarchy
+    @Query("SELECT r.id, pr.id FROM Role r LEFT JOIN r.parentRole pr WHERE r.isActive = true")
+    List<Object[]> findActiveHierarchy();
+}
@@ -2,6 +2,8 @@ package com.rentmaster.multitenancy;
 
 import com.rentmaster.user.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,5 +15,11 @@ public interface UserOrganizationRepository extends JpaRepository<UserOrganizati
     List<UserOrganization> findByOrganization(Organization organization);
     Optional<UserOrganization> findByUserAndOrganization(User user, Organization organization);
     Optional<UserOrganization> findByUserAndIsDefaultTrue(User user);
+
+    // Membership through user_organizations or the user's own (default) organization
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE u.id = :userId AND (u.organization.id = :organizationId " +
+           "OR u.defaultOrganization.id = :organizationId OR EXISTS (SELECT uo.id FROM UserOrganization uo " +
+           "WHERE uo.user = u AND uo.organization.id = :organizationId))")
+    boolean isMember(@Param("userId") Long userId, @Param("organizationId") Long organizationId);
 }
 
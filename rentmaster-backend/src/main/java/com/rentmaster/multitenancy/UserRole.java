@@ -5,6 +5,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "user_roles")
+@EntityListeners(PermissionCacheListener.class)
 public class UserRole {
     
     @Id
@@ -0,0 +1,25 @@
+package com.rentmaster.multitenancy;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserRoleRepository extends JpaRepository<UserRole, Long> {
+    List<UserRole> findByUserId(Long userId);
+
+    // Rows of {roleId, validFrom, validUntil} for system-wide assignments
+    @Query("SELECT ur.role.id, ur.validFrom, ur.validUntil FROM UserRole ur " +
+           "WHERE ur.userId = :userId AND ur.isActive = true AND ur.organization IS NULL " +
+           "AND (ur.scopeType IS NULL OR ur.scopeType IN ('GLOBAL', 'ORGANIZATION'))")
+    List<Object[]> findGlobalAssignments(@Param("userId") Long userId);
+
+    // Rows of {roleId, validFrom, validUntil} for system-wide assignments plus those in the organization
+    @Query("SELECT ur.role.id, ur.validFrom, ur.validUntil FROM UserRole ur LEFT JOIN ur.organization o " +
+           "WHERE ur.userId = :userId AND ur.isActive = true AND (o IS NULL OR o.id = :organizationId) " +
+           "AND (ur.scopeType IS NULL OR ur.scopeType IN ('GLOBAL', 'ORGANIZATION'))")
+    List<Object[]> findAssignments(@Param("userId") Long userId, @Param("organizationId") Long organizationId);
+}
@@ -0,0 +1,10 @@
+/**
+ * Multi-tenancy: organizations, memberships, roles and per-request organization scoping.
+ */
+@FilterDef(name = OrganizationScope.FILTER_NAME,
+        parameters = @ParamDef(name = OrganizationScope.PARAMETER, type = Long.class),
+        defaultCondition = "organization_id = :" + OrganizationScope.PARAMETER)
+package com.rentmaster.multitenancy;
+
+import org.hibernate.annotations.FilterDef;
+import org.hibernate.annotations.ParamDef;
@@ -1,10 +1,13 @@
 package com.rentmaster.notification;
 
+import com.rentmaster.auth.AuthenticatedUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Map;
 
@@ -16,6 +19,9 @@ public class NotificationController {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+
     @GetMapping
     public ResponseEntity<Map<String, Object>> getNotifications(
             @RequestParam(required = false) String type,
@@ -45,11 +51,19 @@ public class NotificationController {
 
     @GetMapping("/unread-count")
     public ResponseEntity<Map<String, Long>> getUnreadCount(Authentication authentication) {
-        String username = authentication.getName();
-        long count = notificationService.getUnreadCount(username);
+        long count = notificationService.getUnreadCount(AuthenticatedUser.idOf(authentication));
         return ResponseEntity.ok(Map.of("count", count));
     }
 
+    /**
+     * Pushes "notification", "message" and "unread" events to the current user.
+     * Browsers' EventSource cannot set headers, so the JWT may be passed as ?access_token=.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(Authentication authentication) {
+        return notificationStreamService.subscribe(AuthenticatedUser.idOf(authentication));
+    }
+
     @PatchMapping("/{id}/read")
     public ResponseEntity<Map<String, String>> markAsRead(
             @PathVariable Long id,
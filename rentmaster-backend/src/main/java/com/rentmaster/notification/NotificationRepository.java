@@ -23,6 +23,9 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.user = :user AND n.read = false")
     long countUnreadByUser(@Param("user") User user);
     
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.id = :userId AND n.read = false")
+    long countUnreadByUserId(@Param("userId") Long userId);
+    
     @Modifying
     @Query("UPDATE Notification n SET n.read = true WHERE n.user = :user AND n.read = false")
     void markAllAsReadByUser(@Param("user") User user);
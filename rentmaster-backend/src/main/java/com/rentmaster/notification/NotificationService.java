@@ -3,13 +3,16 @@ package com.rentmaster.notification;
 import com.rentmaster.user.User;
 import com.rentmaster.user.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class NotificationService {
@@ -26,6 +29,12 @@ public class NotificationService {
     @Autowired
     private EmailNotificationService emailNotificationService;
 
+    @Autowired
+    private UnreadCountCache unreadCountCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public Page<Notification> getNotifications(String username, NotificationType type, Boolean read, 
                                              NotificationPriority priority, int page, int size) {
         User user = userRepository.findByUsername(username)
@@ -44,10 +53,8 @@ public class NotificationService {
         }
     }
 
-    public long getUnreadCount(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return notificationRepository.countUnreadByUser(user);
+    public long getUnreadCount(Long userId) {
+        return unreadCountCache.getNotificationCount(userId);
     }
 
     @Transactional
@@ -64,6 +71,7 @@ public class NotificationService {
 
         notification.setRead(true);
         notificationRepository.save(notification);
+        eventPublisher.publishEvent(UserStreamEvent.unreadChanged(user.getId()));
     }
 
     @Transactional
@@ -71,6 +79,7 @@ public class NotificationService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         notificationRepository.markAllAsReadByUser(user);
+        eventPublisher.publishEvent(UserStreamEvent.unreadChanged(user.getId()));
     }
 
     @Transactional
@@ -86,6 +95,7 @@ public class NotificationService {
         }
 
         notificationRepository.delete(notification);
+        eventPublisher.publishEvent(UserStreamEvent.unreadChanged(user.getId()));
     }
 
     @Transactional
@@ -108,6 +118,7 @@ public class NotificationService {
         notification.setRelatedEntityId(relatedEntityId);
         
         notificationRepository.save(notification);
+        eventPublisher.publishEvent(new UserStreamEvent(user.getId(), UserStreamEvent.Type.NOTIFICATION, toStreamPayload(notification)));
 
         // Send email notification if enabled
         if (settings.isEmailNotifications() && user.getEmail() != null) {
@@ -159,6 +170,19 @@ public class NotificationService {
         createNotification(user, notificationType, title, message, NotificationPriority.LOW, null, null);
     }
 
+    private Map<String, Object> toStreamPayload(Notification notification) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("id", notification.getId());
+        payload.put("type", notification.getType());
+        payload.put("title", notification.getTitle());
+        payload.put("message", notification.getMessage());
+        payload.put("priority", notification.getPriority());
+        payload.put("relatedEntityType", notification.getRelatedEntityType());
+        payload.put("relatedEntityId", notification.getRelatedEntityId());
+        payload.put("createdAt", notification.getCreatedAt());
+        return payload;
+    }
+
     private NotificationSettings getOrCreateSettings(User user) {
         return settingsRepository.findByUser(user)
                 .orElseGet(() -> {
@@ -0,0 +1,157 @@
+package com.rentmaster.notification;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Server-Sent Events fan-out for notifications, messages and unread counts.
+ *
+ * Connections are parked as async {@link SseEmitter}s, so an idle client holds a
+ * socket but no request thread. Writes happen on a small dedicated pool so a slow
+ * client never stalls the transaction that produced the event.
+ */
+@Service
+public class NotificationStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationStreamService.class);
+
+    @Autowired
+    private UnreadCountCache unreadCountCache;
+
+    @Value("${notification.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    private final Map<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    private final ExecutorService senders = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "notification-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        emitters.compute(userId, (id, userEmitters) -> {
+            List<SseEmitter> list = userEmitters != null ? userEmitters : new CopyOnWriteArrayList<>();
+            list.add(emitter);
+            return list;
+        });
+
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+
+        // Initial snapshot so clients can drop their first poll as well
+        send(userId, emitter, "unread", unreadCounts(userId));
+        return emitter;
+    }
+
+    public int getConnectionCount() {
+        return emitters.values().stream().mapToInt(List::size).sum();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserStreamEvent(UserStreamEvent event) {
+        Long userId = event.getUserId();
+        if (userId == null) {
+            return;
+        }
+
+        unreadCountCache.invalidate(userId);
+
+        if (!emitters.containsKey(userId)) {
+            return;
+        }
+
+        senders.execute(() -> {
+            if (event.getType() == UserStreamEvent.Type.NOTIFICATION) {
+                broadcast(userId, "notification", event.getPayload());
+            } else if (event.getType() == UserStreamEvent.Type.MESSAGE) {
+                broadcast(userId, "message", event.getPayload());
+            }
+            broadcast(userId, "unread", unreadCounts(userId));
+        });
+    }
+
+    /**
+     * Comment-only heartbeat; keeps proxies from closing idle streams and
+     * surfaces dead connections so they can be released.
+     */
+    @Scheduled(fixedRateString = "${notification.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        emitters.forEach((userId, userEmitters) -> {
+            for (SseEmitter emitter : userEmitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                } catch (IOException | IllegalStateException e) {
+                    remove(userId, emitter);
+                }
+            }
+        });
+    }
+
+    private Map<String, Long> unreadCounts(Long userId) {
+        return Map.of(
+                "notifications", unreadCountCache.getNotificationCount(userId),
+                "messages", unreadCountCache.getMessageCount(userId)
+        );
+    }
+
+    private void broadcast(Long userId, String eventName, Object data) {
+        List<SseEmitter> userEmitters = emitters.get(userId);
+        if (userEmitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : userEmitters) {
+            send(userId, emitter, eventName, data);
+        }
+    }
+
+    private void send(Long userId, SseEmitter emitter, String eventName, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(data));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping notification stream for user {}: {}", userId, e.getMessage());
+            remove(userId, emitter);
+        }
+    }
+
+    /**
+     * Ends every stream of a user, e.g. once the account is deleted or deactivated.
+     */
+    public void disconnect(Long userId) {
+        List<SseEmitter> userEmitters = emitters.remove(userId);
+        if (userEmitters != null) {
+            userEmitters.forEach(SseEmitter::complete);
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (id, userEmitters) -> {
+            userEmitters.remove(emitter);
+            return userEmitters.isEmpty() ? null : userEmitters;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdown();
+        emitters.values().forEach(userEmitters -> userEmitters.forEach(SseEmitter::complete));
+        emitters.clear();
+    }
+}
@@ -0,0 +1,89 @@
+package com.rentmaster.notification;
+
+import com.rentmaster.messaging.MessageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory unread notification and message counts per user id.
+ *
+ * A count is loaded with one COUNT query on first read and served from memory until a
+ * write on this node invalidates it or {@code notification.unread-cache.ttl-seconds}
+ * passes, which bounds how long a write made on another node can go unnoticed. Every
+ * invalidation bumps a generation, and a load that overlapped any invalidation is
+ * returned but not cached, so a stale count cannot outlive the write that changed it.
+ */
+@Component
+public class UnreadCountCache {
+
+    private static final class Entry {
+        private final long count;
+        private final long expiresAt;
+
+        private Entry(long count, long expiresAt) {
+            this.count = count;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Value("${notification.unread-cache.max-users:100000}")
+    private int maxUsers;
+
+    @Value("${notification.unread-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<Long, Entry> notificationCounts = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> messageCounts = new ConcurrentHashMap<>();
+
+    public long getNotificationCount(Long userId) {
+        return get(notificationCounts, userId, () -> notificationRepository.countUnreadByUserId(userId));
+    }
+
+    public long getMessageCount(Long userId) {
+        return get(messageCounts, userId, () -> messageRepository.countByRecipientIdAndIsReadFalseAndIsDeletedFalse(userId));
+    }
+
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        notificationCounts.remove(userId);
+        messageCounts.remove(userId);
+    }
+
+    private long get(Map<Long, Entry> counts, Long userId, LongSupplier loader) {
+        long now = System.currentTimeMillis();
+        Entry cached = counts.get(userId);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.count;
+        }
+
+        long loadGeneration = generation.get();
+        long count = loader.getAsLong();
+        if (counts.size() >= maxUsers) {
+            counts.values().removeIf(entry -> entry.expiresAt <= now);
+        }
+        if (counts.size() >= maxUsers) {
+            // Still full of live entries: drop everything rather than track recency; counts reload on demand
+            counts.clear();
+        }
+        // Checked inside compute: an invalidation bumps the generation before it removes the entry
+        counts.compute(userId, (id, existing) ->
+                generation.get() == loadGeneration ? new Entry(count, now + ttlSeconds * 1000) : existing);
+        return count;
+    }
+}
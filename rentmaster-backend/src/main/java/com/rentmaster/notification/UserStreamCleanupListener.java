@@ -0,0 +1,53 @@
+package com.rentmaster.notification;
+
+import com.rentmaster.user.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Drops a user's cached unread counts when the account changes and, once it is deleted
+ * or deactivated, ends its open notification streams. Both happen after commit.
+ */
+public class UserStreamCleanupListener {
+
+    @Autowired
+    private UnreadCountCache unreadCountCache;
+
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+
+    @PostUpdate
+    public void updated(User user) {
+        afterCommit(user.getId(), !user.isActive());
+    }
+
+    @PostRemove
+    public void removed(User user) {
+        afterCommit(user.getId(), true);
+    }
+
+    private void afterCommit(Long userId, boolean disconnect) {
+        if (unreadCountCache == null || userId == null) {
+            return;
+        }
+        Runnable cleanup = () -> {
+            unreadCountCache.invalidate(userId);
+            if (disconnect) {
+                notificationStreamService.disconnect(userId);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cleanup.run();
+                }
+            });
+        } else {
+            cleanup.run();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.rentmaster.notification;
+
+/**
+ * Published when something a user sees in their notification stream changes.
+ * Delivered to connected clients by {@link NotificationStreamService} once the
+ * publishing transaction commits.
+ */
+public class UserStreamEvent {
+
+    public enum Type {
+        NOTIFICATION,
+        MESSAGE,
+        UNREAD_CHANGED
+    }
+
+    private final Long userId;
+    private final Type type;
+    private final Object payload;
+
+    public UserStreamEvent(Long userId, Type type, Object payload) {
+        this.userId = userId;
+        this.type = type;
+        this.payload = payload;
+    }
+
+    public static UserStreamEvent unreadChanged(Long userId) {
+        return new UserStreamEvent(userId, Type.UNREAD_CHANGED, null);
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Object getPayload() {
+        return payload;
+    }
+}
@@ -0,0 +1,28 @@
+package com.rentmaster.observability;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Adds a post-load listener that counts every entity Hibernate materializes, whether by
+ * query, by id or by initializing a lazy association, toward the current {@link QueryScope}.
+ */
+public class EntityLoadCountingIntegrator implements Integrator {
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        PostLoadEventListener listener = event -> QueryScope.entityLoad();
+        sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class)
+            .appendListeners(EventType.POST_LOAD, listener);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
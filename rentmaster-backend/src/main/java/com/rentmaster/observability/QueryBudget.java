@@ -0,0 +1,19 @@
+package com.rentmaster.observability;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Overrides the default per-request query budget for a controller method, or for every
+ * handler of a controller class. A value of 0 keeps the configured default.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    int statements() default 0;
+
+    int entityLoads() default 0;
+}
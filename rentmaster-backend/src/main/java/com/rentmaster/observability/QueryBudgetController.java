@@ -0,0 +1,31 @@
+package com.rentmaster.observability;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/system/query-budget")
+public class QueryBudgetController {
+
+    @Autowired
+    private QueryBudgetReport queryBudgetReport;
+
+    // Endpoints over their query budget since startup (or the last reset) with their repeated statements
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> getOffenders() {
+        return ResponseEntity.ok(queryBudgetReport.getOffenders());
+    }
+
+    @DeleteMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> reset() {
+        queryBudgetReport.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,90 @@
+package com.rentmaster.observability;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Runs each request in a {@link QueryScope} with the configured query budget and records
+ * how many SQL statements and entity loads it took, as the
+ * {@code http.server.requests.queries} and {@code http.server.requests.entity.loads}
+ * summaries tagged like {@code http.server.requests}. An endpoint whose counts grow
+ * with the size of the data it returns is loading an association per row (N+1).
+ *
+ * With {@code observability.query-budget.mode} {@code log} a request over budget is
+ * reported to {@link QueryBudgetReport}; with {@code fail} it is also stopped at the
+ * statement that exceeds the budget, which is meant for tests and staging. Only the
+ * request thread is counted; work handed to other pools or to an async continuation
+ * is not.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private QueryBudgetReport queryBudgetReport;
+
+    @Value("${observability.query-budget.mode:log}")
+    private String mode;
+
+    @Value("${observability.query-budget.max-statements:100}")
+    private int maxStatements;
+
+    @Value("${observability.query-budget.max-entity-loads:2000}")
+    private int maxEntityLoads;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean enforced = isEnforced();
+        QueryScope scope = QueryScope.open(enforced ? maxStatements : 0, enforced ? maxEntityLoads : 0,
+            "fail".equalsIgnoreCase(mode));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scope.close();
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String status = String.valueOf(response.getStatus());
+        DistributionSummary.builder("http.server.requests.queries")
+            .description("SQL statements issued by Hibernate per request")
+            .baseUnit("statements")
+            .tag("method", request.getMethod())
+            .tag("uri", uri)
+            .tag("status", status)
+            .register(meterRegistry)
+            .record(scope.getStatements());
+        DistributionSummary.builder("http.server.requests.entity.loads")
+            .description("Entities loaded by Hibernate per request")
+            .tag("method", request.getMethod())
+            .tag("uri", uri)
+            .tag("status", status)
+            .register(meterRegistry)
+            .record(scope.getEntityLoads());
+
+        if (scope.isOverBudget()) {
+            queryBudgetReport.exceeded(request.getMethod(), uri, scope);
+        }
+    }
+
+    boolean isEnforced() {
+        return !"off".equalsIgnoreCase(mode);
+    }
+}
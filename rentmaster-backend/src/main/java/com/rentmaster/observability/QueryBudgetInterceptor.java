@@ -0,0 +1,37 @@
+package com.rentmaster.observability;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies a handler's {@link QueryBudget} to the request's scope once the handler is
+ * known. Statements run before that, e.g. by authentication, still count.
+ */
+@Component
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private QueryBudgetFilter queryBudgetFilter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryScope scope = QueryScope.current();
+        if (scope == null || !queryBudgetFilter.isEnforced() || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        QueryBudget budget = handlerMethod.getMethodAnnotation(QueryBudget.class);
+        if (budget == null) {
+            budget = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), QueryBudget.class);
+        }
+        if (budget != null) {
+            scope.budget(budget.statements() > 0 ? budget.statements() : scope.getMaxStatements(),
+                budget.entityLoads() > 0 ? budget.entityLoads() : scope.getMaxEntityLoads());
+        }
+        return true;
+    }
+}
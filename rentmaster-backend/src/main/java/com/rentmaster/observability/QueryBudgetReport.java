@@ -0,0 +1,118 @@
+package com.rentmaster.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Endpoints that went over their query budget, each with the statements it repeated
+ * most on its latest offending request. Every violation increments
+ * {@code http.server.requests.query.budget.exceeded}; the warning log is limited to
+ * one per endpoint per {@code observability.query-budget.log-interval-ms}.
+ */
+@Component
+public class QueryBudgetReport {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetReport.class);
+
+    // Endpoints are route patterns, so this only bounds a misbehaving UNKNOWN-heavy mix
+    private static final int MAX_ENDPOINTS = 1000;
+    private static final int REPEATED_SHAPES = 5;
+
+    private static final class Offender {
+        private final String method;
+        private final String uri;
+        private final AtomicLong violations = new AtomicLong();
+        private volatile int statements;
+        private volatile int entityLoads;
+        private volatile int maxStatements;
+        private volatile int maxEntityLoads;
+        private volatile List<Map<String, Object>> repeated = List.of();
+        private volatile LocalDateTime lastSeen;
+        private volatile long lastLogged;
+
+        private Offender(String method, String uri) {
+            this.method = method;
+            this.uri = uri;
+        }
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${observability.query-budget.log-interval-ms:60000}")
+    private long logIntervalMs;
+
+    private final Map<String, Offender> offenders = new ConcurrentHashMap<>();
+
+    void exceeded(String method, String uri, QueryScope scope) {
+        meterRegistry.counter("http.server.requests.query.budget.exceeded", "method", method, "uri", uri).increment();
+
+        String key = method + " " + uri;
+        Offender offender = offenders.get(key);
+        if (offender == null) {
+            if (offenders.size() >= MAX_ENDPOINTS) {
+                return;
+            }
+            offender = offenders.computeIfAbsent(key, k -> new Offender(method, uri));
+        }
+        offender.violations.incrementAndGet();
+        offender.statements = scope.getStatements();
+        offender.entityLoads = scope.getEntityLoads();
+        offender.maxStatements = scope.getMaxStatements();
+        offender.maxEntityLoads = scope.getMaxEntityLoads();
+        offender.repeated = scope.repeatedStatements(REPEATED_SHAPES);
+        offender.lastSeen = LocalDateTime.now();
+
+        long now = System.currentTimeMillis();
+        long lastLogged = offender.lastLogged;
+        if (now - lastLogged >= logIntervalMs) {
+            offender.lastLogged = now;
+            logger.warn("{} exceeded its query budget: {} statements (budget {}), {} entity loads (budget {}); most repeated:\n{}",
+                key, scope.getStatements(), scope.getMaxStatements(), scope.getEntityLoads(), scope.getMaxEntityLoads(),
+                offender.repeated.stream()
+                    .map(shape -> "  " + shape.get("count") + " x " + shape.get("sql"))
+                    .collect(Collectors.joining("\n")));
+        }
+    }
+
+    /**
+     * Offending endpoints, most frequent first.
+     */
+    public List<Map<String, Object>> getOffenders() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        offenders.values().stream()
+            .sorted(Comparator.comparingLong((Offender offender) -> offender.violations.get()).reversed())
+            .forEach(offender -> {
+                Map<String, Object> map = new HashMap<>();
+                map.put("method", offender.method);
+                map.put("uri", offender.uri);
+                map.put("violations", offender.violations.get());
+                map.put("statements", offender.statements);
+                map.put("entityLoads", offender.entityLoads);
+                map.put("maxStatements", offender.maxStatements);
+                map.put("maxEntityLoads", offender.maxEntityLoads);
+                map.put("repeatedStatements", offender.repeated);
+                map.put("lastSeen", offender.lastSeen != null ? offender.lastSeen.toString() : null);
+                result.add(map);
+            });
+        return result;
+    }
+
+    public void reset() {
+        offenders.clear();
+    }
+}
@@ -0,0 +1,15 @@
+package com.rentmaster.observability;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Registered with Hibernate to feed {@link QueryScope}; the SQL is passed through unchanged.
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryScope.statement(sql);
+        return sql;
+    }
+}
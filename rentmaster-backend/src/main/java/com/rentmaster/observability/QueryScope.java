@@ -0,0 +1,196 @@
+package com.rentmaster.observability;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares and the entities it loads on the current
+ * thread while the scope is open. Every HTTP request runs in one (see
+ * {@link QueryBudgetFilter}); scopes nest, and an inner scope's work also counts toward
+ * the scopes around it. Statements are also tallied by their SQL text, which Hibernate
+ * renders with {@code ?} placeholders, so the same text repeated many times in one
+ * scope is the signature of an association loaded row by row.
+ *
+ * A scope may carry a budget. When it is opened with {@code failFast}, the statement
+ * or load that goes over the budget throws instead of running; otherwise exceeding it
+ * is only reported when the scope is evaluated.
+ *
+ * Integration tests can lock in the query count of a hot path with {@link #capture}:
+ * <pre>
+ * QueryScope.capture(() -> mockMvc.perform(get("/api/invoices")))
+ *     .assertStatementsAtMost(3)
+ *     .assertEntityLoadsAtMost(200);
+ * </pre>
+ */
+public final class QueryScope {
+
+    // Distinct statement texts kept per scope; later ones are still counted, just not by text
+    private static final int MAX_SHAPES = 200;
+    private static final int MAX_SHAPE_LENGTH = 1000;
+
+    private static final ThreadLocal<QueryScope> current = new ThreadLocal<>();
+
+    /**
+     * Work run under {@link #capture}; may throw, as MockMvc calls do.
+     */
+    @FunctionalInterface
+    public interface Work {
+        void run() throws Exception;
+    }
+
+    private final QueryScope parent;
+    private int maxStatements;
+    private int maxEntityLoads;
+    private boolean failFast;
+    private boolean failed;
+    private int statements;
+    private int entityLoads;
+    private final Map<String, Integer> shapes = new HashMap<>();
+
+    private QueryScope(QueryScope parent, int maxStatements, int maxEntityLoads, boolean failFast) {
+        this.parent = parent;
+        this.maxStatements = maxStatements;
+        this.maxEntityLoads = maxEntityLoads;
+        this.failFast = failFast;
+    }
+
+    /**
+     * Opens a scope on this thread; it must be closed with {@link #close()} on the same thread.
+     *
+     * @param maxStatements  statement budget, 0 for none
+     * @param maxEntityLoads entity load budget, 0 for none
+     */
+    public static QueryScope open(int maxStatements, int maxEntityLoads, boolean failFast) {
+        QueryScope scope = new QueryScope(current.get(), maxStatements, maxEntityLoads, failFast);
+        current.set(scope);
+        return scope;
+    }
+
+    /**
+     * Runs {@code work} in a scope without a budget and returns the scope for assertions.
+     */
+    public static QueryScope capture(Work work) throws Exception {
+        QueryScope scope = open(0, 0, false);
+        try {
+            work.run();
+        } finally {
+            scope.close();
+        }
+        return scope;
+    }
+
+    /**
+     * The innermost open scope on this thread, or null.
+     */
+    public static QueryScope current() {
+        return current.get();
+    }
+
+    public void close() {
+        if (parent != null) {
+            current.set(parent);
+        } else {
+            current.remove();
+        }
+    }
+
+    /**
+     * Replaces the budget, e.g. once the handler of a request is known.
+     */
+    public void budget(int maxStatements, int maxEntityLoads) {
+        this.maxStatements = maxStatements;
+        this.maxEntityLoads = maxEntityLoads;
+    }
+
+    static void statement(String sql) {
+        for (QueryScope scope = current.get(); scope != null; scope = scope.parent) {
+            scope.statements++;
+            String shape = sql.length() > MAX_SHAPE_LENGTH ? sql.substring(0, MAX_SHAPE_LENGTH) : sql;
+            Integer seen = scope.shapes.get(shape);
+            if (seen != null) {
+                scope.shapes.put(shape, seen + 1);
+            } else if (scope.shapes.size() < MAX_SHAPES) {
+                scope.shapes.put(shape, 1);
+            }
+            scope.checkFailFast();
+        }
+    }
+
+    static void entityLoad() {
+        for (QueryScope scope = current.get(); scope != null; scope = scope.parent) {
+            scope.entityLoads++;
+            scope.checkFailFast();
+        }
+    }
+
+    private void checkFailFast() {
+        if (failFast && !failed && isOverBudget()) {
+            // Once only: the error handling that follows may run statements of its own
+            failed = true;
+            throw new IllegalStateException("Query budget exceeded: " + summary());
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getEntityLoads() {
+        return entityLoads;
+    }
+
+    public int getMaxStatements() {
+        return maxStatements;
+    }
+
+    public int getMaxEntityLoads() {
+        return maxEntityLoads;
+    }
+
+    public boolean isOverBudget() {
+        return (maxStatements > 0 && statements > maxStatements)
+            || (maxEntityLoads > 0 && entityLoads > maxEntityLoads);
+    }
+
+    /**
+     * Statement texts run more than once, most repeated first.
+     */
+    public List<Map<String, Object>> repeatedStatements(int limit) {
+        List<Map<String, Object>> repeated = new ArrayList<>();
+        shapes.entrySet().stream()
+            .filter(entry -> entry.getValue() > 1)
+            .sorted((a, b) -> Integer.compare(b.getValue(), a.getValue()))
+            .limit(limit)
+            .forEach(entry -> {
+                Map<String, Object> shape = new LinkedHashMap<>();
+                shape.put("count", entry.getValue());
+                shape.put("sql", entry.getKey());
+                repeated.add(shape);
+            });
+        return repeated;
+    }
+
+    public QueryScope assertStatementsAtMost(int max) {
+        if (statements > max) {
+            throw new AssertionError("Expected at most " + max + " statements but " + statements
+                + " ran; repeated: " + repeatedStatements(5));
+        }
+        return this;
+    }
+
+    public QueryScope assertEntityLoadsAtMost(int max) {
+        if (entityLoads > max) {
+            throw new AssertionError("Expected at most " + max + " entity loads but " + entityLoads
+                + " happened; repeated statements: " + repeatedStatements(5));
+        }
+        return this;
+    }
+
+    private String summary() {
+        return statements + " statements (budget " + (maxStatements > 0 ? maxStatements : "none") + "), "
+            + entityLoads + " entity loads (budget " + (maxEntityLoads > 0 ? maxEntityLoads : "none") + ")";
+    }
+}
@@ -1,18 +1,20 @@
 package com.rentmaster.property;
 
+import com.rentmaster.common.web.FileDownloads;
+import com.rentmaster.storage.BlobStore;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
-import java.io.File;
-import java.nio.file.Files;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 
 @RestController
 @RequestMapping("/api/files")
@@ -22,44 +24,86 @@ public class FileController {
     @Value("${file.upload.local-directory:./uploads/properties/}")
     private String localDirectory;
 
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private PropertyAdvancedService propertyAdvancedService;
+
     @GetMapping("/**")
-    public ResponseEntity<Resource> getFile(HttpServletRequest request) {
+    public ResponseEntity<Resource> getFile(HttpServletRequest request, HttpServletResponse response) {
         try {
             // Extract the path from the request URL
             String requestURI = request.getRequestURI();
             String path = requestURI.replace("/api/files/", "");
             
-            if (path.isEmpty()) {
+            // The blob store also holds private documents, so only content published as property media is served here
+            if (path.isEmpty() || (FileStorageService.blobHash(path) != null && !propertyAdvancedService.isPropertyMedia(path))) {
                 return ResponseEntity.notFound().build();
             }
 
-            Path filePath = Paths.get(localDirectory + path);
-            File file = filePath.toFile();
-
-            if (!file.exists() || !file.isFile()) {
-                return ResponseEntity.notFound().build();
-            }
+            // Content-addressed uploads never change, so they can be cached indefinitely.
+            // Older uploads are stored under unique names and never rewritten in place either
+            CacheControl cacheControl = FileStorageService.blobHash(path) != null
+                    ? CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable()
+                    : CacheControl.maxAge(Duration.ofDays(30)).cachePublic();
+            return serve(request, response, path, cacheControl);
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
 
-            // Security check: ensure the file is within the upload directory
-            Path uploadDir = Paths.get(localDirectory).toAbsolutePath().normalize();
-            Path requestedFile = filePath.toAbsolutePath().normalize();
-            if (!requestedFile.startsWith(uploadDir)) {
-                return ResponseEntity.status(403).build();
-            }
+    /**
+     * Serves a property image at the requested size: thumbnail, medium, large or original.
+     */
+    @GetMapping("/images/{imageId}")
+    public ResponseEntity<Resource> getImage(@PathVariable Long imageId,
+                                             @RequestParam(defaultValue = "medium") String size,
+                                             HttpServletRequest request, HttpServletResponse response) {
+        PropertyImage.ImageSize imageSize;
+        try {
+            imageSize = PropertyImage.ImageSize.valueOf(size.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
 
-            Resource resource = new FileSystemResource(file);
-            String contentType = Files.probeContentType(filePath);
-            if (contentType == null) {
-                contentType = "application/octet-stream";
+        try {
+            PropertyImage image = propertyAdvancedService.getImageById(imageId).orElse(null);
+            if (image == null) {
+                return ResponseEntity.notFound().build();
             }
 
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + file.getName() + "\"")
-                    .body(resource);
+            // The original stands in until the rendition is generated, so only cache that briefly
+            String path = ImageDerivativeService.pathFor(image, imageSize);
+            boolean exact = imageSize == PropertyImage.ImageSize.ORIGINAL || !path.equals(image.getFilePath());
+            CacheControl cacheControl = exact
+                    ? CacheControl.maxAge(Duration.ofDays(365)).cachePublic()
+                    : CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic();
+            return serve(request, response, path, cacheControl);
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
     }
-}
 
+    private ResponseEntity<Resource> serve(HttpServletRequest request, HttpServletResponse response, String path,
+                                           CacheControl cacheControl) throws IOException {
+        String blobHash = FileStorageService.blobHash(path);
+        if (blobHash != null) {
+            return blobStore.serve(request, response, blobHash, null,
+                    path.substring(FileStorageService.BLOB_PREFIX.length()), false, cacheControl);
+        }
+
+        Path filePath = Paths.get(localDirectory + path);
+
+        // Security check: ensure the file is within the upload directory
+        Path uploadDir = Paths.get(localDirectory).toAbsolutePath().normalize();
+        Path requestedFile = filePath.toAbsolutePath().normalize();
+        if (!requestedFile.startsWith(uploadDir)) {
+            return ResponseEntity.status(403).build();
+        }
+
+        // A missing file is reported as 404 by the same stat that yields the size and ETag
+        return FileDownloads.stream(request, response, requestedFile, null,
+                requestedFile.getFileName().toString(), false, cacheControl);
+    }
+}
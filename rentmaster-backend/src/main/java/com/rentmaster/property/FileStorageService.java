@@ -1,95 +1,90 @@
 package com.rentmaster.property;
 
+import com.rentmaster.storage.BlobStore;
+import com.rentmaster.storage.StoredBlob;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.UUID;
 
 @Service
 public class FileStorageService {
 
-    @Value("${file.upload.storage-type:local}")
-    private String storageType;
+    // Paths of files kept in the blob store; older uploads are plain paths under the upload directory
+    static final String BLOB_PREFIX = "blob/";
+
+    @Autowired
+    private BlobStore blobStore;
 
     @Value("${file.upload.local-directory:./uploads/properties/}")
     private String localDirectory;
 
-    @Value("${file.upload.s3.bucket-name:}")
-    private String s3BucketName;
-
-    @Value("${file.upload.s3.region:us-east-1}")
-    private String s3Region;
-
-    @Value("${file.upload.s3.access-key:}")
-    private String s3AccessKey;
-
-    @Value("${file.upload.s3.secret-key:}")
-    private String s3SecretKey;
-
-    @Value("${file.upload.s3.endpoint:}")
-    private String s3Endpoint;
-
     /**
-     * Uploads a file and returns the file path or URL
+     * Uploads a file and returns its path, {@code blob/<sha256>.<ext>}. Identical
+     * uploads share one stored copy; the extension only drives the served content type.
      */
-    public String uploadFile(MultipartFile file, String subdirectory) throws IOException {
-        if ("s3".equalsIgnoreCase(storageType)) {
-            return uploadToS3(file, subdirectory);
-        } else {
-            return uploadToLocal(file, subdirectory);
-        }
+    public String uploadFile(MultipartFile file) throws IOException {
+        StoredBlob blob = blobStore.store(file);
+        return BLOB_PREFIX + blob.getHash() + extensionOf(file.getOriginalFilename());
     }
 
     /**
-     * Uploads file to local filesystem
+     * Stores generated content, e.g. an image rendition, and returns its blob path
      */
-    private String uploadToLocal(MultipartFile file, String subdirectory) throws IOException {
-        String fileName = System.currentTimeMillis() + "_" + UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-        Path uploadPath = Paths.get(localDirectory + subdirectory);
-        Files.createDirectories(uploadPath);
-
-        Path filePath = uploadPath.resolve(fileName);
-        Files.write(filePath, file.getBytes());
-
-        // Return relative path for local storage
-        return subdirectory + fileName;
+    public String uploadStream(InputStream in, String contentType, String extension) throws IOException {
+        StoredBlob blob = blobStore.store(in, contentType);
+        return BLOB_PREFIX + blob.getHash() + extension;
     }
 
     /**
-     * Uploads file to AWS S3
-     * Note: S3 upload requires AWS SDK dependency. Falls back to local if S3 is not properly configured.
-     * To enable S3, uncomment the S3 implementation and ensure AWS SDK is in classpath.
+     * Drops the reference held by a path returned from {@link #uploadFile}
      */
-    private String uploadToS3(MultipartFile file, String subdirectory) throws IOException {
-        if (s3BucketName == null || s3BucketName.isEmpty() || 
-            s3AccessKey == null || s3AccessKey.isEmpty() || 
-            s3SecretKey == null || s3SecretKey.isEmpty()) {
-            // Fallback to local storage if S3 is not configured
-            return uploadToLocal(file, subdirectory);
+    public void release(String filePath) {
+        String hash = blobHash(filePath);
+        if (hash != null) {
+            blobStore.release(hash);
         }
-
-        // S3 implementation would go here when AWS SDK is available
-        // For now, fallback to local storage
-        // This allows the application to work without S3 dependencies
-        return uploadToLocal(file, subdirectory);
     }
 
     /**
      * Gets the base URL for file access
      */
     public String getFileUrl(String filePath) {
-        if ("s3".equalsIgnoreCase(storageType)) {
-            // For S3, filePath is already a full URL
-            return filePath;
-        } else {
-            // For local, return a relative path that can be served by the application
-            return "/api/files/" + filePath;
+        return "/api/files/" + filePath;
+    }
+
+    public InputStream open(String filePath) throws IOException {
+        String hash = blobHash(filePath);
+        if (hash == null) {
+            return Files.newInputStream(Paths.get(localDirectory + filePath));
         }
+        return blobStore.open(hash);
+    }
+
+    /**
+     * Returns the content hash of a blob path, or null for legacy paths
+     */
+    static String blobHash(String filePath) {
+        if (filePath == null || !filePath.startsWith(BLOB_PREFIX)) {
+            return null;
+        }
+        String name = filePath.substring(BLOB_PREFIX.length());
+        int dot = name.indexOf('.');
+        String hash = dot >= 0 ? name.substring(0, dot) : name;
+        return hash.matches("[0-9a-f]{64}") ? hash : null;
     }
-}
 
+    private static String extensionOf(String fileName) {
+        if (fileName == null) {
+            return "";
+        }
+        int dot = fileName.lastIndexOf('.');
+        String extension = dot >= 0 ? fileName.substring(dot + 1) : "";
+        return extension.matches("[A-Za-z0-9]{1,10}") ? "." + extension.toLowerCase() : "";
+    }
+}
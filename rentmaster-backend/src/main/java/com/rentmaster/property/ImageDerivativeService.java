@@ -0,0 +1,316 @@
+package com.rentmaster.property;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.*;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Generates the thumbnail, medium and large renditions of property images so listings
+ * and the mobile app never download the full-resolution upload.
+ *
+ * Work runs after the upload commits on a small, fixed worker pool with a bounded
+ * queue, so CPU spent on resizing is capped however many photos arrive at once. The
+ * original is decoded once, subsampled while decoding when it is far larger than the
+ * largest rendition, then scaled down step by step and written as progressive JPEGs
+ * into the blob store. Uploads that did not fit in the queue, failed workers and
+ * images stored before this pipeline existed are picked up by {@link #sweepPending()}.
+ */
+@Component
+public class ImageDerivativeService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    private static final float JPEG_QUALITY = 0.82f;
+    private static final int SWEEP_BATCH_SIZE = 100;
+
+    // Largest first, so each rendition is scaled from the previous one
+    private static final List<PropertyImage.ImageSize> RENDITIONS = List.of(
+        PropertyImage.ImageSize.LARGE, PropertyImage.ImageSize.MEDIUM, PropertyImage.ImageSize.THUMBNAIL);
+
+    private static final class Decoded {
+        private final BufferedImage image;
+        private final int width;
+        private final int height;
+
+        private Decoded(BufferedImage image, int width, int height) {
+            this.image = image;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    @Autowired
+    private PropertyImageRepository propertyImageRepository;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${property.images.derivative-workers:2}")
+    private int workers;
+
+    @Value("${property.images.derivative-queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${property.images.derivative-retry-after-minutes:5}")
+    private long retryAfterMinutes;
+
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "image-derivatives");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            });
+    }
+
+    /**
+     * Queues generation for an image, once the current transaction (if any) commits.
+     */
+    public void schedule(Long imageId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(imageId);
+                }
+            });
+        } else {
+            submit(imageId);
+        }
+    }
+
+    /**
+     * Returns the stored path serving the requested size. Until the renditions exist
+     * every size falls back to the original.
+     */
+    public static String pathFor(PropertyImage image, PropertyImage.ImageSize size) {
+        String path = null;
+        switch (size) {
+            case THUMBNAIL:
+                path = image.getThumbnailPath();
+                break;
+            case MEDIUM:
+                path = image.getMediumPath();
+                break;
+            case LARGE:
+                path = image.getLargePath();
+                break;
+            case ORIGINAL:
+            default:
+                break;
+        }
+        return path != null ? path : image.getFilePath();
+    }
+
+    @Scheduled(fixedDelayString = "${property.images.derivative-sweep-ms:300000}")
+    public void sweepPending() {
+        int capacity = Math.min(SWEEP_BATCH_SIZE, executor.getQueue().remainingCapacity());
+        if (capacity == 0) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retryAfterMinutes);
+        List<Long> imageIds = propertyImageRepository.findIdsAwaitingDerivatives(cutoff, PageRequest.of(0, capacity));
+        imageIds.forEach(this::submit);
+    }
+
+    private void submit(Long imageId) {
+        if (!queued.add(imageId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(imageId);
+                } finally {
+                    queued.remove(imageId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Queue is full; the image stays PENDING and the sweep retries it
+            queued.remove(imageId);
+            log.debug("Derivative queue full, deferring image {}", imageId);
+        }
+    }
+
+    private void generate(Long imageId) {
+        PropertyImage image = propertyImageRepository.findById(imageId).orElse(null);
+        if (image == null || image.getDerivativesStatus() == PropertyImage.DerivativesStatus.READY) {
+            return;
+        }
+        String source = image.getFilePath();
+
+        try {
+            Decoded decoded;
+            try (InputStream in = fileStorageService.open(source)) {
+                decoded = decode(in, PropertyImage.ImageSize.LARGE.getMaxEdge());
+            }
+
+            Map<PropertyImage.ImageSize, byte[]> renditions = new EnumMap<>(PropertyImage.ImageSize.class);
+            BufferedImage current = decoded.image;
+            for (PropertyImage.ImageSize size : RENDITIONS) {
+                current = scaleToFit(current, size.getMaxEdge());
+                renditions.put(size, encodeJpeg(current));
+            }
+
+            transactionTemplate.executeWithoutResult(status ->
+                store(imageId, source, decoded.width, decoded.height, renditions));
+            log.debug("Generated derivatives for image {} ({}x{})", imageId, decoded.width, decoded.height);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to generate derivatives for image {}: {}", imageId, e.getMessage());
+            markFailed(imageId);
+        }
+    }
+
+    private void store(Long imageId, String source, int width, int height,
+                       Map<PropertyImage.ImageSize, byte[]> renditions) {
+        // Locked so a concurrent delete either sees the renditions or runs after we give up
+        PropertyImage image = propertyImageRepository.findByIdForUpdate(imageId).orElse(null);
+        if (image == null || !source.equals(image.getFilePath())) {
+            return;
+        }
+        List<String> previous = Arrays.asList(image.getThumbnailPath(), image.getMediumPath(), image.getLargePath());
+
+        try {
+            image.setLargePath(storeJpeg(renditions.get(PropertyImage.ImageSize.LARGE)));
+            image.setMediumPath(storeJpeg(renditions.get(PropertyImage.ImageSize.MEDIUM)));
+            image.setThumbnailPath(storeJpeg(renditions.get(PropertyImage.ImageSize.THUMBNAIL)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        image.setWidth(width);
+        image.setHeight(height);
+        image.setDerivativesStatus(PropertyImage.DerivativesStatus.READY);
+        propertyImageRepository.save(image);
+
+        previous.forEach(fileStorageService::release);
+    }
+
+    private String storeJpeg(byte[] content) throws IOException {
+        return fileStorageService.uploadStream(new ByteArrayInputStream(content), "image/jpeg", ".jpg");
+    }
+
+    private void markFailed(Long imageId) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                propertyImageRepository.findById(imageId).ifPresent(image -> {
+                    image.setDerivativesStatus(PropertyImage.DerivativesStatus.FAILED);
+                    propertyImageRepository.save(image);
+                }));
+        } catch (RuntimeException e) {
+            log.warn("Could not mark image {} as failed: {}", imageId, e.getMessage());
+        }
+    }
+
+    private static Decoded decode(InputStream in, int largestEdge) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+
+                // Skip source pixels while decoding, keeping at least twice the largest edge for a clean downscale
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width, height) / (largestEdge * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return new Decoded(reader.read(0, param), width, height);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scaleToFit(BufferedImage source, int maxEdge) {
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(source.getWidth(), source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        // Halving steps followed by one bilinear pass approximate area averaging at a fraction of its cost
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        if (current.getWidth() != targetWidth || current.getHeight() != targetHeight
+                || current.getType() != BufferedImage.TYPE_INT_RGB) {
+            current = draw(current, targetWidth, targetHeight);
+        }
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // JPEG has no alpha channel; transparent areas become white
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,7 +1,12 @@
 package com.rentmaster.property;
 
+import com.rentmaster.analytics.CubeChangeListener;
 import com.rentmaster.multitenancy.Organization;
+import com.rentmaster.multitenancy.OrganizationAssignmentListener;
+import com.rentmaster.multitenancy.OrganizationOwned;
+import com.rentmaster.multitenancy.OrganizationScope;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Filter;
 
 import java.time.Instant;
 import java.util.ArrayList;
@@ -9,7 +14,9 @@ import java.util.List;
 
 @Entity
 @Table(name = "properties")
-public class Property {
+@EntityListeners({OrganizationAssignmentListener.class, CubeChangeListener.class})
+@Filter(name = OrganizationScope.FILTER_NAME)
+public class Property implements OrganizationOwned {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,9 +1,14 @@
 package com.rentmaster.property;
 
+import com.rentmaster.analytics.PropertyCube;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -19,6 +24,11 @@ import java.math.BigDecimal;
 @Service
 public class PropertyAdvancedService {
 
+    // Each row only overwrites the fields it asked to change
+    private static final String BULK_ROOM_UPDATE_SQL =
+        "UPDATE rooms SET status = COALESCE(?, status), base_rent = COALESCE(?, base_rent), " +
+        "notes = CASE WHEN ? THEN ? ELSE notes END WHERE id = ? AND property_id = ?";
+
     @Autowired
     private PropertyImageRepository propertyImageRepository;
 
@@ -43,14 +53,37 @@ public class PropertyAdvancedService {
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PropertyCube propertyCube;
+
+    @Value("${property.rooms.bulk-max-updates:5000}")
+    private int maxBulkRoomUpdates;
+
     // Property Images Methods
     public List<PropertyImage> getImagesByProperty(Long propertyId) {
         return propertyImageRepository.findByPropertyIdOrderByIsPrimaryDescUploadedAtDesc(propertyId);
     }
 
+    public Optional<PropertyImage> getImageById(Long imageId) {
+        return propertyImageRepository.findById(imageId);
+    }
+
+    public boolean isPropertyMedia(String filePath) {
+        return propertyImageRepository.isPropertyMedia(filePath);
+    }
+
     public PropertyImage uploadImage(Long propertyId, MultipartFile file, String category, String description) {
         try {
-            String filePath = fileStorageService.uploadFile(file, propertyId + "/images/");
+            String filePath = fileStorageService.uploadFile(file);
             String fileUrl = fileStorageService.getFileUrl(filePath);
 
             PropertyImage image = new PropertyImage();
@@ -73,8 +106,11 @@ public class PropertyAdvancedService {
                 image.setAltText(description);
             }
             image.setUploadedAt(LocalDateTime.now());
+            image.setDerivativesStatus(PropertyImage.DerivativesStatus.PENDING);
 
-            return propertyImageRepository.save(image);
+            PropertyImage savedImage = propertyImageRepository.save(image);
+            imageDerivativeService.schedule(savedImage.getId());
+            return savedImage;
         } catch (IOException e) {
             throw new RuntimeException("Failed to upload image: " + e.getMessage());
         }
@@ -84,8 +120,15 @@ public class PropertyAdvancedService {
         return propertyImageRepository.save(image);
     }
 
+    @Transactional
     public void deleteImage(Long imageId) {
-        propertyImageRepository.deleteById(imageId);
+        propertyImageRepository.findByIdForUpdate(imageId).ifPresent(image -> {
+            propertyImageRepository.delete(image);
+            fileStorageService.release(image.getFilePath());
+            fileStorageService.release(image.getThumbnailPath());
+            fileStorageService.release(image.getMediumPath());
+            fileStorageService.release(image.getLargePath());
+        });
     }
 
     public void setPrimaryImage(Long propertyId, Long imageId) {
@@ -103,7 +146,7 @@ public class PropertyAdvancedService {
     public FloorPlan uploadFloorPlan(Long propertyId, MultipartFile file, String name, String floor, Integer roomCount,
             Double totalArea, String description) {
         try {
-            String filePath = fileStorageService.uploadFile(file, propertyId + "/floor-plans/");
+            String filePath = fileStorageService.uploadFile(file);
             String fileUrl = fileStorageService.getFileUrl(filePath);
 
             FloorPlan floorPlan = new FloorPlan();
@@ -139,8 +182,12 @@ public class PropertyAdvancedService {
         return floorPlanRepository.save(floorPlan);
     }
 
+    @Transactional
     public void deleteFloorPlan(Long floorPlanId) {
-        floorPlanRepository.deleteById(floorPlanId);
+        floorPlanRepository.findById(floorPlanId).ifPresent(floorPlan -> {
+            floorPlanRepository.delete(floorPlan);
+            fileStorageService.release(floorPlan.getFilePath());
+        });
     }
 
     // Property Amenities Methods
@@ -277,65 +324,20 @@ public class PropertyAdvancedService {
         Map<String, Object> comparison = new HashMap<>();
 
         for (Long propertyId : propertyIds) {
-            // Get all analytics for the property
-            List<PropertyAnalytics> analytics = propertyAnalyticsRepository
-                    .findByPropertyIdOrderByMetricDateDesc(propertyId);
-
-            if (!analytics.isEmpty()) {
-                // Group by date/month to find the latest set of metrics
-                // Assuming we want the most recent month across all data
-                Map<LocalDate, List<PropertyAnalytics>> byDate = analytics.stream()
-                        .collect(Collectors.groupingBy(PropertyAnalytics::getMetricDate));
-
-                Optional<LocalDate> latestDate = byDate.keySet().stream().max(Comparator.naturalOrder());
-
-                if (latestDate.isPresent()) {
-                    List<PropertyAnalytics> latestMetrics = byDate.get(latestDate.get());
-                    Map<String, Object> propertyData = new HashMap<>();
-
-                    // Default values
-                    propertyData.put("occupancyRate", 0.0);
-                    propertyData.put("averageRent", 0.0);
-                    propertyData.put("totalRevenue", 0.0);
-                    propertyData.put("maintenanceCosts", 0.0);
-                    propertyData.put("profitMargin", 0.0);
-                    propertyData.put("tenantSatisfaction", 0.0);
-                    propertyData.put("renewalRate", 0.0);
-
-                    // Populate with actual values
-                    for (PropertyAnalytics metric : latestMetrics) {
-                        if (metric.getValue() != null) {
-                            switch (metric.getMetricType()) {
-                                case OCCUPANCY_RATE:
-                                    propertyData.put("occupancyRate", metric.getValue());
-                                    break;
-                                case AVERAGE_RENT:
-                                    propertyData.put("averageRent", metric.getValue());
-                                    break;
-                                case RENTAL_INCOME: // Assuming TOTAL_REVENUE maps to RENTAL_INCOME or similar
-                                    propertyData.put("totalRevenue", metric.getValue());
-                                    break;
-                                case MAINTENANCE_COST:
-                                    propertyData.put("maintenanceCosts", metric.getValue());
-                                    break;
-                                case PROFIT_MARGIN:
-                                    propertyData.put("profitMargin", metric.getValue());
-                                    break;
-                                case TENANT_SATISFACTION:
-                                    propertyData.put("tenantSatisfaction", metric.getValue());
-                                    break;
-                                case RENEWAL_RATE:
-                                    propertyData.put("renewalRate", metric.getValue());
-                                    break;
-                                default:
-                                    // Ignore other metrics for comparison summary
-                                    break;
-                            }
-                        }
-                    }
-                    comparison.put("property_" + propertyId, propertyData);
-                }
+            // Values of the property's most recent metric date, kept current by the analytics cube
+            Map<PropertyAnalytics.MetricType, Double> latestMetrics = propertyCube.latestAnalytics(propertyId);
+            if (latestMetrics == null) {
+                continue;
             }
+            Map<String, Object> propertyData = new HashMap<>();
+            propertyData.put("occupancyRate", latestMetrics.getOrDefault(PropertyAnalytics.MetricType.OCCUPANCY_RATE, 0.0));
+            propertyData.put("averageRent", latestMetrics.getOrDefault(PropertyAnalytics.MetricType.AVERAGE_RENT, 0.0));
+            propertyData.put("totalRevenue", latestMetrics.getOrDefault(PropertyAnalytics.MetricType.RENTAL_INCOME, 0.0));
+            propertyData.put("maintenanceCosts", latestMetrics.getOrDefault(PropertyAnalytics.MetricType.MAINTENANCE_COST, 0.0));
+            propertyData.put("profitMargin", latestMetrics.getOrDefault(PropertyAnalytics.MetricType.PROFIT_MARGIN, 0.0));
+            propertyData.put("tenantSatisfaction", latestMetrics.getOrDefault(PropertyAnalytics.MetricType.TENANT_SATISFACTION, 0.0));
+            propertyData.put("renewalRate", latestMetrics.getOrDefault(PropertyAnalytics.MetricType.RENEWAL_RATE, 0.0));
+            comparison.put("property_" + propertyId, propertyData);
         }
 
         return comparison;
@@ -360,29 +362,136 @@ public class PropertyAdvancedService {
         }).collect(Collectors.toList());
     }
 
+    @Transactional
     public void updateRoomStatus(Long roomId, String status) {
         Room room = roomRepository.findById(roomId).orElseThrow();
+        RoomStatus previousStatus = room.getStatus();
         room.setStatus(RoomStatus.valueOf(status));
         roomRepository.save(room);
+
+        if (previousStatus != room.getStatus()) {
+            eventPublisher.publishEvent(new RoomChangedEvent(room.getId(), room.getProperty().getId(),
+                previousStatus, room.getStatus(), room.getBaseRent(), room.getBaseRent()));
+        }
     }
 
-    public void bulkUpdateRooms(Long propertyId, List<Map<String, Object>> updates) {
-        for (Map<String, Object> update : updates) {
-            Long roomId = Long.valueOf(update.get("roomId").toString());
-            Room room = roomRepository.findById(roomId).orElseThrow();
+    /**
+     * Applies status, rent and notes changes to many rooms of a property at once.
+     *
+     * The affected rooms are read in one query and every row is validated against that
+     * snapshot. Rows that change something are written as one batched UPDATE in this
+     * transaction; invalid rows are reported by their index in the request and do not
+     * stop the others. A {@link RoomChangedEvent} is published per changed room.
+     */
+    @Transactional
+    public Map<String, Object> bulkUpdateRooms(Long propertyId, List<Map<String, Object>> updates) {
+        if (updates == null) {
+            updates = List.of();
+        }
+        if (updates.size() > maxBulkRoomUpdates) {
+            throw new RuntimeException("Too many room updates, at most " + maxBulkRoomUpdates + " per request");
+        }
 
-            if (update.containsKey("status")) {
-                room.setStatus(RoomStatus.valueOf(update.get("status").toString()));
+        List<Map<String, Object>> errors = new ArrayList<>();
+        Long[] roomIds = new Long[updates.size()];
+        for (int i = 0; i < updates.size(); i++) {
+            Object roomId = updates.get(i) != null ? updates.get(i).get("roomId") : null;
+            try {
+                roomIds[i] = Long.valueOf(String.valueOf(roomId));
+            } catch (NumberFormatException e) {
+                errors.add(bulkRoomError(i, null, "Invalid roomId: " + roomId));
+            }
+        }
+
+        Map<Long, Object[]> current = new HashMap<>();
+        Set<Long> requestedIds = Arrays.stream(roomIds).filter(Objects::nonNull).collect(Collectors.toSet());
+        if (!requestedIds.isEmpty()) {
+            for (Object[] row : roomRepository.findStateByPropertyIdAndIdIn(propertyId, requestedIds)) {
+                current.put((Long) row[0], row);
+            }
+        }
+
+        List<Object[]> batch = new ArrayList<>();
+        List<RoomChangedEvent> events = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        int unchanged = 0;
+
+        for (int i = 0; i < updates.size(); i++) {
+            Long roomId = roomIds[i];
+            if (roomId == null) {
+                continue;
+            }
+            Map<String, Object> update = updates.get(i);
+            Object[] state = current.get(roomId);
+            if (state == null) {
+                errors.add(bulkRoomError(i, roomId, "Room not found in property"));
+                continue;
             }
-            if (update.containsKey("baseRent")) {
-                room.setBaseRent(new BigDecimal(update.get("baseRent").toString()));
+            if (!seen.add(roomId)) {
+                errors.add(bulkRoomError(i, roomId, "Room appears more than once in the request"));
+                continue;
             }
-            if (update.containsKey("notes")) {
-                room.setNotes(update.get("notes").toString());
+
+            RoomStatus previousStatus = (RoomStatus) state[1];
+            BigDecimal previousBaseRent = (BigDecimal) state[2];
+            RoomStatus status = null;
+            BigDecimal baseRent = null;
+            try {
+                if (update.get("status") != null) {
+                    status = RoomStatus.valueOf(update.get("status").toString());
+                }
+                if (update.get("baseRent") != null) {
+                    baseRent = new BigDecimal(update.get("baseRent").toString());
+                    if (baseRent.signum() < 0) {
+                        errors.add(bulkRoomError(i, roomId, "baseRent must not be negative"));
+                        continue;
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                // Unknown status name, or a rent that is not a number
+                errors.add(bulkRoomError(i, roomId, "Invalid value: " + e.getMessage()));
+                continue;
+            }
+            boolean setNotes = update.containsKey("notes");
+            String notes = setNotes && update.get("notes") != null ? update.get("notes").toString() : null;
+
+            boolean statusChanged = status != null && status != previousStatus;
+            boolean rentChanged = baseRent != null && (previousBaseRent == null || baseRent.compareTo(previousBaseRent) != 0);
+            boolean notesChanged = setNotes && !Objects.equals(notes, state[3]);
+            if (!statusChanged && !rentChanged && !notesChanged) {
+                unchanged++;
+                continue;
             }
 
-            roomRepository.save(room);
+            batch.add(new Object[] {
+                statusChanged ? status.name() : null, rentChanged ? baseRent : null,
+                notesChanged, notes, roomId, propertyId
+            });
+            events.add(new RoomChangedEvent(roomId, propertyId, previousStatus, statusChanged ? status : previousStatus,
+                previousBaseRent, rentChanged ? baseRent : previousBaseRent));
         }
+
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(BULK_ROOM_UPDATE_SQL, batch);
+        }
+        events.forEach(eventPublisher::publishEvent);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("requested", updates.size());
+        result.put("updated", batch.size());
+        result.put("unchanged", unchanged);
+        result.put("failed", errors.size());
+        errors.sort(Comparator.comparing(error -> (Integer) error.get("index")));
+        result.put("errors", errors);
+        return result;
+    }
+
+    private static Map<String, Object> bulkRoomError(int index, Long roomId, String message) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("index", index);
+        error.put("roomId", roomId);
+        error.put("error", message);
+        return error;
     }
 
 }
\ No newline at end of file
@@ -1,11 +1,13 @@
 package com.rentmaster.property;
 
+import com.rentmaster.analytics.CubeChangeListener;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "property_analytics")
+@EntityListeners(CubeChangeListener.class)
 public class PropertyAnalytics {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -50,6 +50,20 @@ public class PropertyImage {
     @Column(name = "height")
     private Integer height;
 
+    // Resized JPEG renditions, filled in asynchronously after upload
+    @Column(name = "thumbnail_path")
+    private String thumbnailPath;
+
+    @Column(name = "medium_path")
+    private String mediumPath;
+
+    @Column(name = "large_path")
+    private String largePath;
+
+    @Column(name = "derivatives_status")
+    @Enumerated(EnumType.STRING)
+    private DerivativesStatus derivativesStatus;
+
     @Column(name = "uploaded_at")
     private LocalDateTime uploadedAt;
 
@@ -64,6 +78,23 @@ public class PropertyImage {
         DINING_ROOM, GARAGE, GARDEN, BALCONY, AMENITY, OTHER
     }
 
+    public enum DerivativesStatus {
+        PENDING, READY, FAILED
+    }
+
+    public enum ImageSize {
+        THUMBNAIL(320), MEDIUM(960), LARGE(1920), ORIGINAL(0);
+
+        // Longest edge in pixels; 0 for the file as uploaded
+        private final int maxEdge;
+
+        ImageSize(int maxEdge) {
+            this.maxEdge = maxEdge;
+        }
+
+        public int getMaxEdge() { return maxEdge; }
+    }
+
     // Constructors
     public PropertyImage() {
         this.uploadedAt = LocalDateTime.now();
@@ -119,6 +150,18 @@ public class PropertyImage {
     public Integer getHeight() { return height; }
     public void setHeight(Integer height) { this.height = height; }
 
+    public String getThumbnailPath() { return thumbnailPath; }
+    public void setThumbnailPath(String thumbnailPath) { this.thumbnailPath = thumbnailPath; }
+
+    public String getMediumPath() { return mediumPath; }
+    public void setMediumPath(String mediumPath) { this.mediumPath = mediumPath; }
+
+    public String getLargePath() { return largePath; }
+    public void setLargePath(String largePath) { this.largePath = largePath; }
+
+    public DerivativesStatus getDerivativesStatus() { return derivativesStatus; }
+    public void setDerivativesStatus(DerivativesStatus derivativesStatus) { this.derivativesStatus = derivativesStatus; }
+
     public LocalDateTime getUploadedAt() { return uploadedAt; }
     public void setUploadedAt(LocalDateTime uploadedAt) { this.uploadedAt = uploadedAt; }
 
@@ -1,12 +1,17 @@
 package com.rentmaster.property;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PropertyImageRepository extends JpaRepository<PropertyImage, Long> {
@@ -28,4 +33,20 @@ public interface PropertyImageRepository extends JpaRepository<PropertyImage, Lo
     Long getTotalFileSizeByPropertyId(@Param("propertyId") Long propertyId);
     
     void deleteByPropertyId(Long propertyId);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT pi FROM PropertyImage pi WHERE pi.id = :id")
+    Optional<PropertyImage> findByIdForUpdate(@Param("id") Long id);
+    
+    // Images whose renditions were never generated: lost from the worker queue, or uploaded before the pipeline
+    @Query("SELECT pi.id FROM PropertyImage pi WHERE (pi.derivativesStatus IS NULL OR pi.derivativesStatus = 'PENDING') " +
+           "AND (pi.uploadedAt IS NULL OR pi.uploadedAt < :cutoff) ORDER BY pi.id")
+    List<Long> findIdsAwaitingDerivatives(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    // Uploads published through /api/files: property images, their renditions and floor plans
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM property_images WHERE file_path = :path OR thumbnail_path = :path " +
+                   "OR medium_path = :path OR large_path = :path) " +
+                   "OR EXISTS (SELECT 1 FROM floor_plans WHERE file_path = :path)",
+           nativeQuery = true)
+    boolean isPropertyMedia(@Param("path") String path);
 }
\ No newline at end of file
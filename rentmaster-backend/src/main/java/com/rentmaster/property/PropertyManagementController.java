@@ -215,9 +215,9 @@ public class PropertyManagementController {
     }
 
     @PostMapping("/{propertyId}/rooms/bulk-update")
-    public ResponseEntity<Void> bulkUpdateRooms(@PathVariable Long propertyId, @RequestBody Map<String, List<Map<String, Object>>> request) {
+    public ResponseEntity<Map<String, Object>> bulkUpdateRooms(@PathVariable Long propertyId, @RequestBody Map<String, List<Map<String, Object>>> request) {
         List<Map<String, Object>> updates = request.get("updates");
-        propertyAdvancedService.bulkUpdateRooms(propertyId, updates);
-        return ResponseEntity.ok().build();
+        Map<String, Object> result = propertyAdvancedService.bulkUpdateRooms(propertyId, updates);
+        return ResponseEntity.ok(result);
     }
 }
\ No newline at end of file
@@ -1,8 +1,15 @@
 package com.rentmaster.property;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface PropertyRepository extends JpaRepository<Property, Long> {
-}
 
+    @Query("SELECT o.id FROM Property p LEFT JOIN p.organization o WHERE p.id = :id")
+    Long findOrganizationIdById(@Param("id") Long id);
 
+    // Serializes bookings on one property until commit; native, so the organization filter does not hide the row
+    @Query(value = "SELECT id FROM properties WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Long lockById(@Param("id") Long id);
+}
@@ -2,6 +2,7 @@ package com.rentmaster.property;
 
 import com.rentmaster.property.dto.PropertyCreateDTO;
 import com.rentmaster.property.dto.PropertyDTO;
+import com.rentmaster.multitenancy.OrganizationScope;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,6 +14,9 @@ import java.util.stream.Collectors;
 @Transactional
 public class PropertyService {
 
+    @Autowired
+    private OrganizationScope organizationScope;
+
     @Autowired
     private PropertyRepository propertyRepository;
 
@@ -23,7 +27,7 @@ public class PropertyService {
     }
 
     public PropertyDTO findById(Long id) {
-        Property property = propertyRepository.findById(id)
+        Property property = propertyRepository.findById(id).filter(organizationScope::isVisible)
                 .orElseThrow(() -> new RuntimeException("Property not found"));
         return toDTO(property);
     }
@@ -38,7 +42,7 @@ public class PropertyService {
     }
 
     public PropertyDTO update(Long id, PropertyCreateDTO dto) {
-        Property property = propertyRepository.findById(id)
+        Property property = propertyRepository.findById(id).filter(organizationScope::isVisible)
                 .orElseThrow(() -> new RuntimeException("Property not found"));
         property.setName(dto.getName());
         property.setAddress(dto.getAddress());
@@ -48,7 +52,7 @@ public class PropertyService {
     }
 
     public void delete(Long id) {
-        if (!propertyRepository.existsById(id)) {
+        if (propertyRepository.findById(id).filter(organizationScope::isVisible).isEmpty()) {
             throw new RuntimeException("Property not found");
         }
         propertyRepository.deleteById(id);
@@ -1,10 +1,12 @@
 package com.rentmaster.property;
 
+import com.rentmaster.analytics.CubeChangeListener;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "rooms")
+@EntityListeners(CubeChangeListener.class)
 public class Room {
 
     @Id
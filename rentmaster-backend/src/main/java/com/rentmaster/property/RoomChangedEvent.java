@@ -0,0 +1,52 @@
+package com.rentmaster.property;
+
+import java.math.BigDecimal;
+
+/**
+ * Published for every room whose status, rent or notes changed, so caches and
+ * projections keyed by room can refresh. Listeners should use
+ * {@code @TransactionalEventListener} to act only once the change has committed.
+ */
+public class RoomChangedEvent {
+
+    private final Long roomId;
+    private final Long propertyId;
+    private final RoomStatus previousStatus;
+    private final RoomStatus status;
+    private final BigDecimal previousBaseRent;
+    private final BigDecimal baseRent;
+
+    public RoomChangedEvent(Long roomId, Long propertyId, RoomStatus previousStatus, RoomStatus status,
+                            BigDecimal previousBaseRent, BigDecimal baseRent) {
+        this.roomId = roomId;
+        this.propertyId = propertyId;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.previousBaseRent = previousBaseRent;
+        this.baseRent = baseRent;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public RoomStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public RoomStatus getStatus() {
+        return status;
+    }
+
+    public BigDecimal getPreviousBaseRent() {
+        return previousBaseRent;
+    }
+
+    public BigDecimal getBaseRent() {
+        return baseRent;
+    }
+}
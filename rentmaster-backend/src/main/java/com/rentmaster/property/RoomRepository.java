@@ -1,7 +1,10 @@
 package com.rentmaster.property;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface RoomRepository extends JpaRepository<Room, Long> {
@@ -11,6 +14,8 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
     boolean existsByPropertyIdAndCode(Long propertyId, String code);
     
     long countByStatus(RoomStatus status);
+    
+    // Current state of the given rooms of a property: id, status, baseRent, notes
+    @Query("SELECT r.id, r.status, r.baseRent, r.notes FROM Room r WHERE r.property.id = :propertyId AND r.id IN :ids")
+    List<Object[]> findStateByPropertyIdAndIdIn(@Param("propertyId") Long propertyId, @Param("ids") Collection<Long> ids);
 }
-
-
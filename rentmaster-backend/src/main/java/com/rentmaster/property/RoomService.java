@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 
 import com.rentmaster.property.dto.RoomCreateDTO;
 import com.rentmaster.property.dto.RoomDTO;
+import com.rentmaster.multitenancy.OrganizationScope;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,6 +16,9 @@ import java.util.stream.Collectors;
 @Transactional
 public class RoomService {
 
+    @Autowired
+    private OrganizationScope organizationScope;
+
     @Autowired
     private RoomRepository roomRepository;
 
@@ -40,7 +44,7 @@ public class RoomService {
     }
 
     public RoomDTO create(RoomCreateDTO dto) {
-        Property property = propertyRepository.findById(dto.getPropertyId())
+        Property property = propertyRepository.findById(dto.getPropertyId()).filter(organizationScope::isVisible)
                 .orElseThrow(() -> new RuntimeException("Property not found"));
 
         if (roomRepository.existsByPropertyIdAndCode(dto.getPropertyId(), dto.getCode())) {
@@ -67,7 +71,7 @@ public class RoomService {
                 .orElseThrow(() -> new RuntimeException("Room not found"));
 
         if (!room.getProperty().getId().equals(dto.getPropertyId())) {
-            Property property = propertyRepository.findById(dto.getPropertyId())
+            Property property = propertyRepository.findById(dto.getPropertyId()).filter(organizationScope::isVisible)
                     .orElseThrow(() -> new RuntimeException("Property not found"));
             room.setProperty(property);
         }
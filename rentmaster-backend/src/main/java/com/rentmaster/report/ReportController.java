@@ -5,6 +5,7 @@ import com.rentmaster.billing.InvoiceStatus;
 import com.rentmaster.billing.PaymentRepository;
 import com.rentmaster.contract.ContractRepository;
 import com.rentmaster.contract.ContractStatus;
+import com.rentmaster.datasource.ReadReplica;
 import com.rentmaster.property.RoomRepository;
 import com.rentmaster.property.RoomStatus;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,6 +23,7 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api/reports")
 @CrossOrigin(origins = "*")
+@ReadReplica
 public class ReportController {
 
     @Autowired
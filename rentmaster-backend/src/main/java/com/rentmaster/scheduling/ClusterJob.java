@@ -0,0 +1,59 @@
+package com.rentmaster.scheduling;
+
+import org.springframework.scheduling.support.CronExpression;
+
+/**
+ * A job run by {@link ClusterJobScheduler}: once per cron fire time across the cluster,
+ * split into shards that any node may execute.
+ */
+public class ClusterJob {
+
+    /**
+     * What to do with fire times missed while no node was planning.
+     */
+    public enum CatchUp {
+        // Run once for the most recent missed fire time; the job works off "now" anyway
+        LATEST,
+        // Run for each missed fire time, up to jobs.max-catch-up-runs, oldest first
+        ALL
+    }
+
+    @FunctionalInterface
+    public interface Task {
+        JobResult run(JobShard shard);
+    }
+
+    private final String name;
+    private final CronExpression cron;
+    private final int shardCount;
+    private final CatchUp catchUp;
+    private final Task task;
+
+    public ClusterJob(String name, String cron, int shardCount, CatchUp catchUp, Task task) {
+        this.name = name;
+        this.cron = CronExpression.parse(cron);
+        this.shardCount = Math.max(1, shardCount);
+        this.catchUp = catchUp;
+        this.task = task;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CronExpression getCron() {
+        return cron;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public CatchUp getCatchUp() {
+        return catchUp;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+}
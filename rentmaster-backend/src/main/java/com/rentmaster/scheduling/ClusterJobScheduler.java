@@ -0,0 +1,407 @@
+package com.rentmaster.scheduling;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Runs {@link ClusterJob}s once per fire time across all API nodes.
+ *
+ * Every tick, the node holding the "planner" lease in job_leases turns due cron fire
+ * times (including ones missed while the cluster was down) into PENDING job_runs rows,
+ * one per shard. Every node then claims rows with FOR UPDATE SKIP LOCKED and executes
+ * them on its worker pool, renewing the row's lease while it runs. A row whose lease
+ * expires (node crashed) is claimed again by another node, up to jobs.max-attempts, so
+ * job tasks must tolerate being re-run for the same shard. Adding nodes adds workers
+ * for the shards of each run.
+ */
+@Component
+public class ClusterJobScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterJobScheduler.class);
+
+    private static final String PLANNER_LEASE = "planner";
+
+    private static final String ACQUIRE_LEASE_SQL =
+        "INSERT INTO job_leases (name, owner, lease_until) VALUES (?, ?, now() + ? * interval '1 second') " +
+        "ON CONFLICT (name) DO UPDATE SET owner = EXCLUDED.owner, lease_until = EXCLUDED.lease_until " +
+        "WHERE job_leases.owner = EXCLUDED.owner OR job_leases.lease_until < now()";
+
+    private static final String INSERT_RUN_SQL =
+        "INSERT INTO job_runs (job_name, scheduled_for, shard, shard_count, status) VALUES (?, ?, ?, ?, 'PENDING') " +
+        "ON CONFLICT (job_name, scheduled_for, shard) DO NOTHING";
+
+    private static final String FINISH_RUN_SQL =
+        "UPDATE job_runs SET status = ?, finished_at = now(), duration_ms = ?, items_processed = ?, " +
+        "items_failed = ?, error = ?, lease_until = NULL WHERE id = ? AND node_id = ? AND status = 'RUNNING'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private List<ClusterJob> jobs = List.of();
+
+    @Value("${jobs.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jobs.node-id:}")
+    private String configuredNodeId;
+
+    @Value("${jobs.workers:2}")
+    private int workers;
+
+    @Value("${jobs.lease-seconds:60}")
+    private int leaseSeconds;
+
+    @Value("${jobs.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${jobs.max-catch-up-runs:7}")
+    private int maxCatchUpRuns;
+
+    @Value("${jobs.history-retention-days:30}")
+    private int historyRetentionDays;
+
+    private final Map<String, ClusterJob> jobsByName = new LinkedHashMap<>();
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private String nodeId;
+    private String claimSql;
+    private ThreadPoolExecutor executor;
+    private volatile boolean planner;
+    private volatile LocalDateTime lastRetentionSweep = LocalDateTime.MIN;
+
+    @PostConstruct
+    public void init() {
+        for (ClusterJob job : jobs) {
+            jobsByName.put(job.getName(), job);
+        }
+        nodeId = configuredNodeId != null && !configuredNodeId.isBlank() ? configuredNodeId : defaultNodeId();
+
+        // Only rows of jobs this node knows, so nodes on an older build skip newly added jobs
+        String names = jobsByName.keySet().stream().map(name -> "?").collect(Collectors.joining(", "));
+        claimSql =
+            "UPDATE job_runs SET status = 'RUNNING', node_id = ?, attempts = attempts + 1, started_at = now(), " +
+            "lease_until = now() + ? * interval '1 second', error = NULL " +
+            "WHERE id = (SELECT id FROM job_runs WHERE (status = 'PENDING' OR (status = 'RUNNING' AND lease_until < now())) " +
+            "AND attempts < ? AND job_name IN (" + names + ") " +
+            "ORDER BY scheduled_for, shard LIMIT 1 FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, job_name, scheduled_for, shard, shard_count";
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "cluster-job-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        logger.info("Cluster job scheduler on node {}: {} job(s), {} worker(s){}", nodeId, jobsByName.size(), workers,
+            enabled ? "" : " (disabled)");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        if (enabled && planner) {
+            try {
+                // Hand the planner role over right away instead of after the lease runs out
+                jdbcTemplate.update("UPDATE job_leases SET lease_until = now() WHERE name = ? AND owner = ?",
+                    PLANNER_LEASE, nodeId);
+            } catch (RuntimeException e) {
+                logger.debug("Could not release the planner lease: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jobs.tick-ms:5000}")
+    public void tick() {
+        if (!enabled || jobsByName.isEmpty()) {
+            return;
+        }
+        try {
+            planner = jdbcTemplate.update(ACQUIRE_LEASE_SQL, PLANNER_LEASE, nodeId, leaseSeconds) == 1;
+            if (planner) {
+                plan(LocalDateTime.now());
+            }
+            renewLeases();
+            claimAndRun();
+        } catch (RuntimeException e) {
+            logger.warn("Cluster job tick failed on node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    /**
+     * Queues a run of every shard of the job now, outside its schedule.
+     */
+    public Map<String, Object> trigger(String jobName) {
+        ClusterJob job = jobsByName.get(jobName);
+        if (job == null) {
+            throw new RuntimeException("Job not found");
+        }
+        LocalDateTime scheduledFor = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        insertRuns(job, List.of(scheduledFor));
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("job", jobName);
+        result.put("scheduledFor", scheduledFor);
+        result.put("shards", job.getShardCount());
+        return result;
+    }
+
+    public List<Map<String, Object>> getJobs() {
+        Map<String, LocalDateTime> lastPlanned = new HashMap<>();
+        jdbcTemplate.query("SELECT job_name, last_planned_for FROM job_schedules", rs -> {
+            lastPlanned.put(rs.getString(1), rs.getObject(2, LocalDateTime.class));
+        });
+        List<Map<String, Object>> result = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (ClusterJob job : jobsByName.values()) {
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("name", job.getName());
+            info.put("cron", job.getCron().toString());
+            info.put("shards", job.getShardCount());
+            info.put("catchUp", job.getCatchUp().name());
+            info.put("lastPlannedFor", lastPlanned.get(job.getName()));
+            info.put("nextRun", job.getCron().next(now));
+            result.add(info);
+        }
+        return result;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("nodeId", nodeId);
+        status.put("enabled", enabled);
+        status.put("planner", planner);
+        status.put("runningShards", inFlight.size());
+        status.put("plannerLease", jdbcTemplate.queryForList(
+            "SELECT owner, lease_until FROM job_leases WHERE name = ?", PLANNER_LEASE));
+        return status;
+    }
+
+    public List<Map<String, Object>> getRuns(String jobName, int limit) {
+        return jdbcTemplate.queryForList(
+            "SELECT id, job_name, scheduled_for, shard, shard_count, status, node_id, attempts, started_at, finished_at, " +
+            "duration_ms, items_processed, items_failed, error FROM job_runs " +
+            "WHERE (CAST(? AS VARCHAR) IS NULL OR job_name = ?) ORDER BY id DESC LIMIT ?",
+            jobName, jobName, Math.max(1, Math.min(limit, 1000)));
+    }
+
+    /**
+     * Duration and throughput per job over the last {@code days} days of finished shard runs.
+     */
+    public List<Map<String, Object>> getMetrics(int days) {
+        return jdbcTemplate.queryForList(
+            "SELECT job_name, COUNT(*) AS shard_runs, " +
+            "COUNT(*) FILTER (WHERE status = 'FAILED') AS failed_shard_runs, " +
+            "COUNT(DISTINCT scheduled_for) AS runs, " +
+            "ROUND(AVG(duration_ms)) AS avg_duration_ms, " +
+            "percentile_disc(0.95) WITHIN GROUP (ORDER BY duration_ms) AS p95_duration_ms, " +
+            "MAX(duration_ms) AS max_duration_ms, " +
+            "SUM(items_processed) AS items_processed, SUM(items_failed) AS items_failed, " +
+            "ROUND(SUM(items_processed) * 1000.0 / NULLIF(SUM(duration_ms), 0), 2) AS items_per_second, " +
+            "MAX(finished_at) AS last_finished_at " +
+            "FROM job_runs WHERE finished_at >= now() - ? * interval '1 day' GROUP BY job_name ORDER BY job_name",
+            Math.max(1, days));
+    }
+
+    private void plan(LocalDateTime now) {
+        for (ClusterJob job : jobsByName.values()) {
+            transactionTemplate.executeWithoutResult(status -> planJob(job, now));
+        }
+
+        // Claims that ran out of attempts are given up on rather than retried forever
+        int abandoned = jdbcTemplate.update(
+            "UPDATE job_runs SET status = 'FAILED', finished_at = now(), lease_until = NULL, " +
+            "error = 'Lease expired after ' || attempts || ' attempt(s)' " +
+            "WHERE status = 'RUNNING' AND lease_until < now() AND attempts >= ?", maxAttempts);
+        if (abandoned > 0) {
+            logger.warn("Marked {} abandoned job shard run(s) as failed", abandoned);
+        }
+
+        if (lastRetentionSweep.isBefore(now.minusHours(1))) {
+            lastRetentionSweep = now;
+            jdbcTemplate.update("DELETE FROM job_runs WHERE finished_at < now() - ? * interval '1 day'",
+                historyRetentionDays);
+        }
+    }
+
+    private void planJob(ClusterJob job, LocalDateTime now) {
+        List<LocalDateTime> lastPlanned = jdbcTemplate.queryForList(
+            "SELECT last_planned_for FROM job_schedules WHERE job_name = ? FOR UPDATE", LocalDateTime.class, job.getName());
+        if (lastPlanned.isEmpty()) {
+            // A new job starts from its next fire time rather than catching up on history
+            jdbcTemplate.update("INSERT INTO job_schedules (job_name, last_planned_for) VALUES (?, ?) ON CONFLICT DO NOTHING",
+                job.getName(), now);
+            return;
+        }
+
+        Deque<LocalDateTime> due = new ArrayDeque<>();
+        int missed = 0;
+        for (LocalDateTime fireTime = job.getCron().next(lastPlanned.get(0));
+             fireTime != null && !fireTime.isAfter(now);
+             fireTime = job.getCron().next(fireTime)) {
+            due.addLast(fireTime);
+            missed++;
+            if (due.size() > maxCatchUpRuns) {
+                due.removeFirst();
+            }
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+
+        List<LocalDateTime> slots = job.getCatchUp() == ClusterJob.CatchUp.LATEST
+            ? List.of(due.getLast())
+            : new ArrayList<>(due);
+        if (missed > 1) {
+            logger.info("Job {} is {} fire times behind; planning {} run(s)", job.getName(), missed, slots.size());
+        }
+        insertRuns(job, slots);
+        jdbcTemplate.update("UPDATE job_schedules SET last_planned_for = ? WHERE job_name = ?", due.getLast(), job.getName());
+    }
+
+    private void insertRuns(ClusterJob job, List<LocalDateTime> slots) {
+        List<Object[]> rows = new ArrayList<>();
+        for (LocalDateTime slot : slots) {
+            for (int shard = 0; shard < job.getShardCount(); shard++) {
+                rows.add(new Object[] { job.getName(), slot, shard, job.getShardCount() });
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_RUN_SQL, rows);
+    }
+
+    private void renewLeases() {
+        List<Long> running = new ArrayList<>(inFlight);
+        if (running.isEmpty()) {
+            return;
+        }
+        String ids = running.stream().map(id -> "?").collect(Collectors.joining(", "));
+        List<Object> args = new ArrayList<>();
+        args.add(leaseSeconds);
+        args.add(nodeId);
+        args.addAll(running);
+        jdbcTemplate.update("UPDATE job_runs SET lease_until = now() + ? * interval '1 second' " +
+            "WHERE node_id = ? AND status = 'RUNNING' AND id IN (" + ids + ")", args.toArray());
+    }
+
+    private void claimAndRun() {
+        while (inFlight.size() < workers) {
+            List<Object> args = new ArrayList<>();
+            args.add(nodeId);
+            args.add(leaseSeconds);
+            args.add(maxAttempts);
+            args.addAll(jobsByName.keySet());
+            List<Map<String, Object>> claimed = jdbcTemplate.query(claimSql, (rs, rowNum) -> {
+                Map<String, Object> row = new HashMap<>();
+                row.put("id", rs.getLong("id"));
+                row.put("jobName", rs.getString("job_name"));
+                row.put("scheduledFor", rs.getObject("scheduled_for", LocalDateTime.class));
+                row.put("shard", rs.getInt("shard"));
+                row.put("shardCount", rs.getInt("shard_count"));
+                return row;
+            }, args.toArray());
+            if (claimed.isEmpty()) {
+                return;
+            }
+            Map<String, Object> row = claimed.get(0);
+            Long runId = (Long) row.get("id");
+            inFlight.add(runId);
+            JobShard shard = new JobShard((LocalDateTime) row.get("scheduledFor"),
+                (Integer) row.get("shard"), (Integer) row.get("shardCount"));
+            executor.execute(() -> execute(runId, jobsByName.get((String) row.get("jobName")), shard));
+        }
+    }
+
+    private void execute(Long runId, ClusterJob job, JobShard shard) {
+        long started = System.nanoTime();
+        try {
+            JobResult result = job.getTask().run(shard);
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            finish(runId, "SUCCEEDED", durationMs, result.getProcessed(), result.getFailed(), null);
+            record(job, "success", System.nanoTime() - started);
+            meterRegistry.counter("jobs.items", "job", job.getName(), "result", "processed").increment(result.getProcessed());
+            meterRegistry.counter("jobs.items", "job", job.getName(), "result", "failed").increment(result.getFailed());
+            logger.info("Job {} shard {}/{} for {} finished in {} ms: {} processed, {} failed", job.getName(),
+                shard.getShard() + 1, shard.getShardCount(), shard.getScheduledFor(), durationMs,
+                result.getProcessed(), result.getFailed());
+        } catch (Exception e) {
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            finish(runId, "FAILED", durationMs, null, null, String.valueOf(e.getMessage()));
+            record(job, "failure", System.nanoTime() - started);
+            logger.error("Job {} shard {}/{} for {} failed after {} ms", job.getName(),
+                shard.getShard() + 1, shard.getShardCount(), shard.getScheduledFor(), durationMs, e);
+        } finally {
+            inFlight.remove(runId);
+        }
+
+        // Pick up the next shard straight away rather than waiting for the next tick
+        if (!executor.isShutdown()) {
+            try {
+                claimAndRun();
+            } catch (RuntimeException e) {
+                logger.debug("Could not claim the next job run: {}", e.getMessage());
+            }
+        }
+    }
+
+    // One sample per shard run; job_runs keeps the per-run history, this feeds dashboards and alerts
+    private void record(ClusterJob job, String outcome, long durationNanos) {
+        Timer.builder("jobs.run")
+            .description("Cluster job shard run duration")
+            .tag("job", job.getName())
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void finish(Long runId, String status, long durationMs, Integer processed, Integer failed, String error) {
+        int updated = jdbcTemplate.update(FINISH_RUN_SQL, status, durationMs, processed, failed, error, runId, nodeId);
+        if (updated == 0) {
+            // The lease lapsed (e.g. a long pause) and another node took the shard over
+            logger.warn("Job run {} was reclaimed by another node before it finished here", runId);
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + ":" + ProcessHandle.current().pid();
+    }
+}
@@ -0,0 +1,71 @@
+package com.rentmaster.scheduling;
+
+import com.rentmaster.auth.SecurityCleanupService;
+import com.rentmaster.automation.AutomationService;
+import com.rentmaster.billing.AutomatedInvoiceScheduler;
+import com.rentmaster.billing.InvoiceService;
+import com.rentmaster.search.TenantScoringService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.LocalDate;
+
+/**
+ * Jobs that must run once per cluster rather than once per node. Work keyed by contract
+ * is split into shards by contract id, tenant scoring by tenant id.
+ */
+@Configuration
+public class ClusterJobsConfig {
+
+    // Every missed day is billed for the date it was due
+    @Bean
+    public ClusterJob nightlyBillingJob(AutomatedInvoiceScheduler automatedInvoiceScheduler,
+                                        @Value("${jobs.nightly-billing.cron:0 0 2 * * *}") String cron,
+                                        @Value("${jobs.nightly-billing.shards:8}") int shards) {
+        return new ClusterJob("nightly-billing", cron, shards, ClusterJob.CatchUp.ALL,
+            shard -> automatedInvoiceScheduler.generateInvoicesForDate(shard.getScheduledDate(),
+                shard.getShard(), shard.getShardCount()));
+    }
+
+    @Bean
+    public ClusterJob recurringInvoicesJob(AutomationService automationService,
+                                           @Value("${jobs.recurring-invoices.cron:0 15 2 * * *}") String cron,
+                                           @Value("${jobs.recurring-invoices.shards:8}") int shards) {
+        return new ClusterJob("recurring-invoices", cron, shards, ClusterJob.CatchUp.LATEST,
+            shard -> automationService.processRecurringInvoices(shard.getShard(), shard.getShardCount()));
+    }
+
+    @Bean
+    public ClusterJob renewalRemindersJob(AutomationService automationService,
+                                          @Value("${jobs.renewal-reminders.cron:0 30 2 * * *}") String cron,
+                                          @Value("${jobs.renewal-reminders.shards:8}") int shards) {
+        return new ClusterJob("renewal-reminders", cron, shards, ClusterJob.CatchUp.LATEST,
+            shard -> automationService.processContractRenewalReminders(shard.getShard(), shard.getShardCount()));
+    }
+
+    // Runs after billing so invoices falling due that day are already issued; a missed day is covered by the next run
+    @Bean
+    public ClusterJob overdueInvoicesJob(InvoiceService invoiceService,
+                                         @Value("${jobs.overdue-invoices.cron:0 45 2 * * *}") String cron,
+                                         @Value("${jobs.overdue-invoices.shards:8}") int shards) {
+        return new ClusterJob("overdue-invoices", cron, shards, ClusterJob.CatchUp.LATEST,
+            shard -> invoiceService.markOverdueInvoices(LocalDate.now(), shard.getShard(), shard.getShardCount()));
+    }
+
+    // Sharded by tenant id; payments between runs rescore their tenants incrementally
+    @Bean
+    public ClusterJob tenantScoringJob(TenantScoringService tenantScoringService,
+                                       @Value("${jobs.tenant-scoring.cron:0 0 3 * * *}") String cron,
+                                       @Value("${jobs.tenant-scoring.shards:8}") int shards) {
+        return new ClusterJob("tenant-scoring", cron, shards, ClusterJob.CatchUp.LATEST,
+            shard -> tenantScoringService.scoreShard(shard.getShard(), shard.getShardCount()));
+    }
+
+    @Bean
+    public ClusterJob securityCleanupJob(SecurityCleanupService securityCleanupService,
+                                         @Value("${jobs.security-cleanup.cron:0 0 * * * *}") String cron) {
+        return new ClusterJob("security-cleanup", cron, 1, ClusterJob.CatchUp.LATEST,
+            shard -> securityCleanupService.cleanupExpiredTokens());
+    }
+}
@@ -0,0 +1,45 @@
+package com.rentmaster.scheduling;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/jobs")
+@CrossOrigin(origins = "*")
+public class JobController {
+
+    @Autowired
+    private ClusterJobScheduler clusterJobScheduler;
+
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> getJobs() {
+        return ResponseEntity.ok(clusterJobScheduler.getJobs());
+    }
+
+    // This node's view: its id, whether it currently plans runs, and the planner lease
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(clusterJobScheduler.getStatus());
+    }
+
+    @GetMapping("/runs")
+    public ResponseEntity<List<Map<String, Object>>> getRuns(
+            @RequestParam(required = false) String job,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(clusterJobScheduler.getRuns(job, limit));
+    }
+
+    @GetMapping("/metrics")
+    public ResponseEntity<List<Map<String, Object>>> getMetrics(@RequestParam(defaultValue = "7") int days) {
+        return ResponseEntity.ok(clusterJobScheduler.getMetrics(days));
+    }
+
+    @PostMapping("/{name}/trigger")
+    public ResponseEntity<Map<String, Object>> trigger(@PathVariable String name) {
+        return ResponseEntity.accepted().body(clusterJobScheduler.trigger(name));
+    }
+}
@@ -0,0 +1,27 @@
+package com.rentmaster.scheduling;
+
+/**
+ * Items a job shard handled, recorded on its run for throughput metrics.
+ */
+public class JobResult {
+
+    private final int processed;
+    private final int failed;
+
+    private JobResult(int processed, int failed) {
+        this.processed = processed;
+        this.failed = failed;
+    }
+
+    public static JobResult of(int processed, int failed) {
+        return new JobResult(processed, failed);
+    }
+
+    public int getProcessed() {
+        return processed;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+}
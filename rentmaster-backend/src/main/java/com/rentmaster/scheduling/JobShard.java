@@ -0,0 +1,43 @@
+package com.rentmaster.scheduling;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One shard of one run: the fire time it stands for, and which slice of the work it owns.
+ * Work is split by key (contract id): shard {@code k} of {@code n} owns keys with
+ * {@code key mod n = k}, which repositories express as {@code MOD(id, :shardCount) = :shard}.
+ */
+public class JobShard {
+
+    private final LocalDateTime scheduledFor;
+    private final int shard;
+    private final int shardCount;
+
+    public JobShard(LocalDateTime scheduledFor, int shard, int shardCount) {
+        this.scheduledFor = scheduledFor;
+        this.shard = shard;
+        this.shardCount = shardCount;
+    }
+
+    public LocalDateTime getScheduledFor() {
+        return scheduledFor;
+    }
+
+    // Business date of the run; a caught-up run keeps the date it was due on
+    public LocalDate getScheduledDate() {
+        return scheduledFor.toLocalDate();
+    }
+
+    public int getShard() {
+        return shard;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public boolean owns(long key) {
+        return Math.floorMod(key, (long) shardCount) == shard;
+    }
+}
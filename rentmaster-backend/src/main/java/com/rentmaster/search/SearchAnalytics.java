@@ -8,7 +8,8 @@ import java.time.LocalDateTime;
 public class SearchAnalytics {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "search_analytics_seq")
+    @SequenceGenerator(name = "search_analytics_seq", sequenceName = "search_analytics_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -1,5 +1,6 @@
 package com.rentmaster.search;
 
+import com.rentmaster.datasource.ReadReplica;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
@@ -447,6 +448,7 @@ public class SearchService {
         return popularSearches;
     }
 
+    @ReadReplica
     public Map<String, Object> getSearchTrends(String period) {
         Map<String, Object> trends = new HashMap<>();
 
@@ -472,6 +474,7 @@ public class SearchService {
         return trends;
     }
 
+    @ReadReplica
     public Map<String, Object> getUserSearchBehavior(Long userId) {
         Map<String, Object> behavior = new HashMap<>();
 
@@ -0,0 +1,201 @@
+package com.rentmaster.search;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feature vector and derived scores for one tenant, as stored in tenant_scores.
+ *
+ * Scores are deterministic functions of the features:
+ * <ul>
+ *   <li>paymentScore (0-100, higher is better): share of due invoices paid on time, less
+ *       penalties for average lateness and for the oldest unpaid invoice.</li>
+ *   <li>riskScore (0-100, higher is riskier): weighted payment history, arrears, lease
+ *       status, complaints and urgent maintenance.</li>
+ *   <li>satisfactionScore (1-5): feedback ratings, pulled towards neutral when there are
+ *       few, adjusted by complaints and maintenance resolution time.</li>
+ *   <li>retentionProbability (0-1): logistic on risk, satisfaction and tenure; 0 without
+ *       an active contract.</li>
+ * </ul>
+ */
+public class TenantScore {
+
+    private static final double NEUTRAL_PAYMENT_SCORE = 75.0;
+    private static final double NEUTRAL_RATING = 3.5;
+    // Ratings needed before a tenant's own average outweighs the neutral prior
+    private static final double RATING_PRIOR_WEIGHT = 3.0;
+
+    final long tenantId;
+    Long organizationId;
+
+    int invoiceCount;
+    int onTimeCount;
+    int lateCount;
+    double avgDaysLate;
+    int unpaidCount;
+    BigDecimal outstandingAmount = BigDecimal.ZERO;
+    int maxDaysOverdue;
+    Double recentOnTimeRate;
+    Double priorOnTimeRate;
+
+    int activeContracts;
+    int tenureMonths;
+    Integer monthsRemaining;
+
+    int feedbackCount;
+    Double avgRating;
+    Double recentRating;
+    int complaintCount;
+    int openFeedbackCount;
+    int maintenanceCount;
+    int urgentMaintenanceCount;
+    Double avgResolutionDays;
+
+    double paymentScore;
+    double riskScore;
+    String riskLevel;
+    double satisfactionScore;
+    double retentionProbability;
+
+    private double paymentFactor;
+    private double arrearsFactor;
+    private double leaseFactor;
+    private double communicationFactor;
+    private double maintenanceFactor;
+
+    TenantScore(long tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public void computeScores() {
+        if (invoiceCount == 0) {
+            paymentScore = NEUTRAL_PAYMENT_SCORE;
+        } else {
+            double score = 100.0 * onTimeCount / invoiceCount;
+            score -= Math.min(20.0, avgDaysLate * 2.0);
+            if (unpaidCount > 0) {
+                score -= Math.min(40.0, maxDaysOverdue / 2.0);
+            }
+            paymentScore = round(clamp(score, 0.0, 100.0));
+        }
+
+        paymentFactor = 100.0 - paymentScore;
+        arrearsFactor = Math.min(100.0, maxDaysOverdue * 100.0 / 90.0);
+        leaseFactor = activeContracts == 0 ? 50.0
+            : monthsRemaining != null && monthsRemaining < 2 ? 30.0 : 0.0;
+        communicationFactor = Math.min(100.0, complaintCount * 25.0 + openFeedbackCount * 10.0);
+        maintenanceFactor = Math.min(100.0, urgentMaintenanceCount * 20.0 + maintenanceCount * 2.0);
+        riskScore = round(0.45 * paymentFactor + 0.25 * arrearsFactor + 0.10 * leaseFactor
+            + 0.12 * communicationFactor + 0.08 * maintenanceFactor);
+        riskLevel = riskScore < 30 ? "LOW" : riskScore < 60 ? "MEDIUM" : "HIGH";
+
+        double rating = avgRating == null ? NEUTRAL_RATING
+            : (avgRating * feedbackCount + NEUTRAL_RATING * RATING_PRIOR_WEIGHT) / (feedbackCount + RATING_PRIOR_WEIGHT);
+        rating -= Math.min(1.0, complaintCount * 0.25);
+        if (avgResolutionDays != null && avgResolutionDays > 7) {
+            rating -= Math.min(0.75, (avgResolutionDays - 7) / 28.0);
+        }
+        satisfactionScore = round(clamp(rating, 1.0, 5.0));
+
+        if (activeContracts == 0) {
+            retentionProbability = 0.0;
+        } else {
+            double logit = 2.0 - 0.04 * riskScore + 0.8 * (satisfactionScore - 3.0) + Math.min(1.0, tenureMonths / 24.0);
+            retentionProbability = round(1.0 / (1.0 + Math.exp(-logit)));
+        }
+    }
+
+    public Map<String, Object> paymentBehavior() {
+        Map<String, Object> behavior = new HashMap<>();
+        behavior.put("paymentScore", paymentScore);
+        behavior.put("onTimeRate", invoiceCount > 0 ? round(100.0 * onTimeCount / invoiceCount) : null);
+        behavior.put("averageDaysLate", round(avgDaysLate));
+        behavior.put("invoices", invoiceCount);
+        behavior.put("unpaidInvoices", unpaidCount);
+        behavior.put("outstandingAmount", outstandingAmount);
+        behavior.put("maxDaysOverdue", maxDaysOverdue);
+        behavior.put("paymentPattern", invoiceCount == 0 ? "NO_HISTORY"
+            : lateCount == 0 && unpaidCount == 0 ? "CONSISTENT"
+            : onTimeCount * 2 >= invoiceCount ? "OCCASIONALLY_LATE" : "FREQUENTLY_LATE");
+        behavior.put("riskLevel", riskLevel);
+        Map<String, Object> trends = new HashMap<>();
+        trends.put("recentOnTimeRate", recentOnTimeRate != null ? round(100.0 * recentOnTimeRate) : null);
+        trends.put("priorOnTimeRate", priorOnTimeRate != null ? round(100.0 * priorOnTimeRate) : null);
+        trends.put("improving", recentOnTimeRate != null && priorOnTimeRate != null && recentOnTimeRate > priorOnTimeRate);
+        behavior.put("trends", trends);
+        return behavior;
+    }
+
+    public Map<String, Object> risk() {
+        Map<String, Object> risk = new HashMap<>();
+        risk.put("score", riskScore); // Lower is better
+        risk.put("level", riskLevel);
+        Map<String, Object> factors = new LinkedHashMap<>();
+        factors.put("payment_history", round(paymentFactor));
+        factors.put("arrears", round(arrearsFactor));
+        factors.put("lease_compliance", round(leaseFactor));
+        factors.put("communication", round(communicationFactor));
+        factors.put("maintenance", round(maintenanceFactor));
+        risk.put("factors", factors);
+        risk.put("recommendation", "LOW".equals(riskLevel) ? "RETAIN" : "MEDIUM".equals(riskLevel) ? "MONITOR" : "INTERVENE");
+        return risk;
+    }
+
+    public Map<String, Object> satisfaction() {
+        Map<String, Object> satisfaction = new HashMap<>();
+        satisfaction.put("currentScore", satisfactionScore);
+        satisfaction.put("feedbackCount", feedbackCount);
+        satisfaction.put("averageRating", avgRating != null ? round(avgRating) : null);
+        satisfaction.put("recentRating", recentRating != null ? round(recentRating) : null);
+        String trend = "STABLE";
+        if (recentRating != null && avgRating != null) {
+            trend = recentRating > avgRating + 0.25 ? "IMPROVING" : recentRating < avgRating - 0.25 ? "DECLINING" : "STABLE";
+        }
+        satisfaction.put("trend", trend);
+        Map<String, Object> factors = new LinkedHashMap<>();
+        factors.put("complaints", complaintCount);
+        factors.put("open_feedback", openFeedbackCount);
+        factors.put("maintenance_requests", maintenanceCount);
+        factors.put("average_resolution_days", avgResolutionDays != null ? round(avgResolutionDays) : null);
+        satisfaction.put("factors", factors);
+        return satisfaction;
+    }
+
+    public Map<String, Object> retention() {
+        Map<String, Object> retention = new HashMap<>();
+        retention.put("probability", retentionProbability);
+        retention.put("activeContracts", activeContracts);
+        retention.put("tenureMonths", tenureMonths);
+        retention.put("monthsRemaining", monthsRemaining);
+        List<Map<String, Object>> riskFactors = new ArrayList<>();
+        if (paymentFactor >= 25) {
+            riskFactors.add(Map.of("factor", "Late or missed payments", "impact", round(paymentFactor / 100.0)));
+        }
+        if (satisfactionScore < 3.0) {
+            riskFactors.add(Map.of("factor", "Low satisfaction", "impact", round((3.0 - satisfactionScore) / 2.0)));
+        }
+        if (monthsRemaining != null && monthsRemaining <= 3) {
+            riskFactors.add(Map.of("factor", "Lease ending soon", "impact", 0.2));
+        }
+        if (complaintCount > 0) {
+            riskFactors.add(Map.of("factor", "Open complaints", "impact", round(Math.min(1.0, complaintCount * 0.1))));
+        }
+        retention.put("riskFactors", riskFactors);
+        retention.put("recommendation", activeContracts == 0 ? "NONE"
+            : retentionProbability < 0.5 ? "URGENT_OUTREACH"
+            : retentionProbability < 0.8 ? "PROACTIVE_ENGAGEMENT" : "STANDARD_RENEWAL");
+        return retention;
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
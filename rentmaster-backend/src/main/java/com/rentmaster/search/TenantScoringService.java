@@ -0,0 +1,384 @@
+package com.rentmaster.search;
+
+import com.rentmaster.automation.AutomationEvent;
+import com.rentmaster.multitenancy.OrganizationScope;
+import com.rentmaster.scheduling.JobResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes and stores tenant scores (see {@link TenantScore}).
+ *
+ * Features come from four set-based aggregate queries (invoices with their payments,
+ * contracts, feedback, maintenance) run over a chunk of tenant ids at once and merged
+ * by tenant, so the cost is a handful of indexed scans per chunk instead of per-tenant
+ * lookups. Results are upserted into tenant_scores in one JDBC batch per chunk.
+ *
+ * The nightly "tenant-scoring" cluster job scores every tenant, sharded by tenant id.
+ * Between runs, payments, overdue invoices and new maintenance requests rescore the
+ * affected tenants in the background once their transaction commits.
+ */
+@Service
+public class TenantScoringService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantScoringService.class);
+
+    private static final String TENANT_CONTRACTS =
+        "WITH tc AS (SELECT id AS contract_id, primary_tenant_id AS tenant_id FROM contracts WHERE primary_tenant_id = ANY(?) " +
+        "UNION SELECT contract_id, tenant_id FROM contract_tenants WHERE tenant_id = ANY(?)) ";
+
+    // Invoices already due, with what was paid on them and when it was completed
+    private static final String PAYMENT_FEATURES_SQL = TENANT_CONTRACTS +
+        "SELECT tc.tenant_id, COUNT(*), " +
+        "COUNT(*) FILTER (WHERE p.paid >= i.total_amount AND p.last_paid_at::date <= i.due_date), " +
+        "COUNT(*) FILTER (WHERE p.paid >= i.total_amount AND p.last_paid_at::date > i.due_date), " +
+        "COALESCE(AVG(GREATEST(0, p.last_paid_at::date - i.due_date)) FILTER (WHERE p.paid >= i.total_amount), 0), " +
+        "COUNT(*) FILTER (WHERE p.paid < i.total_amount), " +
+        "COALESCE(SUM(i.total_amount - p.paid) FILTER (WHERE p.paid < i.total_amount), 0), " +
+        "COALESCE(MAX(CURRENT_DATE - i.due_date) FILTER (WHERE p.paid < i.total_amount), 0), " +
+        "AVG(CASE WHEN p.paid >= i.total_amount AND p.last_paid_at::date <= i.due_date THEN 1.0 ELSE 0.0 END) " +
+        "FILTER (WHERE i.due_date >= CURRENT_DATE - 180), " +
+        "AVG(CASE WHEN p.paid >= i.total_amount AND p.last_paid_at::date <= i.due_date THEN 1.0 ELSE 0.0 END) " +
+        "FILTER (WHERE i.due_date < CURRENT_DATE - 180) " +
+        "FROM tc JOIN invoices i ON i.contract_id = tc.contract_id " +
+        "CROSS JOIN LATERAL (SELECT COALESCE(SUM(amount), 0) AS paid, MAX(paid_at) AS last_paid_at " +
+        "FROM payments WHERE invoice_id = i.id) p " +
+        "WHERE i.due_date <= CURRENT_DATE GROUP BY tc.tenant_id";
+
+    private static final String CONTRACT_FEATURES_SQL = TENANT_CONTRACTS +
+        "SELECT tc.tenant_id, COUNT(*) FILTER (WHERE c.status = 'ACTIVE'), " +
+        "COALESCE((EXTRACT(YEAR FROM age(CURRENT_DATE, MIN(c.start_date))) * 12 " +
+        "+ EXTRACT(MONTH FROM age(CURRENT_DATE, MIN(c.start_date))))::int, 0), " +
+        "(EXTRACT(YEAR FROM age(MAX(c.end_date) FILTER (WHERE c.status = 'ACTIVE'), CURRENT_DATE)) * 12 " +
+        "+ EXTRACT(MONTH FROM age(MAX(c.end_date) FILTER (WHERE c.status = 'ACTIVE'), CURRENT_DATE)))::int " +
+        "FROM tc JOIN contracts c ON c.id = tc.contract_id WHERE c.start_date <= CURRENT_DATE GROUP BY tc.tenant_id";
+
+    private static final String FEEDBACK_FEATURES_SQL =
+        "SELECT tenant_id, COUNT(*), AVG(COALESCE(satisfaction_rating, rating)), " +
+        "AVG(COALESCE(satisfaction_rating, rating)) FILTER (WHERE created_at >= NOW() - INTERVAL '90 days'), " +
+        "COUNT(*) FILTER (WHERE type = 'COMPLAINT'), " +
+        "COUNT(*) FILTER (WHERE status NOT IN ('RESOLVED', 'CLOSED', 'REJECTED')) " +
+        "FROM tenant_feedback WHERE tenant_id = ANY(?) GROUP BY tenant_id";
+
+    private static final String MAINTENANCE_FEATURES_SQL =
+        "SELECT tenant_id, COUNT(*), COUNT(*) FILTER (WHERE priority IN ('URGENT', 'EMERGENCY')), " +
+        "AVG(EXTRACT(EPOCH FROM completed_date - COALESCE(submitted_at, created_at)) / 86400.0) " +
+        "FILTER (WHERE completed_date IS NOT NULL) " +
+        "FROM maintenance_requests WHERE tenant_id = ANY(?) " +
+        "AND COALESCE(submitted_at, created_at) >= NOW() - INTERVAL '12 months' GROUP BY tenant_id";
+
+    private static final String UPSERT_SQL =
+        "INSERT INTO tenant_scores (tenant_id, organization_id, invoice_count, on_time_count, late_count, avg_days_late, " +
+        "unpaid_count, outstanding_amount, max_days_overdue, recent_on_time_rate, prior_on_time_rate, active_contracts, " +
+        "tenure_months, months_remaining, feedback_count, avg_rating, recent_rating, complaint_count, open_feedback_count, " +
+        "maintenance_count, urgent_maintenance_count, avg_resolution_days, payment_score, risk_score, risk_level, " +
+        "satisfaction_score, retention_probability, computed_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (tenant_id) DO UPDATE SET organization_id = EXCLUDED.organization_id, " +
+        "invoice_count = EXCLUDED.invoice_count, on_time_count = EXCLUDED.on_time_count, late_count = EXCLUDED.late_count, " +
+        "avg_days_late = EXCLUDED.avg_days_late, unpaid_count = EXCLUDED.unpaid_count, " +
+        "outstanding_amount = EXCLUDED.outstanding_amount, max_days_overdue = EXCLUDED.max_days_overdue, " +
+        "recent_on_time_rate = EXCLUDED.recent_on_time_rate, prior_on_time_rate = EXCLUDED.prior_on_time_rate, " +
+        "active_contracts = EXCLUDED.active_contracts, tenure_months = EXCLUDED.tenure_months, " +
+        "months_remaining = EXCLUDED.months_remaining, feedback_count = EXCLUDED.feedback_count, " +
+        "avg_rating = EXCLUDED.avg_rating, recent_rating = EXCLUDED.recent_rating, " +
+        "complaint_count = EXCLUDED.complaint_count, open_feedback_count = EXCLUDED.open_feedback_count, " +
+        "maintenance_count = EXCLUDED.maintenance_count, urgent_maintenance_count = EXCLUDED.urgent_maintenance_count, " +
+        "avg_resolution_days = EXCLUDED.avg_resolution_days, payment_score = EXCLUDED.payment_score, " +
+        "risk_score = EXCLUDED.risk_score, risk_level = EXCLUDED.risk_level, " +
+        "satisfaction_score = EXCLUDED.satisfaction_score, retention_probability = EXCLUDED.retention_probability, " +
+        "computed_at = EXCLUDED.computed_at";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrganizationScope organizationScope;
+
+    @Value("${insights.tenant-scoring.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${insights.tenant-scoring.rescore-queue-capacity:1000}")
+    private int rescoreQueueCapacity;
+
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor rescoreExecutor;
+
+    @PostConstruct
+    public void start() {
+        rescoreExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(rescoreQueueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "tenant-rescoring");
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PreDestroy
+    public void stop() {
+        rescoreExecutor.shutdownNow();
+    }
+
+    /**
+     * Stored scores for a tenant, scoring it first if it has never been scored.
+     * Returns null for unknown tenants or tenants outside the current organization.
+     */
+    public TenantScore getScore(Long tenantId) {
+        TenantScore score = load(tenantId);
+        if (score == null) {
+            scoreTenants(List.of(tenantId));
+            score = load(tenantId);
+        }
+        Long organizationId = organizationScope.currentOrganizationId();
+        if (score != null && organizationId != null && !organizationId.equals(score.organizationId)) {
+            return null;
+        }
+        return score;
+    }
+
+    // Run by the "tenant-scoring" cluster job
+    public JobResult scoreShard(int shard, int shardCount) {
+        List<Long> tenantIds = jdbcTemplate.queryForList(
+            "SELECT id FROM tenants WHERE MOD(id, ?) = ? ORDER BY id", Long.class, shardCount, shard);
+        int processed = 0;
+        int failed = 0;
+        for (int from = 0; from < tenantIds.size(); from += chunkSize) {
+            List<Long> chunk = tenantIds.subList(from, Math.min(from + chunkSize, tenantIds.size()));
+            try {
+                processed += scoreTenants(chunk);
+            } catch (RuntimeException e) {
+                failed += chunk.size();
+                logger.warn("Scoring tenants {}..{} failed: {}", chunk.get(0), chunk.get(chunk.size() - 1), e.getMessage());
+            }
+        }
+        return JobResult.of(processed, failed);
+    }
+
+    /**
+     * Rescores the tenants a committed payment, overdue invoice or maintenance request affects.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAutomationEvent(AutomationEvent event) {
+        Map<String, Object> facts = event.getFacts();
+        switch (event.getTriggerType()) {
+            case PAYMENT_RECEIVED, INVOICE_OVERDUE -> {
+                Object contractId = facts.get("contractId");
+                if (contractId != null) {
+                    submitRescore(jdbcTemplate.queryForList(
+                        "SELECT primary_tenant_id FROM contracts WHERE id = ? AND primary_tenant_id IS NOT NULL " +
+                        "UNION SELECT tenant_id FROM contract_tenants WHERE contract_id = ?",
+                        Long.class, contractId, contractId));
+                }
+            }
+            case MAINTENANCE_REQUEST -> {
+                Object tenantId = facts.get("tenantId");
+                if (tenantId != null) {
+                    submitRescore(List.of(Long.valueOf(tenantId.toString())));
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void submitRescore(Collection<Long> tenantIds) {
+        for (Long tenantId : tenantIds) {
+            // A tenant already waiting is scored once with everything committed by then
+            if (!queued.add(tenantId)) {
+                continue;
+            }
+            try {
+                rescoreExecutor.execute(() -> {
+                    queued.remove(tenantId);
+                    try {
+                        scoreTenants(List.of(tenantId));
+                    } catch (RuntimeException e) {
+                        logger.warn("Rescoring tenant {} failed: {}", tenantId, e.getMessage());
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // The nightly run catches up with whatever does not fit in the queue
+                queued.remove(tenantId);
+            }
+        }
+    }
+
+    /**
+     * Computes and upserts scores for the given tenants; returns how many were stored.
+     */
+    public int scoreTenants(List<Long> tenantIds) {
+        Map<Long, TenantScore> scores = new LinkedHashMap<>();
+        jdbcTemplate.query(connection -> withIds(connection, "SELECT id, organization_id FROM tenants WHERE id = ANY(?)",
+            tenantIds, 1), (ResultSet rs) -> {
+            TenantScore score = new TenantScore(rs.getLong(1));
+            score.organizationId = nullableLong(rs, 2);
+            scores.put(score.tenantId, score);
+        });
+        if (scores.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.query(connection -> withIds(connection, PAYMENT_FEATURES_SQL, tenantIds, 2), (ResultSet rs) -> {
+            TenantScore score = scores.get(rs.getLong(1));
+            if (score != null) {
+                score.invoiceCount = rs.getInt(2);
+                score.onTimeCount = rs.getInt(3);
+                score.lateCount = rs.getInt(4);
+                score.avgDaysLate = rs.getDouble(5);
+                score.unpaidCount = rs.getInt(6);
+                score.outstandingAmount = rs.getBigDecimal(7);
+                score.maxDaysOverdue = rs.getInt(8);
+                score.recentOnTimeRate = nullableDouble(rs, 9);
+                score.priorOnTimeRate = nullableDouble(rs, 10);
+            }
+        });
+        jdbcTemplate.query(connection -> withIds(connection, CONTRACT_FEATURES_SQL, tenantIds, 2), (ResultSet rs) -> {
+            TenantScore score = scores.get(rs.getLong(1));
+            if (score != null) {
+                score.activeContracts = rs.getInt(2);
+                score.tenureMonths = rs.getInt(3);
+                score.monthsRemaining = nullableInt(rs, 4);
+            }
+        });
+        jdbcTemplate.query(connection -> withIds(connection, FEEDBACK_FEATURES_SQL, tenantIds, 1), (ResultSet rs) -> {
+            TenantScore score = scores.get(rs.getLong(1));
+            if (score != null) {
+                score.feedbackCount = rs.getInt(2);
+                score.avgRating = nullableDouble(rs, 3);
+                score.recentRating = nullableDouble(rs, 4);
+                score.complaintCount = rs.getInt(5);
+                score.openFeedbackCount = rs.getInt(6);
+            }
+        });
+        jdbcTemplate.query(connection -> withIds(connection, MAINTENANCE_FEATURES_SQL, tenantIds, 1), (ResultSet rs) -> {
+            TenantScore score = scores.get(rs.getLong(1));
+            if (score != null) {
+                score.maintenanceCount = rs.getInt(2);
+                score.urgentMaintenanceCount = rs.getInt(3);
+                score.avgResolutionDays = nullableDouble(rs, 4);
+            }
+        });
+
+        List<TenantScore> computed = new ArrayList<>(scores.values());
+        computed.forEach(TenantScore::computeScores);
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, computed, computed.size(), (ps, score) -> {
+            ps.setLong(1, score.tenantId);
+            ps.setObject(2, score.organizationId);
+            ps.setInt(3, score.invoiceCount);
+            ps.setInt(4, score.onTimeCount);
+            ps.setInt(5, score.lateCount);
+            ps.setDouble(6, score.avgDaysLate);
+            ps.setInt(7, score.unpaidCount);
+            ps.setBigDecimal(8, score.outstandingAmount);
+            ps.setInt(9, score.maxDaysOverdue);
+            ps.setObject(10, score.recentOnTimeRate);
+            ps.setObject(11, score.priorOnTimeRate);
+            ps.setInt(12, score.activeContracts);
+            ps.setInt(13, score.tenureMonths);
+            ps.setObject(14, score.monthsRemaining);
+            ps.setInt(15, score.feedbackCount);
+            ps.setObject(16, score.avgRating);
+            ps.setObject(17, score.recentRating);
+            ps.setInt(18, score.complaintCount);
+            ps.setInt(19, score.openFeedbackCount);
+            ps.setInt(20, score.maintenanceCount);
+            ps.setInt(21, score.urgentMaintenanceCount);
+            ps.setObject(22, score.avgResolutionDays);
+            ps.setDouble(23, score.paymentScore);
+            ps.setDouble(24, score.riskScore);
+            ps.setString(25, score.riskLevel);
+            ps.setDouble(26, score.satisfactionScore);
+            ps.setDouble(27, score.retentionProbability);
+            ps.setTimestamp(28, now);
+        });
+        return computed.size();
+    }
+
+    private TenantScore load(Long tenantId) {
+        List<TenantScore> rows = jdbcTemplate.query("SELECT * FROM tenant_scores WHERE tenant_id = ?", (rs, rowNum) -> {
+            TenantScore score = new TenantScore(rs.getLong("tenant_id"));
+            score.organizationId = nullableLong(rs, "organization_id");
+            score.invoiceCount = rs.getInt("invoice_count");
+            score.onTimeCount = rs.getInt("on_time_count");
+            score.lateCount = rs.getInt("late_count");
+            score.avgDaysLate = rs.getDouble("avg_days_late");
+            score.unpaidCount = rs.getInt("unpaid_count");
+            score.outstandingAmount = rs.getBigDecimal("outstanding_amount");
+            score.maxDaysOverdue = rs.getInt("max_days_overdue");
+            score.recentOnTimeRate = (Double) rs.getObject("recent_on_time_rate");
+            score.priorOnTimeRate = (Double) rs.getObject("prior_on_time_rate");
+            score.activeContracts = rs.getInt("active_contracts");
+            score.tenureMonths = rs.getInt("tenure_months");
+            score.monthsRemaining = (Integer) rs.getObject("months_remaining");
+            score.feedbackCount = rs.getInt("feedback_count");
+            score.avgRating = (Double) rs.getObject("avg_rating");
+            score.recentRating = (Double) rs.getObject("recent_rating");
+            score.complaintCount = rs.getInt("complaint_count");
+            score.openFeedbackCount = rs.getInt("open_feedback_count");
+            score.maintenanceCount = rs.getInt("maintenance_count");
+            score.urgentMaintenanceCount = rs.getInt("urgent_maintenance_count");
+            score.avgResolutionDays = (Double) rs.getObject("avg_resolution_days");
+            // Factor breakdowns are not stored; they follow from the features
+            score.computeScores();
+            return score;
+        }, tenantId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private static PreparedStatement withIds(Connection connection, String sql, List<Long> ids, int parameters)
+            throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        Array array = connection.createArrayOf("bigint", ids.toArray());
+        for (int i = 1; i <= parameters; i++) {
+            statement.setArray(i, array);
+        }
+        return statement;
+    }
+
+    private static Long nullableLong(ResultSet rs, int column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Long nullableLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Integer nullableInt(ResultSet rs, int column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Double nullableDouble(ResultSet rs, int column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? null : value;
+    }
+}
@@ -0,0 +1,39 @@
+package com.rentmaster.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Where blob content physically lives. Keys are immutable: content under a key never
+ * changes, so {@link #put} may be skipped when {@link #exists} is true.
+ */
+public interface BlobBackend {
+
+    boolean exists(String key) throws IOException;
+
+    /**
+     * Stores the staged file under the key. The backend may move the file instead of
+     * copying it, so callers must not rely on {@code source} afterwards.
+     */
+    void put(String key, Path source, String contentType) throws IOException;
+
+    InputStream open(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /**
+     * @return the file holding the blob when it is on local disk, or null for remote backends
+     */
+    Path localPath(String key);
+
+    /**
+     * A short-lived URL clients can fetch the blob from directly; only used when
+     * {@link #localPath} is null. Content is shared between uploads, so the cache policy
+     * belongs to the request, not to the stored object.
+     */
+    URL presignedUrl(String key, String fileName, String contentType, boolean attachment, String cacheControl,
+                     Duration validity);
+}
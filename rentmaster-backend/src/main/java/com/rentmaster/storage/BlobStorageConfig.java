@@ -0,0 +1,85 @@
+package com.rentmaster.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.net.URI;
+import java.nio.file.Paths;
+
+@Configuration
+public class BlobStorageConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(BlobStorageConfig.class);
+
+    @Value("${file.upload.storage-type:local}")
+    private String storageType;
+
+    @Value("${file.blob.local-directory:./uploads/blobs/}")
+    private String localDirectory;
+
+    @Value("${file.blob.s3-prefix:blobs/}")
+    private String s3Prefix;
+
+    @Value("${file.upload.s3.bucket-name:}")
+    private String s3BucketName;
+
+    @Value("${file.upload.s3.region:us-east-1}")
+    private String s3Region;
+
+    @Value("${file.upload.s3.access-key:}")
+    private String s3AccessKey;
+
+    @Value("${file.upload.s3.secret-key:}")
+    private String s3SecretKey;
+
+    @Value("${file.upload.s3.endpoint:}")
+    private String s3Endpoint;
+
+    @Bean
+    public BlobBackend blobBackend() {
+        if (!"s3".equalsIgnoreCase(storageType)) {
+            return new LocalBlobBackend(Paths.get(localDirectory));
+        }
+        if (isBlank(s3BucketName) || isBlank(s3AccessKey) || isBlank(s3SecretKey)) {
+            log.warn("S3 storage selected but not configured; storing blobs locally in {}", localDirectory);
+            return new LocalBlobBackend(Paths.get(localDirectory));
+        }
+
+        StaticCredentialsProvider credentials = StaticCredentialsProvider.create(
+                AwsBasicCredentials.create(s3AccessKey, s3SecretKey));
+        Region region = Region.of(s3Region);
+        // S3-compatible services generally need path-style addressing
+        S3Configuration s3Configuration = S3Configuration.builder()
+                .pathStyleAccessEnabled(!isBlank(s3Endpoint))
+                .build();
+
+        S3ClientBuilder client = S3Client.builder()
+                .region(region)
+                .credentialsProvider(credentials)
+                .serviceConfiguration(s3Configuration);
+        S3Presigner.Builder presigner = S3Presigner.builder()
+                .region(region)
+                .credentialsProvider(credentials)
+                .serviceConfiguration(s3Configuration);
+        if (!isBlank(s3Endpoint)) {
+            client.endpointOverride(URI.create(s3Endpoint));
+            presigner.endpointOverride(URI.create(s3Endpoint));
+        }
+
+        return new S3BlobBackend(client.build(), presigner.build(), s3BucketName, s3Prefix);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,216 @@
+package com.rentmaster.storage;
+
+import com.rentmaster.common.web.FileDownloads;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Content-addressed, deduplicating storage for uploaded files.
+ *
+ * An upload is streamed to a staging file while its SHA-256 is computed, so it is
+ * never held in memory. Content is stored once under its hash in the configured
+ * {@link BlobBackend}, however many documents, versions or images refer to it, and
+ * each referencing row holds one count in the {@code blobs} table. Counts change in
+ * the caller's transaction, so a rolled-back upload or delete leaves them untouched.
+ *
+ * Content is only removed by {@link #sweepReleased()} once its count has stayed at zero
+ * for the grace period. Content written by an upload whose transaction rolls back is
+ * registered with a zero count afterwards, so the sweep removes it too. The sweep locks the rows it deletes, and {@link #store} writes
+ * the content again after taking its reference, so an upload racing a sweep of the
+ * same content still ends up with a stored blob.
+ */
+@Service
+public class BlobStore {
+
+    private static final Logger log = LoggerFactory.getLogger(BlobStore.class);
+
+    private static final int SWEEP_BATCH_SIZE = 200;
+    private static final Duration PRESIGNED_URL_VALIDITY = Duration.ofMinutes(15);
+
+    @Autowired
+    private BlobBackend backend;
+
+    @Autowired
+    private StoredBlobRepository storedBlobRepository;
+
+    @Value("${file.blob.local-directory:./uploads/blobs/}")
+    private String localDirectory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${file.blob.release-grace-minutes:60}")
+    private long releaseGraceMinutes;
+
+    private TransactionTemplate orphanTransaction;
+
+    @PostConstruct
+    public void init() {
+        orphanTransaction = new TransactionTemplate(transactionManager);
+        orphanTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Transactional
+    public StoredBlob store(MultipartFile file) throws IOException {
+        String contentType = FileDownloads.resolveContentType(file.getContentType(), file.getOriginalFilename()).toString();
+        try (InputStream in = file.getInputStream()) {
+            return store(in, contentType);
+        }
+    }
+
+    @Transactional
+    public StoredBlob store(InputStream in, String contentType) throws IOException {
+        Path staging = Paths.get(localDirectory, ".staging");
+        Files.createDirectories(staging);
+        Path staged = Files.createTempFile(staging, "upload-", ".tmp");
+
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (DigestInputStream hashing = new DigestInputStream(in, digest);
+                 OutputStream out = Files.newOutputStream(staged)) {
+                size = hashing.transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String key = StoredBlob.keyFor(hash);
+
+            storedBlobRepository.acquire(hash, size, contentType);
+            if (!backend.exists(key)) {
+                backend.put(key, staged, contentType);
+                registerIfRolledBack(hash, size, contentType);
+            }
+
+            log.debug("Stored blob {} ({} bytes)", hash, size);
+            return new StoredBlob(hash, size, contentType);
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+    }
+
+    /**
+     * Adds a reference to existing content, e.g. when a document points at a version's blob.
+     */
+    @Transactional
+    public void retain(String hash) {
+        if (hash != null && storedBlobRepository.retain(hash) == 0) {
+            throw new RuntimeException("Blob not found");
+        }
+    }
+
+    @Transactional
+    public void release(String hash) {
+        if (hash != null) {
+            storedBlobRepository.release(hash);
+        }
+    }
+
+    public InputStream open(String hash) throws IOException {
+        return backend.open(StoredBlob.keyFor(hash));
+    }
+
+    /**
+     * Serves local blobs through {@link FileDownloads} and redirects to a presigned URL
+     * for remote backends. Blobs never change, so the hash doubles as the ETag.
+     */
+    public ResponseEntity<Resource> serve(HttpServletRequest request, HttpServletResponse response, String hash,
+                                          String contentType, String fileName, boolean attachment,
+                                          CacheControl cacheControl) throws IOException {
+        String key = StoredBlob.keyFor(hash);
+        Path localPath = backend.localPath(key);
+        if (localPath != null) {
+            return FileDownloads.stream(request, response, localPath, contentType, fileName, attachment, cacheControl, hash);
+        }
+
+        String cachePolicy = cacheControl != null ? cacheControl.getHeaderValue() : null;
+        URI location = URI.create(backend.presignedUrl(key, fileName, contentType, attachment, cachePolicy,
+                PRESIGNED_URL_VALIDITY).toString());
+        return ResponseEntity.status(HttpStatus.FOUND)
+                .location(location)
+                .cacheControl(CacheControl.noStore())
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${file.blob.sweep-interval-ms:600000}")
+    @Transactional
+    public void sweepReleased() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(releaseGraceMinutes);
+        List<String> hashes = storedBlobRepository.lockReleasedBefore(cutoff, SWEEP_BATCH_SIZE);
+        if (hashes.isEmpty()) {
+            return;
+        }
+
+        List<String> removed = new ArrayList<>();
+        for (String hash : hashes) {
+            try {
+                backend.delete(StoredBlob.keyFor(hash));
+                removed.add(hash);
+            } catch (IOException | RuntimeException e) {
+                // Row stays, so the next sweep retries
+                log.warn("Failed to delete blob {}: {}", hash, e.getMessage());
+            }
+        }
+
+        if (!removed.isEmpty()) {
+            storedBlobRepository.deleteByHashIn(removed);
+            log.info("Removed {} unreferenced blobs", removed.size());
+        }
+    }
+
+    private void registerIfRolledBack(String hash, long size, String contentType) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    return;
+                }
+                try {
+                    orphanTransaction.executeWithoutResult(tx -> storedBlobRepository.registerOrphan(hash, size, contentType));
+                } catch (RuntimeException e) {
+                    log.warn("Failed to register orphaned blob {}: {}", hash, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
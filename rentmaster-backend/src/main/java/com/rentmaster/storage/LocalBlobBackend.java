@@ -0,0 +1,58 @@
+package com.rentmaster.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.*;
+import java.time.Duration;
+
+/**
+ * Keeps blobs on the local filesystem under the configured directory. Also serves as
+ * the stand-in for the S3 backend in development and when S3 is not configured.
+ */
+public class LocalBlobBackend implements BlobBackend {
+
+    private final Path root;
+
+    public LocalBlobBackend(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(localPath(key));
+    }
+
+    @Override
+    public void put(String key, Path source, String contentType) throws IOException {
+        Path target = localPath(key);
+        Files.createDirectories(target.getParent());
+        try {
+            // Same content under the same key, so replacing a concurrent writer's copy is harmless
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(localPath(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(localPath(key));
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return root.resolve(key);
+    }
+
+    @Override
+    public URL presignedUrl(String key, String fileName, String contentType, boolean attachment, String cacheControl,
+                            Duration validity) {
+        throw new UnsupportedOperationException("Local blobs are served directly");
+    }
+}
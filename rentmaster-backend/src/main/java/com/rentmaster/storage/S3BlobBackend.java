@@ -0,0 +1,93 @@
+package com.rentmaster.storage;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Keeps blobs in an S3 bucket or any S3-compatible store (MinIO, DigitalOcean Spaces).
+ * Downloads are redirected to presigned URLs so the bytes never pass through the app.
+ */
+public class S3BlobBackend implements BlobBackend {
+
+    private final S3Client client;
+    private final S3Presigner presigner;
+    private final String bucket;
+    private final String prefix;
+
+    public S3BlobBackend(S3Client client, S3Presigner presigner, String bucket, String prefix) {
+        this.client = client;
+        this.presigner = presigner;
+        this.bucket = bucket;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public boolean exists(String key) {
+        try {
+            client.headObject(HeadObjectRequest.builder().bucket(bucket).key(prefix + key).build());
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void put(String key, Path source, String contentType) {
+        client.putObject(PutObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(prefix + key)
+                        .contentType(contentType)
+                        .build(),
+                RequestBody.fromFile(source));
+    }
+
+    @Override
+    public InputStream open(String key) {
+        return client.getObject(GetObjectRequest.builder().bucket(bucket).key(prefix + key).build());
+    }
+
+    @Override
+    public void delete(String key) {
+        client.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(prefix + key).build());
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return null;
+    }
+
+    @Override
+    public URL presignedUrl(String key, String fileName, String contentType, boolean attachment, String cacheControl,
+                            Duration validity) {
+        GetObjectRequest.Builder request = GetObjectRequest.builder().bucket(bucket).key(prefix + key);
+        if (contentType != null) {
+            request.responseContentType(contentType);
+        }
+        if (cacheControl != null) {
+            request.responseCacheControl(cacheControl);
+        }
+        if (fileName != null) {
+            request.responseContentDisposition((attachment ? "attachment" : "inline")
+                    + "; filename*=UTF-8''" + URLEncoder.encode(fileName, StandardCharsets.UTF_8).replace("+", "%20"));
+        }
+        return presigner.presignGetObject(GetObjectPresignRequest.builder()
+                        .signatureDuration(validity)
+                        .getObjectRequest(request.build())
+                        .build())
+                .url();
+    }
+}
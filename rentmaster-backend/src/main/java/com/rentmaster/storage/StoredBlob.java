@@ -0,0 +1,67 @@
+package com.rentmaster.storage;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One unique piece of content, keyed by its SHA-256. {@code refCount} is the number of
+ * rows (documents, versions, images) pointing at it; content whose count has stayed
+ * at zero past the grace period is removed by {@link BlobStore#sweepReleased()}.
+ */
+@Entity
+@Table(name = "blobs")
+public class StoredBlob {
+
+    @Id
+    @Column(name = "hash", length = 64)
+    private String hash;
+
+    @Column(name = "size", nullable = false)
+    private Long size;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount = 0;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "released_at")
+    private LocalDateTime releasedAt;
+
+    public StoredBlob() {}
+
+    public StoredBlob(String hash, Long size, String contentType) {
+        this.hash = hash;
+        this.size = size;
+        this.contentType = contentType;
+    }
+
+    // Getters and Setters
+    public String getHash() { return hash; }
+    public void setHash(String hash) { this.hash = hash; }
+
+    public Long getSize() { return size; }
+    public void setSize(Long size) { this.size = size; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public Integer getRefCount() { return refCount; }
+    public void setRefCount(Integer refCount) { this.refCount = refCount; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getReleasedAt() { return releasedAt; }
+    public void setReleasedAt(LocalDateTime releasedAt) { this.releasedAt = releasedAt; }
+
+    /**
+     * Sharded storage key, e.g. {@code 3f/a9/3fa9...}, so no directory grows past 65k entries.
+     */
+    public static String keyFor(String hash) {
+        return hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash;
+    }
+}
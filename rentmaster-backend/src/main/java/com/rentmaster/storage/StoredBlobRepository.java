@@ -0,0 +1,49 @@
+package com.rentmaster.storage;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+
+    // Registers one more reference, creating the row for new content
+    @Modifying
+    @Query(value = "INSERT INTO blobs (hash, size, content_type, ref_count, created_at) " +
+                   "VALUES (:hash, :size, :contentType, 1, NOW()) " +
+                   "ON CONFLICT (hash) DO UPDATE SET ref_count = blobs.ref_count + 1, released_at = NULL",
+           nativeQuery = true)
+    int acquire(@Param("hash") String hash, @Param("size") long size, @Param("contentType") String contentType);
+
+    // Content written by a transaction that rolled back: left for the sweep unless another upload took it
+    @Modifying
+    @Query(value = "INSERT INTO blobs (hash, size, content_type, ref_count, created_at, released_at) " +
+                   "VALUES (:hash, :size, :contentType, 0, NOW(), NOW()) ON CONFLICT (hash) DO NOTHING",
+           nativeQuery = true)
+    int registerOrphan(@Param("hash") String hash, @Param("size") long size, @Param("contentType") String contentType);
+
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.refCount = b.refCount + 1, b.releasedAt = NULL WHERE b.hash = :hash")
+    int retain(@Param("hash") String hash);
+
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.refCount = b.refCount - 1, " +
+           "b.releasedAt = CASE WHEN b.refCount <= 1 THEN CURRENT_TIMESTAMP ELSE b.releasedAt END " +
+           "WHERE b.hash = :hash AND b.refCount > 0")
+    int release(@Param("hash") String hash);
+
+    @Query(value = "SELECT hash FROM blobs WHERE ref_count = 0 AND released_at < :cutoff " +
+                   "ORDER BY released_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<String> lockReleasedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM StoredBlob b WHERE b.hash IN :hashes")
+    int deleteByHashIn(@Param("hashes") Collection<String> hashes);
+}
@@ -1,13 +1,19 @@
 package com.rentmaster.tenant;
 
 import com.rentmaster.multitenancy.Organization;
+import com.rentmaster.multitenancy.OrganizationAssignmentListener;
+import com.rentmaster.multitenancy.OrganizationOwned;
+import com.rentmaster.multitenancy.OrganizationScope;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Filter;
 
 import java.time.Instant;
 
 @Entity
 @Table(name = "tenants")
-public class Tenant {
+@EntityListeners(OrganizationAssignmentListener.class)
+@Filter(name = OrganizationScope.FILTER_NAME)
+public class Tenant implements OrganizationOwned {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,8 +1,12 @@
 package com.rentmaster.tenant;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,5 +15,23 @@ public interface TenantRepository extends JpaRepository<Tenant, Long> {
     List<Tenant> findByFullNameContainingIgnoreCase(String name);
     Optional<Tenant> findByPhone(String phone);
     Optional<Tenant> findByEmail(String email);
-}
 
+    // Keyset-paged tenant id lookups used for bulk fan-out (pass PageRequest.of(0, size))
+    @Query("SELECT t.id FROM Tenant t WHERE t.id > :afterId ORDER BY t.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT DISTINCT c.primaryTenant.id FROM Contract c WHERE c.status = 'ACTIVE' " +
+           "AND c.primaryTenant.id > :afterId ORDER BY c.primaryTenant.id")
+    List<Long> findActiveTenantIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT DISTINCT i.contract.primaryTenant.id FROM Invoice i WHERE i.status = 'OVERDUE' " +
+           "AND i.contract.primaryTenant.id > :afterId ORDER BY i.contract.primaryTenant.id")
+    List<Long> findOverdueTenantIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT DISTINCT c.primaryTenant.id FROM Contract c WHERE c.status = 'ACTIVE' " +
+           "AND c.endDate BETWEEN :from AND :to AND c.primaryTenant.id > :afterId ORDER BY c.primaryTenant.id")
+    List<Long> findTenantIdsWithContractsEndingAfter(@Param("afterId") Long afterId,
+                                                     @Param("from") LocalDate from,
+                                                     @Param("to") LocalDate to,
+                                                     Pageable pageable);
+}
@@ -2,6 +2,7 @@ package com.rentmaster.tenant;
 
 import com.rentmaster.tenant.dto.TenantCreateDTO;
 import com.rentmaster.tenant.dto.TenantDTO;
+import com.rentmaster.multitenancy.OrganizationScope;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,6 +14,9 @@ import java.util.stream.Collectors;
 @Transactional
 public class TenantService {
 
+    @Autowired
+    private OrganizationScope organizationScope;
+
     @Autowired
     private TenantRepository tenantRepository;
 
@@ -23,7 +27,7 @@ public class TenantService {
     }
 
     public TenantDTO findById(Long id) {
-        Tenant tenant = tenantRepository.findById(id)
+        Tenant tenant = tenantRepository.findById(id).filter(organizationScope::isVisible)
                 .orElseThrow(() -> new RuntimeException("Tenant not found"));
         return toDTO(tenant);
     }
@@ -50,7 +54,7 @@ public class TenantService {
     }
 
     public TenantDTO update(Long id, TenantCreateDTO dto) {
-        Tenant tenant = tenantRepository.findById(id)
+        Tenant tenant = tenantRepository.findById(id).filter(organizationScope::isVisible)
                 .orElseThrow(() -> new RuntimeException("Tenant not found"));
         tenant.setFullName(dto.getFullName());
         tenant.setPhone(dto.getPhone());
@@ -63,7 +67,7 @@ public class TenantService {
     }
 
     public void delete(Long id) {
-        if (!tenantRepository.existsById(id)) {
+        if (tenantRepository.findById(id).filter(organizationScope::isVisible).isEmpty()) {
             throw new RuntimeException("Tenant not found");
         }
         tenantRepository.deleteById(id);
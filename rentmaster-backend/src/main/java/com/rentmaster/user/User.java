@@ -1,12 +1,14 @@
 package com.rentmaster.user;
 
 import com.rentmaster.multitenancy.Organization;
+import com.rentmaster.notification.UserStreamCleanupListener;
 import jakarta.persistence.*;
 
 import java.time.Instant;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserStreamCleanupListener.class)
 public class User {
 
     @Id
@@ -1,14 +1,34 @@
 package com.rentmaster.user;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
-    Optional<User> findByEmail(String email);
-    boolean existsByUsername(String username);
-    boolean existsByEmail(String email);
-}
 
+    // The lower() lookups below are served by the case-insensitive unique indexes (V119)
+    @Query("SELECT u FROM User u WHERE lower(u.email) = lower(:email)")
+    Optional<User> findByEmailIgnoringCase(@Param("email") String email);
+
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE lower(u.username) = lower(:username)")
+    boolean existsByUsernameIgnoringCase(@Param("username") String username);
+
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE lower(u.username) = lower(:username) AND u.id <> :id")
+    boolean existsByUsernameIgnoringCaseForOtherUser(@Param("username") String username, @Param("id") Long id);
+
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE lower(u.email) = lower(:email)")
+    boolean existsByEmailIgnoringCase(@Param("email") String email);
 
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE lower(u.email) = lower(:email) AND u.id <> :id")
+    boolean existsByEmailIgnoringCaseForOtherUser(@Param("email") String email, @Param("id") Long id);
+
+    @Query("SELECT COUNT(u) FROM User u WHERE u.role = :role AND u.active = true")
+    long countActiveByRole(@Param("role") UserRole role);
+
+    // Serializes changes that could remove the last active admin for the rest of the transaction
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:key)", nativeQuery = true)
+    Integer lockAdminChanges(@Param("key") long key);
+}
@@ -15,12 +15,18 @@ import java.util.stream.Collectors;
 @Transactional
 public class UserService {
 
+    // Advisory lock key ("UserAdmn") for changes that could leave no active admin
+    private static final long ADMIN_LOCK_KEY = 0x5573657241646d6eL;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserUniqueness userUniqueness;
+
     public List<UserDTO> findAll() {
         return userRepository.findAll().stream()
                 .map(this::toDTO)
@@ -40,56 +46,53 @@ public class UserService {
     }
 
     public UserDTO create(UserCreateDTO dto) {
-        if (userRepository.findByUsername(dto.getUsername()).isPresent()) {
+        String email = UserUniqueness.normalizeEmail(dto.getEmail());
+        if (userRepository.existsByUsernameIgnoringCase(dto.getUsername())) {
             throw new RuntimeException("Username already exists");
         }
 
-        if (dto.getEmail() != null && !dto.getEmail().isEmpty()) {
-            userRepository.findAll().stream()
-                    .filter(u -> dto.getEmail().equals(u.getEmail()))
-                    .findFirst()
-                    .ifPresent(u -> {
-                        throw new RuntimeException("Email already exists");
-                    });
+        if (email != null && userRepository.existsByEmailIgnoringCase(email)) {
+            throw new RuntimeException("Email already exists");
         }
 
         User user = new User();
         user.setUsername(dto.getUsername());
         user.setPassword(passwordEncoder.encode(dto.getPassword()));
         user.setFullName(dto.getFullName());
-        user.setEmail(dto.getEmail());
+        user.setEmail(email);
         user.setRole(UserRole.valueOf(dto.getRole()));
         user.setActive(dto.isActive());
 
-        User saved = userRepository.save(user);
-        return toDTO(saved);
+        return toDTO(userUniqueness.saveUnique(user));
     }
 
     public UserDTO update(Long id, UserCreateDTO dto) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        String email = UserUniqueness.normalizeEmail(dto.getEmail());
         // Check username uniqueness
         if (!user.getUsername().equals(dto.getUsername()) &&
-            userRepository.findByUsername(dto.getUsername()).isPresent()) {
+            userRepository.existsByUsernameIgnoringCaseForOtherUser(dto.getUsername(), id)) {
             throw new RuntimeException("Username already exists");
         }
 
         // Check email uniqueness
-        if (dto.getEmail() != null && !dto.getEmail().isEmpty() &&
-            !dto.getEmail().equals(user.getEmail())) {
-            userRepository.findAll().stream()
-                    .filter(u -> !u.getId().equals(id) && dto.getEmail().equals(u.getEmail()))
-                    .findFirst()
-                    .ifPresent(u -> {
-                        throw new RuntimeException("Email already exists");
-                    });
+        if (email != null && !email.equals(user.getEmail()) &&
+            userRepository.existsByEmailIgnoringCaseForOtherUser(email, id)) {
+            throw new RuntimeException("Email already exists");
+        }
+
+        UserRole role = UserRole.valueOf(dto.getRole());
+        // Demoting or deactivating an active admin must leave another one
+        if (user.getRole() == UserRole.ADMIN && user.isActive() && (role != UserRole.ADMIN || !dto.isActive())) {
+            requireAnotherActiveAdmin("Cannot demote or deactivate the last active admin user");
         }
 
         user.setUsername(dto.getUsername());
         user.setFullName(dto.getFullName());
-        user.setEmail(dto.getEmail());
-        user.setRole(UserRole.valueOf(dto.getRole()));
+        user.setEmail(email);
+        user.setRole(role);
         user.setActive(dto.isActive());
 
         // Update password if provided
@@ -97,8 +100,7 @@ public class UserService {
             user.setPassword(passwordEncoder.encode(dto.getPassword()));
         }
 
-        User saved = userRepository.save(user);
-        return toDTO(saved);
+        return toDTO(userUniqueness.saveUnique(user));
     }
 
     public void changePassword(Long id, PasswordChangeDTO dto) {
@@ -126,13 +128,8 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
         // Prevent deleting the last admin user
-        if (user.getRole() == UserRole.ADMIN) {
-            long adminCount = userRepository.findAll().stream()
-                    .filter(u -> u.getRole() == UserRole.ADMIN && u.isActive())
-                    .count();
-            if (adminCount <= 1) {
-                throw new RuntimeException("Cannot delete the last active admin user");
-            }
+        if (user.getRole() == UserRole.ADMIN && user.isActive()) {
+            requireAnotherActiveAdmin("Cannot delete the last active admin user");
         }
         
         userRepository.deleteById(id);
@@ -144,12 +141,7 @@ public class UserService {
         
         // Prevent deactivating the last admin user
         if (user.getRole() == UserRole.ADMIN && user.isActive()) {
-            long activeAdminCount = userRepository.findAll().stream()
-                    .filter(u -> u.getRole() == UserRole.ADMIN && u.isActive())
-                    .count();
-            if (activeAdminCount <= 1) {
-                throw new RuntimeException("Cannot deactivate the last active admin user");
-            }
+            requireAnotherActiveAdmin("Cannot deactivate the last active admin user");
         }
         
         user.setActive(!user.isActive());
@@ -157,6 +149,17 @@ public class UserService {
         return toDTO(saved);
     }
 
+    /**
+     * Counts active admins through the partial index, holding a transaction-scoped lock
+     * so two concurrent changes cannot each see the other admin and remove both.
+     */
+    private void requireAnotherActiveAdmin(String message) {
+        userRepository.lockAdminChanges(ADMIN_LOCK_KEY);
+        if (userRepository.countActiveByRole(UserRole.ADMIN) <= 1) {
+            throw new RuntimeException(message);
+        }
+    }
+
     private UserDTO toDTO(User user) {
         UserDTO dto = new UserDTO();
         dto.setId(user.getId());
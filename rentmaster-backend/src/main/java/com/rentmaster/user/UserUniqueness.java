@@ -0,0 +1,58 @@
+package com.rentmaster.user;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Writes users against the case-insensitive username and email indexes. Every path that
+ * can change either field goes through here: user administration and the own-profile edit.
+ */
+@Component
+public class UserUniqueness {
+
+    private static final Set<String> USERNAME_CONSTRAINTS = Set.of("ux_users_username_lower", "users_username_key");
+    private static final String EMAIL_CONSTRAINT = "ux_users_email_lower";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Blank emails mean "none"; the unique email index only covers non-null values
+    public static String normalizeEmail(String email) {
+        if (email == null || email.isBlank()) {
+            return null;
+        }
+        return email.trim();
+    }
+
+    /**
+     * Saves and flushes the user. The unique indexes decide between concurrent requests that
+     * both passed the existence checks; any other integrity violation is rethrown unchanged.
+     */
+    public User saveUnique(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            String constraint = constraintName(e);
+            if (constraint != null && USERNAME_CONSTRAINTS.contains(constraint)) {
+                throw new RuntimeException("Username already exists");
+            }
+            if (EMAIL_CONSTRAINT.equals(constraint)) {
+                throw new RuntimeException("Email already exists");
+            }
+            throw e;
+        }
+    }
+
+    private static String constraintName(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getConstraintName();
+            }
+        }
+        return null;
+    }
+}
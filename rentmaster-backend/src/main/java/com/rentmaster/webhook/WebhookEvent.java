@@ -9,7 +9,8 @@ import java.util.Map;
 public class WebhookEvent {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "webhook_events_seq")
+    @SequenceGenerator(name = "webhook_events_seq", sequenceName = "webhook_events_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "configuration_id", nullable = false)
@@ -0,0 +1,46 @@
+-- Bulk Communications (mapped by BulkCommunication but never created)
+CREATE TABLE IF NOT EXISTS bulk_communications (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    recipient_type VARCHAR(50) NOT NULL,
+    template_id BIGINT,
+    subject VARCHAR(255),
+    message TEXT NOT NULL,
+    scheduled_at TIMESTAMP,
+    status VARCHAR(50) NOT NULL DEFAULT 'DRAFT',
+    total_recipients INTEGER NOT NULL DEFAULT 0,
+    sent_count INTEGER NOT NULL DEFAULT 0,
+    delivered_count INTEGER NOT NULL DEFAULT 0,
+    failed_count INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    sent_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS bulk_communication_recipients (
+    bulk_id BIGINT NOT NULL REFERENCES bulk_communications(id) ON DELETE CASCADE,
+    recipient_id BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS bulk_communication_channels (
+    bulk_id BIGINT NOT NULL REFERENCES bulk_communications(id) ON DELETE CASCADE,
+    channel VARCHAR(50) NOT NULL
+);
+
+-- Fan-out progress: last recipient id expanded into deliveries (keyset cursor)
+ALTER TABLE bulk_communications ADD COLUMN IF NOT EXISTS expansion_cursor BIGINT;
+ALTER TABLE bulk_communications ADD COLUMN IF NOT EXISTS expansion_completed BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Per-recipient deliveries are queued as PENDING communication logs
+ALTER TABLE communication_logs ADD COLUMN IF NOT EXISTS bulk_id BIGINT;
+ALTER TABLE communication_logs ADD COLUMN IF NOT EXISTS not_before TIMESTAMP;
+
+-- Indexes for performance
+CREATE INDEX IF NOT EXISTS idx_bulk_communications_status ON bulk_communications(status);
+CREATE INDEX IF NOT EXISTS idx_bulk_communication_recipients_bulk_id ON bulk_communication_recipients(bulk_id);
+CREATE INDEX IF NOT EXISTS idx_bulk_communication_channels_bulk_id ON bulk_communication_channels(bulk_id);
+CREATE INDEX IF NOT EXISTS idx_communication_logs_pending_dispatch
+    ON communication_logs(channel, id) WHERE status = 'PENDING';
+CREATE UNIQUE INDEX IF NOT EXISTS ux_communication_logs_bulk_recipient_channel
+    ON communication_logs(bulk_id, recipient_id, channel) WHERE bulk_id IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_notification_preferences_user_type
+    ON notification_preferences(user_id, notification_type);
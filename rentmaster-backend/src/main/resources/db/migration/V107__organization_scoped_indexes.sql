@@ -0,0 +1,40 @@
+-- Payments carry their invoice's organization so they can be filtered directly
+ALTER TABLE payments ADD COLUMN IF NOT EXISTS organization_id BIGINT REFERENCES organizations(id);
+
+-- Backfill organization ownership down the property -> contract -> invoice -> payment chain
+UPDATE contracts c
+SET organization_id = p.organization_id
+FROM rooms r
+JOIN properties p ON r.property_id = p.id
+WHERE c.room_id = r.id
+  AND c.organization_id IS NULL
+  AND p.organization_id IS NOT NULL;
+
+UPDATE invoices i
+SET organization_id = c.organization_id
+FROM contracts c
+WHERE i.contract_id = c.id
+  AND i.organization_id IS NULL
+  AND c.organization_id IS NOT NULL;
+
+UPDATE payments pm
+SET organization_id = i.organization_id
+FROM invoices i
+WHERE pm.invoice_id = i.id
+  AND pm.organization_id IS NULL
+  AND i.organization_id IS NOT NULL;
+
+-- Organization-leading composite indexes (supersede the single-column ones)
+CREATE INDEX IF NOT EXISTS idx_properties_org_name ON properties(organization_id, name);
+CREATE INDEX IF NOT EXISTS idx_tenants_org_full_name ON tenants(organization_id, full_name);
+CREATE INDEX IF NOT EXISTS idx_services_org_active ON services(organization_id, active);
+CREATE INDEX IF NOT EXISTS idx_contracts_org_status_end_date ON contracts(organization_id, status, end_date);
+CREATE INDEX IF NOT EXISTS idx_invoices_org_status_due_date ON invoices(organization_id, status, due_date);
+CREATE INDEX IF NOT EXISTS idx_invoices_org_issue_date ON invoices(organization_id, issue_date);
+CREATE INDEX IF NOT EXISTS idx_payments_org_paid_at ON payments(organization_id, paid_at);
+
+DROP INDEX IF EXISTS idx_properties_organization_id;
+DROP INDEX IF EXISTS idx_tenants_organization_id;
+DROP INDEX IF EXISTS idx_services_organization_id;
+DROP INDEX IF EXISTS idx_contracts_organization_id;
+DROP INDEX IF EXISTS idx_invoices_organization_id;
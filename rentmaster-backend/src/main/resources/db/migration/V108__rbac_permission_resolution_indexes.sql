@@ -0,0 +1,7 @@
+-- Permission resolution loads a user's role assignments per organization
+CREATE INDEX IF NOT EXISTS idx_user_roles_user_org_active
+    ON user_roles(user_id, organization_id) WHERE is_active = TRUE;
+
+-- Catalog snapshot loads only active grants
+CREATE INDEX IF NOT EXISTS idx_role_permissions_active
+    ON role_permissions(role_id, permission_id) WHERE is_active = TRUE;
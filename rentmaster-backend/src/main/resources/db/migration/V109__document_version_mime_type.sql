@@ -0,0 +1,9 @@
+-- Content type recorded at upload so version downloads need not sniff the file
+ALTER TABLE document_versions ADD COLUMN IF NOT EXISTS mime_type VARCHAR(255);
+
+UPDATE document_versions v
+SET mime_type = d.mime_type
+FROM documents d
+WHERE v.document_id = d.id
+  AND v.file_path = d.file_path
+  AND v.mime_type IS NULL;
@@ -0,0 +1,16 @@
+-- Content-addressed upload storage: one row per distinct SHA-256, counting the rows that refer to it
+CREATE TABLE IF NOT EXISTS blobs (
+    hash VARCHAR(64) PRIMARY KEY,
+    size BIGINT NOT NULL,
+    content_type VARCHAR(255),
+    ref_count INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    released_at TIMESTAMP
+);
+
+-- The sweep only ever looks at unreferenced blobs
+CREATE INDEX IF NOT EXISTS idx_blobs_released ON blobs (released_at) WHERE ref_count = 0;
+
+-- Null for files stored before the blob store, which keep their own file_path
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS blob_hash VARCHAR(64);
+ALTER TABLE document_versions ADD COLUMN IF NOT EXISTS blob_hash VARCHAR(64);
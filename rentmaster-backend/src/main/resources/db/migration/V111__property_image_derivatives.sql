@@ -0,0 +1,10 @@
+-- Resized JPEG renditions of property images, generated asynchronously after upload
+ALTER TABLE property_images ADD COLUMN IF NOT EXISTS thumbnail_path VARCHAR(255);
+ALTER TABLE property_images ADD COLUMN IF NOT EXISTS medium_path VARCHAR(255);
+ALTER TABLE property_images ADD COLUMN IF NOT EXISTS large_path VARCHAR(255);
+ALTER TABLE property_images ADD COLUMN IF NOT EXISTS derivatives_status VARCHAR(20);
+
+-- Existing images are left NULL and backfilled by the derivative sweep
+CREATE INDEX IF NOT EXISTS idx_property_images_derivatives_pending
+    ON property_images (id)
+    WHERE derivatives_status IS NULL OR derivatives_status = 'PENDING';
@@ -0,0 +1,31 @@
+-- Materialized id path per folder ('/1/5/12/'), so a subtree is one index range scan.
+-- "C" collation makes '/' sort directly before the digits, which the range bounds rely on.
+ALTER TABLE document_folders ADD COLUMN IF NOT EXISTS tree_path VARCHAR(1000) COLLATE "C";
+
+-- Rebuild id paths and display paths from the parent links; renames used to leave descendants stale
+WITH RECURSIVE tree AS (
+    SELECT id,
+           '/' || id || '/' AS tree_path,
+           '/' || name || '/' AS display_path
+    FROM document_folders
+    WHERE parent_folder_id IS NULL
+       OR parent_folder_id NOT IN (SELECT id FROM document_folders)
+    UNION ALL
+    SELECT f.id,
+           t.tree_path || f.id || '/',
+           t.display_path || f.name || '/'
+    FROM document_folders f
+    JOIN tree t ON f.parent_folder_id = t.id
+)
+UPDATE document_folders f
+SET tree_path = tree.tree_path,
+    path = tree.display_path
+FROM tree
+WHERE f.id = tree.id;
+
+-- Counters are maintained incrementally from here on; start them from the real counts
+UPDATE document_folders f
+SET document_count = (SELECT COUNT(*) FROM documents d WHERE d.folder_id = f.id),
+    subfolder_count = (SELECT COUNT(*) FROM document_folders c WHERE c.parent_folder_id = f.id);
+
+CREATE INDEX IF NOT EXISTS idx_document_folders_tree_path ON document_folders (tree_path);
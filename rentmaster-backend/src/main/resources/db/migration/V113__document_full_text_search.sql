@@ -0,0 +1,24 @@
+-- Full-text and fuzzy name search for documents
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Text extracted from the stored file (truncated), and when that last ran; NULL means pending
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS content_text TEXT;
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS content_indexed_at TIMESTAMP;
+
+-- Weighted: name A, tags B, description and file name C, file content D.
+-- 'simple' keeps tokens unstemmed, as documents and queries come in several languages.
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS search_vector TSVECTOR;
+
+UPDATE documents d
+SET search_vector =
+    setweight(to_tsvector('simple', coalesce(d.name, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce((SELECT string_agg(t.tag, ' ') FROM document_tags t
+                                              WHERE t.document_id = d.id), '')), 'B') ||
+    setweight(to_tsvector('simple', coalesce(d.description, '') || ' ' || coalesce(d.original_file_name, '')), 'C') ||
+    setweight(to_tsvector('simple', coalesce(d.content_text, '')), 'D');
+
+CREATE INDEX IF NOT EXISTS idx_documents_search_vector ON documents USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_documents_name_trgm ON documents USING GIN (lower(name) gin_trgm_ops);
+
+-- Drives the extraction backfill
+CREATE INDEX IF NOT EXISTS idx_documents_content_pending ON documents (id) WHERE content_indexed_at IS NULL;
@@ -0,0 +1,15 @@
+-- Write-heavy entities take their ids from the serial sequences in blocks of 50 (Hibernate's pooled
+-- optimizer), so inserts no longer need a round trip each to learn the generated key and can be batched.
+-- Each nextval is the top of a block the application owns; plain INSERTs relying on the column default
+-- still draw from the same sequence and never land inside a block.
+ALTER SEQUENCE invoices_id_seq INCREMENT BY 50;
+ALTER SEQUENCE invoice_items_id_seq INCREMENT BY 50;
+ALTER SEQUENCE payments_id_seq INCREMENT BY 50;
+ALTER SEQUENCE notifications_id_seq INCREMENT BY 50;
+ALTER SEQUENCE communication_logs_id_seq INCREMENT BY 50;
+ALTER SEQUENCE webhook_events_id_seq INCREMENT BY 50;
+ALTER SEQUENCE search_analytics_id_seq INCREMENT BY 50;
+ALTER SEQUENCE mobile_analytics_id_seq INCREMENT BY 50;
+ALTER SEQUENCE login_attempts_id_seq INCREMENT BY 50;
+ALTER SEQUENCE offline_actions_id_seq INCREMENT BY 50;
+ALTER SEQUENCE translations_id_seq INCREMENT BY 50;
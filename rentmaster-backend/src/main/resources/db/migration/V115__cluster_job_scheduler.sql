@@ -0,0 +1,39 @@
+-- Cluster-wide scheduled jobs: one node holds the planner lease and plans runs; every node executes them
+
+-- Named leases; the row is held by owner until lease_until
+CREATE TABLE IF NOT EXISTS job_leases (
+    name VARCHAR(100) PRIMARY KEY,
+    owner VARCHAR(255) NOT NULL,
+    lease_until TIMESTAMPTZ NOT NULL
+);
+
+-- Last fire time the planner has created runs for, per job; missed fire times after it are caught up
+CREATE TABLE IF NOT EXISTS job_schedules (
+    job_name VARCHAR(100) PRIMARY KEY,
+    last_planned_for TIMESTAMP NOT NULL
+);
+
+-- One row per job, fire time and shard. The unique key makes planning idempotent, and a row is
+-- claimed by exactly one node at a time; a claim whose lease expires is picked up by another node.
+CREATE TABLE IF NOT EXISTS job_runs (
+    id BIGSERIAL PRIMARY KEY,
+    job_name VARCHAR(100) NOT NULL,
+    scheduled_for TIMESTAMP NOT NULL,
+    shard INTEGER NOT NULL,
+    shard_count INTEGER NOT NULL,
+    status VARCHAR(20) NOT NULL,          -- PENDING, RUNNING, SUCCEEDED, FAILED
+    node_id VARCHAR(255),
+    attempts INTEGER NOT NULL DEFAULT 0,
+    lease_until TIMESTAMPTZ,
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    duration_ms BIGINT,
+    items_processed INTEGER,
+    items_failed INTEGER,
+    error TEXT,
+    CONSTRAINT uk_job_runs_slot UNIQUE (job_name, scheduled_for, shard)
+);
+
+CREATE INDEX IF NOT EXISTS idx_job_runs_claimable ON job_runs (scheduled_for, shard) WHERE status IN ('PENDING', 'RUNNING');
+CREATE INDEX IF NOT EXISTS idx_job_runs_job_finished ON job_runs (job_name, finished_at DESC);
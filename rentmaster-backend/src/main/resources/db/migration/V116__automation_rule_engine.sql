@@ -0,0 +1,20 @@
+-- Automation rules, evaluated by the in-memory rule engine on domain events
+CREATE TABLE IF NOT EXISTS automation_rules (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    description TEXT,
+    trigger_type VARCHAR(255) NOT NULL,
+    trigger_conditions TEXT,
+    actions TEXT,
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    last_executed TIMESTAMP,
+    execution_count INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    created_by BIGINT
+);
+
+-- NULL: the rule applies to events of every organization
+ALTER TABLE automation_rules ADD COLUMN IF NOT EXISTS organization_id BIGINT REFERENCES organizations(id);
+
+CREATE INDEX IF NOT EXISTS idx_automation_rules_trigger ON automation_rules (trigger_type, organization_id) WHERE active = TRUE;
@@ -0,0 +1,49 @@
+-- Precomputed tenant features and scores, refreshed by the nightly tenant-scoring job
+-- and incrementally when a tenant's payments, invoices or maintenance requests change.
+CREATE TABLE tenant_scores (
+    tenant_id BIGINT PRIMARY KEY REFERENCES tenants(id) ON DELETE CASCADE,
+    organization_id BIGINT REFERENCES organizations(id),
+
+    -- Payment behaviour over invoices already due
+    invoice_count INTEGER NOT NULL DEFAULT 0,
+    on_time_count INTEGER NOT NULL DEFAULT 0,
+    late_count INTEGER NOT NULL DEFAULT 0,
+    avg_days_late DOUBLE PRECISION NOT NULL DEFAULT 0,
+    unpaid_count INTEGER NOT NULL DEFAULT 0,
+    outstanding_amount NUMERIC(15, 2) NOT NULL DEFAULT 0,
+    max_days_overdue INTEGER NOT NULL DEFAULT 0,
+    recent_on_time_rate DOUBLE PRECISION,
+    prior_on_time_rate DOUBLE PRECISION,
+
+    -- Lease
+    active_contracts INTEGER NOT NULL DEFAULT 0,
+    tenure_months INTEGER NOT NULL DEFAULT 0,
+    months_remaining INTEGER,
+
+    -- Feedback and maintenance
+    feedback_count INTEGER NOT NULL DEFAULT 0,
+    avg_rating DOUBLE PRECISION,
+    recent_rating DOUBLE PRECISION,
+    complaint_count INTEGER NOT NULL DEFAULT 0,
+    open_feedback_count INTEGER NOT NULL DEFAULT 0,
+    maintenance_count INTEGER NOT NULL DEFAULT 0,
+    urgent_maintenance_count INTEGER NOT NULL DEFAULT 0,
+    avg_resolution_days DOUBLE PRECISION,
+
+    -- Scores
+    payment_score DOUBLE PRECISION NOT NULL,
+    risk_score DOUBLE PRECISION NOT NULL,
+    risk_level VARCHAR(10) NOT NULL,
+    satisfaction_score DOUBLE PRECISION NOT NULL,
+    retention_probability DOUBLE PRECISION NOT NULL,
+
+    computed_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_tenant_scores_org_risk ON tenant_scores(organization_id, risk_score DESC);
+
+-- Feature queries look tenants up through these
+CREATE INDEX IF NOT EXISTS idx_contracts_primary_tenant ON contracts(primary_tenant_id);
+CREATE INDEX IF NOT EXISTS idx_contract_tenants_tenant ON contract_tenants(tenant_id);
+CREATE INDEX IF NOT EXISTS idx_invoices_contract ON invoices(contract_id);
+CREATE INDEX IF NOT EXISTS idx_payments_invoice ON payments(invoice_id);
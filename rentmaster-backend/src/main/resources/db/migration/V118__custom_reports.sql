@@ -0,0 +1,20 @@
+-- Saved custom report definitions; the definition is the normalized JSON the report engine compiles
+CREATE TABLE IF NOT EXISTS custom_reports (
+    id BIGSERIAL PRIMARY KEY,
+    organization_id BIGINT REFERENCES organizations(id),
+    name VARCHAR(255) NOT NULL,
+    description TEXT,
+    definition TEXT NOT NULL,
+    definition_hash VARCHAR(64) NOT NULL,
+    created_by BIGINT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    last_executed TIMESTAMP,
+    execution_count INTEGER NOT NULL DEFAULT 0
+);
+
+CREATE INDEX IF NOT EXISTS idx_custom_reports_org_created ON custom_reports (organization_id, created_at DESC);
+
+-- Report sources are always bounded by organization and date; these back the sources without such an index
+CREATE INDEX IF NOT EXISTS idx_maintenance_requests_created_at ON maintenance_requests (created_at);
+CREATE INDEX IF NOT EXISTS idx_contracts_org_start_date ON contracts (organization_id, start_date);
@@ -0,0 +1,22 @@
+-- Usernames and emails identify an account regardless of case; blank emails mean "none"
+UPDATE users SET email = NULL WHERE btrim(email) = '';
+
+DO $$
+DECLARE
+    duplicates TEXT;
+BEGIN
+    SELECT string_agg(key, ', ') INTO duplicates FROM (
+        SELECT 'username ' || lower(username) AS key FROM users GROUP BY lower(username) HAVING COUNT(*) > 1
+        UNION ALL
+        SELECT 'email ' || lower(email) FROM users WHERE email IS NOT NULL GROUP BY lower(email) HAVING COUNT(*) > 1
+    ) d;
+    IF duplicates IS NOT NULL THEN
+        RAISE EXCEPTION 'Users differing only by case must be merged or renamed first: %', duplicates;
+    END IF;
+END $$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_username_lower ON users (lower(username));
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_email_lower ON users (lower(email)) WHERE email IS NOT NULL;
+
+-- Last-active-admin checks count only these rows
+CREATE INDEX IF NOT EXISTS idx_users_active_role ON users (role) WHERE active;
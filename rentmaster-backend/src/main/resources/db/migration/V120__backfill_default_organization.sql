@@ -0,0 +1,42 @@
+-- Rows created before organizations existed have no owner and are hidden by the organization filter.
+-- They belong to the default organization (ORG001, or the oldest one when it is absent).
+
+-- Tenants on a contract take the contract's organization
+UPDATE tenants t
+SET organization_id = c.organization_id
+FROM contracts c
+WHERE c.primary_tenant_id = t.id
+  AND t.organization_id IS NULL
+  AND c.organization_id IS NOT NULL;
+
+UPDATE properties
+SET organization_id = COALESCE((SELECT id FROM organizations WHERE code = 'ORG001'), (SELECT MIN(id) FROM organizations))
+WHERE organization_id IS NULL;
+
+UPDATE tenants
+SET organization_id = COALESCE((SELECT id FROM organizations WHERE code = 'ORG001'), (SELECT MIN(id) FROM organizations))
+WHERE organization_id IS NULL;
+
+UPDATE services
+SET organization_id = COALESCE((SELECT id FROM organizations WHERE code = 'ORG001'), (SELECT MIN(id) FROM organizations))
+WHERE organization_id IS NULL;
+
+-- Carry the new owners down the property -> contract -> invoice -> payment chain
+UPDATE contracts c
+SET organization_id = p.organization_id
+FROM rooms r
+JOIN properties p ON r.property_id = p.id
+WHERE c.room_id = r.id
+  AND c.organization_id IS NULL;
+
+UPDATE invoices i
+SET organization_id = c.organization_id
+FROM contracts c
+WHERE i.contract_id = c.id
+  AND i.organization_id IS NULL;
+
+UPDATE payments pm
+SET organization_id = i.organization_id
+FROM invoices i
+WHERE pm.invoice_id = i.id
+  AND pm.organization_id IS NULL;
@@ -0,0 +1,6 @@
+-- /api/files only serves blobs published as property media; these back that lookup
+CREATE INDEX IF NOT EXISTS idx_property_images_file_path ON property_images (file_path);
+CREATE INDEX IF NOT EXISTS idx_property_images_thumbnail_path ON property_images (thumbnail_path) WHERE thumbnail_path IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_property_images_medium_path ON property_images (medium_path) WHERE medium_path IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_property_images_large_path ON property_images (large_path) WHERE large_path IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_floor_plans_file_path ON floor_plans (file_path);
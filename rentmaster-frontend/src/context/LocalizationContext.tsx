@@ -109,26 +109,20 @@ export const LocalizationProvider: React.FC<LocalizationProviderProps> = ({ chil
 
   const loadAllTranslations = async (languageCode: string): Promise<Record<string, string>> => {
     try {
-      // Load translations from all categories
-      const categories = ['common', 'navigation', 'dashboard', 'properties', 'tenants', 'contracts', 'invoices', 'messages', 'status'];
-      const translationPromises = categories.map(category => 
-        localizationApi.getTranslations(languageCode, category)
-      );
-      
-      const categoryTranslations = await Promise.all(translationPromises);
+      // One request for every category of the language
+      const bundle = await localizationApi.getTranslationBundle(languageCode);
+      const categoryTranslations: Record<string, Record<string, string>> = bundle.translations || {};
       
       // Flatten all translations into a single object
       const allTranslations: Record<string, string> = {};
       
-      categoryTranslations.forEach((translations, index) => {
-        const category = categories[index];
-        translations.forEach((translation: any) => {
+      Object.entries(categoryTranslations).forEach(([category, translations]) => {
+        Object.entries(translations).forEach(([key, value]) => {
           // Use category.key format for namespacing
-          const key = `${category}.${translation.key}`;
-          allTranslations[key] = translation.value;
+          allTranslations[`${category}.${key}`] = value;
           
           // Also add without category prefix for backward compatibility
-          allTranslations[translation.key] = translation.value;
+          allTranslations[key] = value;
         });
       });
       
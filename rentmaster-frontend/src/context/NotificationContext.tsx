@@ -25,8 +25,21 @@ export const NotificationProvider: React.FC<{ children: ReactNode }> = ({ childr
 
   useEffect(() => {
     loadInitialData();
-    
-    // Set up polling for new notifications every 30 seconds
+
+    // Prefer the server-push stream; fall back to polling every 30 seconds
+    const stream = notificationApi.openStream();
+    if (stream) {
+      stream.addEventListener('unread', (event) => {
+        const counts = JSON.parse((event as MessageEvent).data);
+        setUnreadCount(counts.notifications);
+      });
+      stream.addEventListener('notification', (event) => {
+        const notification = JSON.parse((event as MessageEvent).data);
+        setNotifications(prev => [{ ...notification, read: false }, ...prev]);
+      });
+      return () => stream.close();
+    }
+
     const interval = setInterval(() => {
       refreshUnreadCount();
     }, 30000);
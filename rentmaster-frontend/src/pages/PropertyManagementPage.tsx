@@ -189,14 +189,9 @@ export const PropertyManagementPage: React.FC = () => {
       const imagesData = await propertyManagementApi.getImages(selectedProperty);
       // Map API response to component interface
       const mappedImages: PropertyImage[] = imagesData.map(img => {
-        let imageUrl = img.filePath;
-        // If it's not already a full URL, construct it
-        if (!imageUrl.startsWith('http')) {
-          const apiBaseUrl = (import.meta as any).env?.VITE_API_BASE_URL || 'http://localhost:8080';
-          imageUrl = imageUrl.startsWith('/') 
-            ? `${apiBaseUrl}${imageUrl}`
-            : `${apiBaseUrl}/api/files/${imageUrl}`;
-        }
+        // Gallery tiles use the medium rendition rather than the full-resolution upload
+        const apiBaseUrl = (import.meta as any).env?.VITE_API_BASE_URL || 'http://localhost:8080';
+        const imageUrl = `${apiBaseUrl}/api/files/images/${img.id}?size=medium`;
         return {
           id: img.id,
           propertyId: selectedProperty,
@@ -38,6 +38,15 @@ export const localizationApi = {
     return response.data;
   },
 
+  // Whole-language bundle; the browser revalidates it with the server ETag
+  getTranslationBundle: async (languageCode: string, category?: string) => {
+    const params: any = {};
+    if (category) params.category = category;
+
+    const response = await apiClient.get(`/localization/bundles/${languageCode}`, { params });
+    return response.data;
+  },
+
   exportTranslations: async (languageCode: string, format: string = 'JSON') => {
     const response = await apiClient.get('/localization/translations/export', {
       params: { languageCode, format },
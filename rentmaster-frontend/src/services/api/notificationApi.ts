@@ -70,4 +70,12 @@ export const notificationApi = {
   testNotification: async (type: string): Promise<void> => {
     await apiClient.post('/notifications/test', { type });
   },
-};
\ No newline at end of file
+
+  // Open the server-push stream ("notification", "message" and "unread" events)
+  openStream: (): EventSource | null => {
+    const token = localStorage.getItem('token');
+    if (!token || typeof EventSource === 'undefined') return null;
+    const baseUrl = apiClient.defaults.baseURL || '';
+    return new EventSource(`${baseUrl}/notifications/stream?access_token=${encodeURIComponent(token)}`);
+  },
+};